@@ -0,0 +1,41 @@
+package com.selimhorri.app.cache;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A fully buffered downstream response, stored by {@link ResponseCache}.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class CachedResponse {
+	
+	private final HttpStatus status;
+	private final HttpHeaders headers;
+	private final byte[] body;
+	private final String eTag;
+	private final long createdAtMillis;
+	private final Duration timeToLive;
+	
+	public long ageSeconds() {
+		return Math.max(0, (System.currentTimeMillis() - this.createdAtMillis) / 1000);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,115 @@
+package com.selimhorri.app.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded in-memory store behind the ResponseCache gateway filter.
+ * Entries are weighed by body size (app.response-cache.max-size-bytes in total) and expire individually
+ * after the time to live chosen when they were stored.
+ *
+ * Keys start with the route id followed by a space, so all entries of a route can be evicted at once.
+ * Routes serving the same resources under different paths join one eviction group and are evicted together.
+ * Size, hit, miss and eviction counts are exported as "cache.*" metrics with tag cache=gatewayResponses.
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+	
+	public static final String CACHE_NAME = "gatewayResponses";
+	
+	private final Cache<String, CachedResponse> cache;
+	private final Map<String, Set<String>> routeIdsByGroup = new ConcurrentHashMap<>();
+	
+	public ResponseCache(
+			@Value("${app.response-cache.max-size-bytes:67108864}") final long maxSizeBytes,
+			final MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxSizeBytes)
+				.weigher((final String key, final CachedResponse response) -> key.length() + response.getBody().length)
+				.expireAfter(new TimeToLiveExpiry())
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+	}
+	
+	public static String key(final String routeId, final String rest) {
+		return routeId + " " + rest;
+	}
+	
+	public CachedResponse get(final String key) {
+		return this.cache.getIfPresent(key);
+	}
+	
+	public void put(final String key, final CachedResponse response) {
+		this.cache.put(key, response);
+	}
+	
+	public void evictRoute(final String routeId) {
+		log.info("** ResponseCache, evict entries of route: {} *\n", routeId);
+		this.cache.asMap().keySet().removeIf(key -> key.startsWith(routeId + " "));
+	}
+	
+	public void join(final String group, final String routeId) {
+		this.routeIdsByGroup.computeIfAbsent(group, g -> ConcurrentHashMap.newKeySet()).add(routeId);
+	}
+	
+	public void evictGroup(final String group) {
+		final Set<String> routeIds = this.routeIdsByGroup.getOrDefault(group, Set.of());
+		log.info("** ResponseCache, evict entries of group: {}, routes: {} *\n", group, routeIds);
+		this.cache.asMap().keySet().removeIf(key -> routeIds.contains(key.substring(0, key.indexOf(' '))));
+	}
+	
+	public void evictAll() {
+		log.info("** ResponseCache, evict all entries *\n");
+		this.cache.invalidateAll();
+	}
+	
+	public long size() {
+		return this.cache.estimatedSize();
+	}
+	
+	private static final class TimeToLiveExpiry implements Expiry<String, CachedResponse> {
+		
+		@Override
+		public long expireAfterCreate(final String key, final CachedResponse response, final long currentTime) {
+			return response.getTimeToLive().toNanos();
+		}
+		
+		@Override
+		public long expireAfterUpdate(final String key, final CachedResponse response, final long currentTime, final long currentDuration) {
+			return response.getTimeToLive().toNanos();
+		}
+		
+		@Override
+		public long expireAfterRead(final String key, final CachedResponse response, final long currentTime, final long currentDuration) {
+			return currentDuration;
+		}
+	
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,53 @@
+package com.selimhorri.app.cache;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Admin hook on /actuator/responsecache to drop cached responses before their time to live,
+ * e.g. after the catalog was changed directly in product-service.
+ * Not exposed over HTTP by default: the gateway does not authenticate actuator calls, so it is meant to be
+ * exposed on a management port that is not routed to clients (management.server.port) or used over JMX.
+ */
+@Component
+@Endpoint(id = "responsecache")
+@RequiredArgsConstructor
+public class ResponseCacheEndpoint {
+	
+	private final ResponseCache responseCache;
+	
+	@ReadOperation
+	public Map<String, Object> size() {
+		return Map.of("cache", ResponseCache.CACHE_NAME, "size", this.responseCache.size());
+	}
+	
+	@DeleteOperation
+	public void evictRoute(@Selector final String routeId) {
+		this.responseCache.evictRoute(routeId);
+	}
+	
+	@DeleteOperation
+	public void evictAll() {
+		this.responseCache.evictAll();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,182 @@
+package com.selimhorri.app.config.filter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.selimhorri.app.jwt.JwtVerifier;
+import com.selimhorri.app.jwt.TokenDenyList;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifies bearer tokens at the edge, before any route is resolved to a downstream service.
+ * <ul>
+ * <li>a present but invalid, expired or revoked token is rejected with 401, whatever the route;
+ * revocations come from the proxy-client deny list, see {@link TokenDenyList}</li>
+ * <li>a missing token is rejected on app.security.jwt.protected-paths (the direct service routes),
+ * except for GET/HEAD on app.security.jwt.public-read-paths (the catalog);
+ * other routes (proxy-client) keep applying their own rules</li>
+ * <li>a verified token is forwarded together with the identity it carries in the
+ * {@value #USERNAME_HEADER} and {@value #AUTHORITIES_HEADER} headers</li>
+ * </ul>
+ * Identity headers sent by clients are always stripped so they can only originate from this filter.
+ * Outcomes are counted as "gateway.jwt.requests" tagged by outcome=verified|anonymous|rejected.
+ */
+@Component
+@Slf4j
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+	
+	public static final String USERNAME_HEADER = "X-Auth-Username";
+	public static final String AUTHORITIES_HEADER = "X-Auth-Authorities";
+	public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+	
+	private static final String BEARER_PREFIX = "Bearer ";
+	private static final String AUTHORITIES_CLAIM = "authorities";
+	
+	private final JwtVerifier jwtVerifier;
+	private final TokenDenyList tokenDenyList;
+	private final MeterRegistry meterRegistry;
+	private final List<PathPattern> protectedPaths;
+	private final List<PathPattern> publicPaths;
+	private final List<PathPattern> publicReadPaths;
+	
+	public JwtAuthenticationFilter(
+			final JwtVerifier jwtVerifier,
+			final TokenDenyList tokenDenyList,
+			final MeterRegistry meterRegistry,
+			@Value("${app.security.jwt.protected-paths:}") final String[] protectedPaths,
+			@Value("${app.security.jwt.public-paths:}") final String[] publicPaths,
+			@Value("${app.security.jwt.public-read-paths:}") final String[] publicReadPaths) {
+		this.jwtVerifier = jwtVerifier;
+		this.tokenDenyList = tokenDenyList;
+		this.meterRegistry = meterRegistry;
+		this.protectedPaths = parse(protectedPaths);
+		this.publicPaths = parse(publicPaths);
+		this.publicReadPaths = parse(publicReadPaths);
+	}
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		
+		final ServerHttpRequest request = exchange.getRequest();
+		final PathContainer path = request.getPath().pathWithinApplication();
+		final String authorizationHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		
+		if (HttpMethod.OPTIONS.equals(request.getMethod()) || matches(this.publicPaths, path)) {
+			return chain.filter(this.withoutIdentity(exchange));
+		}
+		
+		if (authorizationHeader == null || !authorizationHeader.startsWith(BEARER_PREFIX)) {
+			if (matches(this.protectedPaths, path) && !(isRead(request.getMethod()) && matches(this.publicReadPaths, path))) {
+				return this.reject(exchange, "Bearer");
+			}
+			this.count("anonymous");
+			return chain.filter(this.withoutIdentity(exchange));
+		}
+		
+		final Claims claims;
+		try {
+			claims = this.jwtVerifier.verify(authorizationHeader.substring(BEARER_PREFIX.length()));
+		}
+		catch (JwtException | IllegalArgumentException e) {
+			log.warn("** JwtAuthenticationFilter, rejected token on {}: {} *\n", path.value(), e.getMessage());
+			return this.reject(exchange, "Bearer error=\"invalid_token\"");
+		}
+		
+		if (this.tokenDenyList.isDenied(claims)) {
+			log.warn("** JwtAuthenticationFilter, rejected revoked token of {} on {} *\n", claims.getSubject(), path.value());
+			return this.reject(exchange, "Bearer error=\"invalid_token\"");
+		}
+		
+		this.count("verified");
+		return chain.filter(exchange.mutate()
+				.request(builder -> builder.headers(headers -> {
+					headers.set(USERNAME_HEADER, claims.getSubject());
+					headers.remove(AUTHORITIES_HEADER);
+					if (claims.get(AUTHORITIES_CLAIM) instanceof Collection) {
+						headers.set(AUTHORITIES_HEADER, ((Collection<?>) claims.get(AUTHORITIES_CLAIM)).stream()
+								.map(String::valueOf)
+								.collect(Collectors.joining(",")));
+					}
+				}))
+				.build());
+	}
+	
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+	
+	private ServerWebExchange withoutIdentity(final ServerWebExchange exchange) {
+		final HttpHeaders headers = exchange.getRequest().getHeaders();
+		if (!headers.containsKey(USERNAME_HEADER) && !headers.containsKey(AUTHORITIES_HEADER)) {
+			return exchange;
+		}
+		return exchange.mutate()
+				.request(builder -> builder.headers(mutable -> {
+					mutable.remove(USERNAME_HEADER);
+					mutable.remove(AUTHORITIES_HEADER);
+				}))
+				.build();
+	}
+	
+	private Mono<Void> reject(final ServerWebExchange exchange, final String challenge) {
+		this.count("rejected");
+		exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+		exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, challenge);
+		return exchange.getResponse().setComplete();
+	}
+	
+	private void count(final String outcome) {
+		this.meterRegistry.counter("gateway.jwt.requests", "outcome", outcome).increment();
+	}
+	
+	private static boolean isRead(final HttpMethod method) {
+		return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method);
+	}
+	
+	private static boolean matches(final List<PathPattern> patterns, final PathContainer path) {
+		return patterns.stream().anyMatch(pattern -> pattern.matches(path));
+	}
+	
+	private static List<PathPattern> parse(final String[] patterns) {
+		return Arrays.stream(patterns)
+				.map(String::trim)
+				.filter(pattern -> !pattern.isEmpty())
+				.map(PathPatternParser.defaultInstance::parse)
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
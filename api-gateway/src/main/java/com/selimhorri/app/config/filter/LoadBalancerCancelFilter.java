@@ -0,0 +1,59 @@
+package com.selimhorri.app.config.filter;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.selimhorri.app.config.loadbalancer.InstanceStats;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Wraps the load balancer client filter so that exchanges cancelled after an instance was chosen
+ * (client gone, response timeout) stop counting as outstanding on that instance:
+ * ReactiveLoadBalancerClientFilter only completes the load balancer lifecycle on success or error.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoadBalancerCancelFilter implements GlobalFilter, Ordered {
+	
+	public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+	
+	private final InstanceStats instanceStats;
+	
+	@Override
+	public Mono<Void> filter(final ServerWebExchange exchange, final GatewayFilterChain chain) {
+		return chain.filter(exchange).doFinally(signal -> {
+			if (signal == SignalType.CANCEL) {
+				final Response<ServiceInstance> lbResponse = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+				this.instanceStats.onCancel(lbResponse);
+			}
+		});
+	}
+	
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
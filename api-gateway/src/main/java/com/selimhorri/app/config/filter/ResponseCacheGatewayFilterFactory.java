@@ -0,0 +1,345 @@
+package com.selimhorri.app.config.filter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.selimhorri.app.cache.CachedResponse;
+import com.selimhorri.app.cache.ResponseCache;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves anonymous GETs of a route from {@link ResponseCache}:
+ * <pre>
+ * filters:
+ * - name: ResponseCache
+ *   args:
+ *     time-to-live: 30s
+ *     paths: /product-service/api/products/**,/product-service/api/categories/**
+ *     group: catalog
+ * </pre>
+ * <ul>
+ * <li>requests carrying Authorization, or outside the configured paths, are never served from or stored in the cache</li>
+ * <li>entries are keyed by route, path, query and the values of key-headers (Accept, Accept-Encoding, Accept-Language)</li>
+ * <li>only 200 responses without Set-Cookie, no-store, no-cache or private are stored, for time-to-live
+ * or the downstream max-age / s-maxage if shorter</li>
+ * <li>request Cache-Control no-store bypasses the cache, no-cache or max-age=0 forces a refresh</li>
+ * <li>stored responses get an ETag (downstream one or body digest) and If-None-Match is answered with 304,
+ * on a miss the conditional headers are stripped so downstream returns a body worth storing</li>
+ * <li>a successful write (POST, PUT, PATCH, DELETE) to the configured paths evicts all entries of the routes
+ * in the same group (the route alone by default), unless it matches ignored-writes</li>
+ * </ul>
+ * Writes that reach the services without passing through a caching route are only seen once entries expire.
+ * Responses carry X-Cache: HIT|MISS, hits also Age.
+ */
+@Component
+@Slf4j
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+	
+	public static final String CACHE_STATUS_HEADER = "X-Cache";
+	
+	private static final Set<String> UNCACHED_HEADERS = Set.of("connection", "keep-alive", "transfer-encoding",
+			"content-length", "set-cookie", "age", CACHE_STATUS_HEADER.toLowerCase(Locale.ROOT));
+	private static final Pattern MAX_AGE = Pattern.compile("(s-maxage|max-age)\\s*=\\s*(\\d+)");
+	
+	private final ResponseCache responseCache;
+	private final long maxEntrySizeBytes;
+	
+	public ResponseCacheGatewayFilterFactory(
+			final ResponseCache responseCache,
+			@Value("${app.response-cache.max-entry-size-bytes:1048576}") final long maxEntrySizeBytes) {
+		super(Config.class);
+		this.responseCache = responseCache;
+		this.maxEntrySizeBytes = maxEntrySizeBytes;
+	}
+	
+	@Override
+	public GatewayFilter apply(final Config config) {
+		final List<PathPattern> paths = parse(config.getPaths());
+		final List<PathPattern> ignoredWrites = parse(config.getIgnoredWrites());
+		
+		return (exchange, chain) -> {
+			
+			final ServerHttpRequest request = exchange.getRequest();
+			final String routeId = routeId(exchange);
+			final String group = (config.getGroup() != null) ? config.getGroup() : routeId;
+			this.responseCache.join(group, routeId);
+			
+			if (isWrite(request.getMethod())) {
+				if (!matches(paths, request, true) || matches(ignoredWrites, request, false)) {
+					return chain.filter(exchange);
+				}
+				return chain.filter(exchange).doOnSuccess(done -> {
+					final HttpStatus status = exchange.getResponse().getStatusCode();
+					if (status != null && status.is2xxSuccessful()) {
+						this.responseCache.evictGroup(group);
+					}
+				});
+			}
+			
+			final String requestCacheControl = cacheControl(request.getHeaders());
+			if (!HttpMethod.GET.equals(request.getMethod())
+					|| request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+					|| requestCacheControl.contains("no-store")
+					|| !matches(paths, request, true)) {
+				return chain.filter(exchange);
+			}
+			
+			final String key = ResponseCache.key(routeId, key(request, config.getKeyHeaders()));
+			if (!requestCacheControl.contains("no-cache") && !requestCacheControl.contains("max-age=0")) {
+				final CachedResponse cached = this.responseCache.get(key);
+				if (cached != null) {
+					return this.writeCached(exchange, cached);
+				}
+			}
+			
+			return chain.filter(exchange.mutate()
+					.request(builder -> builder.headers(headers -> {
+						headers.remove(HttpHeaders.IF_NONE_MATCH);
+						headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+					}))
+					.response(new CachingResponse(exchange.getResponse(), request, key, config.getTimeToLive()))
+					.build());
+		};
+	}
+	
+	private Mono<Void> writeCached(final ServerWebExchange exchange, final CachedResponse cached) {
+		final ServerHttpResponse response = exchange.getResponse();
+		cached.getHeaders().forEach((name, values) -> {
+			if (!response.getHeaders().containsKey(name)) {
+				response.getHeaders().put(name, values);
+			}
+		});
+		response.getHeaders().set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds()));
+		response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+		if (notModified(exchange.getRequest(), cached.getETag())) {
+			response.setStatusCode(HttpStatus.NOT_MODIFIED);
+			return response.setComplete();
+		}
+		response.setStatusCode(cached.getStatus());
+		response.getHeaders().setContentLength(cached.getBody().length);
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+	}
+	
+	/**
+	 * Buffers a cacheable downstream response, stores it and writes it on to the client.
+	 * A body that turns out larger than app.response-cache.max-entry-size-bytes is not buffered any further.
+	 */
+	private final class CachingResponse extends ServerHttpResponseDecorator {
+		
+		private final ServerHttpRequest request;
+		private final String key;
+		private final Duration timeToLive;
+		
+		private CachingResponse(final ServerHttpResponse delegate, final ServerHttpRequest request, final String key, final Duration timeToLive) {
+			super(delegate);
+			this.request = request;
+			this.key = key;
+			this.timeToLive = timeToLive;
+		}
+		
+		@Override
+		public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+			final HttpHeaders headers = this.getHeaders();
+			final Duration entryTimeToLive = timeToLive(this.timeToLive, cacheControl(headers));
+			headers.set(CACHE_STATUS_HEADER, "MISS");
+			if (!HttpStatus.OK.equals(this.getStatusCode())
+					|| entryTimeToLive.isZero()
+					|| headers.containsKey(HttpHeaders.SET_COOKIE)
+					|| "*".equals(headers.getFirst(HttpHeaders.VARY))
+					|| headers.getContentLength() > maxEntrySizeBytes) {
+				return super.writeWith(body);
+			}
+			
+			// chunks are held back only until the body outgrows an entry, the rest is streamed through uncached
+			final long[] bufferedBytes = { 0L };
+			return Flux.<DataBuffer>from(body)
+					.bufferUntil(buffer -> (bufferedBytes[0] += buffer.readableByteCount()) > maxEntrySizeBytes)
+					.switchOnFirst((first, buffers) -> {
+						if (first.hasValue() && bufferedBytes[0] > maxEntrySizeBytes) {
+							return super.writeWith(buffers.flatMapIterable(Function.identity()));
+						}
+						return buffers.next()
+								.map(ResponseCacheGatewayFilterFactory::toBytes)
+								.defaultIfEmpty(new byte[0])
+								.flatMap(bytes -> this.writeCacheable(bytes, entryTimeToLive));
+					})
+					.doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+					.then();
+		}
+		
+		private Mono<Void> writeCacheable(final byte[] bytes, final Duration entryTimeToLive) {
+			final HttpHeaders headers = this.getHeaders();
+			final String eTag = headers.getETag() != null
+					? headers.getETag()
+					: "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+			headers.setETag(eTag);
+			responseCache.put(this.key, new CachedResponse(HttpStatus.OK, cacheableHeaders(headers), bytes, eTag,
+					System.currentTimeMillis(), entryTimeToLive));
+			if (notModified(this.request, eTag)) {
+				this.setStatusCode(HttpStatus.NOT_MODIFIED);
+				headers.remove(HttpHeaders.CONTENT_LENGTH);
+				return this.getDelegate().setComplete();
+			}
+			headers.setContentLength(bytes.length);
+			return super.writeWith(Mono.just(this.bufferFactory().wrap(bytes)));
+		}
+	
+	}
+	
+	private static byte[] toBytes(final List<DataBuffer> buffers) {
+		final byte[] bytes = new byte[buffers.stream().mapToInt(DataBuffer::readableByteCount).sum()];
+		int offset = 0;
+		for (final DataBuffer buffer : buffers) {
+			final int length = buffer.readableByteCount();
+			buffer.read(bytes, offset, length);
+			offset += length;
+			DataBufferUtils.release(buffer);
+		}
+		return bytes;
+	}
+	
+	private static Duration timeToLive(final Duration configured, final String cacheControl) {
+		if (cacheControl.contains("no-store") || cacheControl.contains("no-cache") || cacheControl.contains("private")) {
+			return Duration.ZERO;
+		}
+		Duration timeToLive = configured;
+		final Matcher matcher = MAX_AGE.matcher(cacheControl);
+		while (matcher.find()) {
+			final Duration maxAge = Duration.ofSeconds(Long.parseLong(matcher.group(2)));
+			if ("s-maxage".equals(matcher.group(1))) {
+				return maxAge.compareTo(configured) < 0 ? maxAge : configured;
+			}
+			timeToLive = maxAge.compareTo(timeToLive) < 0 ? maxAge : timeToLive;
+		}
+		return timeToLive;
+	}
+	
+	private static HttpHeaders cacheableHeaders(final HttpHeaders headers) {
+		final HttpHeaders cacheable = new HttpHeaders();
+		headers.forEach((name, values) -> {
+			final String lowerCaseName = name.toLowerCase(Locale.ROOT);
+			if (!UNCACHED_HEADERS.contains(lowerCaseName) && !lowerCaseName.startsWith("access-control-")) {
+				cacheable.put(name, List.copyOf(values));
+			}
+		});
+		return HttpHeaders.readOnlyHttpHeaders(cacheable);
+	}
+	
+	private static boolean notModified(final ServerHttpRequest request, final String eTag) {
+		return request.getHeaders().getIfNoneMatch().stream()
+				.anyMatch(candidate -> "*".equals(candidate) || weak(candidate).equals(weak(eTag)));
+	}
+	
+	private static String weak(final String eTag) {
+		return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+	}
+	
+	private static String cacheControl(final HttpHeaders headers) {
+		return String.join(",", headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)).toLowerCase(Locale.ROOT)
+				+ (headers.getOrEmpty(HttpHeaders.PRAGMA).contains("no-cache") ? ",no-cache" : "");
+	}
+	
+	private static String key(final ServerHttpRequest request, final List<String> keyHeaders) {
+		final StringBuilder key = new StringBuilder(request.getURI().getRawPath());
+		if (request.getURI().getRawQuery() != null) {
+			key.append('?').append(request.getURI().getRawQuery());
+		}
+		keyHeaders.forEach(name -> key.append('|').append(name).append('=')
+				.append(String.join(",", request.getHeaders().getOrEmpty(name))));
+		return key.toString();
+	}
+	
+	private static List<PathPattern> parse(final List<String> paths) {
+		return paths.stream()
+				.map(String::trim)
+				.filter(path -> !path.isEmpty())
+				.map(PathPatternParser.defaultInstance::parse)
+				.collect(Collectors.toUnmodifiableList());
+	}
+	
+	private static boolean matches(final List<PathPattern> patterns, final ServerHttpRequest request, final boolean whenEmpty) {
+		return patterns.isEmpty() 
+				? whenEmpty 
+				: patterns.stream().anyMatch(pattern -> pattern.matches(request.getPath().pathWithinApplication()));
+	}
+	
+	private static String routeId(final ServerWebExchange exchange) {
+		final Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+		return route != null ? route.getId() : "unknown";
+	}
+	
+	private static boolean isWrite(final HttpMethod method) {
+		return HttpMethod.POST.equals(method) || HttpMethod.PUT.equals(method)
+				|| HttpMethod.PATCH.equals(method) || HttpMethod.DELETE.equals(method);
+	}
+	
+	@Data
+	public static class Config {
+		
+		private Duration timeToLive = Duration.ofSeconds(30);
+		
+		/**
+		 * Path patterns that may be cached, all paths of the route when empty.
+		 */
+		private List<String> paths = new ArrayList<>();
+		
+		/**
+		 * Eviction group, routes caching the same resources share one so a write through either evicts both;
+		 * the route id when not set.
+		 */
+		private String group;
+		
+		/**
+		 * Path patterns of writes that leave the cache alone, at the cost of serving their effect only once entries expire.
+		 */
+		private List<String> ignoredWrites = new ArrayList<>();
+		
+		private List<String> keyHeaders = new ArrayList<>(List.of(
+				HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE));
+	
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,98 @@
+package com.selimhorri.app.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Verifies the HS256 tokens issued by proxy-client.
+ * Verification is pure CPU work (HMAC + JSON parsing, no I/O) and therefore safe to run on a Netty event loop.
+ *
+ * Verified claims are kept in a small LRU keyed by the SHA-256 digest of the token so hot tokens are only
+ * parsed once; an entry never outlives the expiration of its token. Rejected tokens are never cached.
+ */
+@Component
+public class JwtVerifier {
+	
+	private final String secret;
+	private final Cache<String, Claims> verifiedTokens;
+	
+	public JwtVerifier(
+			@Value("${app.security.jwt.secret:secret}") final String secret,
+			@Value("${app.security.jwt.verified-token-cache.max-size:10000}") final long maxSize) {
+		this.secret = secret;
+		this.verifiedTokens = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new TokenExpiry())
+				.build();
+	}
+	
+	/**
+	 * @throws JwtException if the token is malformed, badly signed or expired
+	 */
+	public Claims verify(final String token) {
+		return this.verifiedTokens.get(digest(token), key -> Jwts.parser()
+				.setSigningKey(this.secret)
+				.parseClaimsJws(token)
+				.getBody());
+	}
+	
+	private static String digest(final String token) {
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().encodeToString(hash);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static final class TokenExpiry implements Expiry<String, Claims> {
+		
+		@Override
+		public long expireAfterCreate(final String key, final Claims claims, final long currentTime) {
+			if (claims.getExpiration() == null) {
+				return Long.MAX_VALUE;
+			}
+			final long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+		}
+		
+		@Override
+		public long expireAfterUpdate(final String key, final Claims claims, final long currentTime, final long currentDuration) {
+			return currentDuration;
+		}
+		
+		@Override
+		public long expireAfterRead(final String key, final Claims claims, final long currentTime, final long currentDuration) {
+			return currentDuration;
+		}
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,137 @@
+package com.selimhorri.app.jwt;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Copy of the proxy-client deny list, so tokens revoked there are rejected on every route, the direct service routes included.
+ *
+ * The list is pulled from app.security.jwt.deny-list.uri every app.security.jwt.deny-list.refresh-interval,
+ * a revocation therefore reaches the gateway within one refresh interval.
+ * The request is authenticated by a short-lived token signed with the shared app.security.jwt.secret.
+ * Semantics are those of proxy-client: a revoked username rejects all tokens issued up to the revocation instant,
+ * an inactive username rejects all of its tokens.
+ */
+@Component
+@Slf4j
+public class TokenDenyList {
+	
+	static final String FEED_TOKEN_HEADER = "X-Deny-List-Token";
+	static final String FEED_SCOPE = "token-deny-list";
+	
+	private static final String SCOPE_CLAIM = "scope";
+	private static final Duration FEED_TOKEN_VALIDITY = Duration.ofMinutes(1);
+	
+	private final WebClient webClient;
+	private final String secret;
+	private final String uri;
+	private final Duration timeout;
+	private volatile Map<String, Long> revokedAt = Map.of();
+	private volatile Set<String> inactiveUsernames = Set.of();
+	
+	@Autowired
+	public TokenDenyList(
+			final WebClient.Builder webClientBuilder,
+			final ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancer,
+			@Value("${app.security.jwt.secret:secret}") final String secret,
+			@Value("${app.security.jwt.deny-list.uri:lb://PROXY-CLIENT/app/api/token-deny-list}") final String uri,
+			@Value("${app.security.jwt.deny-list.timeout:2s}") final Duration timeout) {
+		this(loadBalanced(webClientBuilder, loadBalancer).build(), secret, uri, timeout);
+	}
+	
+	public TokenDenyList(final WebClient webClient, final String secret, final String uri, final Duration timeout) {
+		this.webClient = webClient;
+		this.secret = secret;
+		this.uri = uri;
+		this.timeout = timeout;
+	}
+	
+	public boolean isDenied(final Claims claims) {
+		final String username = claims.getSubject();
+		if (this.inactiveUsernames.contains(username)) {
+			return true;
+		}
+		final Long revokedAtMillis = this.revokedAt.get(username);
+		// iat has second precision, a token issued in the same second as the revocation is rejected as well
+		return revokedAtMillis != null
+				&& (claims.getIssuedAt() == null || claims.getIssuedAt().getTime() <= revokedAtMillis);
+	}
+	
+	@Scheduled(
+			initialDelayString = "${app.security.jwt.deny-list.initial-delay:0}",
+			fixedDelayString = "${app.security.jwt.deny-list.refresh-interval:10000}")
+	public void refresh() {
+		try {
+			final DenyListResponse response = Optional.ofNullable(this.webClient.get()
+						.uri(this.uri)
+						.header(FEED_TOKEN_HEADER, this.feedToken())
+						.retrieve()
+						.bodyToMono(DenyListResponse.class)
+						.block(this.timeout))
+					.orElseThrow(() -> new IllegalStateException("empty deny list response"));
+			this.update(response.getRevokedAt(), response.getInactiveUsernames());
+		}
+		catch (RuntimeException e) {
+			// keep the previous list, better stale than empty
+			log.warn("** TokenDenyList, refresh failed, keeping previous deny list: {} *\n", e.getMessage());
+		}
+	}
+	
+	public void update(final Map<String, Long> revokedAt, final Set<String> inactiveUsernames) {
+		this.revokedAt = Map.copyOf(Optional.ofNullable(revokedAt).orElse(Map.of()));
+		this.inactiveUsernames = Set.copyOf(Optional.ofNullable(inactiveUsernames).orElse(Set.of()));
+	}
+	
+	private String feedToken() {
+		final long now = System.currentTimeMillis();
+		return Jwts.builder()
+				.claim(SCOPE_CLAIM, FEED_SCOPE)
+				.setSubject("API-GATEWAY")
+				.setIssuedAt(new Date(now))
+				.setExpiration(new Date(now + FEED_TOKEN_VALIDITY.toMillis()))
+				.signWith(SignatureAlgorithm.HS256, this.secret)
+				.compact();
+	}
+	
+	private static WebClient.Builder loadBalanced(final WebClient.Builder webClientBuilder,
+			final ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancer) {
+		loadBalancer.ifAvailable(webClientBuilder::filter);
+		return webClientBuilder;
+	}
+	
+	@Data
+	static final class DenyListResponse {
+		private Map<String, Long> revokedAt;
+		private Set<String> inactiveUsernames;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
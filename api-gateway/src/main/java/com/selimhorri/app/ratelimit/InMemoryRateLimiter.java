@@ -0,0 +1,188 @@
+package com.selimhorri.app.ratelimit;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.validation.constraints.Min;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Token-bucket {@link org.springframework.cloud.gateway.filter.ratelimit.RateLimiter} kept in process memory,
+ * a drop-in replacement for the Redis backed one used by the RequestRateLimiter filter:
+ * <pre>
+ * filters:
+ * - name: RequestRateLimiter
+ *   args:
+ *     in-memory-rate-limiter.replenish-rate: 50
+ *     in-memory-rate-limiter.burst-capacity: 100
+ * </pre>
+ * One bucket per route and key (see {@link UserOrAddressKeyResolver}); buckets are refilled lazily and
+ * updated with compare-and-set, so no lock is taken on the event loop. Idle buckets are evicted after
+ * app.rate-limiter.idle-eviction, at most app.rate-limiter.max-buckets are kept.
+ *
+ * Limits are per gateway instance: with N instances a client may get up to N times the configured rate.
+ * Decisions are counted as "gateway.ratelimiter.requests" tagged by route and outcome=allowed|throttled.
+ */
+@Component
+@Slf4j
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+	
+	public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+	public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+	public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+	public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+	public static final String REQUESTED_TOKENS_HEADER = "X-RateLimit-Requested-Tokens";
+	public static final String RETRY_AFTER_HEADER = "Retry-After";
+	
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+	
+	private final Cache<String, Bucket> buckets;
+	private final MeterRegistry meterRegistry;
+	
+	public InMemoryRateLimiter(
+			@Value("${app.rate-limiter.max-buckets:100000}") final long maxBuckets,
+			@Value("${app.rate-limiter.idle-eviction:10m}") final Duration idleEviction,
+			final ConfigurationService configurationService,
+			final MeterRegistry meterRegistry) {
+		super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+		this.meterRegistry = meterRegistry;
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(maxBuckets)
+				.expireAfterAccess(idleEviction)
+				.build();
+		Gauge.builder("gateway.ratelimiter.buckets", this.buckets, Cache::estimatedSize)
+				.register(meterRegistry);
+	}
+	
+	@Override
+	public Mono<Response> isAllowed(final String routeId, final String id) {
+		final Config config = this.getConfig().get(routeId);
+		if (config == null) {
+			throw new IllegalArgumentException("No Configuration found for route " + routeId);
+		}
+		
+		final Bucket bucket = this.buckets.get(routeId + ":" + id, key -> new Bucket(config.getBurstCapacity(), System.nanoTime()));
+		final double remaining = bucket.tryConsume(config, System.nanoTime());
+		final boolean allowed = remaining >= 0;
+		
+		this.meterRegistry.counter("gateway.ratelimiter.requests", "route", routeId, "outcome", allowed ? "allowed" : "throttled")
+				.increment();
+		if (!allowed) {
+			log.warn("** InMemoryRateLimiter, throttled {} on route {} *\n", id, routeId);
+		}
+		
+		return Mono.just(new Response(allowed, this.headers(config, allowed ? remaining : 0, allowed ? 0 : -remaining)));
+	}
+	
+	private Map<String, String> headers(final Config config, final double remaining, final double missingTokens) {
+		final Map<String, String> headers = new HashMap<>();
+		headers.put(REMAINING_HEADER, String.valueOf((long) Math.floor(remaining)));
+		headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+		headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+		headers.put(REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+		if (missingTokens > 0) {
+			headers.put(RETRY_AFTER_HEADER, String.valueOf((long) Math.ceil(missingTokens / config.getReplenishRate())));
+		}
+		return headers;
+	}
+	
+	long bucketCount() {
+		this.buckets.cleanUp();
+		return this.buckets.estimatedSize();
+	}
+	
+	/**
+	 * Lazily refilled token bucket; state is swapped atomically so concurrent requests never block.
+	 */
+	static final class Bucket {
+		
+		private final AtomicReference<State> state;
+		
+		Bucket(final double tokens, final long nanoTime) {
+			this.state = new AtomicReference<>(new State(tokens, nanoTime));
+		}
+		
+		/**
+		 * @return tokens left after consuming, or minus the number of missing tokens when not enough were available
+		 */
+		double tryConsume(final Config config, final long nanoTime) {
+			while (true) {
+				final State current = this.state.get();
+				final double elapsedSeconds = Math.max(0, nanoTime - current.nanoTime) / NANOS_PER_SECOND;
+				final double available = Math.min(config.getBurstCapacity(), current.tokens + elapsedSeconds * config.getReplenishRate());
+				final double left = available - config.getRequestedTokens();
+				final State next = new State(left >= 0 ? left : available, Math.max(nanoTime, current.nanoTime));
+				if (this.state.compareAndSet(current, next)) {
+					return left;
+				}
+			}
+		}
+		
+	}
+	
+	private static final class State {
+		
+		private final double tokens;
+		private final long nanoTime;
+		
+		private State(final double tokens, final long nanoTime) {
+			this.tokens = tokens;
+			this.nanoTime = nanoTime;
+		}
+		
+	}
+	
+	@Data
+	@Validated
+	public static class Config {
+		
+		/**
+		 * Tokens added to a bucket per second.
+		 */
+		@Min(1)
+		private int replenishRate = 1;
+		
+		/**
+		 * Maximum number of tokens a bucket holds, i.e. the largest burst allowed.
+		 */
+		@Min(1)
+		private int burstCapacity = 1;
+		
+		/**
+		 * Tokens one request costs.
+		 */
+		@Min(1)
+		private int requestedTokens = 1;
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
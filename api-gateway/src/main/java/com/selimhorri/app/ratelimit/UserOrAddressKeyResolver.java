@@ -0,0 +1,44 @@
+package com.selimhorri.app.ratelimit;
+
+import java.net.InetSocketAddress;
+import java.util.Optional;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.selimhorri.app.config.filter.JwtAuthenticationFilter;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Rate limit key of a request: the user verified by {@link JwtAuthenticationFilter},
+ * or the client address for anonymous requests.
+ */
+@Component
+public class UserOrAddressKeyResolver implements KeyResolver {
+	
+	@Override
+	public Mono<String> resolve(final ServerWebExchange exchange) {
+		final String username = exchange.getRequest().getHeaders().getFirst(JwtAuthenticationFilter.USERNAME_HEADER);
+		if (username != null) {
+			return Mono.just("user:" + username);
+		}
+		return Mono.justOrEmpty(Optional.ofNullable(exchange.getRequest().getRemoteAddress())
+				.map(InetSocketAddress::getAddress)
+				.map(address -> "ip:" + address.getHostAddress()));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,136 @@
+package com.selimhorri.app.config.filter;
+
+import com.selimhorri.app.jwt.JwtVerifier;
+import com.selimhorri.app.jwt.TokenDenyList;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    private final TokenDenyList tokenDenyList = new TokenDenyList(WebClient.create(), "secret", "http://localhost", Duration.ofSeconds(1));
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new JwtAuthenticationFilter(new JwtVerifier("secret", 100), tokenDenyList, meterRegistry,
+                new String[] { "/product-service/**" }, new String[] { "/*/actuator/health/**" },
+                new String[] { "/product-service/api/categories/**" });
+    }
+
+    @Test
+    void filter_forwardsIdentityOfValidToken() {
+        final MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/app/api/carts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("secret", 60_000))
+                .header(JwtAuthenticationFilter.AUTHORITIES_HEADER, "ROLE_ADMIN"));
+
+        filter.filter(exchange, chain).block();
+
+        final HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertEquals("selimhorri", headers.getFirst(JwtAuthenticationFilter.USERNAME_HEADER));
+        assertEquals("ROLE_USER", headers.getFirst(JwtAuthenticationFilter.AUTHORITIES_HEADER));
+        assertEquals(1.0, meterRegistry.counter("gateway.jwt.requests", "outcome", "verified").count());
+    }
+
+    @Test
+    void filter_rejectsBadlySignedTokenOnAnyRoute() {
+        final MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/app/api/carts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("other-secret", 60_000)));
+
+        filter.filter(exchange, chain).block();
+
+        assertNull(forwarded.get());
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertTrue(exchange.getResponse().getHeaders().getFirst(HttpHeaders.WWW_AUTHENTICATE).contains("invalid_token"));
+    }
+
+    @Test
+    void filter_rejectsExpiredToken() {
+        final MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/app/api/carts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("secret", -60_000)));
+
+        filter.filter(exchange, chain).block();
+
+        assertNull(forwarded.get());
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void filter_rejectsTokenRevokedByProxyClient() {
+        tokenDenyList.update(Map.of("selimhorri", System.currentTimeMillis() - 60_000), Set.of());
+        final MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/product-service/api/products/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("secret", 60_000)));
+
+        filter.filter(exchange, chain).block();
+
+        assertNull(forwarded.get());
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals(1.0, meterRegistry.counter("gateway.jwt.requests", "outcome", "rejected").count());
+    }
+
+    @Test
+    void filter_requiresTokenOnProtectedPathsOnly() {
+        final MockServerWebExchange direct = exchange(MockServerHttpRequest.get("/product-service/api/products"));
+        filter.filter(direct, chain).block();
+        assertEquals(HttpStatus.UNAUTHORIZED, direct.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/actuator/health")), chain).block();
+        assertNotNull(forwarded.getAndSet(null));
+
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/api/categories")), chain).block();
+        assertNotNull(forwarded.getAndSet(null));
+
+        final MockServerWebExchange write = exchange(MockServerHttpRequest.delete("/product-service/api/categories/1"));
+        filter.filter(write, chain).block();
+        assertEquals(HttpStatus.UNAUTHORIZED, write.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+
+        filter.filter(exchange(MockServerHttpRequest.get("/app/api/products")
+                .header(JwtAuthenticationFilter.USERNAME_HEADER, "admin")), chain).block();
+        assertNull(forwarded.get().getRequest().getHeaders().getFirst(JwtAuthenticationFilter.USERNAME_HEADER));
+    }
+
+    private static MockServerWebExchange exchange(final MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    private static String token(final String secret, final long validityMillis) {
+        return Jwts.builder()
+                .setClaims(new HashMap<>(Map.of("authorities", List.of("ROLE_USER"))))
+                .setSubject("selimhorri")
+                .setIssuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .setExpiration(new Date(System.currentTimeMillis() + validityMillis))
+                .signWith(SignatureAlgorithm.HS256, secret)
+                .compact();
+    }
+}
@@ -0,0 +1,59 @@
+package com.selimhorri.app.config.filter;
+
+import com.selimhorri.app.config.loadbalancer.InstanceStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBalancerCancelFilterTest {
+
+    private final ServiceInstance instance = new DefaultServiceInstance("user-1", "USER-SERVICE", "10.0.0.1", 8700, false);
+    private final InstanceStats instanceStats = new InstanceStats(Duration.ofSeconds(10), Duration.ofSeconds(1), new SimpleMeterRegistry());
+    private final LoadBalancerCancelFilter filter = new LoadBalancerCancelFilter(instanceStats);
+
+    @Test
+    void filter_countsACancelledExchangeDown() {
+        final Disposable exchange = filter.filter(exchange(), loadBalanced(Mono.never())).subscribe();
+        assertEquals(1, instanceStats.outstanding(instance));
+
+        exchange.dispose();
+
+        assertEquals(0, instanceStats.outstanding(instance));
+    }
+
+    @Test
+    void filter_leavesCompletedExchangesToTheLifecycle() {
+        filter.filter(exchange(), loadBalanced(Mono.never())).subscribe();
+        filter.filter(exchange(), loadBalanced(Mono.empty())).block();
+
+        assertEquals(2, instanceStats.outstanding(instance));
+    }
+
+    private GatewayFilterChain loadBalanced(final Mono<Void> downstream) {
+        return exchange -> {
+            final Response<ServiceInstance> lbResponse = new DefaultResponse(instance);
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR, lbResponse);
+            instanceStats.onStartRequest(new DefaultRequest<>(new RequestDataContext()), lbResponse);
+            return downstream;
+        };
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/user-service/api/users").build());
+    }
+}
@@ -0,0 +1,171 @@
+package com.selimhorri.app.config.filter;
+
+import com.selimhorri.app.cache.ResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private String downstreamCacheControl;
+    private ResponseCache responseCache;
+    private GatewayFilter filter;
+
+    private final GatewayFilterChain chain = exchange -> {
+        downstreamCalls.incrementAndGet();
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        if (downstreamCacheControl != null) {
+            exchange.getResponse().getHeaders().setCacheControl(downstreamCacheControl);
+        }
+        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                .wrap("{\"collection\":[]}".getBytes(StandardCharsets.UTF_8))));
+    };
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new ResponseCache(1024 * 1024, new SimpleMeterRegistry());
+        final ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setPaths(List.of("/product-service/api/products/**"));
+        config.setGroup("catalog");
+        config.setIgnoredWrites(List.of("/product-service/api/products/*/reservations"));
+        filter = new ResponseCacheGatewayFilterFactory(responseCache, 1024).apply(config);
+    }
+
+    @Test
+    void filter_servesRepeatedAnonymousReadsFromCache() {
+        final MockServerWebExchange first = exchange(MockServerHttpRequest.get("/product-service/api/products?after=5"));
+        filter.filter(first, chain).block();
+        final MockServerWebExchange second = exchange(MockServerHttpRequest.get("/product-service/api/products?after=5"));
+        filter.filter(second, chain).block();
+
+        assertEquals(1, downstreamCalls.get());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER));
+        assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+        assertEquals("{\"collection\":[]}", second.getResponse().getBodyAsString().block());
+
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/api/products?after=6")), chain).block();
+        assertEquals(2, downstreamCalls.get());
+    }
+
+    @Test
+    void filter_answersMatchingIfNoneMatchWithNotModified() {
+        final MockServerWebExchange first = exchange(MockServerHttpRequest.get("/product-service/api/products/1"));
+        filter.filter(first, chain).block();
+        final String eTag = first.getResponse().getHeaders().getETag();
+
+        final MockServerWebExchange conditional = exchange(MockServerHttpRequest.get("/product-service/api/products/1")
+                .ifNoneMatch(eTag));
+        filter.filter(conditional, chain).block();
+
+        assertNotNull(eTag);
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals(1, downstreamCalls.get());
+    }
+
+    @Test
+    void filter_neverCachesAuthenticatedOrNoStoreResponses() {
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/api/products")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")), chain).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/api/products")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")), chain).block();
+        assertEquals(2, downstreamCalls.get());
+
+        downstreamCacheControl = "no-store";
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/api/products")), chain).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/api/products")), chain).block();
+        assertEquals(4, downstreamCalls.get());
+        assertEquals(0, responseCache.size());
+    }
+
+    @Test
+    void filter_evictsRouteAfterSuccessfulWrite() {
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/api/products")), chain).block();
+        assertNotNull(responseCache.get(ResponseCache.key("PRODUCT-SERVICE", "/product-service/api/products|Accept=|Accept-Encoding=|Accept-Language=")));
+
+        filter.filter(exchange(MockServerHttpRequest.put("/product-service/api/products/1")), chain).block();
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/api/products")), chain).block();
+
+        assertEquals(3, downstreamCalls.get());
+    }
+
+    @Test
+    void filter_evictsEveryRouteOfTheGroupAfterSuccessfulWrite() {
+        final ResponseCacheGatewayFilterFactory.Config proxyConfig = new ResponseCacheGatewayFilterFactory.Config();
+        proxyConfig.setPaths(List.of("/app/api/products/**"));
+        proxyConfig.setGroup("catalog");
+        final GatewayFilter proxyFilter = new ResponseCacheGatewayFilterFactory(responseCache, 1024).apply(proxyConfig);
+
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/api/products")), chain).block();
+        proxyFilter.filter(exchange(MockServerHttpRequest.get("/app/api/products"), "PROXY-CLIENT"), chain).block();
+        assertEquals(2, responseCache.size());
+
+        proxyFilter.filter(exchange(MockServerHttpRequest.put("/app/api/products/1"), "PROXY-CLIENT"), chain).block();
+
+        assertEquals(0, responseCache.size());
+    }
+
+    @Test
+    void filter_keepsEntriesOnIgnoredOrUncachedPathWrites() {
+        filter.filter(exchange(MockServerHttpRequest.get("/product-service/api/products")), chain).block();
+
+        filter.filter(exchange(MockServerHttpRequest.post("/product-service/api/products/1/reservations")), chain).block();
+        filter.filter(exchange(MockServerHttpRequest.post("/product-service/api/orders")), chain).block();
+
+        assertEquals(1, responseCache.size());
+    }
+
+    @Test
+    void filter_streamsOversizedBodyWithoutWaitingForItsEnd() {
+        final List<Integer> written = new ArrayList<>();
+        final MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/product-service/api/products"));
+        exchange.getResponse().setWriteHandler(body -> body.doOnNext(buffer -> written.add(buffer.readableByteCount())).then());
+        final GatewayFilterChain unboundedChain = e -> {
+            e.getResponse().setStatusCode(HttpStatus.OK);
+            final DataBufferFactory bufferFactory = e.getResponse().bufferFactory();
+            return e.getResponse().writeWith(Flux.concat(
+                    Flux.range(0, 3).map(i -> bufferFactory.wrap(new byte[600])),
+                    Flux.never()));
+        };
+
+        final Disposable response = filter.filter(exchange, unboundedChain).subscribe();
+
+        assertEquals(List.of(600, 600, 600), written);
+        assertEquals(0, responseCache.size());
+        response.dispose();
+    }
+
+    private static MockServerWebExchange exchange(final MockServerHttpRequest.BaseBuilder<?> request) {
+        return exchange(request, "PRODUCT-SERVICE");
+    }
+
+    private static MockServerWebExchange exchange(final MockServerHttpRequest.BaseBuilder<?> request, final String routeId) {
+        final MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, Route.async()
+                .id(routeId)
+                .uri("lb://" + routeId)
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
@@ -0,0 +1,74 @@
+package com.selimhorri.app.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenDenyListTest {
+
+    private final AtomicReference<ClientRequest> request = new AtomicReference<>();
+    private final AtomicReference<ClientResponse> response = new AtomicReference<>();
+
+    private final TokenDenyList tokenDenyList = new TokenDenyList(WebClient.builder()
+            .exchangeFunction(clientRequest -> {
+                request.set(clientRequest);
+                return Mono.just(response.get());
+            })
+            .build(), "secret", "http://proxy-client/app/api/token-deny-list", Duration.ofSeconds(1));
+
+    @Test
+    void refresh_pullsDenyListWithTokenSignedByTheSharedSecret() {
+        final long revokedAt = System.currentTimeMillis();
+        response.set(json("{\"revokedAt\":{\"selim\":" + revokedAt + "},\"inactiveUsernames\":[\"locked\"]}"));
+
+        tokenDenyList.refresh();
+
+        final Claims feedToken = Jwts.parser()
+                .setSigningKey("secret")
+                .parseClaimsJws(request.get().headers().getFirst(TokenDenyList.FEED_TOKEN_HEADER))
+                .getBody();
+        assertEquals(TokenDenyList.FEED_SCOPE, feedToken.get("scope"));
+        assertTrue(tokenDenyList.isDenied(claims("selim", revokedAt - 60_000)));
+        assertFalse(tokenDenyList.isDenied(claims("selim", revokedAt + 2_000)));
+        assertTrue(tokenDenyList.isDenied(claims("locked", revokedAt + 2_000)));
+        assertFalse(tokenDenyList.isDenied(claims("other", revokedAt - 60_000)));
+    }
+
+    @Test
+    void refresh_keepsPreviousListOnFailure() {
+        final long revokedAt = System.currentTimeMillis();
+        response.set(json("{\"revokedAt\":{\"selim\":" + revokedAt + "},\"inactiveUsernames\":[]}"));
+        tokenDenyList.refresh();
+
+        response.set(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        tokenDenyList.refresh();
+
+        assertTrue(tokenDenyList.isDenied(claims("selim", revokedAt - 60_000)));
+    }
+
+    private static ClientResponse json(final String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+
+    private static Claims claims(final String subject, final long issuedAtMillis) {
+        return Jwts.claims()
+                .setSubject(subject)
+                .setIssuedAt(new Date(issuedAtMillis));
+    }
+}
@@ -0,0 +1,105 @@
+package com.selimhorri.app.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.event.FilterArgsEvent;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private InMemoryRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        final LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        beanFactory.registerSingleton("conversionService", new DefaultFormattingConversionService());
+        beanFactory.registerSingleton("validator", validator);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new InMemoryRateLimiter(1000, Duration.ofMinutes(10),
+                new ConfigurationService(beanFactory, beanFactory.getBeanProvider(ConversionService.class),
+                        beanFactory.getBeanProvider(Validator.class)),
+                meterRegistry);
+        rateLimiter.onApplicationEvent(new FilterArgsEvent(this, "ORDER-SERVICE", Map.of(
+                "in-memory-rate-limiter.replenish-rate", "1",
+                "in-memory-rate-limiter.burst-capacity", "3")));
+    }
+
+    @Test
+    void isAllowed_throttlesOnceBurstIsSpent() {
+        for (int i = 2; i >= 0; i--) {
+            final RateLimiter.Response response = rateLimiter.isAllowed("ORDER-SERVICE", "user:a").block();
+            assertTrue(response.isAllowed());
+            assertEquals(String.valueOf(i), response.getHeaders().get(InMemoryRateLimiter.REMAINING_HEADER));
+        }
+
+        final RateLimiter.Response throttled = rateLimiter.isAllowed("ORDER-SERVICE", "user:a").block();
+
+        assertFalse(throttled.isAllowed());
+        assertEquals("0", throttled.getHeaders().get(InMemoryRateLimiter.REMAINING_HEADER));
+        assertEquals("3", throttled.getHeaders().get(InMemoryRateLimiter.BURST_CAPACITY_HEADER));
+        assertEquals("1", throttled.getHeaders().get(InMemoryRateLimiter.RETRY_AFTER_HEADER));
+        assertTrue(rateLimiter.isAllowed("ORDER-SERVICE", "user:b").block().isAllowed());
+        assertEquals(1.0, meterRegistry.counter("gateway.ratelimiter.requests", "route", "ORDER-SERVICE", "outcome", "throttled").count());
+        assertEquals(2, rateLimiter.bucketCount());
+    }
+
+    @Test
+    void bucket_refillsWithElapsedTimeUpToBurstCapacity() {
+        final InMemoryRateLimiter.Config config = new InMemoryRateLimiter.Config();
+        config.setReplenishRate(2);
+        config.setBurstCapacity(4);
+        final InMemoryRateLimiter.Bucket bucket = new InMemoryRateLimiter.Bucket(0, 0);
+
+        assertTrue(bucket.tryConsume(config, 0) < 0);
+        assertEquals(0.0, bucket.tryConsume(config, 500_000_000L), 1e-9);
+        assertEquals(3.0, bucket.tryConsume(config, 60_000_000_000L), 1e-9);
+    }
+
+    @Test
+    void bucket_neverGrantsMoreThanBurstUnderContention() throws Exception {
+        final InMemoryRateLimiter.Config config = new InMemoryRateLimiter.Config();
+        config.setReplenishRate(1);
+        config.setBurstCapacity(100);
+        final long now = System.nanoTime();
+        final InMemoryRateLimiter.Bucket bucket = new InMemoryRateLimiter.Bucket(100, now);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<CompletableFuture<Double>> results = new ArrayList<>();
+            IntStream.range(0, 1000).forEach(i -> results.add(CompletableFuture.supplyAsync(() -> bucket.tryConsume(config, now), executor)));
+
+            final long granted = results.stream().map(CompletableFuture::join).filter(left -> left >= 0).collect(Collectors.counting());
+
+            assertEquals(100, granted);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void isAllowed_failsForRouteWithoutConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> rateLimiter.isAllowed("USER-SERVICE", "user:a"));
+    }
+}
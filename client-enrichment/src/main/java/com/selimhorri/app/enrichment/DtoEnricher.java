@@ -0,0 +1,193 @@
+package com.selimhorri.app.enrichment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.instrument.async.TraceableExecutorService;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the remote lookups needed to assemble DTOs concurrently on a bounded pool,
+ * under a single deadline per call (app.enrichment.timeout).
+ * 
+ * Results are applied on the caller's thread. A lookup that fails, is rejected by the pool
+ * or misses the deadline is skipped, so the DTO keeps its id-only reference instead of failing the request.
+ * Lookups sharing a key are fetched once per call, rejected ones are counted (enrichment.lookups.rejected).
+ * Callers are expected to have released their DB transaction before calling in.
+ */
+@Component
+@Slf4j
+public class DtoEnricher {
+	
+	public static final String REJECTED_METRIC = "enrichment.lookups.rejected";
+	
+	private final ExecutorService executor;
+	private final Duration timeout;
+	private final Counter rejected;
+	
+	@Autowired
+	public DtoEnricher(
+			@Value("${app.enrichment.threads:16}") final int threads,
+			@Value("${app.enrichment.queue-capacity:1000}") final int queueCapacity,
+			@Value("${app.enrichment.timeout:2s}") final Duration timeout,
+			final BeanFactory beanFactory,
+			final ObjectProvider<Tracer> tracer,
+			final MeterRegistry meterRegistry) {
+		this(traceable(newBoundedExecutor(threads, queueCapacity), beanFactory, tracer), timeout, meterRegistry);
+	}
+	
+	public DtoEnricher(final ExecutorService executor, final Duration timeout, final MeterRegistry meterRegistry) {
+		this.executor = executor;
+		this.timeout = timeout;
+		this.rejected = Counter.builder(REJECTED_METRIC)
+				.description("Lookups dropped because the enrichment pool and its queue were full")
+				.register(meterRegistry);
+	}
+	
+	/**
+	 * Runs every given lookup for every DTO and waits for them, at most until the deadline.
+	 */
+	@SafeVarargs
+	public final <T, C extends Collection<T>> C enrich(final C dtos, final Function<T, Lookup<?>>... lookups) {
+		this.await(dtos.stream()
+				.flatMap(dto -> Arrays.stream(lookups).map(lookup -> lookup.apply(dto)))
+				.collect(Collectors.toList()));
+		return dtos;
+	}
+	
+	public void await(final List<Lookup<?>> lookups) {
+		final long deadline = System.nanoTime() + this.timeout.toNanos();
+		final Map<Object, Pending<?>> pendings = new LinkedHashMap<>();
+		int rejectedLookups = 0;
+		for (final Lookup<?> lookup : lookups) {
+			if (!this.submit(lookup, pendings)) {
+				rejectedLookups++;
+			}
+		}
+		if (rejectedLookups > 0) {
+			this.rejected.increment(rejectedLookups);
+			log.warn("** DtoEnricher, {} of {} lookups rejected, enrichment pool saturated, DTOs left unenriched *\n", 
+					rejectedLookups, lookups.size());
+		}
+		
+		for (final Pending<?> pending : pendings.values()) {
+			if (Thread.currentThread().isInterrupted()) {
+				pending.future.cancel(true);
+				continue;
+			}
+			pending.applyBefore(deadline);
+		}
+	}
+	
+	@PreDestroy
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+	
+	/**
+	 * @return false when the pool rejected the lookup
+	 */
+	@SuppressWarnings("unchecked")
+	private <R> boolean submit(final Lookup<R> lookup, final Map<Object, Pending<?>> pendings) {
+		final Object key = (lookup.getKey() != null) ? lookup.getKey() : lookup;
+		final Pending<R> pending = (Pending<R>) pendings.get(key);
+		if (pending != null) {
+			pending.applies.add(lookup.getApply());
+			return true;
+		}
+		try {
+			pendings.put(key, new Pending<>(lookup.getApply(), this.executor.submit(() -> lookup.getFetch().get())));
+			return true;
+		}
+		catch (RejectedExecutionException e) {
+			return false;
+		}
+	}
+	
+	private static ExecutorService newBoundedExecutor(final int threads, final int queueCapacity) {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, 
+				new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("enrichment-"));
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
+	private static ExecutorService traceable(final ExecutorService executor, 
+			final BeanFactory beanFactory, final ObjectProvider<Tracer> tracer) {
+		return (tracer.getIfAvailable() != null) 
+				? new TraceableExecutorService(beanFactory, executor, "enrichment") 
+				: executor;
+	}
+	
+	private static final class Pending<R> {
+		
+		private final List<Consumer<R>> applies = new ArrayList<>(1);
+		private final Future<R> future;
+		
+		private Pending(final Consumer<R> apply, final Future<R> future) {
+			this.applies.add(apply);
+			this.future = future;
+		}
+		
+		private void applyBefore(final long deadline) {
+			try {
+				final R result = this.future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+				if (result != null) {
+					this.applies.forEach(apply -> apply.accept(result));
+				}
+			}
+			catch (TimeoutException e) {
+				this.future.cancel(true);
+				log.warn("** DtoEnricher, lookup missed the enrichment deadline *\n");
+			}
+			catch (ExecutionException e) {
+				log.warn("** DtoEnricher, lookup failed: {} *\n", e.getCause().getMessage());
+			}
+			catch (InterruptedException e) {
+				this.future.cancel(true);
+				Thread.currentThread().interrupt();
+			}
+		}
+	
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,43 @@
+package com.selimhorri.app.enrichment;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A remote lookup ({@code fetch}, run on the enrichment pool) and how to apply its result
+ * ({@code apply}, run on the caller's thread once the lookup completed in time).
+ * Lookups of one call sharing a {@code key}, e.g. the URL, are fetched once and the result applied to each.
+ */
+@Getter(AccessLevel.PACKAGE)
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Lookup<R> {
+	
+	private final Object key;
+	private final Supplier<R> fetch;
+	private final Consumer<R> apply;
+	
+	public static <R> Lookup<R> of(final Supplier<R> fetch, final Consumer<R> apply) {
+		return new Lookup<>(null, fetch, apply);
+	}
+	
+	public static <R> Lookup<R> of(final Object key, final Supplier<R> fetch, final Consumer<R> apply) {
+		return new Lookup<>(key, fetch, apply);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
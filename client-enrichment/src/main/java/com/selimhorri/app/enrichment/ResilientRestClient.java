@@ -0,0 +1,151 @@
+package com.selimhorri.app.enrichment;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Guards inter-service GETs with the resilience4j circuit breaker and bulkhead of the target service.
+ * Instances are named after the discovered service, e.g. http://PRODUCT-SERVICE/... uses "productService".
+ * 
+ * The last good response per URL is kept in a bounded cache (exported as cache=lastKnownGood).
+ * When the service is unavailable (unreachable, 5xx, short-circuited or rejected by the bulkhead), that value
+ * is served instead. A 4xx is the service's answer and is passed on, a 404 also drops the cached value.
+ * 
+ * The bulkhead wraps the circuit breaker, so its rejections are not recorded as failures of the service.
+ */
+@Component
+@Slf4j
+public class ResilientRestClient {
+	
+	public static final String CACHE_NAME = "lastKnownGood";
+	
+	private final RestTemplate restTemplate;
+	private final CircuitBreakerRegistry circuitBreakerRegistry;
+	private final BulkheadRegistry bulkheadRegistry;
+	private final Cache<String, Object> lastKnownGood;
+	
+	public ResilientRestClient(
+			@Value("${app.enrichment.last-known-good.max-size:10000}") final long maxSize,
+			@Value("${app.enrichment.last-known-good.max-age:1h}") final Duration maxAge,
+			final RestTemplate restTemplate,
+			final CircuitBreakerRegistry circuitBreakerRegistry,
+			final BulkheadRegistry bulkheadRegistry,
+			final MeterRegistry meterRegistry) {
+		this.restTemplate = restTemplate;
+		this.circuitBreakerRegistry = circuitBreakerRegistry;
+		this.bulkheadRegistry = bulkheadRegistry;
+		this.lastKnownGood = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(maxAge)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.lastKnownGood, CACHE_NAME);
+	}
+	
+	public <T> T getForObject(final String url, final Class<T> responseType) {
+		try {
+			final T response = this.call(url, () -> this.restTemplate.getForObject(url, responseType));
+			this.remember(url, response);
+			return response;
+		}
+		catch (HttpClientErrorException.NotFound e) {
+			this.lastKnownGood.invalidate(url);
+			throw e;
+		}
+		catch (RuntimeException e) {
+			if (!isUnavailable(e)) {
+				throw e;
+			}
+			return this.<T>lastKnown(url)
+					.orElseThrow(() -> e);
+		}
+	}
+	
+	/**
+	 * A {@link DtoEnricher} lookup of {@code url}, keyed by it so that DTOs referencing the same entity share one call.
+	 */
+	public <T> Lookup<T> lookup(final String url, final Class<T> responseType, final Consumer<T> apply) {
+		return Lookup.of(url, () -> this.getForObject(url, responseType), apply);
+	}
+	
+	/**
+	 * Runs the given remote call through the circuit breaker and bulkhead of the service behind {@code url}.
+	 */
+	public <T> T call(final String url, final Supplier<T> remoteCall) {
+		final String instanceName = instanceName(url);
+		return Bulkhead.decorateSupplier(this.bulkheadRegistry.bulkhead(instanceName), 
+				CircuitBreaker.decorateSupplier(this.circuitBreakerRegistry.circuitBreaker(instanceName), remoteCall))
+				.get();
+	}
+	
+	/**
+	 * @return true when {@code e} says the service could not answer, so a last known response may stand in for it
+	 */
+	public static boolean isUnavailable(final RuntimeException e) {
+		return e instanceof ResourceAccessException
+				|| e instanceof HttpServerErrorException
+				|| e instanceof CallNotPermittedException
+				|| e instanceof BulkheadFullException;
+	}
+	
+	public void remember(final String url, final Object response) {
+		if (response != null) {
+			this.lastKnownGood.put(url, response);
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	public <T> Optional<T> lastKnown(final String url) {
+		final Optional<T> stale = Optional.ofNullable((T) this.lastKnownGood.getIfPresent(url));
+		stale.ifPresent(s -> log.warn("** ResilientRestClient, serving last known response for: {} *\n", url));
+		return stale;
+	}
+	
+	/**
+	 * PRODUCT-SERVICE -> productService, matching the resilience4j instance names in application.yml.
+	 */
+	static String instanceName(final String url) {
+		final String[] words = UriComponentsBuilder.fromHttpUrl(url).build().getHost().toLowerCase().split("-");
+		return words[0] + Arrays.stream(words, 1, words.length)
+				.map(w -> Character.toUpperCase(w.charAt(0)) + w.substring(1))
+				.collect(Collectors.joining());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
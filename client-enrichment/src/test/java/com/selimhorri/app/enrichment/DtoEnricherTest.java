@@ -0,0 +1,123 @@
+package com.selimhorri.app.enrichment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DtoEnricherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DtoEnricher dtoEnricher = new DtoEnricher(Executors.newFixedThreadPool(4), Duration.ofMillis(300), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        dtoEnricher.shutdown();
+    }
+
+    @Test
+    void await_appliesCompletedLookupsAndSkipsFailedOrLateOnes() {
+        final AtomicReference<String> fast = new AtomicReference<>("id-only");
+        final AtomicReference<String> failed = new AtomicReference<>("id-only");
+        final AtomicReference<String> late = new AtomicReference<>("id-only");
+        final CountDownLatch never = new CountDownLatch(1);
+
+        final long start = System.nanoTime();
+        dtoEnricher.await(List.of(
+                Lookup.of(() -> "fast", fast::set),
+                Lookup.of(() -> {
+                    throw new IllegalStateException("remote down");
+                }, failed::set),
+                Lookup.of(() -> {
+                    try {
+                        never.await();
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "late";
+                }, late::set)));
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("fast", fast.get());
+        assertEquals("id-only", failed.get());
+        assertEquals("id-only", late.get());
+        assertTrue(elapsedMillis < 2_000, "should give up at the deadline, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void enrich_runsLookupsConcurrently() {
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        final List<AtomicReference<String>> dtos = List.of(new AtomicReference<>(), new AtomicReference<>());
+
+        dtoEnricher.enrich(dtos, dto -> Lookup.of(() -> {
+            bothStarted.countDown();
+            try {
+                // only completes if the other lookup runs at the same time
+                return bothStarted.await(1, TimeUnit.SECONDS) ? "enriched" : null;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }, dto::set));
+
+        assertTrue(dtos.stream().allMatch(dto -> "enriched".equals(dto.get())));
+    }
+
+    @Test
+    void enrich_fetchesLookupsSharingAKeyOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        final List<AtomicReference<String>> dtos = IntStream.range(0, 10)
+                .mapToObj(i -> new AtomicReference<String>())
+                .collect(Collectors.toList());
+
+        dtoEnricher.enrich(dtos, dto -> Lookup.of("http://USER-SERVICE/user-service/api/users/1", () -> {
+            calls.incrementAndGet();
+            return "user 1";
+        }, dto::set));
+
+        assertEquals(1, calls.get());
+        assertTrue(dtos.stream().allMatch(dto -> "user 1".equals(dto.get())));
+    }
+
+    @Test
+    void await_countsLookupsRejectedByAFullPool() {
+        dtoEnricher.shutdown();
+        final CountDownLatch release = new CountDownLatch(1);
+        dtoEnricher = new DtoEnricher(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1)),
+                Duration.ofMillis(100), meterRegistry);
+        final List<AtomicReference<String>> dtos = IntStream.range(0, 5)
+                .mapToObj(i -> new AtomicReference<>("id-only"))
+                .collect(Collectors.toList());
+
+        dtoEnricher.enrich(dtos, dto -> Lookup.of(() -> {
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "enriched";
+        }, dto::set));
+        release.countDown();
+
+        // one running, one queued, the other three dropped
+        assertEquals(3, meterRegistry.get(DtoEnricher.REJECTED_METRIC).counter().count());
+        assertTrue(dtos.stream().allMatch(dto -> "id-only".equals(dto.get())));
+    }
+}
@@ -0,0 +1,74 @@
+package com.selimhorri.app.config.client;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.MicrometerHttpRequestExecutor;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Opt-in (app.http-client.pooled=true) Apache HttpClient backing for the RestTemplate of the services and proxy-client:
+ * bounded connection pool with idle eviction, connect/read/pool-acquire timeouts,
+ * and Micrometer metrics for pool utilization, pool wait time and per-host request latency.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.http-client", name = "pooled", havingValue = "true")
+public class PooledHttpClientConfig {
+	
+	public static final String POOL_NAME = "restTemplate";
+	
+	@Bean
+	public TimedPoolingConnectionManager pooledConnectionManager(
+			@Value("${app.http-client.max-connections:200}") final int maxConnections,
+			@Value("${app.http-client.max-connections-per-host:50}") final int maxConnectionsPerHost,
+			final MeterRegistry meterRegistry) {
+		final var connectionManager = new TimedPoolingConnectionManager(meterRegistry, POOL_NAME);
+		connectionManager.setMaxTotal(maxConnections);
+		connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+		new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+		return connectionManager;
+	}
+	
+	@Bean
+	public HttpComponentsClientHttpRequestFactory pooledRequestFactory(
+			final TimedPoolingConnectionManager pooledConnectionManager,
+			@Value("${app.http-client.connect-timeout:2s}") final Duration connectTimeout,
+			@Value("${app.http-client.read-timeout:5s}") final Duration readTimeout,
+			@Value("${app.http-client.pool-acquire-timeout:1s}") final Duration poolAcquireTimeout,
+			@Value("${app.http-client.idle-eviction:30s}") final Duration idleEviction,
+			final MeterRegistry meterRegistry) {
+		return new HttpComponentsClientHttpRequestFactory(HttpClientBuilder.create()
+				.setConnectionManager(pooledConnectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectTimeout((int) connectTimeout.toMillis())
+						.setSocketTimeout((int) readTimeout.toMillis())
+						.setConnectionRequestTimeout((int) poolAcquireTimeout.toMillis())
+						.build())
+				.evictExpiredConnections()
+				.evictIdleConnections(idleEviction.toMillis(), TimeUnit.MILLISECONDS)
+				.setRequestExecutor(MicrometerHttpRequestExecutor.builder(meterRegistry).build())
+				.build());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
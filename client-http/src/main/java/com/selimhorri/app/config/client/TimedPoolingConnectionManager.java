@@ -0,0 +1,66 @@
+package com.selimhorri.app.config.client;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records how long callers wait to lease a pooled connection ("httpcomponents.httpclient.pool.acquire"),
+ * which the pool gauges alone cannot show.
+ */
+public class TimedPoolingConnectionManager extends PoolingHttpClientConnectionManager {
+	
+	private final Timer acquireTimer;
+	
+	public TimedPoolingConnectionManager(final MeterRegistry meterRegistry, final String poolName) {
+		this.acquireTimer = Timer.builder("httpcomponents.httpclient.pool.acquire")
+				.description("Time spent waiting to lease a connection from the pool")
+				.tag("httpclient", poolName)
+				.register(meterRegistry);
+	}
+	
+	@Override
+	public ConnectionRequest requestConnection(final HttpRoute route, final Object state) {
+		final ConnectionRequest connectionRequest = super.requestConnection(route, state);
+		return new ConnectionRequest() {
+			
+			@Override
+			public HttpClientConnection get(final long timeout, final TimeUnit timeUnit) 
+					throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+				final long start = System.nanoTime();
+				try {
+					return connectionRequest.get(timeout, timeUnit);
+				}
+				finally {
+					acquireTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				}
+			}
+			
+			@Override
+			public boolean cancel() {
+				return connectionRequest.cancel();
+			}
+		};
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,92 @@
+package com.selimhorri.app.config.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledHttpClientConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withUserConfiguration(RestTemplateConfig.class, PooledHttpClientConfig.class);
+
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/ping", exchange -> {
+            final byte[] body = "pong".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void restTemplate_keepsDefaultRequestFactoryUnlessPoolingIsEnabled() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("pooledRequestFactory"));
+            assertTrue(context.getBean(RestTemplate.class).getRequestFactory() instanceof SimpleClientHttpRequestFactory);
+        });
+    }
+
+    @Test
+    void restTemplate_usesInstrumentedPoolWhenEnabled() {
+        contextRunner
+                .withPropertyValues("app.http-client.pooled=true", "app.http-client.max-connections-per-host=7")
+                .run(context -> {
+                    final RestTemplate restTemplate = context.getBean(RestTemplate.class);
+                    assertTrue(restTemplate.getRequestFactory() instanceof HttpComponentsClientHttpRequestFactory);
+
+                    final String url = "http://localhost:" + server.getAddress().getPort() + "/ping";
+                    assertEquals("pong", restTemplate.getForObject(url, String.class));
+                    assertEquals("pong", restTemplate.getForObject(url, String.class));
+
+                    final MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+                    assertEquals(2, meterRegistry.get("httpcomponents.httpclient.pool.acquire").timer().count());
+                    assertEquals(2, meterRegistry.get("httpcomponents.httpclient.request").timer().count());
+                    assertEquals(7, context.getBean(TimedPoolingConnectionManager.class).getDefaultMaxPerRoute());
+                    assertEquals(1, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                            .tag("state", "available").gauge().value());
+                });
+    }
+
+    /**
+     * Same wiring as the ClientConfig of the services.
+     */
+    @Configuration
+    static class RestTemplateConfig {
+
+        @Bean
+        RestTemplate restTemplate(final ObjectProvider<HttpComponentsClientHttpRequestFactory> pooledRequestFactory) {
+            final HttpComponentsClientHttpRequestFactory requestFactory = pooledRequestFactory.getIfAvailable();
+            return requestFactory != null ? new RestTemplate(requestFactory) : new RestTemplate();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.selimhorri.app.config.loadbalancer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Outstanding requests and exponentially weighted moving average latency of every instance this service calls
+ * through the load balancer (@LoadBalanced RestTemplate, Feign, gateway lb:// routes).
+ * Registered in the parent context, so the load balancer lifecycle of every client picks it up.
+ *
+ * The average decays with time rather than per sample (app.loadbalancer.decay), so an instance that recovered
+ * is trusted again after a few decay periods even at low traffic; failed calls count at least
+ * app.loadbalancer.failure-penalty.
+ *
+ * Spring Cloud only completes the lifecycle on success or error, a caller whose request can be cancelled
+ * (gateway exchanges) must report the cancellation through {@link #onCancel(Response)}, otherwise the instance
+ * keeps the request as outstanding for good.
+ *
+ * Exported per instance as "loadbalancer.instance.outstanding", "loadbalancer.instance.latency" (ms)
+ * and "loadbalancer.instance.score".
+ */
+@Component
+public class InstanceStats implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+	
+	private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+	private final double decayNanos;
+	private final long failurePenaltyNanos;
+	private final MeterRegistry meterRegistry;
+	
+	public InstanceStats(
+			@Value("${app.loadbalancer.decay:10s}") final Duration decay,
+			@Value("${app.loadbalancer.failure-penalty:1s}") final Duration failurePenalty,
+			final MeterRegistry meterRegistry) {
+		this.decayNanos = decay.toNanos();
+		this.failurePenaltyNanos = failurePenalty.toNanos();
+		this.meterRegistry = meterRegistry;
+	}
+	
+	@Override
+	public boolean supports(final Class requestContextClass, final Class responseClass, final Class serverTypeClass) {
+		return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+	}
+	
+	@Override
+	public void onStart(final Request<Object> request) {
+		
+	}
+	
+	@Override
+	public void onStartRequest(final Request<Object> request, final Response<ServiceInstance> lbResponse) {
+		if (!lbResponse.hasServer()) {
+			return;
+		}
+		if (request.getContext() instanceof TimedRequestContext
+				&& ((TimedRequestContext) request.getContext()).getRequestStartTime() == 0) {
+			((TimedRequestContext) request.getContext()).setRequestStartTime(System.nanoTime());
+		}
+		this.of(lbResponse.getServer()).outstanding.incrementAndGet();
+	}
+	
+	@Override
+	public void onComplete(final CompletionContext<Object, ServiceInstance, Object> completionContext) {
+		final Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+		if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+			return;
+		}
+		final Stats instanceStats = this.of(lbResponse.getServer());
+		instanceStats.finish();
+		
+		final Object context = completionContext.getLoadBalancerRequest().getContext();
+		if (context instanceof TimedRequestContext && ((TimedRequestContext) context).getRequestStartTime() != 0) {
+			final long now = System.nanoTime();
+			final long latency = now - ((TimedRequestContext) context).getRequestStartTime();
+			instanceStats.record(completionContext.status() == CompletionContext.Status.FAILED
+					? Math.max(latency, this.failurePenaltyNanos)
+					: latency, now, this.decayNanos);
+		}
+	}
+	
+	/**
+	 * Ends a request that was started but will never complete, without recording its latency.
+	 */
+	public void onCancel(final Response<ServiceInstance> lbResponse) {
+		if (lbResponse != null && lbResponse.hasServer()) {
+			this.of(lbResponse.getServer()).finish();
+		}
+	}
+	
+	public int outstanding(final ServiceInstance instance) {
+		return this.of(instance).outstanding.get();
+	}
+	
+	/**
+	 * @return the moving average latency in nanos, 0 until the instance answered once
+	 */
+	public double latency(final ServiceInstance instance) {
+		return this.of(instance).ewma.get().nanos;
+	}
+	
+	/**
+	 * Expected cost of sending one more request: average latency times the requests that would be waiting,
+	 * lower is better. Unmeasured instances score 0 so new instances get probed.
+	 */
+	public double score(final ServiceInstance instance) {
+		final Stats instanceStats = this.of(instance);
+		return instanceStats.ewma.get().nanos * (instanceStats.outstanding.get() + 1);
+	}
+	
+	/**
+	 * Drops stats and meters of instances of serviceId that left discovery.
+	 */
+	public void retainOnly(final String serviceId, final Collection<ServiceInstance> instances) {
+		final Set<String> live = instances.stream()
+				.map(InstanceStats::key)
+				.collect(Collectors.toSet());
+		this.stats.entrySet().removeIf(entry -> {
+			final boolean retired = entry.getValue().serviceId.equals(serviceId) && !live.contains(entry.getKey());
+			if (retired) {
+				entry.getValue().meters.forEach(this.meterRegistry::remove);
+			}
+			return retired;
+		});
+	}
+	
+	private Stats of(final ServiceInstance instance) {
+		return this.stats.computeIfAbsent(key(instance), key -> this.register(instance));
+	}
+	
+	private Stats register(final ServiceInstance instance) {
+		final Stats instanceStats = new Stats(instance.getServiceId());
+		final Tags tags = Tags.of("service", String.valueOf(instance.getServiceId()), "instance", instance.getHost() + ":" + instance.getPort());
+		instanceStats.meters = List.of(
+				Gauge.builder("loadbalancer.instance.outstanding", instanceStats.outstanding, AtomicInteger::get)
+						.tags(tags)
+						.register(this.meterRegistry),
+				Gauge.builder("loadbalancer.instance.latency", instanceStats, s -> s.ewma.get().nanos / 1_000_000)
+						.tags(tags)
+						.baseUnit("milliseconds")
+						.register(this.meterRegistry),
+				Gauge.builder("loadbalancer.instance.score", instanceStats, s -> s.ewma.get().nanos * (s.outstanding.get() + 1) / 1_000_000)
+						.tags(tags)
+						.register(this.meterRegistry));
+		return instanceStats;
+	}
+	
+	private static String key(final ServiceInstance instance) {
+		return instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+	}
+	
+	private static final class Stats {
+		
+		private final String serviceId;
+		private final AtomicInteger outstanding = new AtomicInteger();
+		private final AtomicReference<Ewma> ewma = new AtomicReference<>(new Ewma(0, 0));
+		private List<Meter> meters = List.of();
+		
+		private Stats(final String serviceId) {
+			this.serviceId = serviceId;
+		}
+		
+		private void finish() {
+			this.outstanding.updateAndGet(outstanding -> Math.max(0, outstanding - 1));
+		}
+		
+		private void record(final long latencyNanos, final long now, final double decayNanos) {
+			while (true) {
+				final Ewma current = this.ewma.get();
+				final double next = current.at == 0
+						? latencyNanos
+						: current.nanos + (latencyNanos - current.nanos) * (1 - Math.exp(-Math.max(0, now - current.at) / decayNanos));
+				if (this.ewma.compareAndSet(current, new Ewma(next, now))) {
+					return;
+				}
+			}
+		}
+		
+	}
+	
+	private static final class Ewma {
+		
+		private final double nanos;
+		private final long at;
+		
+		private Ewma(final double nanos, final long at) {
+			this.nanos = nanos;
+			this.at = at;
+		}
+		
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,116 @@
+package com.selimhorri.app.config.loadbalancer;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Picks the instance expected to answer fastest instead of rotating blindly, so one slow instance
+ * (GC pause, noisy neighbour) stops receiving its full share of the traffic.
+ * <ul>
+ * <li>{@link Strategy#P2C_EWMA}: draws two distinct instances at random and keeps the one with the lower
+ * {@link InstanceStats#score(ServiceInstance)}, i.e. moving average latency weighted by outstanding requests</li>
+ * <li>{@link Strategy#LEAST_OUTSTANDING}: the instance with the fewest requests in flight, ties broken at random</li>
+ * </ul>
+ */
+@Slf4j
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+	
+	public enum Strategy {
+		P2C_EWMA,
+		LEAST_OUTSTANDING
+	}
+	
+	private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+	private final String serviceId;
+	private final InstanceStats instanceStats;
+	private final Strategy strategy;
+	private volatile List<ServiceInstance> lastInstances;
+	
+	public LatencyAwareLoadBalancer(
+			final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+			final String serviceId,
+			final InstanceStats instanceStats,
+			final Strategy strategy) {
+		this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+		this.serviceId = serviceId;
+		this.instanceStats = instanceStats;
+		this.strategy = strategy;
+	}
+	
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Mono<Response<ServiceInstance>> choose(final Request request) {
+		final ServiceInstanceListSupplier supplier = this.serviceInstanceListSupplierProvider
+				.getIfAvailable(NoopServiceInstanceListSupplier::new);
+		return supplier.get(request)
+				.next()
+				.map(this::choose);
+	}
+	
+	Response<ServiceInstance> choose(final List<ServiceInstance> instances) {
+		if (instances.isEmpty()) {
+			log.warn("** LatencyAwareLoadBalancer, no servers available for service: {} *\n", this.serviceId);
+			return new EmptyResponse();
+		}
+		if (instances != this.lastInstances) {
+			this.lastInstances = instances;
+			this.instanceStats.retainOnly(this.serviceId, instances);
+		}
+		if (instances.size() == 1) {
+			return new DefaultResponse(instances.get(0));
+		}
+		return new DefaultResponse(this.strategy == Strategy.LEAST_OUTSTANDING
+				? this.leastOutstanding(instances)
+				: this.powerOfTwoChoices(instances));
+	}
+	
+	private ServiceInstance powerOfTwoChoices(final List<ServiceInstance> instances) {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		final int first = random.nextInt(instances.size());
+		final int second = (first + 1 + random.nextInt(instances.size() - 1)) % instances.size();
+		return this.instanceStats.score(instances.get(first)) <= this.instanceStats.score(instances.get(second))
+				? instances.get(first)
+				: instances.get(second);
+	}
+	
+	private ServiceInstance leastOutstanding(final List<ServiceInstance> instances) {
+		final int offset = ThreadLocalRandom.current().nextInt(instances.size());
+		ServiceInstance best = null;
+		int bestOutstanding = Integer.MAX_VALUE;
+		for (int i = 0; i < instances.size(); i++) {
+			final ServiceInstance candidate = instances.get((offset + i) % instances.size());
+			final int outstanding = this.instanceStats.outstanding(candidate);
+			if (outstanding < bestOutstanding) {
+				best = candidate;
+				bestOutstanding = outstanding;
+			}
+		}
+		return best;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,48 @@
+package com.selimhorri.app.config.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-client load balancer configuration, registered for every service by {@link LoadBalancerConfig}.
+ * Deliberately not a @Configuration: it must only be loaded into the child context of each client.
+ */
+public class LatencyAwareLoadBalancerConfig {
+	
+	@Bean
+	public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(
+			final Environment environment,
+			final LoadBalancerClientFactory loadBalancerClientFactory,
+			final InstanceStats instanceStats,
+			@Value("${app.loadbalancer.strategy:p2c-ewma}") final String strategy) {
+		final String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+		if ("round-robin".equalsIgnoreCase(strategy)) {
+			return new RoundRobinLoadBalancer(
+					loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId);
+		}
+		return new LatencyAwareLoadBalancer(
+				loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+				serviceId,
+				instanceStats,
+				LatencyAwareLoadBalancer.Strategy.valueOf(strategy.trim().toUpperCase().replace('-', '_')));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,26 @@
+package com.selimhorri.app.config.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Uses {@link LatencyAwareLoadBalancer} for every load balanced client, app.loadbalancer.strategy
+ * selects p2c-ewma (default), least-outstanding or round-robin.
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfig.class)
+public class LoadBalancerConfig {
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
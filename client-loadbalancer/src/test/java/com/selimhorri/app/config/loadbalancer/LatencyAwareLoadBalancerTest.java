@@ -0,0 +1,108 @@
+package com.selimhorri.app.config.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyAwareLoadBalancerTest {
+
+    private final ServiceInstance fast = new DefaultServiceInstance("fast", "USER-SERVICE", "10.0.0.1", 8700, false);
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", "USER-SERVICE", "10.0.0.2", 8700, false);
+    private final ServiceInstance idle = new DefaultServiceInstance("idle", "USER-SERVICE", "10.0.0.3", 8700, false);
+
+    private SimpleMeterRegistry meterRegistry;
+    private InstanceStats instanceStats;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        instanceStats = new InstanceStats(Duration.ofSeconds(10), Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @Test
+    void p2cEwma_sendsAlmostNothingToTheSlowInstance() {
+        record(fast, Duration.ofMillis(5));
+        record(slow, Duration.ofMillis(500));
+        final LatencyAwareLoadBalancer loadBalancer = loadBalancer(LatencyAwareLoadBalancer.Strategy.P2C_EWMA);
+
+        final Map<ServiceInstance, Integer> picks = pick(loadBalancer, List.of(fast, slow), 1000);
+
+        assertEquals(1000, picks.get(fast));
+        assertNull(picks.get(slow));
+        assertEquals(500.0, meterRegistry.get("loadbalancer.instance.latency").tag("instance", "10.0.0.2:8700").gauge().value(), 1.0);
+    }
+
+    @Test
+    void leastOutstanding_prefersTheInstanceWithFewestRequestsInFlight() {
+        start(fast);
+        start(fast);
+        start(slow);
+        final LatencyAwareLoadBalancer loadBalancer = loadBalancer(LatencyAwareLoadBalancer.Strategy.LEAST_OUTSTANDING);
+
+        final Map<ServiceInstance, Integer> picks = pick(loadBalancer, List.of(fast, slow, idle), 100);
+
+        assertEquals(100, picks.get(idle));
+        assertEquals(2, instanceStats.outstanding(fast));
+    }
+
+    @Test
+    void choose_dropsStatsOfInstancesThatLeftDiscovery() {
+        record(slow, Duration.ofMillis(500));
+        final LatencyAwareLoadBalancer loadBalancer = loadBalancer(LatencyAwareLoadBalancer.Strategy.P2C_EWMA);
+
+        loadBalancer.choose(List.of(fast, idle));
+
+        assertTrue(meterRegistry.find("loadbalancer.instance.latency").tag("instance", "10.0.0.2:8700").gauges().isEmpty());
+        assertEquals(0.0, instanceStats.latency(slow));
+    }
+
+    @Test
+    void onCancel_endsTheRequestWithoutRecordingLatency() {
+        start(fast);
+        start(fast);
+
+        instanceStats.onCancel(new DefaultResponse(fast));
+
+        assertEquals(1, instanceStats.outstanding(fast));
+        assertEquals(0.0, instanceStats.latency(fast));
+    }
+
+    private LatencyAwareLoadBalancer loadBalancer(final LatencyAwareLoadBalancer.Strategy strategy) {
+        return new LatencyAwareLoadBalancer(null, "USER-SERVICE", instanceStats, strategy);
+    }
+
+    private Map<ServiceInstance, Integer> pick(final LatencyAwareLoadBalancer loadBalancer, final List<ServiceInstance> instances, final int times) {
+        final Map<ServiceInstance, Integer> picks = new HashMap<>();
+        for (int i = 0; i < times; i++) {
+            picks.merge(loadBalancer.choose(instances).getServer(), 1, Integer::sum);
+        }
+        return picks;
+    }
+
+    private DefaultRequest<Object> start(final ServiceInstance instance) {
+        final DefaultRequest<Object> request = new DefaultRequest<>(new RequestDataContext());
+        instanceStats.onStartRequest(request, new DefaultResponse(instance));
+        return request;
+    }
+
+    private void record(final ServiceInstance instance, final Duration latency) {
+        final DefaultRequest<Object> request = start(instance);
+        ((RequestDataContext) request.getContext()).setRequestStartTime(System.nanoTime() - latency.toNanos());
+        final Response<ServiceInstance> response = new DefaultResponse(instance);
+        instanceStats.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+    }
+}
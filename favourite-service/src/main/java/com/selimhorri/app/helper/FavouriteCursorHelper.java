@@ -0,0 +1,47 @@
+package com.selimhorri.app.helper;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.dto.FavouriteDto;
+
+/**
+ * Keyset cursor of a favourite: "userId,productId,likeDate", in the key order favourites are paged by.
+ */
+public interface FavouriteCursorHelper {
+	
+	public static String toCursor(final FavouriteDto favouriteDto) {
+		return favouriteDto.getUserId() + "," + favouriteDto.getProductId() + "," 
+				+ favouriteDto.getLikeDate().format(DateTimeFormatter.ofPattern(AppConstant.LOCAL_DATE_TIME_FORMAT));
+	}
+	
+	/**
+	 * A malformed cursor is a client error, it surfaces as a NumberFormatException (400).
+	 */
+	public static FavouriteId fromCursor(final String cursor) {
+		final String[] keys = cursor.split(",", 3);
+		try {
+			return new FavouriteId(Integer.parseInt(keys[0].strip()), Integer.parseInt(keys[1].strip()), 
+					LocalDateTime.parse(keys[2].strip(), DateTimeFormatter.ofPattern(AppConstant.LOCAL_DATE_TIME_FORMAT)));
+		}
+		catch (NumberFormatException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+			throw new NumberFormatException(String.format("Malformed cursor: %s", cursor));
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
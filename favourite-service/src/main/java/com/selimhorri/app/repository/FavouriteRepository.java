@@ -1,12 +1,46 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Favourite;
 import com.selimhorri.app.domain.id.FavouriteId;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface FavouriteRepository extends JpaRepository<Favourite, FavouriteId> {
 	
+	List<Favourite> findAllByUserId(final Integer userId);
+	
+	@Query("SELECT f FROM Favourite f")
+	List<Favourite> findPage(final Pageable pageable);
+	
+	@Query("SELECT f FROM Favourite f "
+			+ "WHERE f.userId > :userId "
+			+ "OR (f.userId = :userId AND f.productId > :productId) "
+			+ "OR (f.userId = :userId AND f.productId = :productId AND f.likeDate > :likeDate)")
+	List<Favourite> findPageAfter(
+			@Param("userId") final Integer userId, 
+			@Param("productId") final Integer productId, 
+			@Param("likeDate") final LocalDateTime likeDate, 
+			final Pageable pageable);
+	
+	@Query("SELECT coalesce(f.updatedAt, f.createdAt) FROM Favourite f "
+			+ "WHERE f.userId = :userId AND f.productId = :productId AND f.likeDate = :likeDate")
+	Optional<Instant> findLastModifiedById(
+			@Param("userId") final Integer userId, 
+			@Param("productId") final Integer productId, 
+			@Param("likeDate") final LocalDateTime likeDate);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CollectionVersion("
+			+ "max(coalesce(f.updatedAt, f.createdAt)), count(f)) FROM Favourite f")
+	CollectionVersion findCollectionVersion();
 	
 	
 }
@@ -14,12 +14,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.ConditionalGetHelper;
+import com.selimhorri.app.helper.FavouriteCursorHelper;
 import com.selimhorri.app.service.FavouriteService;
 
 import lombok.RequiredArgsConstructor;
@@ -34,20 +38,39 @@ public class FavouriteResource {
 	private final FavouriteService favouriteService;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<FavouriteDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<FavouriteDto>> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit, 
+			final WebRequest webRequest) {
 		log.info("*** FavouriteDto List, controller; fetch all favourites *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.favouriteService.findAll()));
+		return ConditionalGetHelper.collection(webRequest, this.favouriteService.findCollectionVersion(), () -> {
+			if (after == null && limit == null) {
+				return new DtoCollectionResponse<>(this.favouriteService.findAll());
+			}
+			return this.favouriteService.findAll(
+					(after == null) ? null : FavouriteCursorHelper.fromCursor(after), limit);
+		});
+	}
+	
+	@GetMapping(params = "userId")
+	public ResponseEntity<DtoCollectionResponse<FavouriteDto>> findAllByUserId(
+			@RequestParam("userId") 
+			@NotNull(message = "Input must not be NULL") final Integer userId) {
+		log.info("*** FavouriteDto List, controller; fetch favourites by user id *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.favouriteService.findAllByUserId(userId)));
 	}
 	
 	@GetMapping("/{userId}/{productId}/{likeDate}")
 	public ResponseEntity<FavouriteDto> findById(
 			@PathVariable("userId") final String userId, 
 			@PathVariable("productId") final String productId, 
-			@PathVariable("likeDate") final String likeDate) {
+			@PathVariable("likeDate") final String likeDate, 
+			final WebRequest webRequest) {
 		log.info("*** FavouriteDto, resource; fetch favourite by id *");
-		return ResponseEntity.ok(this.favouriteService.findById(
-				new FavouriteId(Integer.parseInt(userId), Integer.parseInt(productId), 
-						LocalDateTime.parse(likeDate, DateTimeFormatter.ofPattern(AppConstant.LOCAL_DATE_TIME_FORMAT)))));
+		final FavouriteId favouriteId = new FavouriteId(Integer.parseInt(userId), Integer.parseInt(productId), 
+				LocalDateTime.parse(likeDate, DateTimeFormatter.ofPattern(AppConstant.LOCAL_DATE_TIME_FORMAT)));
+		return ConditionalGetHelper.entity(webRequest, userId + "-" + productId + "-" + likeDate, 
+				this.favouriteService.findLastModifiedById(favouriteId), () -> this.favouriteService.findById(favouriteId));
 	}
 	
 	@GetMapping("/find")
@@ -1,14 +1,22 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface FavouriteService {
 	
 	List<FavouriteDto> findAll();
+	List<FavouriteDto> findAllByUserId(final Integer userId);
+	DtoCollectionResponse<FavouriteDto> findAll(final FavouriteId after, final Integer limit);
 	FavouriteDto findById(final FavouriteId favouriteId);
+	Optional<Instant> findLastModifiedById(final FavouriteId favouriteId);
+	CollectionVersion findCollectionVersion();
 	FavouriteDto save(final FavouriteDto favouriteDto);
 	FavouriteDto update(final FavouriteDto favouriteDto);
 	void deleteById(final FavouriteId favouriteId);
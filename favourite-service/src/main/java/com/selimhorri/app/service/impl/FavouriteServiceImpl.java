@@ -1,21 +1,43 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Favourite;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
 import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.enrichment.DtoEnricher;
+import com.selimhorri.app.enrichment.Lookup;
+import com.selimhorri.app.enrichment.ResilientRestClient;
 import com.selimhorri.app.exception.wrapper.FavouriteNotFoundException;
+import com.selimhorri.app.helper.FavouriteCursorHelper;
 import com.selimhorri.app.helper.FavouriteMappingHelper;
 import com.selimhorri.app.repository.FavouriteRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 import com.selimhorri.app.service.FavouriteService;
 
 import lombok.RequiredArgsConstructor;
@@ -27,44 +49,80 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class FavouriteServiceImpl implements FavouriteService {
 	
+	/**
+	 * Maximum number of ids sent in a single batch lookup, keeps the query string bounded.
+	 */
+	private static final int ENRICHMENT_BATCH_SIZE = 100;
+	
+	private static final ParameterizedTypeReference<DtoCollectionResponse<UserDto>> USER_COLLECTION_TYPE = 
+			new ParameterizedTypeReference<>() {};
+	private static final ParameterizedTypeReference<DtoCollectionResponse<ProductDto>> PRODUCT_COLLECTION_TYPE = 
+			new ParameterizedTypeReference<>() {};
+	
 	private final FavouriteRepository favouriteRepository;
 	private final RestTemplate restTemplate;
+	private final ResilientRestClient resilientRestClient;
+	private final DtoEnricher dtoEnricher;
+	private final TransactionTemplate transactionTemplate;
+	
+	@Value("${app.pagination.max-limit:100}")
+	private int maxPageSize;
 	
 	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
 	public List<FavouriteDto> findAll() {
 		log.info("*** FavouriteDto List, service; fetch all favourites *");
-		return this.favouriteRepository.findAll()
+		return this.enrich(this.transactionTemplate.execute(status -> this.favouriteRepository.findAll()
 				.stream()
 					.map(FavouriteMappingHelper::map)
-					.map(f -> {
-						f.setUserDto(this.restTemplate
-								.getForObject(AppConstant.DiscoveredDomainsApi
-										.USER_SERVICE_API_URL + "/" + f.getUserId(), UserDto.class));
-						f.setProductDto(this.restTemplate
-								.getForObject(AppConstant.DiscoveredDomainsApi
-										.PRODUCT_SERVICE_API_URL + "/" + f.getProductId(), ProductDto.class));
-						return f;
-					})
 					.distinct()
-					.collect(Collectors.toUnmodifiableList());
+					.collect(Collectors.toUnmodifiableList())));
+	}
+	
+	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
+	public List<FavouriteDto> findAllByUserId(final Integer userId) {
+		log.info("*** FavouriteDto List, service; fetch favourites by user id *");
+		return this.enrich(this.transactionTemplate.execute(status -> this.favouriteRepository.findAllByUserId(userId)
+				.stream()
+					.map(FavouriteMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList())));
+	}
+	
+	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
+	public DtoCollectionResponse<FavouriteDto> findAll(final FavouriteId after, final Integer limit) {
+		log.info("*** FavouriteDto List, service; fetch page of favourites *");
+		final int pageSize = Math.max(1, Math.min(Optional.ofNullable(limit).orElse(this.maxPageSize), this.maxPageSize));
+		final Pageable pageable = PageRequest.of(0, pageSize + 1, Sort.by("userId", "productId", "likeDate"));
+		final DtoCollectionResponse<FavouriteDto> page = this.transactionTemplate.execute(status -> {
+			final List<Favourite> favourites = (after == null) 
+					? this.favouriteRepository.findPage(pageable) 
+					: this.favouriteRepository.findPageAfter(after.getUserId(), after.getProductId(), after.getLikeDate(), pageable);
+			return DtoCollectionResponse.ofPage(favourites
+					.stream()
+						.map(FavouriteMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()), 
+					pageSize, FavouriteCursorHelper::toCursor);
+		});
+		this.enrich(List.copyOf(page.getCollection()));
+		return page;
 	}
 	
 	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
 	public FavouriteDto findById(final FavouriteId favouriteId) {
 		log.info("*** FavouriteDto, service; fetch favourite by id *");
-		return this.favouriteRepository.findById(favouriteId)
+		final FavouriteDto favouriteDto = this.transactionTemplate.execute(status -> this.favouriteRepository.findById(favouriteId)
 				.map(FavouriteMappingHelper::map)
-				.map(f -> {
-					f.setUserDto(this.restTemplate
-							.getForObject(AppConstant.DiscoveredDomainsApi
-									.USER_SERVICE_API_URL + "/" + f.getUserId(), UserDto.class));
-					f.setProductDto(this.restTemplate
-							.getForObject(AppConstant.DiscoveredDomainsApi
-									.PRODUCT_SERVICE_API_URL + "/" + f.getProductId(), ProductDto.class));
-					return f;
-				})
 				.orElseThrow(() -> new FavouriteNotFoundException(
-						String.format("Favourite with id: [%s] not found!", favouriteId)));
+						String.format("Favourite with id: [%s] not found!", favouriteId))));
+		return this.dtoEnricher.enrich(List.of(favouriteDto), 
+				f -> this.resilientRestClient.lookup(AppConstant.DiscoveredDomainsApi
+						.USER_SERVICE_API_URL + "/" + f.getUserId(), UserDto.class, f::setUserDto), 
+				f -> this.resilientRestClient.lookup(AppConstant.DiscoveredDomainsApi
+						.PRODUCT_SERVICE_API_URL + "/" + f.getProductId(), ProductDto.class, f::setProductDto))
+				.get(0);
 	}
 	
 	@Override
@@ -84,6 +142,83 @@ public class FavouriteServiceImpl implements FavouriteService {
 		this.favouriteRepository.deleteById(favouriteId);
 	}
 	
+	/**
+	 * Resolves users and products of the given favourites with one batch call per service, 
+	 * both running concurrently outside of any DB transaction.
+	 */
+	private List<FavouriteDto> enrich(final List<FavouriteDto> favouriteDtos) {
+		
+		final Set<Integer> userIds = favouriteDtos.stream()
+				.map(FavouriteDto::getUserId)
+				.collect(Collectors.toUnmodifiableSet());
+		final Set<Integer> productIds = favouriteDtos.stream()
+				.map(FavouriteDto::getProductId)
+				.collect(Collectors.toUnmodifiableSet());
+		
+		this.dtoEnricher.await(List.of(
+				Lookup.of(() -> this.fetchAllByIds(AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL, 
+						userIds, USER_COLLECTION_TYPE, UserDto::getUserId), 
+					userDtos -> favouriteDtos.forEach(f -> f.setUserDto(userDtos.getOrDefault(f.getUserId(), f.getUserDto())))), 
+				Lookup.of(() -> this.fetchAllByIds(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL, 
+						productIds, PRODUCT_COLLECTION_TYPE, ProductDto::getProductId), 
+					productDtos -> favouriteDtos.forEach(f -> f.setProductDto(productDtos.getOrDefault(f.getProductId(), f.getProductDto()))))));
+		
+		return favouriteDtos;
+	}
+	
+	/**
+	 * Resolves the given (already deduplicated) ids against a remote batch endpoint 
+	 * ({@code GET <apiUrl>?ids=1,2,3}), issuing one call per {@link #ENRICHMENT_BATCH_SIZE} ids.
+	 * Each batch goes through the circuit breaker and bulkhead of the remote service; 
+	 * a failed batch falls back to the last known entities, cached under {@code <apiUrl>/<id>} like single lookups.
+	 */
+	private <T> Map<Integer, T> fetchAllByIds(final String apiUrl, final Set<Integer> ids, 
+			final ParameterizedTypeReference<DtoCollectionResponse<T>> responseType, final Function<T, Integer> idExtractor) {
+		
+		final List<Integer> idList = new ArrayList<>(ids);
+		final Map<Integer, T> resolved = new HashMap<>(idList.size());
+		
+		for (int from = 0; from < idList.size(); from += ENRICHMENT_BATCH_SIZE) {
+			final List<Integer> batch = idList.subList(from, Math.min(from + ENRICHMENT_BATCH_SIZE, idList.size()));
+			final String uri = UriComponentsBuilder.fromHttpUrl(apiUrl)
+					.queryParam("ids", batch.stream()
+							.map(String::valueOf)
+							.collect(Collectors.joining(",")))
+					.toUriString();
+			try {
+				Optional.ofNullable(this.resilientRestClient.call(uri, 
+								() -> this.restTemplate.exchange(uri, HttpMethod.GET, null, responseType).getBody()))
+						.map(DtoCollectionResponse::getCollection)
+						.ifPresent(collection -> collection.forEach(t -> {
+							resolved.put(idExtractor.apply(t), t);
+							this.resilientRestClient.remember(apiUrl + "/" + idExtractor.apply(t), t);
+						}));
+			}
+			catch (RuntimeException e) {
+				log.warn("** FavouriteServiceImpl, batch lookup failed: {} *\n", e.getMessage());
+				if (!ResilientRestClient.isUnavailable(e)) {
+					continue;
+				}
+				batch.forEach(id -> this.resilientRestClient.<T>lastKnown(apiUrl + "/" + id)
+						.ifPresent(t -> resolved.put(id, t)));
+			}
+		}
+		
+		return resolved;
+	}
+	
+	@Override
+	public Optional<Instant> findLastModifiedById(final FavouriteId favouriteId) {
+		log.info("*** Instant, service; fetch last modification of favourite by id *");
+		return this.favouriteRepository.findLastModifiedById(favouriteId.getUserId(), favouriteId.getProductId(), favouriteId.getLikeDate());
+	}
+	
+	@Override
+	public CollectionVersion findCollectionVersion() {
+		log.info("*** CollectionVersion, service; fetch version of all favourites *");
+		return this.favouriteRepository.findCollectionVersion();
+	}
+	
 	
 	
 }
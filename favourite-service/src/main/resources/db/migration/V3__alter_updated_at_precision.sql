@@ -0,0 +1,3 @@
+
+ALTER TABLE favourites ALTER COLUMN updated_at TIMESTAMP(6);
+
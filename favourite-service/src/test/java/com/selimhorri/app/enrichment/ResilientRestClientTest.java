@@ -0,0 +1,119 @@
+package com.selimhorri.app.enrichment;
+
+import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.dto.UserDto;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false"
+})
+class ResilientRestClientTest {
+
+    private static final String USERS_URL = AppConstant.DiscoveredDomainsApi.USER_SERVICE_API_URL;
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ResilientRestClient resilientRestClient;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreakerRegistry.circuitBreaker("userService").reset();
+    }
+
+    @Test
+    void instanceName_isDerivedFromDiscoveredServiceName() {
+        assertEquals("userService", ResilientRestClient.instanceName(USERS_URL + "/1"));
+        assertEquals("productService", ResilientRestClient.instanceName(AppConstant.DiscoveredDomainsApi.PRODUCT_SERVICE_API_URL));
+    }
+
+    @Test
+    void getForObject_servesLastKnownGoodWhenRemoteFails() {
+        final String url = USERS_URL + "/1";
+        given(restTemplate.getForObject(url, UserDto.class))
+                .willReturn(UserDto.builder().userId(1).firstName("selim").build())
+                .willThrow(new ResourceAccessException("user-service down"));
+
+        assertEquals("selim", resilientRestClient.getForObject(url, UserDto.class).getFirstName());
+        assertEquals("selim", resilientRestClient.getForObject(url, UserDto.class).getFirstName());
+    }
+
+    @Test
+    void getForObject_rethrowsWhenNothingIsKnown() {
+        final String url = USERS_URL + "/2";
+        given(restTemplate.getForObject(url, UserDto.class)).willThrow(new ResourceAccessException("user-service down"));
+
+        assertThrows(ResourceAccessException.class, () -> resilientRestClient.getForObject(url, UserDto.class));
+    }
+
+    @Test
+    void getForObject_passesNotFoundOnAndForgetsTheLastKnownResponse() {
+        final String url = USERS_URL + "/4";
+        given(restTemplate.getForObject(url, UserDto.class))
+                .willReturn(UserDto.builder().userId(4).firstName("deleted").build())
+                .willThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null))
+                .willThrow(new ResourceAccessException("user-service down"));
+
+        resilientRestClient.getForObject(url, UserDto.class);
+
+        assertThrows(HttpClientErrorException.NotFound.class, () -> resilientRestClient.getForObject(url, UserDto.class));
+        assertThrows(ResourceAccessException.class, () -> resilientRestClient.getForObject(url, UserDto.class));
+    }
+
+    @Test
+    void getForObject_keepsTheCircuitClosedOnClientErrors() {
+        final String url = USERS_URL + "/5";
+        given(restTemplate.getForObject(url, UserDto.class))
+                .willThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null));
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(HttpClientErrorException.BadRequest.class, () -> resilientRestClient.getForObject(url, UserDto.class));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("userService").getState());
+    }
+
+    @Test
+    void getForObject_opensCircuitAfterRepeatedFailuresAndExportsItsState() {
+        final String url = USERS_URL + "/3";
+        given(restTemplate.getForObject(url, UserDto.class)).willThrow(new ResourceAccessException("user-service down"));
+
+        // minimum-number-of-calls: 5, failure-rate-threshold: 50
+        for (int i = 0; i < 5; i++) {
+            assertThrows(ResourceAccessException.class, () -> resilientRestClient.getForObject(url, UserDto.class));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("userService").getState());
+        assertThrows(CallNotPermittedException.class, () -> resilientRestClient.getForObject(url, UserDto.class));
+        verify(restTemplate, times(5)).getForObject(url, UserDto.class);
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "userService")
+                .tag("state", "open")
+                .gauge().value());
+    }
+}
@@ -0,0 +1,42 @@
+package com.selimhorri.app.repository;
+
+import com.selimhorri.app.domain.Favourite;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false"
+})
+class FavouriteRepositoryTest {
+
+    private static final Sort KEY_ORDER = Sort.by("userId", "productId", "likeDate");
+
+    @Autowired
+    private FavouriteRepository favouriteRepository;
+
+    @Test
+    void findPageAfter_continuesFromCompositeKeyCursor() {
+        final List<Favourite> firstPage = favouriteRepository.findPage(PageRequest.of(0, 2, KEY_ORDER));
+        assertEquals(List.of("1-1", "1-2"), keys(firstPage));
+
+        final Favourite last = firstPage.get(1);
+        final List<Favourite> secondPage = favouriteRepository.findPageAfter(
+                last.getUserId(), last.getProductId(), last.getLikeDate(), PageRequest.of(0, 2, KEY_ORDER));
+        assertEquals(List.of("2-2"), keys(secondPage));
+    }
+
+    private static List<String> keys(final List<Favourite> favourites) {
+        return favourites.stream()
+                .map(f -> f.getUserId() + "-" + f.getProductId())
+                .collect(Collectors.toList());
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.domain.id.FavouriteId;
 import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.FavouriteService;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -16,7 +17,9 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
+import static org.mockito.Mockito.never;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -57,6 +60,21 @@ class FavouriteResourceAdditionalWebMvcTests {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getFavouritesPage_parsesCursorAndReturnsNextCursor() throws Exception {
+        final LocalDateTime likeDate = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+        final FavouriteId after = new FavouriteId(1, 2, likeDate);
+        BDDMockito.given(favouriteService.findAll(after, 1))
+                .willReturn(new DtoCollectionResponse<>(List.of(sampleFav()), "1,3," + likeDateStr(likeDate)));
+
+        mockMvc.perform(get("/api/favourites")
+                        .param("after", "1,2," + likeDateStr(likeDate))
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("1,3," + likeDateStr(likeDate)));
+    }
+
     @Test
     void getFavouriteById_returnsOk() throws Exception {
         var dto = sampleFav();
@@ -96,5 +114,13 @@ class FavouriteResourceAdditionalWebMvcTests {
                         "1", "2", likeDateStr(dto.getLikeDate())))
                 .andExpect(status().isOk());
     }
-}
 
+    @Test
+    void getFavouritesByUserId_returnsOnlyTheUsersFavourites() throws Exception {
+        BDDMockito.given(favouriteService.findAllByUserId(1)).willReturn(List.of(sampleFav()));
+        mockMvc.perform(get("/api/favourites").param("userId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productId").value(2));
+        BDDMockito.then(favouriteService).should(never()).findAll();
+    }
+}
@@ -24,5 +24,13 @@ class FavouriteResourceWebMvcTest {
         mockMvc.perform(get("/api/favourites"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void getAllFavourites_answersBadRequestForMalformedCursors() throws Exception {
+        for (final String after : new String[] {"x,2,21-11-2021__10:15:30:000000", "1,2,not-a-date", "1,2"}) {
+            mockMvc.perform(get("/api/favourites").param("after", after).param("limit", "10"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
 }
 
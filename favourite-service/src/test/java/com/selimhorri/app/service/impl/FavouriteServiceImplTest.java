@@ -0,0 +1,165 @@
+package com.selimhorri.app.service.impl;
+
+import com.selimhorri.app.domain.Favourite;
+import com.selimhorri.app.dto.FavouriteDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.enrichment.DtoEnricher;
+import com.selimhorri.app.enrichment.ResilientRestClient;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.selimhorri.app.repository.FavouriteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FavouriteServiceImplTest {
+
+    @Mock
+    private FavouriteRepository favouriteRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DtoEnricher dtoEnricher;
+
+    private FavouriteServiceImpl favouriteService;
+
+    @BeforeEach
+    void setUp() {
+        dtoEnricher = new DtoEnricher(Executors.newFixedThreadPool(2), Duration.ofSeconds(5), new SimpleMeterRegistry());
+        final ResilientRestClient resilientRestClient = new ResilientRestClient(100, Duration.ofMinutes(1), restTemplate,
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), new SimpleMeterRegistry());
+        favouriteService = new FavouriteServiceImpl(favouriteRepository, restTemplate, resilientRestClient, dtoEnricher,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dtoEnricher.shutdown();
+    }
+
+    @Test
+    void findAll_resolvesUsersAndProductsWithOneBatchCallPerService() {
+        // 250 favourites spread over 3 users and 2 products
+        final var likeDate = LocalDateTime.now();
+        given(favouriteRepository.findAll()).willReturn(IntStream.range(0, 250)
+                .mapToObj(i -> Favourite.builder()
+                        .userId(i % 3 + 1)
+                        .productId(i % 2 + 1)
+                        .likeDate(likeDate.plusSeconds(i))
+                        .build())
+                .collect(Collectors.toList()));
+        given(restTemplate.exchange(ArgumentMatchers.contains("/api/users?ids="), ArgumentMatchers.eq(HttpMethod.GET),
+                ArgumentMatchers.isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<UserDto>>>any()))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        UserDto.builder().userId(1).firstName("a").build(),
+                        UserDto.builder().userId(2).firstName("b").build(),
+                        UserDto.builder().userId(3).firstName("c").build()))));
+        given(restTemplate.exchange(ArgumentMatchers.contains("/api/products?ids="), ArgumentMatchers.eq(HttpMethod.GET),
+                ArgumentMatchers.isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>>any()))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        ProductDto.builder().productId(1).productTitle("x").build(),
+                        ProductDto.builder().productId(2).productTitle("y").build()))));
+
+        final List<FavouriteDto> favourites = favouriteService.findAll();
+
+        assertEquals(250, favourites.size());
+        assertTrue(favourites.stream().allMatch(f -> f.getUserDto().getFirstName() != null));
+        assertTrue(favourites.stream().allMatch(f -> f.getProductDto().getProductTitle() != null));
+        verify(restTemplate, times(2)).exchange(ArgumentMatchers.anyString(), ArgumentMatchers.eq(HttpMethod.GET),
+                ArgumentMatchers.isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<Object>>>any());
+    }
+
+    @Test
+    void findAll_keepsIdOnlyReferenceWhenRemoteEntityIsMissing() {
+        given(favouriteRepository.findAll()).willReturn(List.of(Favourite.builder()
+                .userId(7)
+                .productId(9)
+                .likeDate(LocalDateTime.now())
+                .build()));
+        given(restTemplate.exchange(ArgumentMatchers.anyString(), ArgumentMatchers.eq(HttpMethod.GET),
+                ArgumentMatchers.isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<Object>>>any()))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of())));
+
+        final FavouriteDto favourite = favouriteService.findAll().get(0);
+
+        assertEquals(7, favourite.getUserDto().getUserId());
+        assertEquals(9, favourite.getProductDto().getProductId());
+    }
+
+    @Test
+    void findAll_returnsPartiallyEnrichedFavouritesWhenOneServiceFails() {
+        given(favouriteRepository.findAll()).willReturn(List.of(Favourite.builder()
+                .userId(7)
+                .productId(9)
+                .likeDate(LocalDateTime.now())
+                .build()));
+        given(restTemplate.exchange(ArgumentMatchers.contains("/api/users?ids="), ArgumentMatchers.eq(HttpMethod.GET),
+                ArgumentMatchers.isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<UserDto>>>any()))
+                .willThrow(new ResourceAccessException("user-service down"));
+        given(restTemplate.exchange(ArgumentMatchers.contains("/api/products?ids="), ArgumentMatchers.eq(HttpMethod.GET),
+                ArgumentMatchers.isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>>any()))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        ProductDto.builder().productId(9).productTitle("x").build()))));
+
+        final FavouriteDto favourite = favouriteService.findAll().get(0);
+
+        assertEquals(7, favourite.getUserDto().getUserId());
+        assertNull(favourite.getUserDto().getFirstName());
+        assertEquals("x", favourite.getProductDto().getProductTitle());
+    }
+
+    @Test
+    void findAll_fallsBackToLastKnownUsersWhenUserServiceFails() {
+        given(favouriteRepository.findAll()).willReturn(List.of(Favourite.builder()
+                .userId(1)
+                .productId(2)
+                .likeDate(LocalDateTime.now())
+                .build()));
+        given(restTemplate.exchange(ArgumentMatchers.contains("/api/users?ids="), ArgumentMatchers.eq(HttpMethod.GET),
+                ArgumentMatchers.isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<UserDto>>>any()))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        UserDto.builder().userId(1).firstName("selim").build()))))
+                .willThrow(new ResourceAccessException("user-service down"));
+        given(restTemplate.exchange(ArgumentMatchers.contains("/api/products?ids="), ArgumentMatchers.eq(HttpMethod.GET),
+                ArgumentMatchers.isNull(), ArgumentMatchers.<ParameterizedTypeReference<DtoCollectionResponse<ProductDto>>>any()))
+                .willReturn(ResponseEntity.ok(new DtoCollectionResponse<>(List.of(
+                        ProductDto.builder().productId(2).productTitle("x").build()))));
+
+        favouriteService.findAll();
+        final FavouriteDto favourite = favouriteService.findAll().get(0);
+
+        assertEquals("selim", favourite.getUserDto().getFirstName());
+        assertEquals("x", favourite.getProductDto().getProductTitle());
+    }
+}
@@ -1,8 +1,10 @@
 package com.selimhorri.app.config.client;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
@@ -10,8 +12,9 @@ public class ClientConfig {
 	
 	@LoadBalanced
 	@Bean
-	public RestTemplate restTemplateBean() {
-		return new RestTemplate();
+	public RestTemplate restTemplateBean(final ObjectProvider<HttpComponentsClientHttpRequestFactory> pooledRequestFactory) {
+		final HttpComponentsClientHttpRequestFactory requestFactory = pooledRequestFactory.getIfAvailable();
+		return requestFactory != null ? new RestTemplate(requestFactory) : new RestTemplate();
 	}
 	
 	
@@ -2,9 +2,12 @@ package com.selimhorri.app.domain;
 
 import java.io.Serializable;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -27,7 +30,7 @@ abstract public class AbstractMappedEntity implements Serializable {
 	
 	@CreatedDate
 	@JsonFormat(shape = Shape.STRING)
-	@Column(name = "created_at")
+	@Column(name = "created_at", updatable = false)
 	private Instant createdAt;
 	
 	@LastModifiedDate
@@ -35,6 +38,20 @@ abstract public class AbstractMappedEntity implements Serializable {
 	@Column(name = "updated_at")
 	private Instant updatedAt;
 	
+	/**
+	 * Keeps updated_at current on every insert and update, it versions the entity for conditional GETs.
+	 * Truncated to the TIMESTAMP(6) column so the value in hand matches the one read back later.
+	 */
+	@PrePersist
+	@PreUpdate
+	protected void touch() {
+		final Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+		if (this.createdAt == null) {
+			this.createdAt = now;
+		}
+		this.updatedAt = now;
+	}
+	
 }
 
 
@@ -0,0 +1,122 @@
+package com.selimhorri.app.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.helper.OutboxEventMappingHelper;
+import com.selimhorri.app.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes outbox events in id order over the configured {@link OutboxTransport}.
+ *
+ * A batch is marked published in the transaction that hands it to the transport, a failed publish is retried
+ * on the next run, so delivery is at least once and consumers must tolerate duplicates.
+ * Only events older than app.outbox.settle-delay are relayed, giving transactions that commit out of id order
+ * time to land before a later id is published. Published events are purged after app.outbox.retention.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+	
+	private final OutboxEventRepository outboxEventRepository;
+	private final OutboxTransport outboxTransport;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final Duration settleDelay;
+	private final Duration retention;
+	private final Counter publishedCounter;
+	private final Counter failedCounter;
+	
+	public OutboxRelay(
+			final OutboxEventRepository outboxEventRepository,
+			final OutboxTransport outboxTransport,
+			final TransactionTemplate transactionTemplate,
+			@Value("${app.outbox.batch-size:500}") final int batchSize,
+			@Value("${app.outbox.settle-delay:2s}") final Duration settleDelay,
+			@Value("${app.outbox.retention:7d}") final Duration retention,
+			final MeterRegistry meterRegistry) {
+		this.outboxEventRepository = outboxEventRepository;
+		this.outboxTransport = outboxTransport;
+		this.transactionTemplate = transactionTemplate;
+		this.batchSize = batchSize;
+		this.settleDelay = settleDelay;
+		this.retention = retention;
+		this.publishedCounter = Counter.builder("outbox.events")
+				.description("Outbox events handed to the transport")
+				.tag("outcome", "published")
+				.register(meterRegistry);
+		this.failedCounter = Counter.builder("outbox.events")
+				.description("Outbox events handed to the transport")
+				.tag("outcome", "failed")
+				.register(meterRegistry);
+	}
+	
+	@Scheduled(
+			initialDelayString = "${app.outbox.relay-interval:500}", 
+			fixedDelayString = "${app.outbox.relay-interval:500}")
+	public void relay() {
+		int published;
+		do {
+			published = Optional.ofNullable(this.transactionTemplate.execute(status -> this.relayBatch())).orElse(0);
+		} while (published == this.batchSize);
+	}
+	
+	@Scheduled(
+			initialDelayString = "${app.outbox.purge-interval:3600000}", 
+			fixedDelayString = "${app.outbox.purge-interval:3600000}")
+	public void purge() {
+		final int purged = Optional.ofNullable(this.transactionTemplate.execute(status -> this.outboxEventRepository
+				.deletePublishedBefore(Instant.now().minus(this.retention)))).orElse(0);
+		if (purged > 0) {
+			log.info("** OutboxRelay, purged {} published event(s) *\n", purged);
+		}
+	}
+	
+	private int relayBatch() {
+		final List<OutboxEvent> events = this.outboxEventRepository
+				.findUnpublished(Instant.now().minus(this.settleDelay), PageRequest.of(0, this.batchSize));
+		if (events.isEmpty()) {
+			return 0;
+		}
+		try {
+			this.outboxTransport.publish(events.stream()
+					.map(OutboxEventMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList()));
+		}
+		catch (RuntimeException e) {
+			this.failedCounter.increment(events.size());
+			log.warn("** OutboxRelay, publish failed, retrying on next run: {} *\n", e.getMessage());
+			return 0;
+		}
+		this.outboxEventRepository.markPublished(events.stream()
+				.map(OutboxEvent::getEventId)
+				.collect(Collectors.toUnmodifiableList()), Instant.now());
+		this.publishedCounter.increment(events.size());
+		return events.size();
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,11 +1,27 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Cart;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface CartRepository extends JpaRepository<Cart, Integer> {
 	
+	List<Cart> findAllByUserId(final Integer userId);
+	
+	@Query("SELECT coalesce(c.updatedAt, c.createdAt) FROM Cart c WHERE c.cartId = :cartId")
+	Optional<Instant> findLastModifiedById(@Param("cartId") final Integer cartId);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CollectionVersion("
+			+ "max(coalesce(c.updatedAt, c.createdAt)), count(c)) FROM Cart c")
+	CollectionVersion findCollectionVersion();
+	
 	
 	
 }
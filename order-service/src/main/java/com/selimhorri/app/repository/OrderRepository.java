@@ -1,11 +1,52 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface OrderRepository extends JpaRepository<Order, Integer> {
 	
+	/**
+	 * Rows pulled per round trip by {@link #streamAll()}, the persistence context is cleared at the same pace.
+	 */
+	int STREAM_FETCH_SIZE = 500;
+	
+	List<Order> findByOrderIdGreaterThan(final Integer orderId, final Pageable pageable);
+	
+	@Query("SELECT o FROM Order o JOIN FETCH o.cart c WHERE c.userId = :userId ORDER BY o.orderId")
+	List<Order> findAllByUserId(@Param("userId") final Integer userId);
+	
+	@Query("SELECT coalesce(o.updatedAt, o.createdAt) FROM Order o WHERE o.orderId = :orderId")
+	Optional<Instant> findLastModifiedById(@Param("orderId") final Integer orderId);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CollectionVersion("
+			+ "max(coalesce(o.updatedAt, o.createdAt)), count(o)) FROM Order o")
+	CollectionVersion findCollectionVersion();
+	
+	@Query("SELECT o FROM Order o LEFT JOIN FETCH o.cart WHERE o.updatedAt < :until "
+			+ "AND (o.updatedAt > :since OR (o.updatedAt = :since AND o.orderId > :afterId)) "
+			+ "ORDER BY o.updatedAt, o.orderId")
+	List<Order> findChangedSince(@Param("since") final Instant since, @Param("afterId") final Integer afterId, 
+			@Param("until") final Instant until, final Pageable pageable);
+	
+	@QueryHints({
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+	})
+	@Query("SELECT o FROM Order o LEFT JOIN FETCH o.cart ORDER BY o.orderId")
+	Stream<Order> streamAll();
 	
 	
 }
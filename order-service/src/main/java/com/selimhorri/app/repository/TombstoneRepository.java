@@ -0,0 +1,31 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.Tombstone;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Integer> {
+	
+	@Query("SELECT t FROM Tombstone t WHERE t.entityType = :entityType AND t.deletedAt < :until "
+			+ "AND (t.deletedAt > :since OR (t.deletedAt = :since AND t.entityId > :afterId)) "
+			+ "ORDER BY t.deletedAt, t.entityId")
+	List<Tombstone> findDeletedSince(@Param("entityType") final String entityType, @Param("since") final Instant since, 
+			@Param("afterId") final Integer afterId, @Param("until") final Instant until, final Pageable pageable);
+	
+}
+
+
+
+
+
+
+
+
+
+
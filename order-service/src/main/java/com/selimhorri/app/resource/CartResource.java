@@ -12,10 +12,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.ConditionalGetHelper;
 import com.selimhorri.app.service.CartService;
 
 import lombok.RequiredArgsConstructor;
@@ -30,18 +33,30 @@ public class CartResource {
 	private final CartService cartService;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<CartDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<CartDto>> findAll(final WebRequest webRequest) {
 		log.info("*** CartDto List, controller; fetch all categories *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.cartService.findAll()));
+		return ConditionalGetHelper.collection(webRequest, this.cartService.findCollectionVersion(), 
+				() -> new DtoCollectionResponse<>(this.cartService.findAll()));
+	}
+	
+	@GetMapping(params = "userId")
+	public ResponseEntity<DtoCollectionResponse<CartDto>> findAllByUserId(
+			@RequestParam("userId") 
+			@NotNull(message = "Input must not be NULL!") final Integer userId) {
+		log.info("*** CartDto List, controller; fetch carts by user id *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.cartService.findAllByUserId(userId)));
 	}
 	
 	@GetMapping("/{cartId}")
 	public ResponseEntity<CartDto> findById(
 			@PathVariable("cartId") 
 			@NotBlank(message = "Input must not be blank") 
-			@Valid final String cartId) {
+			@Valid final String cartId, 
+			final WebRequest webRequest) {
 		log.info("*** CartDto, resource; fetch cart by id *");
-		return ResponseEntity.ok(this.cartService.findById(Integer.parseInt(cartId)));
+		final Integer id = Integer.parseInt(cartId);
+		return ConditionalGetHelper.entity(webRequest, id, this.cartService.findLastModifiedById(id), 
+				() -> this.cartService.findById(id));
 	}
 	
 	@PostMapping
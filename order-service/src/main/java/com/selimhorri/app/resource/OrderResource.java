@@ -1,9 +1,12 @@
 package com.selimhorri.app.resource;
 
+import java.time.Instant;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,10 +15,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.ConditionalGetHelper;
+import com.selimhorri.app.helper.NdjsonHelper;
+import com.selimhorri.app.repository.OrderRepository;
 import com.selimhorri.app.service.OrderService;
 
 import lombok.RequiredArgsConstructor;
@@ -28,20 +39,61 @@ import lombok.extern.slf4j.Slf4j;
 public class OrderResource {
 	
 	private final OrderService orderService;
+	private final ObjectMapper objectMapper;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<OrderDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<OrderDto>> findAll(
+			@RequestParam(value = "after", required = false) final Integer after, 
+			@RequestParam(value = "limit", required = false) final Integer limit, 
+			final WebRequest webRequest) {
 		log.info("*** OrderDto List, controller; fetch all orders *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findAll()));
+		return ConditionalGetHelper.collection(webRequest, this.orderService.findCollectionVersion(), () -> {
+			if (after == null && limit == null) {
+				return new DtoCollectionResponse<>(this.orderService.findAll());
+			}
+			return this.orderService.findAll(after, limit);
+		});
+	}
+	
+	/**
+	 * Export of the whole table for Accept: application/x-ndjson, one OrderDto per line streamed straight from the database.
+	 * Nested DTOs carry ids only, nothing is fetched from other services.
+	 */
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportAll() {
+		log.info("*** OrderDto Stream, resource; export all orders *");
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(NdjsonHelper.<OrderDto>body(this.objectMapper, OrderRepository.STREAM_FETCH_SIZE, this.orderService::streamAll));
+	}
+	
+	@GetMapping("/changes")
+	public ResponseEntity<ChangeFeedResponse<OrderDto>> findChanges(
+			@RequestParam(value = "since", required = false) final Instant since, 
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit) {
+		log.info("*** OrderDto Changes, resource; fetch orders changed since *");
+		return ResponseEntity.ok(this.orderService.findChanges(since, after, limit));
+	}
+	
+	@GetMapping(params = "userId")
+	public ResponseEntity<DtoCollectionResponse<OrderDto>> findAllByUserId(
+			@RequestParam("userId") 
+			@NotNull(message = "Input must not be NULL!") final Integer userId) {
+		log.info("*** OrderDto List, controller; fetch orders by user id *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderService.findAllByUserId(userId)));
 	}
 	
 	@GetMapping("/{orderId}")
 	public ResponseEntity<OrderDto> findById(
 			@PathVariable("orderId") 
 			@NotBlank(message = "Input must not be blank") 
-			@Valid final String orderId) {
+			@Valid final String orderId, 
+			final WebRequest webRequest) {
 		log.info("*** OrderDto, resource; fetch order by id *");
-		return ResponseEntity.ok(this.orderService.findById(Integer.parseInt(orderId)));
+		final Integer id = Integer.parseInt(orderId);
+		return ConditionalGetHelper.entity(webRequest, id, this.orderService.findLastModifiedById(id), 
+				() -> this.orderService.findById(id));
 	}
 	
 	@PostMapping
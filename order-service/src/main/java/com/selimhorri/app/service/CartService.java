@@ -1,13 +1,19 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import com.selimhorri.app.dto.CartDto;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface CartService {
 	
 	List<CartDto> findAll();
+	List<CartDto> findAllByUserId(final Integer userId);
 	CartDto findById(final Integer cartId);
+	Optional<Instant> findLastModifiedById(final Integer cartId);
+	CollectionVersion findCollectionVersion();
 	CartDto save(final CartDto cartDto);
 	CartDto update(final CartDto cartDto);
 	CartDto update(final Integer cartId, final CartDto cartDto);
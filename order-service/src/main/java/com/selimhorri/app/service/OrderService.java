@@ -1,13 +1,25 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface OrderService {
 	
 	List<OrderDto> findAll();
+	List<OrderDto> findAllByUserId(final Integer userId);
+	void streamAll(final Consumer<OrderDto> consumer);
+	DtoCollectionResponse<OrderDto> findAll(final Integer after, final Integer limit);
 	OrderDto findById(final Integer orderId);
+	Optional<Instant> findLastModifiedById(final Integer orderId);
+	CollectionVersion findCollectionVersion();
+	ChangeFeedResponse<OrderDto> findChanges(final Instant since, final String after, final Integer limit);
 	OrderDto save(final OrderDto orderDto);
 	OrderDto update(final OrderDto orderDto);
 	OrderDto update(final Integer orderId, final OrderDto orderDto);
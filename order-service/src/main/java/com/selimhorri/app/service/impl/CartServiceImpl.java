@@ -1,19 +1,25 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
 import com.selimhorri.app.dto.CartDto;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.enrichment.DtoEnricher;
+import com.selimhorri.app.enrichment.ResilientRestClient;
 import com.selimhorri.app.exception.wrapper.CartNotFoundException;
 import com.selimhorri.app.helper.CartMappingHelper;
 import com.selimhorri.app.repository.CartRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 import com.selimhorri.app.service.CartService;
 
 import lombok.RequiredArgsConstructor;
@@ -26,35 +32,41 @@ import lombok.extern.slf4j.Slf4j;
 public class CartServiceImpl implements CartService {
 	
 	private final CartRepository cartRepository;
-	private final RestTemplate restTemplate;
+	private final ResilientRestClient resilientRestClient;
+	private final DtoEnricher dtoEnricher;
+	private final TransactionTemplate transactionTemplate;
 	
 	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
 	public List<CartDto> findAll() {
 		log.info("*** CartDto List, service; fetch all carts *");
-		return this.cartRepository.findAll()
+		return this.enrich(this.transactionTemplate.execute(status -> this.cartRepository.findAll()
 				.stream()
 					.map(CartMappingHelper::map)
-					.map(c -> {
-						c.setUserDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.USER_SERVICE_API_URL + "/" + c.getUserDto().getUserId(), UserDto.class));
-						return c;
-					})
 					.distinct()
-					.collect(Collectors.toUnmodifiableList());
+					.collect(Collectors.toUnmodifiableList())));
 	}
 	
 	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
+	public List<CartDto> findAllByUserId(final Integer userId) {
+		log.info("*** CartDto List, service; fetch carts by user id *");
+		return this.enrich(this.transactionTemplate.execute(status -> this.cartRepository.findAllByUserId(userId)
+				.stream()
+					.map(CartMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList())));
+	}
+	
+	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
 	public CartDto findById(final Integer cartId) {
 		log.info("*** CartDto, service; fetch cart by id *");
-		return this.cartRepository.findById(cartId)
+		final CartDto cartDto = this.transactionTemplate.execute(status -> this.cartRepository.findById(cartId)
 				.map(CartMappingHelper::map)
-				.map(c -> {
-					c.setUserDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-							.USER_SERVICE_API_URL + "/" + c.getUserDto().getUserId(), UserDto.class));
-					return c;
-				})
 				.orElseThrow(() -> new CartNotFoundException(String
-						.format("Cart with id: %d not found", cartId)));
+						.format("Cart with id: %d not found", cartId))));
+		this.enrich(List.of(cartDto));
+		return cartDto;
 	}
 	
 	@Override
@@ -84,6 +96,28 @@ public class CartServiceImpl implements CartService {
 		this.cartRepository.deleteById(cartId);
 	}
 	
+	/**
+	 * Resolves the user of each cart concurrently, outside of any DB transaction,
+	 * falling back to the last known value when the remote service is unavailable.
+	 */
+	private <C extends Collection<CartDto>> C enrich(final C cartDtos) {
+		return this.dtoEnricher.enrich(cartDtos, 
+				c -> this.resilientRestClient.lookup(AppConstant.DiscoveredDomainsApi
+						.USER_SERVICE_API_URL + "/" + c.getUserDto().getUserId(), UserDto.class, c::setUserDto));
+	}
+	
+	@Override
+	public Optional<Instant> findLastModifiedById(final Integer cartId) {
+		log.info("*** Instant, service; fetch last modification of cart by id *");
+		return this.cartRepository.findLastModifiedById(cartId);
+	}
+	
+	@Override
+	public CollectionVersion findCollectionVersion() {
+		log.info("*** CollectionVersion, service; fetch version of all carts *");
+		return this.cartRepository.findCollectionVersion();
+	}
+	
 	
 	
 }
@@ -1,17 +1,36 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.domain.Order;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventType;
+import com.selimhorri.app.domain.Tombstone;
 import com.selimhorri.app.dto.OrderDto;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.OrderNotFoundException;
+import com.selimhorri.app.helper.ChangeFeedHelper;
 import com.selimhorri.app.helper.OrderMappingHelper;
 import com.selimhorri.app.metrics.BusinessMetricsService;
 import com.selimhorri.app.repository.OrderRepository;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.repository.TombstoneRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 import com.selimhorri.app.service.OrderService;
 
 import lombok.RequiredArgsConstructor;
@@ -23,8 +42,22 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 	
+	private static final String ENTITY_TYPE = "orders";
+	
 	private final OrderRepository orderRepository;
+	private final TombstoneRepository tombstoneRepository;
+	private final OutboxEventRepository outboxEventRepository;
 	private final BusinessMetricsService businessMetricsService;
+	private final EntityManager entityManager;
+	
+	@Value("${app.pagination.max-limit:100}")
+	private int maxPageSize;
+	
+	@Value("${app.changes.max-limit:500}")
+	private int maxChangesPerQuery;
+	
+	@Value("${app.changes.settle-delay:2s}")
+	private Duration changesSettleDelay;
 	
 	@Override
 	public List<OrderDto> findAll() {
@@ -36,6 +69,43 @@ public class OrderServiceImpl implements OrderService {
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
+	@Override
+	public List<OrderDto> findAllByUserId(final Integer userId) {
+		log.info("*** OrderDto List, service; fetch orders by user id *");
+		return this.orderRepository.findAllByUserId(userId)
+				.stream()
+					.map(OrderMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList());
+	}
+	
+	@Override
+	public void streamAll(final Consumer<OrderDto> consumer) {
+		log.info("*** OrderDto Stream, service; stream all orders *");
+		final int[] streamed = { 0 };
+		try (final Stream<Order> orders = this.orderRepository.streamAll()) {
+			orders.forEach(order -> {
+				consumer.accept(OrderMappingHelper.map(order));
+				// keeps the persistence context from growing with the table
+				if (++streamed[0] % OrderRepository.STREAM_FETCH_SIZE == 0) {
+					this.entityManager.clear();
+				}
+			});
+		}
+	}
+	
+	@Override
+	public DtoCollectionResponse<OrderDto> findAll(final Integer after, final Integer limit) {
+		log.info("*** OrderDto List, service; fetch page of orders *");
+		final int pageSize = Math.max(1, Math.min(Optional.ofNullable(limit).orElse(this.maxPageSize), this.maxPageSize));
+		return DtoCollectionResponse.ofPage(this.orderRepository
+				.findByOrderIdGreaterThan(Optional.ofNullable(after).orElse(0), 
+						PageRequest.of(0, pageSize + 1, Sort.by("orderId")))
+				.stream()
+					.map(OrderMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList()), 
+				pageSize, o -> String.valueOf(o.getOrderId()));
+	}
+	
 	@Override
 	public OrderDto findById(final Integer orderId) {
 		log.info("*** OrderDto, service; fetch order by id *");
@@ -50,6 +120,7 @@ public class OrderServiceImpl implements OrderService {
 		log.info("*** OrderDto, service; save order *");
 		OrderDto savedOrder = OrderMappingHelper.map(this.orderRepository
 				.save(OrderMappingHelper.map(orderDto)));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, savedOrder.getOrderId(), OutboxEventType.CREATED));
 		// Registrar métrica de negocio: orden creada
 		businessMetricsService.recordOrderCreated(savedOrder.getOrderFee());
 		return savedOrder;
@@ -60,6 +131,7 @@ public class OrderServiceImpl implements OrderService {
 		log.info("*** OrderDto, service; update order *");
 		OrderDto updatedOrder = OrderMappingHelper.map(this.orderRepository
 				.save(OrderMappingHelper.map(orderDto)));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, updatedOrder.getOrderId(), OutboxEventType.UPDATED));
 		// Registrar métrica de negocio: orden actualizada
 		businessMetricsService.recordOrderUpdated();
 		return updatedOrder;
@@ -70,6 +142,7 @@ public class OrderServiceImpl implements OrderService {
 		log.info("*** OrderDto, service; update order with orderId *");
 		OrderDto updatedOrder = OrderMappingHelper.map(this.orderRepository
 				.save(OrderMappingHelper.map(this.findById(orderId))));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, orderId, OutboxEventType.UPDATED));
 		// Registrar métrica de negocio: orden actualizada
 		businessMetricsService.recordOrderUpdated();
 		return updatedOrder;
@@ -79,10 +152,43 @@ public class OrderServiceImpl implements OrderService {
 	public void deleteById(final Integer orderId) {
 		log.info("*** Void, service; delete order by id *");
 		this.orderRepository.delete(OrderMappingHelper.map(this.findById(orderId)));
+		this.tombstoneRepository.save(Tombstone.of(ENTITY_TYPE, orderId));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, orderId, OutboxEventType.DELETED));
 		// Registrar métrica de negocio: orden eliminada
 		businessMetricsService.recordOrderDeleted();
 	}
 	
+	@Override
+	public Optional<Instant> findLastModifiedById(final Integer orderId) {
+		log.info("*** Instant, service; fetch last modification of order by id *");
+		return this.orderRepository.findLastModifiedById(orderId);
+	}
+	
+	@Override
+	public CollectionVersion findCollectionVersion() {
+		log.info("*** CollectionVersion, service; fetch version of all orders *");
+		return this.orderRepository.findCollectionVersion();
+	}
+	
+	@Override
+	public ChangeFeedResponse<OrderDto> findChanges(final Instant since, final String after, final Integer limit) {
+		log.info("*** OrderDto Changes, service; fetch orders changed since *");
+		final int pageSize = Math.max(1, Math.min(Optional.ofNullable(limit).orElse(this.maxChangesPerQuery), this.maxChangesPerQuery));
+		final ChangeFeedHelper.Cursor cursor = ChangeFeedHelper.cursorOf(since, after);
+		// rows younger than the settle delay may still be joined by commits carrying an earlier updated_at
+		final Instant until = Instant.now().minus(this.changesSettleDelay);
+		return ChangeFeedHelper.merge(
+				this.orderRepository.findChangedSince(cursor.getSince(), cursor.getAfterId(), until, PageRequest.of(0, pageSize + 1))
+					.stream()
+						.map(order -> ChangeFeedHelper.upserted(order.getOrderId(), order.getUpdatedAt(), OrderMappingHelper.map(order)))
+						.collect(Collectors.toUnmodifiableList()), 
+				this.tombstoneRepository.findDeletedSince(ENTITY_TYPE, cursor.getSince(), cursor.getAfterId(), until, PageRequest.of(0, pageSize + 1))
+					.stream()
+						.map(ChangeFeedHelper::<OrderDto>deleted)
+						.collect(Collectors.toUnmodifiableList()), 
+				pageSize, cursor);
+	}
+	
 	
 	
 }
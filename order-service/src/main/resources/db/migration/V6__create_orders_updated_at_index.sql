@@ -0,0 +1,4 @@
+
+UPDATE orders SET updated_at = created_at WHERE updated_at IS NULL;
+
+CREATE INDEX idx_orders_updated_at ON orders (updated_at, order_id);
@@ -0,0 +1,4 @@
+
+ALTER TABLE carts ALTER COLUMN updated_at TIMESTAMP(6);
+ALTER TABLE orders ALTER COLUMN updated_at TIMESTAMP(6);
+
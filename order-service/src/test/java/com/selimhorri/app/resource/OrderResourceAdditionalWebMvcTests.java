@@ -14,7 +14,9 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.mockito.Mockito.never;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -88,5 +90,13 @@ class OrderResourceAdditionalWebMvcTests {
         mockMvc.perform(delete("/api/orders/{id}", "1"))
                 .andExpect(status().isOk());
     }
-}
 
+    @Test
+    void getOrdersByUserId_returnsOnlyTheUsersOrders() throws Exception {
+        BDDMockito.given(orderService.findAllByUserId(7)).willReturn(List.of(sampleOrder()));
+        mockMvc.perform(get("/api/orders").param("userId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].orderId").value(1));
+        BDDMockito.then(orderService).should(never()).findAll();
+    }
+}
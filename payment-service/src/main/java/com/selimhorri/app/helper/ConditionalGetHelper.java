@@ -0,0 +1,67 @@
+package com.selimhorri.app.helper;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.selimhorri.app.repository.projection.CollectionVersion;
+
+/**
+ * Answers conditional GETs from a version looked up beforehand, the body is only loaded when it changed.
+ * ETag and Last-Modified are set on every response by {@link WebRequest#checkNotModified(String, long)},
+ * If-None-Match takes precedence over If-Modified-Since. The ETags carry updated_at to the microsecond
+ * (TIMESTAMP(6) columns), Last-Modified only has whole seconds and would hide two writes in the same second.
+ */
+public interface ConditionalGetHelper {
+	
+	/**
+	 * Strong ETag built from the id and updated_at of a single entity; without a version (unknown id)
+	 * the body supplier runs as usual, e.g. to answer 404.
+	 */
+	public static <T> ResponseEntity<T> entity(final WebRequest request, final Object id,
+			final Optional<Instant> lastModified, final Supplier<T> body) {
+		if (lastModified == null || lastModified.isEmpty()) {
+			return ResponseEntity.ok(body.get());
+		}
+		return respond(request, "\"" + id + "-" + versionOf(lastModified.get()) + "\"", lastModified.get().toEpochMilli(), body);
+	}
+	
+	/**
+	 * Weak ETag built from max(updated_at) and the row count of the whole table.
+	 */
+	public static <T> ResponseEntity<T> collection(final WebRequest request, final CollectionVersion version, final Supplier<T> body) {
+		if (version == null || version.getLastModified() == null) {
+			return ResponseEntity.ok(body.get());
+		}
+		return respond(request, "W/\"" + version.getCount() + "-" + versionOf(version.getLastModified()) + "\"", 
+				version.getLastModified().toEpochMilli(), body);
+	}
+	
+	private static String versionOf(final Instant lastModified) {
+		return Long.toHexString(TimeUnit.SECONDS.toMicros(lastModified.getEpochSecond()) 
+				+ TimeUnit.NANOSECONDS.toMicros(lastModified.getNano()));
+	}
+	
+	private static <T> ResponseEntity<T> respond(final WebRequest request, final String eTag, final long lastModifiedMillis, final Supplier<T> body) {
+		if (request.checkNotModified(eTag, lastModifiedMillis)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+		}
+		return ResponseEntity.ok(body.get());
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,57 @@
+package com.selimhorri.app.helper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes rows as newline-delimited JSON while they are produced, memory stays flat whatever the row count.
+ * Output is flushed every flushEvery rows, not per row, so chunks stay reasonably large.
+ */
+public interface NdjsonHelper {
+	
+	public static <T> StreamingResponseBody body(final ObjectMapper objectMapper, final int flushEvery, 
+			final Consumer<Consumer<T>> producer) {
+		// one document per line, whatever the indentation the shared mapper is configured with
+		final ObjectWriter objectWriter = objectMapper.writer()
+				.without(SerializationFeature.INDENT_OUTPUT, SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		return outputStream -> {
+			try (final JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+				generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				generator.setRootValueSeparator(null);
+				final int[] written = { 0 };
+				producer.accept(row -> {
+					try {
+						objectWriter.writeValue(generator, row);
+						generator.writeRaw('\n');
+						if (++written[0] % flushEvery == 0) {
+							generator.flush();
+						}
+					}
+					catch (IOException e) {
+						// client went away, abort the producer and release its cursor
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		};
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
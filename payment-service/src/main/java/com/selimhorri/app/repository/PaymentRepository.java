@@ -1,11 +1,46 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Payment;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface PaymentRepository extends JpaRepository<Payment, Integer> {
 	
+	/**
+	 * Rows pulled per round trip by {@link #streamAll()}, the persistence context is cleared at the same pace.
+	 */
+	int STREAM_FETCH_SIZE = 500;
+	
+	List<Payment> findAllByOrderIdIn(final Collection<Integer> orderIds);
+	
+	List<Payment> findByPaymentIdGreaterThan(final Integer paymentId, final Pageable pageable);
+	
+	@Query("SELECT coalesce(p.updatedAt, p.createdAt) FROM Payment p WHERE p.paymentId = :paymentId")
+	Optional<Instant> findLastModifiedById(@Param("paymentId") final Integer paymentId);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CollectionVersion("
+			+ "max(coalesce(p.updatedAt, p.createdAt)), count(p)) FROM Payment p")
+	CollectionVersion findCollectionVersion();
+	
+	@QueryHints({
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+		@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+	})
+	@Query("SELECT p FROM Payment p ORDER BY p.paymentId")
+	Stream<Payment> streamAll();
 	
 	
 }
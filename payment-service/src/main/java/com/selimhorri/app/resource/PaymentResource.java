@@ -1,9 +1,13 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,10 +16,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.dto.PaymentDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.ConditionalGetHelper;
+import com.selimhorri.app.helper.NdjsonHelper;
+import com.selimhorri.app.repository.PaymentRepository;
 import com.selimhorri.app.service.PaymentService;
 
 import lombok.RequiredArgsConstructor;
@@ -28,20 +39,52 @@ import lombok.extern.slf4j.Slf4j;
 public class PaymentResource {
 	
 	private final PaymentService paymentService;
+	private final ObjectMapper objectMapper;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<PaymentDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<PaymentDto>> findAll(
+			@RequestParam(value = "after", required = false) final Integer after, 
+			@RequestParam(value = "limit", required = false) final Integer limit, 
+			final WebRequest webRequest) {
 		log.info("*** PaymentDto List, controller; fetch all payments *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.paymentService.findAll()));
+		return ConditionalGetHelper.collection(webRequest, this.paymentService.findCollectionVersion(), () -> {
+			if (after == null && limit == null) {
+				return new DtoCollectionResponse<>(this.paymentService.findAll());
+			}
+			return this.paymentService.findAll(after, limit);
+		});
+	}
+	
+	/**
+	 * Export of the whole table for Accept: application/x-ndjson, one PaymentDto per line streamed straight from the database.
+	 * Nested DTOs carry ids only, nothing is fetched from other services.
+	 */
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportAll() {
+		log.info("*** PaymentDto Stream, resource; export all payments *");
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(NdjsonHelper.<PaymentDto>body(this.objectMapper, PaymentRepository.STREAM_FETCH_SIZE, this.paymentService::streamAll));
+	}
+	
+	@GetMapping(params = "orderIds")
+	public ResponseEntity<DtoCollectionResponse<PaymentDto>> findAllByOrderIds(
+			@RequestParam("orderIds") 
+			@NotEmpty(message = "Input must not be empty") final List<Integer> orderIds) {
+		log.info("*** PaymentDto List, controller; fetch payments by order ids *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.paymentService.findAllByOrderIds(orderIds)));
 	}
 	
 	@GetMapping("/{paymentId}")
 	public ResponseEntity<PaymentDto> findById(
 			@PathVariable("paymentId") 
 			@NotBlank(message = "Input must not be blank") 
-			@Valid final String paymentId) {
+			@Valid final String paymentId, 
+			final WebRequest webRequest) {
 		log.info("*** PaymentDto, resource; fetch payment by id *");
-		return ResponseEntity.ok(this.paymentService.findById(Integer.parseInt(paymentId)));
+		final Integer id = Integer.parseInt(paymentId);
+		return ConditionalGetHelper.entity(webRequest, id, this.paymentService.findLastModifiedById(id), 
+				() -> this.paymentService.findById(id));
 	}
 	
 	@PostMapping
@@ -1,13 +1,24 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface PaymentService {
 	
 	List<PaymentDto> findAll();
+	List<PaymentDto> findAllByOrderIds(final Collection<Integer> orderIds);
+	void streamAll(final Consumer<PaymentDto> consumer);
+	DtoCollectionResponse<PaymentDto> findAll(final Integer after, final Integer limit);
 	PaymentDto findById(final Integer paymentId);
+	Optional<Instant> findLastModifiedById(final Integer paymentId);
+	CollectionVersion findCollectionVersion();
 	PaymentDto save(final PaymentDto paymentDto);
 	PaymentDto update(final PaymentDto paymentDto);
 	void deleteById(final Integer paymentId);
@@ -1,20 +1,34 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.Payment;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.enrichment.DtoEnricher;
+import com.selimhorri.app.enrichment.ResilientRestClient;
 import com.selimhorri.app.exception.wrapper.PaymentNotFoundException;
 import com.selimhorri.app.helper.PaymentMappingHelper;
 import com.selimhorri.app.metrics.BusinessMetricsService;
 import com.selimhorri.app.repository.PaymentRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 import com.selimhorri.app.service.PaymentService;
 
 import lombok.RequiredArgsConstructor;
@@ -27,35 +41,76 @@ import lombok.extern.slf4j.Slf4j;
 public class PaymentServiceImpl implements PaymentService {
 	
 	private final PaymentRepository paymentRepository;
-	private final RestTemplate restTemplate;
+	private final ResilientRestClient resilientRestClient;
 	private final BusinessMetricsService businessMetricsService;
+	private final DtoEnricher dtoEnricher;
+	private final TransactionTemplate transactionTemplate;
+	private final EntityManager entityManager;
+	
+	@Value("${app.pagination.max-limit:100}")
+	private int maxPageSize;
 	
 	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
 	public List<PaymentDto> findAll() {
 		log.info("*** PaymentDto List, service; fetch all payments *");
-		return this.paymentRepository.findAll()
+		return this.enrich(this.transactionTemplate.execute(status -> this.paymentRepository.findAll()
 				.stream()
 					.map(PaymentMappingHelper::map)
-					.map(p -> {
-						p.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.ORDER_SERVICE_API_URL + "/" + p.getOrderDto().getOrderId(), OrderDto.class));
-						return p;
-					})
 					.distinct()
-					.collect(Collectors.toUnmodifiableList());
+					.collect(Collectors.toUnmodifiableList())));
+	}
+	
+	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
+	public List<PaymentDto> findAllByOrderIds(final Collection<Integer> orderIds) {
+		log.info("*** PaymentDto List, service; fetch payments by order ids *");
+		return this.enrich(this.transactionTemplate.execute(status -> this.paymentRepository.findAllByOrderIdIn(orderIds)
+				.stream()
+					.map(PaymentMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList())));
+	}
+	
+	@Override
+	public void streamAll(final Consumer<PaymentDto> consumer) {
+		log.info("*** PaymentDto Stream, service; stream all payments *");
+		final int[] streamed = { 0 };
+		try (final Stream<Payment> payments = this.paymentRepository.streamAll()) {
+			payments.forEach(payment -> {
+				consumer.accept(PaymentMappingHelper.map(payment));
+				// keeps the persistence context from growing with the table
+				if (++streamed[0] % PaymentRepository.STREAM_FETCH_SIZE == 0) {
+					this.entityManager.clear();
+				}
+			});
+		}
+	}
+	
+	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
+	public DtoCollectionResponse<PaymentDto> findAll(final Integer after, final Integer limit) {
+		log.info("*** PaymentDto List, service; fetch page of payments *");
+		final int pageSize = Math.max(1, Math.min(Optional.ofNullable(limit).orElse(this.maxPageSize), this.maxPageSize));
+		final DtoCollectionResponse<PaymentDto> page = this.transactionTemplate.execute(status -> DtoCollectionResponse.ofPage(this.paymentRepository
+				.findByPaymentIdGreaterThan(Optional.ofNullable(after).orElse(0), 
+						PageRequest.of(0, pageSize + 1, Sort.by("paymentId")))
+				.stream()
+					.map(PaymentMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList()), 
+				pageSize, p -> String.valueOf(p.getPaymentId())));
+		this.enrich(page.getCollection());
+		return page;
 	}
 	
 	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
 	public PaymentDto findById(final Integer paymentId) {
 		log.info("*** PaymentDto, service; fetch payment by id *");
-		return this.paymentRepository.findById(paymentId)
+		final PaymentDto paymentDto = this.transactionTemplate.execute(status -> this.paymentRepository.findById(paymentId)
 				.map(PaymentMappingHelper::map)
-				.map(p -> {
-					p.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-							.ORDER_SERVICE_API_URL + "/" + p.getOrderDto().getOrderId(), OrderDto.class));
-					return p;
-				})
-				.orElseThrow(() -> new PaymentNotFoundException(String.format("Payment with id: %d not found", paymentId)));
+				.orElseThrow(() -> new PaymentNotFoundException(String.format("Payment with id: %d not found", paymentId))));
+		this.enrich(List.of(paymentDto));
+		return paymentDto;
 	}
 	
 	@Override
@@ -85,6 +140,28 @@ public class PaymentServiceImpl implements PaymentService {
 		this.paymentRepository.deleteById(paymentId);
 	}
 	
+	/**
+	 * Resolves the order of each payment concurrently, outside of any DB transaction,
+	 * falling back to the last known value when the remote service is unavailable.
+	 */
+	private <C extends Collection<PaymentDto>> C enrich(final C paymentDtos) {
+		return this.dtoEnricher.enrich(paymentDtos, 
+				p -> this.resilientRestClient.lookup(AppConstant.DiscoveredDomainsApi
+						.ORDER_SERVICE_API_URL + "/" + p.getOrderDto().getOrderId(), OrderDto.class, p::setOrderDto));
+	}
+	
+	@Override
+	public Optional<Instant> findLastModifiedById(final Integer paymentId) {
+		log.info("*** Instant, service; fetch last modification of payment by id *");
+		return this.paymentRepository.findLastModifiedById(paymentId);
+	}
+	
+	@Override
+	public CollectionVersion findCollectionVersion() {
+		log.info("*** CollectionVersion, service; fetch version of all payments *");
+		return this.paymentRepository.findCollectionVersion();
+	}
+	
 	
 	
 }
@@ -0,0 +1,3 @@
+
+ALTER TABLE payments ALTER COLUMN updated_at TIMESTAMP(6);
+
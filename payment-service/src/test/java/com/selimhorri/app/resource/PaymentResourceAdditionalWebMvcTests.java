@@ -13,6 +13,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
+import static org.mockito.Mockito.never;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -84,5 +87,13 @@ class PaymentResourceAdditionalWebMvcTests {
         mockMvc.perform(delete("/api/payments/{id}", "1"))
                 .andExpect(status().isOk());
     }
-}
 
+    @Test
+    void getPaymentsByOrderIds_returnsOnlyThosePayments() throws Exception {
+        BDDMockito.given(paymentService.findAllByOrderIds(List.of(3, 4))).willReturn(List.of(samplePayment()));
+        mockMvc.perform(get("/api/payments").param("orderIds", "3", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].paymentId").value(1));
+        BDDMockito.then(paymentService).should(never()).findAll();
+    }
+}
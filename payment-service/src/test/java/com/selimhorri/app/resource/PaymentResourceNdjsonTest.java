@@ -0,0 +1,66 @@
+package com.selimhorri.app.resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.selimhorri.app.dto.PaymentDto;
+import com.selimhorri.app.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false"
+})
+@AutoConfigureMockMvc
+class PaymentResourceNdjsonTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void getAllPayments_streamsOnePaymentPerLineForNdjson() throws Exception {
+        final MvcResult started = mockMvc.perform(get("/api/payments").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        final List<Integer> paymentIds = new ArrayList<>();
+        for (final String line : body.split("\n")) {
+            paymentIds.add(objectMapper.readValue(line, PaymentDto.class).getPaymentId());
+        }
+        assertTrue(body.endsWith("\n"));
+        assertEquals(paymentRepository.count(), paymentIds.size());
+        assertEquals(paymentIds.stream().sorted().collect(Collectors.toList()), paymentIds);
+    }
+
+    @Test
+    void getAllPayments_keepsJsonCollectionForJsonClients() throws Exception {
+        mockMvc.perform(get("/api/payments").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,178 @@
+package com.selimhorri.app.category;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.selimhorri.app.repository.projection.CategoryEdge;
+
+/**
+ * Immutable snapshot of the category hierarchy.
+ *
+ * Categories are laid out in depth-first pre-order, so the subtree of a category is the contiguous range
+ * starting at its own position: subtree ids come out in O(k) for k descendants, depth in O(1) and
+ * the breadcrumb in O(depth). A parent chain that loops back on itself is cut at the first category
+ * reached, which then counts as a root.
+ */
+public final class CategoryTree {
+	
+	private final long version;
+	private final Map<Integer, Node> nodes;
+	private final int[] preorder;
+	
+	private CategoryTree(final long version, final Map<Integer, Node> nodes, final int[] preorder) {
+		this.version = version;
+		this.nodes = nodes;
+		this.preorder = preorder;
+	}
+	
+	public static CategoryTree of(final long version, final Collection<CategoryEdge> edges) {
+		
+		final Map<Integer, CategoryEdge> edgesById = edges.stream()
+				.collect(Collectors.toMap(CategoryEdge::getCategoryId, edge -> edge, (a, b) -> a));
+		final Map<Integer, List<Integer>> children = new HashMap<>();
+		final List<Integer> roots = new ArrayList<>();
+		edgesById.values().stream()
+				.sorted(Comparator.comparing(CategoryEdge::getCategoryId))
+				.forEach(edge -> {
+					if (edge.getParentCategoryId() != null && edgesById.containsKey(edge.getParentCategoryId())) {
+						children.computeIfAbsent(edge.getParentCategoryId(), id -> new ArrayList<>()).add(edge.getCategoryId());
+					}
+					else {
+						roots.add(edge.getCategoryId());
+					}
+				});
+		
+		final Map<Integer, Node> nodes = new HashMap<>(edgesById.size() * 2);
+		final int[] preorder = new int[edgesById.size()];
+		int next = 0;
+		// whatever no root reaches sits on a parent loop, the lowest id left over starts the next tree
+		final List<Integer> starts = new ArrayList<>(roots);
+		starts.addAll(edgesById.keySet().stream().sorted().collect(Collectors.toList()));
+		for (final Integer start : starts) {
+			if (nodes.containsKey(start)) {
+				continue;
+			}
+			final Deque<Node> stack = new ArrayDeque<>();
+			stack.push(new Node(edgesById.get(start), null, 0));
+			while (!stack.isEmpty()) {
+				final Node node = stack.pop();
+				if (nodes.containsKey(node.categoryId)) {
+					continue;
+				}
+				node.first = next;
+				preorder[next++] = node.categoryId;
+				nodes.put(node.categoryId, node);
+				final List<Integer> childIds = children.getOrDefault(node.categoryId, List.of());
+				for (int i = childIds.size() - 1; i >= 0; i--) {
+					stack.push(new Node(edgesById.get(childIds.get(i)), node.categoryId, node.depth + 1));
+				}
+			}
+		}
+		
+		// children follow their parent in pre-order, so walking it backwards finishes every subtree before its root
+		for (int i = preorder.length - 1; i >= 0; i--) {
+			final Node node = nodes.get(preorder[i]);
+			if (node.parentCategoryId != null) {
+				nodes.get(node.parentCategoryId).size += node.size;
+			}
+		}
+		
+		return new CategoryTree(version, Collections.unmodifiableMap(nodes), preorder);
+	}
+	
+	public long getVersion() {
+		return this.version;
+	}
+	
+	public int size() {
+		return this.preorder.length;
+	}
+	
+	public boolean contains(final Integer categoryId) {
+		return this.nodes.containsKey(categoryId);
+	}
+	
+	public Optional<String> titleOf(final Integer categoryId) {
+		return Optional.ofNullable(this.nodes.get(categoryId)).map(node -> node.categoryTitle);
+	}
+	
+	/**
+	 * @return 0 for a root, -1 for an unknown category
+	 */
+	public int depthOf(final Integer categoryId) {
+		return Optional.ofNullable(this.nodes.get(categoryId)).map(node -> node.depth).orElse(-1);
+	}
+	
+	/**
+	 * @return the category and all of its descendants, parents before children, empty for an unknown category
+	 */
+	public List<Integer> subtreeIdsOf(final Integer categoryId) {
+		final Node node = this.nodes.get(categoryId);
+		if (node == null) {
+			return List.of();
+		}
+		final List<Integer> ids = new ArrayList<>(node.size);
+		for (int i = node.first; i < node.first + node.size; i++) {
+			ids.add(this.preorder[i]);
+		}
+		return Collections.unmodifiableList(ids);
+	}
+	
+	/**
+	 * @return ids from the root down to the category itself, empty for an unknown category
+	 */
+	public List<Integer> breadcrumbOf(final Integer categoryId) {
+		final Node node = this.nodes.get(categoryId);
+		if (node == null) {
+			return List.of();
+		}
+		final Integer[] path = new Integer[node.depth + 1];
+		for (Node current = node; current != null; current = this.nodes.get(current.parentCategoryId)) {
+			path[current.depth] = current.categoryId;
+			if (current.parentCategoryId == null) {
+				break;
+			}
+		}
+		return List.of(path);
+	}
+	
+	private static final class Node {
+		
+		private final Integer categoryId;
+		private final Integer parentCategoryId;
+		private final String categoryTitle;
+		private final int depth;
+		private int first;
+		private int size = 1;
+		
+		private Node(final CategoryEdge edge, final Integer parentCategoryId, final int depth) {
+			this.categoryId = edge.getCategoryId();
+			this.parentCategoryId = parentCategoryId;
+			this.categoryTitle = edge.getCategoryTitle();
+			this.depth = depth;
+		}
+	
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
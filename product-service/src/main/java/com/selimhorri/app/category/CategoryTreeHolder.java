@@ -0,0 +1,92 @@
+package com.selimhorri.app.category;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.helper.AfterCommitHelper;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the current {@link CategoryTree}, built on first use and swapped for a new one after every category
+ * write commits. Writes made through another instance are picked up by comparing the categories' collection
+ * version every app.category-tree.refresh-interval.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CategoryTreeHolder {
+	
+	private final CategoryRepository categoryRepository;
+	private final AtomicLong generation = new AtomicLong();
+	private volatile Snapshot snapshot;
+	
+	public CategoryTree current() {
+		final Snapshot current = this.snapshot;
+		if (current != null) {
+			return current.tree;
+		}
+		return this.rebuild();
+	}
+	
+	/**
+	 * Rebuilds once the surrounding transaction commits, so the new snapshot sees the write.
+	 */
+	public void rebuildAfterCommit() {
+		AfterCommitHelper.run(this::rebuild);
+	}
+	
+	public synchronized CategoryTree rebuild() {
+		final CollectionVersion version = this.categoryRepository.findCollectionVersion();
+		final CategoryTree tree = CategoryTree.of(this.generation.incrementAndGet(), this.categoryRepository.findAllEdges());
+		this.snapshot = new Snapshot(tree, version);
+		log.info("*** CategoryTree, holder; rebuilt version {} with {} categories *", tree.getVersion(), tree.size());
+		return tree;
+	}
+	
+	@Scheduled(
+			initialDelayString = "${app.category-tree.refresh-interval:30000}",
+			fixedDelayString = "${app.category-tree.refresh-interval:30000}")
+	public void refreshIfChanged() {
+		final Snapshot current = this.snapshot;
+		if (current == null) {
+			return;
+		}
+		final CollectionVersion version = this.categoryRepository.findCollectionVersion();
+		if (version.getCount() != current.version.getCount()
+				|| !Objects.equals(version.getLastModified(), current.version.getLastModified())) {
+			this.rebuild();
+		}
+	}
+	
+	private static final class Snapshot {
+		
+		private final CategoryTree tree;
+		private final CollectionVersion version;
+		
+		private Snapshot(final CategoryTree tree, final CollectionVersion version) {
+			this.tree = tree;
+			this.version = version;
+		}
+	
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
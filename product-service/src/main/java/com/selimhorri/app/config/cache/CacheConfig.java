@@ -0,0 +1,79 @@
+package com.selimhorri.app.config.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.config.RefreshableProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-through caches for the catalog, driven by app.product.enable-cache and app.product.cache-expiration.
+ * Stats are recorded so that actuator binds them as "cache.*" meters (hit ratio = cache.gets{result=hit} / cache.gets).
+ * A new expiration is applied to the live caches on /actuator/refresh.
+ */
+@Configuration
+@EnableCaching
+@Slf4j
+public class CacheConfig {
+	
+	public static final String PRODUCTS_CACHE = "products";
+	public static final String CATEGORIES_CACHE = "categories";
+	public static final String CACHE_ENABLED = "@refreshableProperties.enableProductCache";
+	
+	private final RefreshableProperties refreshableProperties;
+	private final long maximumSize;
+	private CaffeineCacheManager cacheManager;
+	
+	public CacheConfig(
+			final RefreshableProperties refreshableProperties,
+			@Value("${app.product.cache-max-size:10000}") final long maximumSize) {
+		this.refreshableProperties = refreshableProperties;
+		this.maximumSize = maximumSize;
+	}
+	
+	@Bean
+	public CacheManager cacheManager() {
+		this.cacheManager = new CaffeineCacheManager(PRODUCTS_CACHE, CATEGORIES_CACHE);
+		this.cacheManager.setCaffeine(Caffeine.newBuilder()
+				.maximumSize(this.maximumSize)
+				.expireAfterWrite(Duration.ofSeconds(this.refreshableProperties.getCacheExpirationSeconds()))
+				.recordStats());
+		return this.cacheManager;
+	}
+	
+	@EventListener(RefreshScopeRefreshedEvent.class)
+	public void onRefresh() {
+		final var expiration = Duration.ofSeconds(this.refreshableProperties.getCacheExpirationSeconds());
+		log.info("*** CacheConfig, apply cache expiration of {}s to catalog caches *", expiration.getSeconds());
+		List.of(PRODUCTS_CACHE, CATEGORIES_CACHE).forEach(cacheName -> 
+				((CaffeineCache) this.cacheManager.getCache(cacheName)).getNativeCache()
+						.policy()
+						.expireAfterWrite()
+						.ifPresent(expirationPolicy -> expirationPolicy.setExpiresAfter(expiration)));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,101 @@
+package com.selimhorri.app.config.cache;
+
+import java.net.URI;
+import java.time.Duration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hibernate second-level cache on a local, heap-only Ehcache behind JCache, with a size and time to live per region.
+ *
+ * Categories are cached as entities, so the category of every product and its parent chain resolve without a select,
+ * and CategoryRepository#findAll as a query. Writes through this instance update or invalidate the regions, writes
+ * through another instance show up once the entry lives out its time to live. A region missing here fails startup
+ * rather than being created with defaults. With app.second-level-cache.statistics the regions are reported by actuator
+ * as "hibernate.second.level.cache.*" and "hibernate.query.cache.*" meters.
+ */
+@Configuration
+@Slf4j
+public class SecondLevelCacheConfig {
+	
+	public static final String CATEGORY_REGION = "categories";
+	public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+	private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+	
+	/**
+	 * One entry per table, never expired: a query result must not outlive the timestamp that invalidates it.
+	 */
+	private static final long UPDATE_TIMESTAMPS_ENTRIES = 1000;
+	
+	@Bean(destroyMethod = "close")
+	public CacheManager secondLevelCacheManager(
+			@Value("${spring.application.name}") final String applicationName,
+			@Value("${app.second-level-cache.categories.max-entries:1000}") final long categoryEntries,
+			@Value("${app.second-level-cache.categories.time-to-live:10m}") final Duration categoryTimeToLive,
+			@Value("${app.second-level-cache.query-results.max-entries:100}") final long queryEntries,
+			@Value("${app.second-level-cache.query-results.time-to-live:10m}") final Duration queryTimeToLive) {
+		final var configuration = ConfigurationBuilder.newConfigurationBuilder()
+				.withCache(CATEGORY_REGION, region(categoryEntries, categoryTimeToLive))
+				.withCache(QUERY_RESULTS_REGION, region(queryEntries, queryTimeToLive))
+				.withCache(UPDATE_TIMESTAMPS_REGION, CacheConfigurationBuilder
+						.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(UPDATE_TIMESTAMPS_ENTRIES))
+						.build())
+				.build();
+		log.info("*** SecondLevelCacheConfig, cache; {} up to {} entries for {}, query results up to {} entries for {} *",
+				CATEGORY_REGION, categoryEntries, categoryTimeToLive, queryEntries, queryTimeToLive);
+		// a manager of its own per application context, the provider hands out the same one for the same uri
+		final URI uri = URI.create("urn:" + applicationName.toLowerCase() + ":second-level-cache:" + System.identityHashCode(configuration));
+		return ((EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName()))
+				.getCacheManager(uri, configuration);
+	}
+	
+	@Bean
+	public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+			final CacheManager secondLevelCacheManager,
+			@Value("${app.second-level-cache.enabled:true}") final boolean enabled,
+			@Value("${app.second-level-cache.statistics:true}") final boolean statistics) {
+		return properties -> {
+			properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+			properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+			properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+			properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+			properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+			properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+		};
+	}
+	
+	private static CacheConfiguration<Object, Object> region(final long maxEntries, final Duration timeToLive) {
+		return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+				.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive))
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,65 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stock held by one reservation, so that a release gives back exactly what was reserved and only once.
+ */
+@Entity
+@Table(name = "reservations")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public final class Reservation implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@Column(name = "reservation_id", unique = true, nullable = false, updatable = false)
+	private String reservationId;
+	
+	@Column(name = "product_id", nullable = false, updatable = false)
+	private Integer productId;
+	
+	@Column(name = "quantity", nullable = false, updatable = false)
+	private Integer quantity;
+	
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private Instant createdAt;
+	
+	@Column(name = "released_at")
+	private Instant releasedAt;
+	
+	public static Reservation of(final Integer productId, final Integer quantity) {
+		return Reservation.builder()
+				.reservationId(UUID.randomUUID().toString())
+				.productId(productId)
+				.quantity(quantity)
+				.createdAt(Instant.now())
+				.build();
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,41 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.selimhorri.app.domain.OutboxEventType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OutboxEventDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private Long eventId;
+	private String aggregateType;
+	private Integer aggregateId;
+	private OutboxEventType eventType;
+	
+	@JsonFormat(shape = Shape.STRING)
+	private Instant createdAt;
+	
+}
+
+
+
+
+
+
+
+
+
+
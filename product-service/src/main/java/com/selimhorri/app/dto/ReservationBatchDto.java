@@ -0,0 +1,36 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ReservationBatchDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@NotEmpty(message = "Input reservations must not be empty")
+	@Valid
+	private List<ReservationDto> reservations;
+	
+}
+
+
+
+
+
+
+
+
+
+
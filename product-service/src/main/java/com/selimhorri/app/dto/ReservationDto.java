@@ -0,0 +1,39 @@
+package com.selimhorri.app.dto;
+
+import java.io.Serializable;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ReservationDto implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private String reservationId;
+	
+	private Integer productId;
+	
+	@NotNull(message = "Input quantity must not be NULL")
+	@Positive(message = "Input quantity must be positive")
+	private Integer quantity;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,38 @@
+package com.selimhorri.app.dto.response.change;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ChangeFeedResponse<T> {
+	
+	private List<ChangeDto<T>> changes;
+	
+	/**
+	 * Value to pass as "after" on the next poll, always present so a caught up consumer can resume from it later.
+	 */
+	private String resumeToken;
+	
+	/**
+	 * Whether more changes are ready right away, i.e. the page was cut at the limit.
+	 */
+	private boolean hasMore;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,6 +1,11 @@
 package com.selimhorri.app.dto.response.collection;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,6 +20,27 @@ public class DtoCollectionResponse<T> {
 	
 	private Collection<T> collection;
 	
+	/**
+	 * Value to pass as "after" to fetch the next page, absent on the last page and on unpaginated responses.
+	 */
+	@JsonInclude(Include.NON_NULL)
+	private String nextCursor;
+	
+	public DtoCollectionResponse(final Collection<T> collection) {
+		this.collection = collection;
+	}
+	
+	/**
+	 * Builds a keyset page from rows fetched with limit + 1, the extra row only tells that another page exists.
+	 */
+	public static <T> DtoCollectionResponse<T> ofPage(final List<T> rows, final int limit, final Function<T, String> cursorOf) {
+		if (rows.size() <= limit) {
+			return new DtoCollectionResponse<>(rows);
+		}
+		final List<T> page = List.copyOf(rows.subList(0, limit));
+		return new DtoCollectionResponse<>(page, cursorOf.apply(page.get(limit - 1)));
+	}
+	
 }
 
 
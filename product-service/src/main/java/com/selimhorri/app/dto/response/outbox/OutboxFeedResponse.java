@@ -0,0 +1,35 @@
+package com.selimhorri.app.dto.response.outbox;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.OutboxEventDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class OutboxFeedResponse {
+	
+	private List<OutboxEventDto> events;
+	
+	/**
+	 * Value to pass as "after" on the next poll, the id of the last event returned or the "after" of this poll.
+	 */
+	private Long lastEventId;
+	
+}
+
+
+
+
+
+
+
+
+
+
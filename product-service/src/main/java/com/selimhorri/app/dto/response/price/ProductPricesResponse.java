@@ -0,0 +1,36 @@
+package com.selimhorri.app.dto.response.price;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Column-wise, position i of productIds, priceUnits and quantities describes one product.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ProductPricesResponse {
+	
+	private int[] productIds;
+	private double[] priceUnits;
+	private int[] quantities;
+	
+	/**
+	 * Requested ids that are unknown or have no price.
+	 */
+	private int[] missing;
+	
+}
+
+
+
+
+
+
+
+
+
+
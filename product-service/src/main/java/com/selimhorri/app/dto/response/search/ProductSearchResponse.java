@@ -0,0 +1,40 @@
+package com.selimhorri.app.dto.response.search;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.ProductDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ProductSearchResponse {
+	
+	/**
+	 * Best matches first.
+	 */
+	private List<ProductDto> products;
+	
+	private int totalMatches;
+	
+	/**
+	 * True when the search ran into app.product.search-timeout, the products are the best of what was scored by then.
+	 */
+	private boolean partial;
+	
+}
+
+
+
+
+
+
+
+
+
+
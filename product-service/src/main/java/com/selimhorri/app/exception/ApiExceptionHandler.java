@@ -14,7 +14,9 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 
 import com.selimhorri.app.exception.payload.ExceptionMsg;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
+import com.selimhorri.app.exception.wrapper.InsufficientStockException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.ReservationNotFoundException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -45,6 +47,7 @@ public class ApiExceptionHandler {
 	@ExceptionHandler(value = {
 		CategoryNotFoundException.class,
 		ProductNotFoundException.class,
+		ReservationNotFoundException.class,
 	})
 	public <T extends RuntimeException> ResponseEntity<ExceptionMsg> handleApiRequestException(final T e) {
 		
@@ -60,6 +63,21 @@ public class ApiExceptionHandler {
 					.build(), badRequest);
 	}
 	
+	@ExceptionHandler(InsufficientStockException.class)
+	public ResponseEntity<ExceptionMsg> handleInsufficientStock(final InsufficientStockException e) {
+		
+		log.info("**ApiExceptionHandler controller, handle insufficient stock*\n");
+		final var conflict = HttpStatus.CONFLICT;
+		
+		return new ResponseEntity<>(
+				ExceptionMsg.builder()
+					.msg("#### " + e.getMessage() + "! ####")
+					.httpStatus(conflict)
+					.timestamp(ZonedDateTime
+							.now(ZoneId.systemDefault()))
+					.build(), conflict);
+	}
+	
 	@ExceptionHandler({ NumberFormatException.class, MethodArgumentTypeMismatchException.class })
 	public ResponseEntity<ExceptionMsg> handleNumberFormat(final Exception e) {
 		log.info("**ApiExceptionHandler controller, handle NumberFormat/TypeMismatch*\n");
@@ -71,5 +89,5 @@ public class ApiExceptionHandler {
 					.timestamp(ZonedDateTime.now(ZoneId.systemDefault()))
 					.build(), badRequest);
 	}
-
+	
 }
@@ -0,0 +1,36 @@
+package com.selimhorri.app.helper;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public interface AfterCommitHelper {
+	
+	/**
+	 * Runs the action once the surrounding transaction commits, right away when there is none.
+	 */
+	public static void run(final Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
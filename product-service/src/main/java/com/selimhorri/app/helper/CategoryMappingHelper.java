@@ -1,9 +1,12 @@
 package com.selimhorri.app.helper;
 
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import com.selimhorri.app.category.CategoryTree;
 import com.selimhorri.app.domain.Category;
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.CategoryNodeDto;
 
 public interface CategoryMappingHelper {
 	
@@ -42,6 +45,23 @@ public interface CategoryMappingHelper {
 							.build())
 				.build();
 	}
+	public static CategoryNodeDto map(final CategoryTree categoryTree, final Integer categoryId) {
+		return CategoryNodeDto.builder()
+				.categoryId(categoryId)
+				.categoryTitle(categoryTree.titleOf(categoryId).orElse(null))
+				.depth(categoryTree.depthOf(categoryId))
+				.breadcrumb(categoryTree.breadcrumbOf(categoryId)
+						.stream()
+							.map(id -> CategoryDto.builder()
+									.categoryId(id)
+									.categoryTitle(categoryTree.titleOf(id).orElse(null))
+									.build())
+							.collect(Collectors.toUnmodifiableList()))
+				.subtreeIds(categoryTree.subtreeIdsOf(categoryId))
+				.treeVersion(categoryTree.getVersion())
+				.build();
+	}
+	
 	
 	
 	
@@ -0,0 +1,30 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.dto.OutboxEventDto;
+
+public interface OutboxEventMappingHelper {
+	
+	public static OutboxEventDto map(final OutboxEvent outboxEvent) {
+		return OutboxEventDto.builder()
+				.eventId(outboxEvent.getEventId())
+				.aggregateType(outboxEvent.getAggregateType())
+				.aggregateId(outboxEvent.getAggregateId())
+				.eventType(outboxEvent.getEventType())
+				.createdAt(outboxEvent.getCreatedAt())
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,28 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.Reservation;
+import com.selimhorri.app.dto.ReservationDto;
+
+public interface ReservationMappingHelper {
+	
+	public static ReservationDto map(final Reservation reservation) {
+		return ReservationDto.builder()
+				.reservationId(reservation.getReservationId())
+				.productId(reservation.getProductId())
+				.quantity(reservation.getQuantity())
+				.build();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
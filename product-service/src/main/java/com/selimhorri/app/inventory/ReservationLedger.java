@@ -0,0 +1,194 @@
+package com.selimhorri.app.inventory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventType;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.repository.ProductRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional in-memory front of the conditional stock UPDATE, enabled by app.inventory.ledger.enabled.
+ *
+ * Each product gets an allotment carved out of its stock app.inventory.ledger.chunk-size units at a time,
+ * reservations and releases are then served from memory under one of app.inventory.ledger.stripes locks,
+ * so checkouts of a hot product stop queueing on its row lock and only every chunk-th one reaches the database.
+ * Allotments left untouched for app.inventory.ledger.idle-timeout are handed back, as are all of them on shutdown.
+ *
+ * Units held in an allotment do not show in products.quantity and cannot be reserved through another instance,
+ * and they stay missing from the stock if the process dies without shutting down, at most chunk-size units
+ * per product and instance, so keep chunk-size small.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.inventory.ledger", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReservationLedger {
+	
+	private static final String ENTITY_TYPE = "products";
+	
+	private final ProductRepository productRepository;
+	private final OutboxEventRepository outboxEventRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final int chunkSize;
+	private final long idleTimeoutNanos;
+	private final Object[] stripes;
+	private final Map<Integer, Allotment> allotments = new ConcurrentHashMap<>();
+	
+	public ReservationLedger(
+			final ProductRepository productRepository,
+			final OutboxEventRepository outboxEventRepository,
+			final PlatformTransactionManager transactionManager,
+			@Value("${app.inventory.ledger.stripes:64}") final int stripes,
+			@Value("${app.inventory.ledger.chunk-size:20}") final int chunkSize,
+			@Value("${app.inventory.ledger.idle-timeout:10s}") final Duration idleTimeout) {
+		this.productRepository = productRepository;
+		this.outboxEventRepository = outboxEventRepository;
+		// top-ups commit on their own, a caller rolling back must not take units the ledger already handed out
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.chunkSize = chunkSize;
+		this.idleTimeoutNanos = idleTimeout.toNanos();
+		this.stripes = new Object[stripes];
+		for (int i = 0; i < stripes; i++) {
+			this.stripes[i] = new Object();
+		}
+	}
+	
+	/**
+	 * @return false when neither the allotment nor the remaining stock cover the quantity
+	 */
+	public boolean reserve(final Integer productId, final int quantity) {
+		synchronized (this.stripeOf(productId)) {
+			final Allotment allotment = this.allotments.computeIfAbsent(productId, id -> new Allotment());
+			if (allotment.available < quantity) {
+				final int missing = quantity - allotment.available;
+				if (this.take(productId, missing + this.chunkSize)) {
+					allotment.available += missing + this.chunkSize;
+				}
+				else if (this.take(productId, missing)) {
+					allotment.available += missing;
+				}
+				else {
+					return false;
+				}
+			}
+			allotment.available -= quantity;
+			allotment.lastUsedNanos = System.nanoTime();
+			return true;
+		}
+	}
+	
+	/**
+	 * @return false when the product does not exist
+	 */
+	public boolean release(final Integer productId, final int quantity) {
+		synchronized (this.stripeOf(productId)) {
+			final Allotment allotment = this.allotments.get(productId);
+			if (allotment == null) {
+				return this.give(productId, quantity);
+			}
+			allotment.available += quantity;
+			allotment.lastUsedNanos = System.nanoTime();
+			return true;
+		}
+	}
+	
+	public int getAvailable(final Integer productId) {
+		synchronized (this.stripeOf(productId)) {
+			return Optional.ofNullable(this.allotments.get(productId))
+					.map(allotment -> allotment.available)
+					.orElse(0);
+		}
+	}
+	
+	@Scheduled(
+			initialDelayString = "${app.inventory.ledger.return-interval:5000}",
+			fixedDelayString = "${app.inventory.ledger.return-interval:5000}")
+	public void returnIdle() {
+		final long now = System.nanoTime();
+		this.allotments.keySet().forEach(productId -> {
+			synchronized (this.stripeOf(productId)) {
+				final Allotment allotment = this.allotments.get(productId);
+				if (allotment != null && now - allotment.lastUsedNanos >= this.idleTimeoutNanos) {
+					this.returnAllotment(productId, allotment);
+				}
+			}
+		});
+	}
+	
+	@PreDestroy
+	public void returnAll() {
+		log.info("*** ReservationLedger, return all allotments to stock *");
+		this.allotments.keySet().forEach(productId -> {
+			synchronized (this.stripeOf(productId)) {
+				Optional.ofNullable(this.allotments.get(productId))
+						.ifPresent(allotment -> this.returnAllotment(productId, allotment));
+			}
+		});
+	}
+	
+	private void returnAllotment(final Integer productId, final Allotment allotment) {
+		this.allotments.remove(productId);
+		if (allotment.available > 0 && !this.give(productId, allotment.available)) {
+			log.warn("** ReservationLedger, product with id: {} is gone, dropping {} allotted units *\n",
+					productId, allotment.available);
+		}
+	}
+	
+	private boolean take(final Integer productId, final int quantity) {
+		return this.update(productId, () -> this.productRepository.reserve(productId, quantity, Instant.now()));
+	}
+	
+	private boolean give(final Integer productId, final int quantity) {
+		return this.update(productId, () -> this.productRepository.release(productId, quantity, Instant.now()));
+	}
+	
+	private boolean update(final Integer productId, final Supplier<Integer> statement) {
+		return Boolean.TRUE.equals(this.transactionTemplate.execute(status -> {
+			if (statement.get() != 1) {
+				return false;
+			}
+			this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, productId, OutboxEventType.UPDATED));
+			return true;
+		}));
+	}
+	
+	private Object stripeOf(final Integer productId) {
+		return this.stripes[Math.floorMod(productId.hashCode(), this.stripes.length)];
+	}
+	
+	private static final class Allotment {
+		private int available;
+		private long lastUsedNanos = System.nanoTime();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,40 @@
+package com.selimhorri.app.outbox;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.dto.OutboxEventDto;
+
+/**
+ * In-JVM stand-in for tests and single-process setups, subscribers are called synchronously by the relay.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "transport", havingValue = "in-memory")
+public class InMemoryOutboxTransport implements OutboxTransport {
+	
+	private final List<Consumer<List<OutboxEventDto>>> subscribers = new CopyOnWriteArrayList<>();
+	
+	public void subscribe(final Consumer<List<OutboxEventDto>> subscriber) {
+		this.subscribers.add(subscriber);
+	}
+	
+	@Override
+	public void publish(final List<OutboxEventDto> events) {
+		this.subscribers.forEach(subscriber -> subscriber.accept(events));
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
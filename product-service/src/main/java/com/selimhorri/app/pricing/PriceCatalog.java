@@ -0,0 +1,131 @@
+package com.selimhorri.app.pricing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.helper.AfterCommitHelper;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.TombstoneRepository;
+import com.selimhorri.app.repository.projection.PriceRow;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a {@link PriceTable} of every product, loaded on first lookup.
+ *
+ * Product writes of this instance land in the table once they commit. Every app.prices.refresh-interval the rows
+ * updated and the tombstones written since the last refresh, minus app.prices.refresh-overlap for commits that landed
+ * out of order or clocks that drift, are applied as well, which also brings in writes made through other instances
+ * and stock taken by reservations. Stock read from here is advisory, only a reservation holds it.
+ */
+@Component
+@Slf4j
+public class PriceCatalog {
+	
+	private static final String ENTITY_TYPE = "products";
+	
+	private final ProductRepository productRepository;
+	private final TombstoneRepository tombstoneRepository;
+	private final Duration refreshOverlap;
+	private volatile PriceTable priceTable;
+	private volatile Instant refreshedAt;
+	
+	public PriceCatalog(
+			final ProductRepository productRepository,
+			final TombstoneRepository tombstoneRepository,
+			@Value("${app.prices.refresh-overlap:5s}") final Duration refreshOverlap) {
+		this.productRepository = productRepository;
+		this.tombstoneRepository = tombstoneRepository;
+		this.refreshOverlap = refreshOverlap;
+	}
+	
+	/**
+	 * @see PriceTable#lookup(int[], double[], int[])
+	 */
+	public int lookup(final int[] productIds, final double[] prices, final int[] quantities) {
+		return this.table().lookup(productIds, prices, quantities);
+	}
+	
+	public void putAfterCommit(final Integer productId, final Double priceUnit, final Integer quantity) {
+		AfterCommitHelper.run(() -> {
+			final PriceTable table = this.priceTable;
+			if (table != null) {
+				put(table, new PriceRow(productId, priceUnit, quantity));
+			}
+		});
+	}
+	
+	public void removeAfterCommit(final Integer productId) {
+		AfterCommitHelper.run(() -> {
+			final PriceTable table = this.priceTable;
+			if (table != null) {
+				table.remove(productId);
+			}
+		});
+	}
+	
+	@Scheduled(
+			initialDelayString = "${app.prices.refresh-interval:1000}",
+			fixedDelayString = "${app.prices.refresh-interval:1000}")
+	public synchronized void refresh() {
+		final PriceTable table = this.priceTable;
+		if (table == null) {
+			return;
+		}
+		final Instant now = Instant.now();
+		final Instant since = this.refreshedAt.minus(this.refreshOverlap);
+		this.productRepository.findPricesChangedSince(since)
+				.forEach(row -> put(table, row));
+		this.tombstoneRepository.findDeletedSince(ENTITY_TYPE, since, 0, now, Pageable.unpaged())
+				.forEach(tombstone -> table.remove(tombstone.getEntityId()));
+		this.refreshedAt = now;
+	}
+	
+	private PriceTable table() {
+		final PriceTable table = this.priceTable;
+		if (table != null) {
+			return table;
+		}
+		return this.load();
+	}
+	
+	private synchronized PriceTable load() {
+		if (this.priceTable != null) {
+			return this.priceTable;
+		}
+		// rows written while loading are at or after this instant, the first refresh reads them again
+		final Instant now = Instant.now();
+		final List<PriceRow> rows = this.productRepository.findAllPrices();
+		final PriceTable table = new PriceTable(rows.size());
+		rows.forEach(row -> put(table, row));
+		this.refreshedAt = now;
+		this.priceTable = table;
+		log.info("*** PriceCatalog, catalog; loaded {} products into {} bytes *", table.size(), table.footprintBytes());
+		return table;
+	}
+	
+	private static void put(final PriceTable table, final PriceRow row) {
+		table.put(row.getProductId(),
+				row.getPriceUnit() != null ? row.getPriceUnit() : Double.NaN,
+				row.getQuantity() != null ? row.getQuantity() : 0);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
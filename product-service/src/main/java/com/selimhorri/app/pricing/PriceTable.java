@@ -0,0 +1,220 @@
+package com.selimhorri.app.pricing;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Price and stock by product id in three parallel primitive arrays with open addressing and linear probing.
+ *
+ * A slot takes 16 bytes and the table is kept at most half full, so a million products fit in about 32 MB
+ * with no boxed key, map entry or entity per product. Lookups take no lock: they read under an optimistic stamp
+ * and retry under the read lock only when a write raced them. Writes are serialized by the write lock.
+ * Product ids are positive, 0 marks a free slot.
+ */
+public final class PriceTable {
+	
+	private static final int FREE = 0;
+	private static final int MIN_CAPACITY = 16;
+	private static final int SLOT_BYTES = Integer.BYTES + Double.BYTES + Integer.BYTES;
+	
+	private final StampedLock lock = new StampedLock();
+	private int[] keys;
+	private double[] prices;
+	private int[] quantities;
+	private int size;
+	
+	public PriceTable(final int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < expectedSize * 2L) {
+			capacity <<= 1;
+		}
+		this.allocate(capacity);
+	}
+	
+	public void put(final int productId, final double price, final int quantity) {
+		if (productId <= FREE) {
+			throw new IllegalArgumentException("Product id must be positive, got " + productId);
+		}
+		final long stamp = this.lock.writeLock();
+		try {
+			if ((this.size + 1) * 2 > this.keys.length) {
+				this.rehash(this.keys.length << 1);
+			}
+			final int mask = this.keys.length - 1;
+			int slot = hash(productId) & mask;
+			while (this.keys[slot] != FREE && this.keys[slot] != productId) {
+				slot = (slot + 1) & mask;
+			}
+			if (this.keys[slot] == FREE) {
+				this.size++;
+			}
+			this.keys[slot] = productId;
+			this.prices[slot] = price;
+			this.quantities[slot] = quantity;
+		}
+		finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+	
+	public boolean remove(final int productId) {
+		final long stamp = this.lock.writeLock();
+		try {
+			final int mask = this.keys.length - 1;
+			int hole = find(this.keys, productId);
+			if (hole < 0) {
+				return false;
+			}
+			// shift later entries of the probe run back into the hole, so no lookup stops early at a free slot
+			for (int next = (hole + 1) & mask; this.keys[next] != FREE; next = (next + 1) & mask) {
+				final int home = hash(this.keys[next]) & mask;
+				if (((next - home) & mask) >= ((next - hole) & mask)) {
+					this.keys[hole] = this.keys[next];
+					this.prices[hole] = this.prices[next];
+					this.quantities[hole] = this.quantities[next];
+					hole = next;
+				}
+			}
+			this.keys[hole] = FREE;
+			this.size--;
+			return true;
+		}
+		finally {
+			this.lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Fills prices and quantities position by position, NaN and -1 where a product is not in the table.
+	 * All products are read as of the same moment.
+	 *
+	 * @return number of products found
+	 */
+	public int lookup(final int[] productIds, final double[] prices, final int[] quantities) {
+		final long optimistic = this.lock.tryOptimisticRead();
+		if (optimistic != 0) {
+			final int found = this.read(productIds, prices, quantities);
+			if (this.lock.validate(optimistic)) {
+				return found;
+			}
+		}
+		final long stamp = this.lock.readLock();
+		try {
+			return this.read(productIds, prices, quantities);
+		}
+		finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+	
+	public int size() {
+		final long stamp = this.lock.readLock();
+		try {
+			return this.size;
+		}
+		finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * Bytes held by the slot arrays, the whole cost of the table.
+	 */
+	public long footprintBytes() {
+		final long stamp = this.lock.readLock();
+		try {
+			return (long) this.keys.length * SLOT_BYTES;
+		}
+		finally {
+			this.lock.unlockRead(stamp);
+		}
+	}
+	
+	private int read(final int[] productIds, final double[] prices, final int[] quantities) {
+		final int[] keys = this.keys;
+		final double[] slotPrices = this.prices;
+		final int[] slotQuantities = this.quantities;
+		// arrays from both sides of a rehash, the stamp will not validate
+		if (keys.length != slotPrices.length || keys.length != slotQuantities.length) {
+			return -1;
+		}
+		int found = 0;
+		for (int i = 0; i < productIds.length; i++) {
+			final int slot = find(keys, productIds[i]);
+			if (slot < 0) {
+				prices[i] = Double.NaN;
+				quantities[i] = -1;
+			}
+			else {
+				prices[i] = slotPrices[slot];
+				quantities[i] = slotQuantities[slot];
+				found++;
+			}
+		}
+		return found;
+	}
+	
+	private void rehash(final int capacity) {
+		final int[] oldKeys = this.keys;
+		final double[] oldPrices = this.prices;
+		final int[] oldQuantities = this.quantities;
+		this.allocate(capacity);
+		final int mask = capacity - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != FREE) {
+				int slot = hash(oldKeys[i]) & mask;
+				while (this.keys[slot] != FREE) {
+					slot = (slot + 1) & mask;
+				}
+				this.keys[slot] = oldKeys[i];
+				this.prices[slot] = oldPrices[i];
+				this.quantities[slot] = oldQuantities[i];
+			}
+		}
+	}
+	
+	private void allocate(final int capacity) {
+		this.keys = new int[capacity];
+		this.prices = new double[capacity];
+		this.quantities = new int[capacity];
+	}
+	
+	/**
+	 * @return the slot of the product, -1 when absent; gives up after one full lap so a torn optimistic read cannot spin
+	 */
+	private static int find(final int[] keys, final int productId) {
+		if (productId <= FREE) {
+			return -1;
+		}
+		final int mask = keys.length - 1;
+		int slot = hash(productId) & mask;
+		for (int probes = 0; probes < keys.length; probes++) {
+			final int key = keys[slot];
+			if (key == productId) {
+				return slot;
+			}
+			if (key == FREE) {
+				return -1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+	
+	private static int hash(final int productId) {
+		final int h = productId * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
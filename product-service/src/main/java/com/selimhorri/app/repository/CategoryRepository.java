@@ -1,11 +1,37 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.repository.projection.CategoryEdge;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
 	
+	@Override
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+	List<Category> findAll();
+	
+	@Query("SELECT coalesce(c.updatedAt, c.createdAt) FROM Category c WHERE c.categoryId = :categoryId")
+	Optional<Instant> findLastModifiedById(@Param("categoryId") final Integer categoryId);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CollectionVersion("
+			+ "max(coalesce(c.updatedAt, c.createdAt)), count(c)) FROM Category c")
+	CollectionVersion findCollectionVersion();
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CategoryEdge("
+			+ "c.categoryId, p.categoryId, c.categoryTitle) FROM Category c LEFT JOIN c.parentCategory p")
+	List<CategoryEdge> findAllEdges();
+	
 	
 	
 }
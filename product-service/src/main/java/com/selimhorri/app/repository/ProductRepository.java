@@ -1,11 +1,61 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.repository.projection.CollectionVersion;
+import com.selimhorri.app.repository.projection.PriceRow;
 
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 	
+	List<Product> findByProductIdGreaterThan(final Integer productId, final Pageable pageable);
+	
+	@Query("SELECT p FROM Product p JOIN FETCH p.category c WHERE c.categoryId IN :categoryIds ORDER BY p.productId")
+	List<Product> findAllByCategoryIds(@Param("categoryIds") final Collection<Integer> categoryIds);
+	
+	@Query("SELECT coalesce(p.updatedAt, p.createdAt) FROM Product p WHERE p.productId = :productId")
+	Optional<Instant> findLastModifiedById(@Param("productId") final Integer productId);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CollectionVersion("
+			+ "max(coalesce(p.updatedAt, p.createdAt)), count(p)) FROM Product p")
+	CollectionVersion findCollectionVersion();
+	
+	@Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.updatedAt < :until "
+			+ "AND (p.updatedAt > :since OR (p.updatedAt = :since AND p.productId > :afterId)) "
+			+ "ORDER BY p.updatedAt, p.productId")
+	List<Product> findChangedSince(@Param("since") final Instant since, @Param("afterId") final Integer afterId, 
+			@Param("until") final Instant until, final Pageable pageable);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.PriceRow(p.productId, p.priceUnit, p.quantity) FROM Product p")
+	List<PriceRow> findAllPrices();
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.PriceRow(p.productId, p.priceUnit, p.quantity) "
+			+ "FROM Product p WHERE p.updatedAt >= :since")
+	List<PriceRow> findPricesChangedSince(@Param("since") final Instant since);
+	
+	/**
+	 * Takes quantity units off the stock in one conditional statement, returns 0 when the product is missing
+	 * or has fewer units left, so concurrent reservations can never drive the stock below zero.
+	 */
+	@Modifying
+	@Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, p.updatedAt = :now "
+			+ "WHERE p.productId = :productId AND p.quantity >= :quantity")
+	int reserve(@Param("productId") final Integer productId, @Param("quantity") final Integer quantity,
+			@Param("now") final Instant now);
+	
+	@Modifying
+	@Query("UPDATE Product p SET p.quantity = p.quantity + :quantity, p.updatedAt = :now WHERE p.productId = :productId")
+	int release(@Param("productId") final Integer productId, @Param("quantity") final Integer quantity,
+			@Param("now") final Instant now);
 	
 	
 }
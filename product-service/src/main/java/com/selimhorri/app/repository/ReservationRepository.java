@@ -0,0 +1,26 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.Reservation;
+
+public interface ReservationRepository extends JpaRepository<Reservation, String> {
+	
+	/**
+	 * @return 1 for the one caller that releases the reservation, 0 for every later one
+	 */
+	@Modifying
+	@Query("UPDATE Reservation r SET r.releasedAt = :now WHERE r.reservationId = :reservationId AND r.releasedAt IS NULL")
+	int markReleased(@Param("reservationId") final String reservationId, @Param("now") final Instant now);
+	
+}
+
+
+
+
+
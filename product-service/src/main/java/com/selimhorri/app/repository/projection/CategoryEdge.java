@@ -0,0 +1,33 @@
+package com.selimhorri.app.repository.projection;
+
+import lombok.Getter;
+
+/**
+ * A category and the id of its parent, all the category tree snapshot needs from a row.
+ */
+@Getter
+public final class CategoryEdge {
+	
+	private final Integer categoryId;
+	private final Integer parentCategoryId;
+	private final String categoryTitle;
+	
+	public CategoryEdge(final Integer categoryId, final Integer parentCategoryId, final String categoryTitle) {
+		this.categoryId = categoryId;
+		this.parentCategoryId = parentCategoryId;
+		this.categoryTitle = categoryTitle;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,33 @@
+package com.selimhorri.app.repository.projection;
+
+import lombok.Getter;
+
+/**
+ * Price and stock of a product, all the price table keeps of a row.
+ */
+@Getter
+public final class PriceRow {
+	
+	private final Integer productId;
+	private final Double priceUnit;
+	private final Integer quantity;
+	
+	public PriceRow(final Integer productId, final Double priceUnit, final Integer quantity) {
+		this.productId = productId;
+		this.priceUnit = priceUnit;
+		this.quantity = quantity;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -12,11 +12,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.CategoryNodeDto;
+import com.selimhorri.app.dto.ProductDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.ConditionalGetHelper;
 import com.selimhorri.app.service.CategoryService;
+import com.selimhorri.app.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,20 +34,45 @@ import lombok.extern.slf4j.Slf4j;
 public class CategoryResource {
 	
 	private final CategoryService categoryService;
+	private final ProductService productService;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<CategoryDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<CategoryDto>> findAll(final WebRequest webRequest) {
 		log.info("*** CategoryDto List, controller; fetch all categories *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.categoryService.findAll()));
+		return ConditionalGetHelper.collection(webRequest, this.categoryService.findCollectionVersion(), 
+				() -> new DtoCollectionResponse<>(this.categoryService.findAll()));
 	}
 	
 	@GetMapping("/{categoryId}")
 	public ResponseEntity<CategoryDto> findById(
 			@PathVariable("categoryId") 
 			@NotBlank(message = "Input must not be blank") 
-			@Valid final String categoryId) {
+			@Valid final String categoryId, 
+			final WebRequest webRequest) {
 		log.info("*** CategoryDto, resource; fetch category by id *");
-		return ResponseEntity.ok(this.categoryService.findById(Integer.parseInt(categoryId)));
+		final Integer id = Integer.parseInt(categoryId);
+		return ConditionalGetHelper.entity(webRequest, id, this.categoryService.findLastModifiedById(id), 
+				() -> this.categoryService.findById(id));
+	}
+	
+	@GetMapping("/{categoryId}/tree")
+	public ResponseEntity<CategoryNodeDto> findNodeById(
+			@PathVariable("categoryId") 
+			@NotBlank(message = "Input must not be blank") 
+			@Valid final String categoryId) {
+		log.info("*** CategoryNodeDto, resource; fetch category tree node by id *");
+		return ResponseEntity.ok(this.categoryService.findNodeById(Integer.parseInt(categoryId)));
+	}
+	
+	@GetMapping("/{categoryId}/products")
+	public ResponseEntity<DtoCollectionResponse<ProductDto>> findProducts(
+			@PathVariable("categoryId") 
+			@NotBlank(message = "Input must not be blank") 
+			@Valid final String categoryId, 
+			@RequestParam(value = "recursive", defaultValue = "false") final boolean recursive) {
+		log.info("*** ProductDto List, resource; fetch products by category *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService
+				.findAllByCategoryId(Integer.parseInt(categoryId), recursive)));
 	}
 	
 	@PostMapping
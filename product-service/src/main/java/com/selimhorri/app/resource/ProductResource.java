@@ -1,7 +1,11 @@
 package com.selimhorri.app.resource;
 
+import java.time.Instant;
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 
 import org.springframework.http.ResponseEntity;
@@ -12,10 +16,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.price.ProductPricesResponse;
+import com.selimhorri.app.dto.response.search.ProductSearchResponse;
+import com.selimhorri.app.helper.ConditionalGetHelper;
 import com.selimhorri.app.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -30,18 +40,62 @@ public class ProductResource {
 	private final ProductService productService;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<ProductDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<ProductDto>> findAll(
+			@RequestParam(value = "after", required = false) final Integer after, 
+			@RequestParam(value = "limit", required = false) final Integer limit, 
+			final WebRequest webRequest) {
 		log.info("*** ProductDto List, controller; fetch all categories *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService.findAll()));
+		return ConditionalGetHelper.collection(webRequest, this.productService.findCollectionVersion(), () -> {
+			if (after == null && limit == null) {
+				return new DtoCollectionResponse<>(this.productService.findAll());
+			}
+			return this.productService.findAll(after, limit);
+		});
+	}
+	
+	@GetMapping(params = "ids")
+	public ResponseEntity<DtoCollectionResponse<ProductDto>> findAllByIds(
+			@RequestParam("ids") 
+			@NotEmpty(message = "Input must not be empty!") final List<Integer> productIds) {
+		log.info("*** ProductDto List, controller; fetch products by ids *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.productService.findAllByIds(productIds)));
+	}
+	
+	@GetMapping("/changes")
+	public ResponseEntity<ChangeFeedResponse<ProductDto>> findChanges(
+			@RequestParam(value = "since", required = false) final Instant since, 
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit) {
+		log.info("*** ProductDto Changes, resource; fetch products changed since *");
+		return ResponseEntity.ok(this.productService.findChanges(since, after, limit));
+	}
+	
+	@GetMapping("/search")
+	public ResponseEntity<ProductSearchResponse> search(
+			@RequestParam(value = "q", defaultValue = "") final String query, 
+			@RequestParam(value = "limit", required = false) final Integer limit) {
+		log.info("*** ProductDto List, resource; search products *");
+		return ResponseEntity.ok(this.productService.search(query, limit));
+	}
+	
+	@PostMapping("/prices")
+	public ResponseEntity<ProductPricesResponse> findPrices(
+			@RequestBody 
+			@NotNull(message = "Input must not be NULL!") final List<Integer> productIds) {
+		log.info("*** ProductPricesResponse, resource; fetch prices of products *");
+		return ResponseEntity.ok(this.productService.findPrices(productIds));
 	}
 	
 	@GetMapping("/{productId}")
 	public ResponseEntity<ProductDto> findById(
 			@PathVariable("productId") 
 			@NotBlank(message = "Input must not be blank!") 
-			@Valid final String productId) {
+			@Valid final String productId, 
+			final WebRequest webRequest) {
 		log.info("*** ProductDto, resource; fetch product by id *");
-		return ResponseEntity.ok(this.productService.findById(Integer.parseInt(productId)));
+		final Integer id = Integer.parseInt(productId);
+		return ConditionalGetHelper.entity(webRequest, id, this.productService.findLastModifiedById(id), 
+				() -> this.productService.findById(id));
 	}
 	
 	@PostMapping
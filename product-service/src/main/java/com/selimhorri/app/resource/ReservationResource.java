@@ -0,0 +1,78 @@
+package com.selimhorri.app.resource;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.dto.ReservationBatchDto;
+import com.selimhorri.app.dto.ReservationDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.service.ReservationService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/products")
+@Slf4j
+@RequiredArgsConstructor
+public class ReservationResource {
+	
+	private final ReservationService reservationService;
+	
+	@PostMapping("/{productId}/reservations")
+	public ResponseEntity<ReservationDto> reserve(
+			@PathVariable("productId")
+			@NotBlank(message = "Input must not be blank!")
+			@Valid final String productId,
+			@RequestBody
+			@NotNull(message = "Input must not be NULL!")
+			@Valid final ReservationDto reservationDto) {
+		log.info("*** ReservationDto, resource; reserve product stock *");
+		reservationDto.setProductId(Integer.parseInt(productId));
+		return ResponseEntity.ok(this.reservationService.reserve(reservationDto));
+	}
+	
+	/**
+	 * Idempotent, releasing a reservation that is already released returns it again without touching the stock.
+	 */
+	@DeleteMapping("/reservations/{reservationId}")
+	public ResponseEntity<ReservationDto> release(
+			@PathVariable("reservationId")
+			@NotBlank(message = "Input must not be blank!")
+			@Valid final String reservationId) {
+		log.info("*** ReservationDto, resource; release product stock *");
+		return ResponseEntity.ok(this.reservationService.release(reservationId.strip()));
+	}
+	
+	@PostMapping("/reservations")
+	public ResponseEntity<DtoCollectionResponse<ReservationDto>> reserveAll(
+			@RequestBody
+			@NotNull(message = "Input must not be NULL!")
+			@Valid final ReservationBatchDto reservationBatchDto) {
+		log.info("*** ReservationDto List, resource; reserve stock of several products *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.reservationService
+				.reserveAll(reservationBatchDto.getReservations())));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,339 @@
+package com.selimhorri.app.search;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.domain.Tombstone;
+import com.selimhorri.app.helper.AfterCommitHelper;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.TombstoneRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process inverted index over product title, sku and category title.
+ *
+ * Every query term must match, exactly, as the prefix of an indexed term or one typo away (terms of
+ * {@link SearchTerms#MIN_FUZZY_LENGTH} characters and more). Matches are weighted by field and by how they matched,
+ * and only the best "limit" products are kept, in a heap of that size. Prefix and typo expansion stop at the deadline
+ * and the result is then flagged partial, exact lookups still run for every term so each hit matches the whole query.
+ *
+ * Built on first search, kept current by product writes after they commit and rebuilt on category writes, since
+ * products carry their category title. Every app.search.refresh-interval the rows updated and the tombstones written
+ * since the last refresh, minus app.search.refresh-overlap, are reindexed, which brings in writes made through other
+ * instances at the cost of the rows changed rather than the whole table. Only a change of the categories' collection
+ * version, also checked then, triggers a full rebuild.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+	
+	private static final float TITLE_WEIGHT = 3f;
+	private static final float SKU_WEIGHT = 2f;
+	private static final float CATEGORY_WEIGHT = 1f;
+	private static final float PREFIX_FACTOR = 0.6f;
+	private static final float FUZZY_FACTOR = 0.4f;
+	private static final int DEADLINE_CHECK_INTERVAL = 256;
+	private static final Comparator<Map.Entry<Integer, Float>> WORST_FIRST = Map.Entry.<Integer, Float>comparingByValue()
+			.thenComparing(Map.Entry.<Integer, Float>comparingByKey().reversed());
+	
+	private static final String ENTITY_TYPE = "products";
+	
+	private final ProductRepository productRepository;
+	private final CategoryRepository categoryRepository;
+	private final TombstoneRepository tombstoneRepository;
+	private final Duration refreshOverlap;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private Terms terms = new Terms();
+	private volatile Instant refreshedAt;
+	private volatile List<Object> categoriesVersion;
+	
+	public ProductSearchIndex(
+			final ProductRepository productRepository,
+			final CategoryRepository categoryRepository,
+			final TombstoneRepository tombstoneRepository,
+			@Value("${app.search.refresh-overlap:5s}") final Duration refreshOverlap) {
+		this.productRepository = productRepository;
+		this.categoryRepository = categoryRepository;
+		this.tombstoneRepository = tombstoneRepository;
+		this.refreshOverlap = refreshOverlap;
+	}
+	
+	public SearchResult search(final String query, final int limit, final Duration timeout) {
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		final Set<String> queryTerms = SearchTerms.tokenize(query);
+		if (queryTerms.isEmpty() || limit <= 0) {
+			return new SearchResult(List.of(), 0, false);
+		}
+		if (this.refreshedAt == null) {
+			this.rebuild();
+		}
+		this.lock.readLock().lock();
+		try {
+			boolean partial = false;
+			Map<Integer, Float> scores = null;
+			for (final String term : queryTerms) {
+				final Map<Integer, Float> termScores = new HashMap<>();
+				partial |= !this.terms.match(term, termScores, deadline);
+				scores = scores == null ? termScores : intersect(scores, termScores);
+				if (scores.isEmpty()) {
+					break;
+				}
+			}
+			final PriorityQueue<Map.Entry<Integer, Float>> best = new PriorityQueue<>(limit + 1, WORST_FIRST);
+			int scanned = 0;
+			for (final Map.Entry<Integer, Float> score : scores.entrySet()) {
+				best.offer(score);
+				if (best.size() > limit) {
+					best.poll();
+				}
+				if (++scanned % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+					partial = true;
+					break;
+				}
+			}
+			final Integer[] productIds = new Integer[best.size()];
+			for (int i = productIds.length - 1; i >= 0; i--) {
+				productIds[i] = best.poll().getKey();
+			}
+			return new SearchResult(List.of(productIds), scores.size(), partial);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+	
+	public void indexAfterCommit(final Integer productId) {
+		AfterCommitHelper.run(() -> this.index(productId));
+	}
+	
+	public void removeAfterCommit(final Integer productId) {
+		AfterCommitHelper.run(() -> this.remove(productId));
+	}
+	
+	public void rebuildAfterCommit() {
+		AfterCommitHelper.run(() -> {
+			if (this.refreshedAt != null) {
+				this.rebuild();
+			}
+		});
+	}
+	
+	public void index(final Integer productId) {
+		if (this.refreshedAt == null) {
+			return;
+		}
+		this.productRepository.findById(productId).ifPresentOrElse(product -> {
+			this.lock.writeLock().lock();
+			try {
+				this.terms.remove(productId);
+				this.terms.add(product);
+			}
+			finally {
+				this.lock.writeLock().unlock();
+			}
+		}, () -> this.remove(productId));
+	}
+	
+	public void remove(final Integer productId) {
+		if (this.refreshedAt == null) {
+			return;
+		}
+		this.lock.writeLock().lock();
+		try {
+			this.terms.remove(productId);
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+	
+	public synchronized void rebuild() {
+		// read before the rows, a write landing in between is read again by the next refresh
+		final Instant now = Instant.now();
+		final List<Object> currentCategoriesVersion = this.currentCategoriesVersion();
+		final Terms rebuilt = new Terms();
+		final List<Product> products = this.productRepository.findAll();
+		products.forEach(rebuilt::add);
+		this.lock.writeLock().lock();
+		try {
+			this.terms = rebuilt;
+			this.refreshedAt = now;
+			this.categoriesVersion = currentCategoriesVersion;
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+		log.info("*** ProductSearchIndex, index; rebuilt with {} products and {} terms *", products.size(), rebuilt.postings.size());
+	}
+	
+	@Scheduled(
+			initialDelayString = "${app.search.refresh-interval:30000}",
+			fixedDelayString = "${app.search.refresh-interval:30000}")
+	public synchronized void refreshIfChanged() {
+		if (this.refreshedAt == null) {
+			return;
+		}
+		if (!this.categoriesVersion.equals(this.currentCategoriesVersion())) {
+			this.rebuild();
+			return;
+		}
+		final Instant now = Instant.now();
+		final Instant since = this.refreshedAt.minus(this.refreshOverlap);
+		final List<Product> changed = this.productRepository.findChangedSince(since, 0, now, Pageable.unpaged());
+		final List<Tombstone> deleted = this.tombstoneRepository.findDeletedSince(ENTITY_TYPE, since, 0, now, Pageable.unpaged());
+		if (!changed.isEmpty() || !deleted.isEmpty()) {
+			this.lock.writeLock().lock();
+			try {
+				changed.forEach(product -> {
+					this.terms.remove(product.getProductId());
+					this.terms.add(product);
+				});
+				deleted.forEach(tombstone -> this.terms.remove(tombstone.getEntityId()));
+			}
+			finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+		this.refreshedAt = now;
+	}
+	
+	private List<Object> currentCategoriesVersion() {
+		final CollectionVersion categories = this.categoryRepository.findCollectionVersion();
+		return Arrays.asList(categories.getLastModified(), categories.getCount());
+	}
+	
+	private static Map<Integer, Float> intersect(final Map<Integer, Float> scores, final Map<Integer, Float> termScores) {
+		final Map<Integer, Float> smaller = scores.size() <= termScores.size() ? scores : termScores;
+		final Map<Integer, Float> larger = smaller == scores ? termScores : scores;
+		final Map<Integer, Float> intersection = new HashMap<>(smaller.size() * 2);
+		smaller.forEach((productId, score) -> {
+			final Float other = larger.get(productId);
+			if (other != null) {
+				intersection.put(productId, score + other);
+			}
+		});
+		return intersection;
+	}
+	
+	/**
+	 * Postings by term, the terms of each product and the one-deletion variants of every term long enough
+	 * to be matched with a typo. Guarded by the index lock.
+	 */
+	private static final class Terms {
+		
+		private final NavigableMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+		private final Map<Integer, Set<String>> termsByProduct = new HashMap<>();
+		private final Map<String, Set<String>> termsByDelete = new HashMap<>();
+		
+		private void add(final Product product) {
+			final Map<String, Float> weights = new HashMap<>();
+			SearchTerms.tokenize(product.getProductTitle()).forEach(term -> weights.merge(term, TITLE_WEIGHT, Math::max));
+			SearchTerms.tokenize(product.getSku()).forEach(term -> weights.merge(term, SKU_WEIGHT, Math::max));
+			if (product.getCategory() != null) {
+				SearchTerms.tokenize(product.getCategory().getCategoryTitle()).forEach(term -> weights.merge(term, CATEGORY_WEIGHT, Math::max));
+			}
+			weights.forEach((term, weight) -> {
+				if (!this.postings.containsKey(term) && term.length() >= SearchTerms.MIN_FUZZY_LENGTH) {
+					SearchTerms.deletesOf(term).forEach(delete -> this.termsByDelete.computeIfAbsent(delete, d -> new HashSet<>()).add(term));
+				}
+				this.postings.computeIfAbsent(term, t -> new HashMap<>()).put(product.getProductId(), weight);
+			});
+			this.termsByProduct.put(product.getProductId(), weights.keySet());
+		}
+		
+		private void remove(final Integer productId) {
+			final Set<String> productTerms = this.termsByProduct.remove(productId);
+			if (productTerms == null) {
+				return;
+			}
+			productTerms.forEach(term -> {
+				final Map<Integer, Float> posting = this.postings.get(term);
+				posting.remove(productId);
+				if (posting.isEmpty()) {
+					this.postings.remove(term);
+					SearchTerms.deletesOf(term).forEach(delete -> {
+						final Set<String> variants = this.termsByDelete.get(delete);
+						if (variants != null && variants.remove(term) && variants.isEmpty()) {
+							this.termsByDelete.remove(delete);
+						}
+					});
+				}
+			});
+		}
+		
+		/**
+		 * @return false when the deadline cut prefix or typo expansion short
+		 */
+		private boolean match(final String term, final Map<Integer, Float> scores, final long deadline) {
+			this.collect(this.postings.get(term), 1f, scores);
+			int expanded = 0;
+			for (final Map<Integer, Float> posting : this.postings.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+				this.collect(posting, PREFIX_FACTOR, scores);
+				if (++expanded % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+					return false;
+				}
+			}
+			if (term.length() < SearchTerms.MIN_FUZZY_LENGTH) {
+				return true;
+			}
+			final Set<String> candidates = new HashSet<>(this.termsByDelete.getOrDefault(term, Set.of()));
+			for (final String delete : SearchTerms.deletesOf(term)) {
+				if (this.postings.containsKey(delete)) {
+					candidates.add(delete);
+				}
+				candidates.addAll(this.termsByDelete.getOrDefault(delete, Set.of()));
+			}
+			candidates.remove(term);
+			for (final String candidate : candidates) {
+				if (SearchTerms.withinOneEdit(term, candidate)) {
+					this.collect(this.postings.get(candidate), FUZZY_FACTOR, scores);
+				}
+				if (++expanded % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		private void collect(final Map<Integer, Float> posting, final float factor, final Map<Integer, Float> scores) {
+			if (posting != null) {
+				posting.forEach((productId, weight) -> scores.merge(productId, weight * factor, Math::max));
+			}
+		}
+	
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
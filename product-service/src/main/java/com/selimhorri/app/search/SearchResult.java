@@ -0,0 +1,27 @@
+package com.selimhorri.app.search;
+
+import java.util.List;
+
+import lombok.Value;
+
+@Value
+public class SearchResult {
+	
+	/**
+	 * Best match first.
+	 */
+	List<Integer> productIds;
+	int totalMatches;
+	boolean partial;
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,91 @@
+package com.selimhorri.app.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns text into index terms and finds terms one typo apart.
+ */
+public interface SearchTerms {
+	
+	Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+	Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+	
+	/**
+	 * Shorter terms are matched exactly or by prefix only, one edit away they match almost anything.
+	 */
+	int MIN_FUZZY_LENGTH = 4;
+	
+	/**
+	 * Lower-cased, accent-free alphanumeric words of the text, in order and without duplicates.
+	 */
+	public static Set<String> tokenize(final String text) {
+		final Set<String> terms = new LinkedHashSet<>();
+		if (text == null) {
+			return terms;
+		}
+		final String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+				.replaceAll("")
+				.toLowerCase(Locale.ROOT);
+		for (final String term : SEPARATORS.split(normalized)) {
+			if (!term.isEmpty()) {
+				terms.add(term);
+			}
+		}
+		return terms;
+	}
+	
+	/**
+	 * Every variant of the term with one character left out. Two terms are one substitution, insertion,
+	 * deletion or transposition apart only if one is a variant of the other or they share a variant.
+	 */
+	public static Set<String> deletesOf(final String term) {
+		final Set<String> deletes = new LinkedHashSet<>();
+		for (int i = 0; i < term.length(); i++) {
+			deletes.add(term.substring(0, i) + term.substring(i + 1));
+		}
+		return deletes;
+	}
+	
+	/**
+	 * Optimal string alignment distance of at most one.
+	 */
+	public static boolean withinOneEdit(final String a, final String b) {
+		final int lengthDifference = a.length() - b.length();
+		if (Math.abs(lengthDifference) > 1) {
+			return false;
+		}
+		int i = 0;
+		while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+			i++;
+		}
+		if (lengthDifference > 0) {
+			return a.regionMatches(i + 1, b, i, b.length() - i);
+		}
+		if (lengthDifference < 0) {
+			return b.regionMatches(i + 1, a, i, a.length() - i);
+		}
+		if (i >= a.length() - 1) {
+			return true;
+		}
+		return a.regionMatches(i + 1, b, i + 1, a.length() - i - 1)
+				|| (a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+						&& a.regionMatches(i + 2, b, i + 2, a.length() - i - 2));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
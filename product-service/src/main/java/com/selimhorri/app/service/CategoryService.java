@@ -1,13 +1,20 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.CategoryNodeDto;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface CategoryService {
 	
 	List<CategoryDto> findAll();
 	CategoryDto findById(final Integer categoryId);
+	CategoryNodeDto findNodeById(final Integer categoryId);
+	Optional<Instant> findLastModifiedById(final Integer categoryId);
+	CollectionVersion findCollectionVersion();
 	CategoryDto save(final CategoryDto categoryDto);
 	CategoryDto update(final CategoryDto categoryDto);
 	CategoryDto update(final Integer categoryId, final CategoryDto categoryDto);
@@ -1,13 +1,29 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.price.ProductPricesResponse;
+import com.selimhorri.app.dto.response.search.ProductSearchResponse;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface ProductService {
 	
 	List<ProductDto> findAll();
+	DtoCollectionResponse<ProductDto> findAll(final Integer after, final Integer limit);
+	List<ProductDto> findAllByIds(final Collection<Integer> productIds);
+	List<ProductDto> findAllByCategoryId(final Integer categoryId, final boolean recursive);
 	ProductDto findById(final Integer productId);
+	ProductSearchResponse search(final String query, final Integer limit);
+	ProductPricesResponse findPrices(final List<Integer> productIds);
+	Optional<Instant> findLastModifiedById(final Integer productId);
+	CollectionVersion findCollectionVersion();
+	ChangeFeedResponse<ProductDto> findChanges(final Instant since, final String after, final Integer limit);
 	ProductDto save(final ProductDto productDto);
 	ProductDto update(final ProductDto productDto);
 	ProductDto update(final Integer productId, final ProductDto productDto);
@@ -0,0 +1,23 @@
+package com.selimhorri.app.service;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.ReservationDto;
+
+public interface ReservationService {
+	
+	ReservationDto reserve(final ReservationDto reservationDto);
+	List<ReservationDto> reserveAll(final List<ReservationDto> reservationDtos);
+	ReservationDto release(final String reservationId);
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,16 +1,26 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.category.CategoryTree;
+import com.selimhorri.app.category.CategoryTreeHolder;
+import com.selimhorri.app.config.cache.CacheConfig;
 import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.CategoryNodeDto;
 import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.helper.CategoryMappingHelper;
 import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
+import com.selimhorri.app.search.ProductSearchIndex;
 import com.selimhorri.app.service.CategoryService;
 
 import lombok.RequiredArgsConstructor;
@@ -23,8 +33,11 @@ import lombok.extern.slf4j.Slf4j;
 public class CategoryServiceImpl implements CategoryService {
 	
 	private final CategoryRepository categoryRepository;
+	private final CategoryTreeHolder categoryTreeHolder;
+	private final ProductSearchIndex productSearchIndex;
 	
 	@Override
+	@Cacheable(cacheNames = CacheConfig.CATEGORIES_CACHE, key = "'all'", condition = CacheConfig.CACHE_ENABLED)
 	public List<CategoryDto> findAll() {
 		log.info("*** CategoryDto List, service; fetch all categorys *");
 		return this.categoryRepository.findAll()
@@ -35,6 +48,7 @@ public class CategoryServiceImpl implements CategoryService {
 	}
 	
 	@Override
+	@Cacheable(cacheNames = CacheConfig.CATEGORIES_CACHE, key = "#categoryId", condition = CacheConfig.CACHE_ENABLED)
 	public CategoryDto findById(final Integer categoryId) {
 		log.info("*** CategoryDto, service; fetch category by id *");
 		return this.categoryRepository.findById(categoryId)
@@ -43,30 +57,68 @@ public class CategoryServiceImpl implements CategoryService {
 	}
 	
 	@Override
+	public CategoryNodeDto findNodeById(final Integer categoryId) {
+		log.info("*** CategoryNodeDto, service; fetch category tree node by id *");
+		final CategoryTree categoryTree = this.categoryTreeHolder.current();
+		if (!categoryTree.contains(categoryId)) {
+			throw new CategoryNotFoundException(String.format("Category with id: %d not found", categoryId));
+		}
+		return CategoryMappingHelper.map(categoryTree, categoryId);
+	}
+	
+	@Override
+	// products embed their category, so they are evicted along with it
+	@CacheEvict(cacheNames = {CacheConfig.CATEGORIES_CACHE, CacheConfig.PRODUCTS_CACHE}, allEntries = true)
 	public CategoryDto save(final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, service; save category *");
-		return CategoryMappingHelper.map(this.categoryRepository
+		final CategoryDto savedCategory = CategoryMappingHelper.map(this.categoryRepository
 				.save(CategoryMappingHelper.map(categoryDto)));
+		this.categoryTreeHolder.rebuildAfterCommit();
+		this.productSearchIndex.rebuildAfterCommit();
+		return savedCategory;
 	}
 	
 	@Override
+	@CacheEvict(cacheNames = {CacheConfig.CATEGORIES_CACHE, CacheConfig.PRODUCTS_CACHE}, allEntries = true)
 	public CategoryDto update(final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, service; update category *");
-		return CategoryMappingHelper.map(this.categoryRepository
+		final CategoryDto updatedCategory = CategoryMappingHelper.map(this.categoryRepository
 				.save(CategoryMappingHelper.map(categoryDto)));
+		this.categoryTreeHolder.rebuildAfterCommit();
+		this.productSearchIndex.rebuildAfterCommit();
+		return updatedCategory;
 	}
 	
 	@Override
+	@CacheEvict(cacheNames = {CacheConfig.CATEGORIES_CACHE, CacheConfig.PRODUCTS_CACHE}, allEntries = true)
 	public CategoryDto update(final Integer categoryId, final CategoryDto categoryDto) {
 		log.info("*** CategoryDto, service; update category with categoryId *");
-		return CategoryMappingHelper.map(this.categoryRepository
+		final CategoryDto updatedCategory = CategoryMappingHelper.map(this.categoryRepository
 				.save(CategoryMappingHelper.map(this.findById(categoryId))));
+		this.categoryTreeHolder.rebuildAfterCommit();
+		this.productSearchIndex.rebuildAfterCommit();
+		return updatedCategory;
 	}
 	
 	@Override
+	@CacheEvict(cacheNames = {CacheConfig.CATEGORIES_CACHE, CacheConfig.PRODUCTS_CACHE}, allEntries = true)
 	public void deleteById(final Integer categoryId) {
 		log.info("*** Void, service; delete category by id *");
 		this.categoryRepository.deleteById(categoryId);
+		this.categoryTreeHolder.rebuildAfterCommit();
+		this.productSearchIndex.rebuildAfterCommit();
+	}
+	
+	@Override
+	public Optional<Instant> findLastModifiedById(final Integer categoryId) {
+		log.info("*** Instant, service; fetch last modification of category by id *");
+		return this.categoryRepository.findLastModifiedById(categoryId);
+	}
+	
+	@Override
+	public CollectionVersion findCollectionVersion() {
+		log.info("*** CollectionVersion, service; fetch version of all categories *");
+		return this.categoryRepository.findCollectionVersion();
 	}
 	
 	
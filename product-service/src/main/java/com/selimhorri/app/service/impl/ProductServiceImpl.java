@@ -1,17 +1,51 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.category.CategoryTree;
+import com.selimhorri.app.category.CategoryTreeHolder;
+import com.selimhorri.app.config.RefreshableProperties;
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventType;
+import com.selimhorri.app.domain.Tombstone;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.dto.response.price.ProductPricesResponse;
+import com.selimhorri.app.dto.response.search.ProductSearchResponse;
+import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
 import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.helper.ChangeFeedHelper;
 import com.selimhorri.app.helper.ProductMappingHelper;
 import com.selimhorri.app.metrics.BusinessMetricsService;
+import com.selimhorri.app.pricing.PriceCatalog;
+import com.selimhorri.app.repository.OutboxEventRepository;
 import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.TombstoneRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
+import com.selimhorri.app.search.ProductSearchIndex;
+import com.selimhorri.app.search.SearchResult;
 import com.selimhorri.app.service.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -23,10 +57,25 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 	
+	private static final String ENTITY_TYPE = "products";
+	
 	private final ProductRepository productRepository;
+	private final TombstoneRepository tombstoneRepository;
+	private final OutboxEventRepository outboxEventRepository;
+	private final CategoryTreeHolder categoryTreeHolder;
+	private final ProductSearchIndex productSearchIndex;
+	private final PriceCatalog priceCatalog;
+	private final RefreshableProperties refreshableProperties;
 	private final BusinessMetricsService businessMetricsService;
 	
+	@Value("${app.changes.max-limit:500}")
+	private int maxChangesPerQuery;
+	
+	@Value("${app.changes.settle-delay:2s}")
+	private Duration changesSettleDelay;
+	
 	@Override
+	@Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "'all'", condition = CacheConfig.CACHE_ENABLED)
 	public List<ProductDto> findAll() {
 		log.info("*** ProductDto List, service; fetch all products *");
 		return this.productRepository.findAll()
@@ -37,6 +86,47 @@ public class ProductServiceImpl implements ProductService {
 	}
 	
 	@Override
+	public DtoCollectionResponse<ProductDto> findAll(final Integer after, final Integer limit) {
+		log.info("*** ProductDto List, service; fetch page of products *");
+		final int pageSize = Math.max(1, Math.min(Optional.ofNullable(limit).orElse(this.refreshableProperties.getMaxProductsPerQuery()), this.refreshableProperties.getMaxProductsPerQuery()));
+		return DtoCollectionResponse.ofPage(this.productRepository
+				.findByProductIdGreaterThan(Optional.ofNullable(after).orElse(0), 
+						PageRequest.of(0, pageSize + 1, Sort.by("productId")))
+				.stream()
+					.map(ProductMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList()), 
+				pageSize, p -> String.valueOf(p.getProductId()));
+	}
+	
+	@Override
+	public List<ProductDto> findAllByIds(final Collection<Integer> productIds) {
+		log.info("*** ProductDto List, service; fetch products by ids *");
+		return this.productRepository.findAllById(Set.copyOf(productIds))
+				.stream()
+					.map(ProductMappingHelper::map)
+					.distinct()
+					.collect(Collectors.toUnmodifiableList());
+	}
+	
+	/**
+	 * With recursive, products of every category below categoryId too, resolved from the category tree snapshot
+	 * into a single IN query.
+	 */
+	@Override
+	public List<ProductDto> findAllByCategoryId(final Integer categoryId, final boolean recursive) {
+		log.info("*** ProductDto List, service; fetch products by category *");
+		final CategoryTree categoryTree = this.categoryTreeHolder.current();
+		if (!categoryTree.contains(categoryId)) {
+			throw new CategoryNotFoundException(String.format("Category with id: %d not found", categoryId));
+		}
+		return this.productRepository.findAllByCategoryIds(recursive ? categoryTree.subtreeIdsOf(categoryId) : List.of(categoryId))
+				.stream()
+					.map(ProductMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList());
+	}
+	
+	@Override
+	@Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#productId", condition = CacheConfig.CACHE_ENABLED)
 	public ProductDto findById(final Integer productId) {
 		log.info("*** ProductDto, service; fetch product by id *");
 		return this.productRepository.findById(productId)
@@ -45,10 +135,14 @@ public class ProductServiceImpl implements ProductService {
 	}
 	
 	@Override
+	@CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, allEntries = true)
 	public ProductDto save(final ProductDto productDto) {
 		log.info("*** ProductDto, service; save product *");
 		ProductDto savedProduct = ProductMappingHelper.map(this.productRepository
 				.save(ProductMappingHelper.map(productDto)));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, savedProduct.getProductId(), OutboxEventType.CREATED));
+		this.productSearchIndex.indexAfterCommit(savedProduct.getProductId());
+		this.priceCatalog.putAfterCommit(savedProduct.getProductId(), savedProduct.getPriceUnit(), savedProduct.getQuantity());
 		// Registrar métrica de negocio: producto creado
 		businessMetricsService.recordProductCreated();
 		// Actualizar gauge de total de productos
@@ -57,36 +151,137 @@ public class ProductServiceImpl implements ProductService {
 	}
 	
 	@Override
+	@CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, allEntries = true)
 	public ProductDto update(final ProductDto productDto) {
 		log.info("*** ProductDto, service; update product *");
 		ProductDto updatedProduct = ProductMappingHelper.map(this.productRepository
 				.save(ProductMappingHelper.map(productDto)));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, updatedProduct.getProductId(), OutboxEventType.UPDATED));
+		this.productSearchIndex.indexAfterCommit(updatedProduct.getProductId());
+		this.priceCatalog.putAfterCommit(updatedProduct.getProductId(), updatedProduct.getPriceUnit(), updatedProduct.getQuantity());
 		// Registrar métrica de negocio: producto actualizado
 		businessMetricsService.recordProductUpdated();
 		return updatedProduct;
 	}
 	
 	@Override
+	@CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, allEntries = true)
 	public ProductDto update(final Integer productId, final ProductDto productDto) {
 		log.info("*** ProductDto, service; update product with productId *");
 		ProductDto updatedProduct = ProductMappingHelper.map(this.productRepository
 				.save(ProductMappingHelper.map(this.findById(productId))));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, productId, OutboxEventType.UPDATED));
+		this.productSearchIndex.indexAfterCommit(productId);
+		this.priceCatalog.putAfterCommit(productId, updatedProduct.getPriceUnit(), updatedProduct.getQuantity());
 		// Registrar métrica de negocio: producto actualizado
 		businessMetricsService.recordProductUpdated();
 		return updatedProduct;
 	}
 	
 	@Override
+	@CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, allEntries = true)
 	public void deleteById(final Integer productId) {
 		log.info("*** Void, service; delete product by id *");
 		this.productRepository.delete(ProductMappingHelper
 				.map(this.findById(productId)));
+		this.tombstoneRepository.save(Tombstone.of(ENTITY_TYPE, productId));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, productId, OutboxEventType.DELETED));
+		this.productSearchIndex.removeAfterCommit(productId);
+		this.priceCatalog.removeAfterCommit(productId);
 		// Registrar métrica de negocio: producto eliminado
 		businessMetricsService.recordProductDeleted();
 		// Actualizar gauge de total de productos
 		businessMetricsService.updateTotalProductsGauge(this.productRepository.count());
 	}
 	
+	@Override
+	public ProductSearchResponse search(final String query, final Integer limit) {
+		log.info("*** ProductDto List, service; search products *");
+		final int maxResults = this.refreshableProperties.getMaxProductsPerQuery();
+		final SearchResult result = this.productSearchIndex.search(query, 
+				Math.max(1, Math.min(Optional.ofNullable(limit).orElse(maxResults), maxResults)), 
+				Duration.ofMillis(this.refreshableProperties.getSearchTimeout()));
+		final Map<Integer, ProductDto> productsById = this.productRepository.findAllById(result.getProductIds())
+				.stream()
+					.map(ProductMappingHelper::map)
+					.collect(Collectors.toMap(ProductDto::getProductId, Function.identity()));
+		return ProductSearchResponse.builder()
+				.products(result.getProductIds()
+						.stream()
+							.map(productsById::get)
+							.filter(Objects::nonNull)
+							.collect(Collectors.toUnmodifiableList()))
+				.totalMatches(result.getTotalMatches())
+				.partial(result.isPartial())
+				.build();
+	}
+	
+	/**
+	 * Served from the price table alone, without a transaction or a row read.
+	 */
+	@Override
+	@Transactional(TxType.NOT_SUPPORTED)
+	public ProductPricesResponse findPrices(final List<Integer> productIds) {
+		log.info("*** ProductPricesResponse, service; fetch prices of products *");
+		final int[] ids = productIds.stream()
+				.filter(Objects::nonNull)
+				.mapToInt(Integer::intValue)
+				.toArray();
+		final double[] prices = new double[ids.length];
+		final int[] quantities = new int[ids.length];
+		final int found = this.priceCatalog.lookup(ids, prices, quantities);
+		final int priced = (int) Arrays.stream(prices).filter(price -> !Double.isNaN(price)).count();
+		final ProductPricesResponse response = ProductPricesResponse.builder()
+				.productIds(new int[priced])
+				.priceUnits(new double[priced])
+				.quantities(new int[priced])
+				.missing(new int[ids.length - priced])
+				.build();
+		log.debug("** ProductServiceImpl, {} of {} products found, {} priced *\n", found, ids.length, priced);
+		for (int i = 0, hit = 0, miss = 0; i < ids.length; i++) {
+			if (Double.isNaN(prices[i])) {
+				response.getMissing()[miss++] = ids[i];
+			}
+			else {
+				response.getProductIds()[hit] = ids[i];
+				response.getPriceUnits()[hit] = prices[i];
+				response.getQuantities()[hit++] = quantities[i];
+			}
+		}
+		return response;
+	}
+	
+	@Override
+	public Optional<Instant> findLastModifiedById(final Integer productId) {
+		log.info("*** Instant, service; fetch last modification of product by id *");
+		return this.productRepository.findLastModifiedById(productId);
+	}
+	
+	@Override
+	public CollectionVersion findCollectionVersion() {
+		log.info("*** CollectionVersion, service; fetch version of all products *");
+		return this.productRepository.findCollectionVersion();
+	}
+	
+	@Override
+	public ChangeFeedResponse<ProductDto> findChanges(final Instant since, final String after, final Integer limit) {
+		log.info("*** ProductDto Changes, service; fetch products changed since *");
+		final int pageSize = Math.max(1, Math.min(Optional.ofNullable(limit).orElse(this.maxChangesPerQuery), this.maxChangesPerQuery));
+		final ChangeFeedHelper.Cursor cursor = ChangeFeedHelper.cursorOf(since, after);
+		// rows younger than the settle delay may still be joined by commits carrying an earlier updated_at
+		final Instant until = Instant.now().minus(this.changesSettleDelay);
+		return ChangeFeedHelper.merge(
+				this.productRepository.findChangedSince(cursor.getSince(), cursor.getAfterId(), until, PageRequest.of(0, pageSize + 1))
+					.stream()
+						.map(product -> ChangeFeedHelper.upserted(product.getProductId(), product.getUpdatedAt(), ProductMappingHelper.map(product)))
+						.collect(Collectors.toUnmodifiableList()), 
+				this.tombstoneRepository.findDeletedSince(ENTITY_TYPE, cursor.getSince(), cursor.getAfterId(), until, PageRequest.of(0, pageSize + 1))
+					.stream()
+						.map(ChangeFeedHelper::<ProductDto>deleted)
+						.collect(Collectors.toUnmodifiableList()), 
+				pageSize, cursor);
+	}
+	
 	
 	
 }
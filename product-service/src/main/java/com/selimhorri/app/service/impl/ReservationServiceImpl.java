@@ -0,0 +1,218 @@
+package com.selimhorri.app.service.impl;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventType;
+import com.selimhorri.app.domain.Reservation;
+import com.selimhorri.app.dto.ReservationDto;
+import com.selimhorri.app.exception.wrapper.InsufficientStockException;
+import com.selimhorri.app.exception.wrapper.ProductNotFoundException;
+import com.selimhorri.app.exception.wrapper.ReservationNotFoundException;
+import com.selimhorri.app.helper.ReservationMappingHelper;
+import com.selimhorri.app.inventory.ReservationLedger;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.ReservationRepository;
+import com.selimhorri.app.service.ReservationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stock reservations as single conditional UPDATEs, or through the {@link ReservationLedger} when it is enabled.
+ * Every granted reservation is recorded with an id, a release consumes that id once and gives back exactly
+ * the quantity recorded, so a retried or made-up release cannot add stock. Every statement changing products.quantity
+ * records an UPDATED outbox event in its transaction, the ledger's top-ups included.
+ * Stock changes made here bump updated_at but leave the products cache alone, cached reads may show
+ * a stale quantity for up to app.product.cache-expiration while the reservation itself is authoritative.
+ * Transactions are opened per statement instead of per method, a request going through the ledger
+ * must not pin one connection while the ledger takes another for its top-up.
+ */
+@Service
+@Slf4j
+public class ReservationServiceImpl implements ReservationService {
+	
+	private static final String ENTITY_TYPE = "products";
+	
+	private final ProductRepository productRepository;
+	private final ReservationRepository reservationRepository;
+	private final OutboxEventRepository outboxEventRepository;
+	private final Optional<ReservationLedger> reservationLedger;
+	private final TransactionTemplate transactionTemplate;
+	private final Counter reservedCounter;
+	private final Counter rejectedCounter;
+	private final Counter releasedCounter;
+	
+	public ReservationServiceImpl(
+			final ProductRepository productRepository,
+			final ReservationRepository reservationRepository,
+			final OutboxEventRepository outboxEventRepository,
+			final Optional<ReservationLedger> reservationLedger,
+			final TransactionTemplate transactionTemplate,
+			final MeterRegistry meterRegistry) {
+		this.productRepository = productRepository;
+		this.reservationRepository = reservationRepository;
+		this.outboxEventRepository = outboxEventRepository;
+		this.reservationLedger = reservationLedger;
+		this.transactionTemplate = transactionTemplate;
+		this.reservedCounter = counter(meterRegistry, "reserved");
+		this.rejectedCounter = counter(meterRegistry, "rejected");
+		this.releasedCounter = counter(meterRegistry, "released");
+	}
+	
+	@Override
+	public ReservationDto reserve(final ReservationDto reservationDto) {
+		log.info("*** ReservationDto, service; reserve product stock *");
+		final Integer productId = this.requireProductId(reservationDto);
+		final Optional<Reservation> reservation = this.reservationLedger
+				.map(ledger -> this.reserve(ledger, productId, reservationDto.getQuantity()))
+				.orElseGet(() -> this.transactionTemplate.execute(status -> this.reserve(productId, reservationDto.getQuantity())));
+		if (reservation.isEmpty()) {
+			this.rejectedCounter.increment();
+			if (!this.productRepository.existsById(productId)) {
+				throw new ProductNotFoundException(String.format("Product with id: %d not found", productId));
+			}
+			throw new InsufficientStockException(String.format("Not enough stock of product with id: %d to reserve %d units",
+					productId, reservationDto.getQuantity()));
+		}
+		this.reservedCounter.increment();
+		return ReservationMappingHelper.map(reservation.get());
+	}
+	
+	/**
+	 * All or nothing: quantities are summed per product and taken in product id order, so two batches
+	 * over the same products cannot deadlock on each other's row locks. Without the ledger the batch runs
+	 * in one transaction that a rejection rolls back, with it the reservations already granted are released.
+	 */
+	@Override
+	public List<ReservationDto> reserveAll(final List<ReservationDto> reservationDtos) {
+		log.info("*** ReservationDto List, service; reserve stock of several products *");
+		final Map<Integer, Integer> quantities = reservationDtos.stream()
+				.collect(Collectors.toMap(this::requireProductId, ReservationDto::getQuantity, Integer::sum, TreeMap::new));
+		if (this.reservationLedger.isEmpty()) {
+			return this.transactionTemplate.execute(status -> this.reserveEach(quantities));
+		}
+		return this.reserveEach(quantities);
+	}
+	
+	/**
+	 * Idempotent: only the first release of a reservation gives its units back, later ones return it unchanged.
+	 */
+	@Override
+	public ReservationDto release(final String reservationId) {
+		log.info("*** ReservationDto, service; release product stock *");
+		final Reservation reservation = this.reservationRepository.findById(reservationId)
+				.orElseThrow(() -> new ReservationNotFoundException(String.format("Reservation with id: %s not found", reservationId)));
+		final boolean released = this.reservationLedger
+				.map(ledger -> this.release(ledger, reservation))
+				.orElseGet(() -> this.transactionTemplate.execute(status -> this.release(reservation)));
+		if (released) {
+			this.releasedCounter.increment();
+		}
+		else {
+			log.info("*** ReservationDto, service; reservation already released *");
+		}
+		return ReservationMappingHelper.map(reservation);
+	}
+	
+	private Optional<Reservation> reserve(final Integer productId, final Integer quantity) {
+		if (this.productRepository.reserve(productId, quantity, Instant.now()) != 1) {
+			return Optional.empty();
+		}
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, productId, OutboxEventType.UPDATED));
+		return Optional.of(this.reservationRepository.save(Reservation.of(productId, quantity)));
+	}
+	
+	private Optional<Reservation> reserve(final ReservationLedger ledger, final Integer productId, final Integer quantity) {
+		if (!ledger.reserve(productId, quantity)) {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(this.transactionTemplate.execute(status ->
+					this.reservationRepository.save(Reservation.of(productId, quantity))));
+		}
+		catch (RuntimeException e) {
+			ledger.release(productId, quantity);
+			throw e;
+		}
+	}
+	
+	private boolean release(final Reservation reservation) {
+		if (this.reservationRepository.markReleased(reservation.getReservationId(), Instant.now()) != 1) {
+			return false;
+		}
+		if (this.productRepository.release(reservation.getProductId(), reservation.getQuantity(), Instant.now()) == 1) {
+			this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, reservation.getProductId(), OutboxEventType.UPDATED));
+		}
+		else {
+			log.warn("** ReservationServiceImpl, product with id: {} is gone, dropping {} released units *\n",
+					reservation.getProductId(), reservation.getQuantity());
+		}
+		return true;
+	}
+	
+	private boolean release(final ReservationLedger ledger, final Reservation reservation) {
+		final int marked = Optional.ofNullable(this.transactionTemplate.execute(status ->
+				this.reservationRepository.markReleased(reservation.getReservationId(), Instant.now()))).orElse(0);
+		if (marked != 1) {
+			return false;
+		}
+		if (!ledger.release(reservation.getProductId(), reservation.getQuantity())) {
+			log.warn("** ReservationServiceImpl, product with id: {} is gone, dropping {} released units *\n",
+					reservation.getProductId(), reservation.getQuantity());
+		}
+		return true;
+	}
+	
+	private List<ReservationDto> reserveEach(final Map<Integer, Integer> quantities) {
+		final List<ReservationDto> reserved = new ArrayList<>(quantities.size());
+		try {
+			quantities.forEach((productId, quantity) -> reserved.add(this.reserve(ReservationDto.builder()
+					.productId(productId)
+					.quantity(quantity)
+					.build())));
+		}
+		catch (InsufficientStockException | ProductNotFoundException e) {
+			this.reservationLedger.ifPresent(ledger -> reserved.forEach(reservation ->
+					this.release(reservation.getReservationId())));
+			throw e;
+		}
+		return List.copyOf(reserved);
+	}
+	
+	private Integer requireProductId(final ReservationDto reservationDto) {
+		return Optional.ofNullable(reservationDto.getProductId())
+				.orElseThrow(() -> new ProductNotFoundException("Product id of reservation must not be NULL"));
+	}
+	
+	private static Counter counter(final MeterRegistry meterRegistry, final String outcome) {
+		return Counter.builder("inventory.reservations")
+				.description("Stock reservation requests by outcome")
+				.tag("outcome", outcome)
+				.register(meterRegistry);
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
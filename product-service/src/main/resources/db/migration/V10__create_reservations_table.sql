@@ -0,0 +1,9 @@
+
+CREATE TABLE reservations (
+	reservation_id VARCHAR(36) NOT NULL PRIMARY KEY,
+	product_id INT(11) NOT NULL,
+	quantity INT(11) NOT NULL,
+	created_at TIMESTAMP NOT NULL,
+	released_at TIMESTAMP NULL
+);
+
@@ -0,0 +1,4 @@
+
+ALTER TABLE categories ALTER COLUMN updated_at TIMESTAMP(6);
+ALTER TABLE products ALTER COLUMN updated_at TIMESTAMP(6);
+
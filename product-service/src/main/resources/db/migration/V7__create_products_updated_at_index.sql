@@ -0,0 +1,4 @@
+
+UPDATE products SET updated_at = created_at WHERE updated_at IS NULL;
+
+CREATE INDEX idx_products_updated_at ON products (updated_at, product_id);
@@ -0,0 +1,9 @@
+
+CREATE TABLE tombstones (
+	tombstone_id INT(11) NOT NULL PRIMARY KEY AUTO_INCREMENT,
+	entity_type VARCHAR(64) NOT NULL,
+	entity_id INT(11) NOT NULL,
+	deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_tombstones_deleted_at ON tombstones (entity_type, deleted_at, entity_id);
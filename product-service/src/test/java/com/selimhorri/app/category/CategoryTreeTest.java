@@ -0,0 +1,56 @@
+package com.selimhorri.app.category;
+
+import com.selimhorri.app.repository.projection.CategoryEdge;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryTreeTest {
+
+    //  1 Computer          5 Mode
+    //  ├── 2 Laptop
+    //  │   └── 4 Gaming
+    //  └── 3 Desktop
+    private final CategoryTree tree = CategoryTree.of(7, List.of(
+            new CategoryEdge(4, 2, "Gaming"),
+            new CategoryEdge(1, null, "Computer"),
+            new CategoryEdge(3, 1, "Desktop"),
+            new CategoryEdge(5, null, "Mode"),
+            new CategoryEdge(2, 1, "Laptop")));
+
+    @Test
+    void subtreeIdsOf_returnsTheCategoryAndAllDescendantsParentsFirst() {
+        assertEquals(List.of(1, 2, 4, 3), tree.subtreeIdsOf(1));
+        assertEquals(List.of(2, 4), tree.subtreeIdsOf(2));
+        assertEquals(List.of(5), tree.subtreeIdsOf(5));
+        assertEquals(List.of(), tree.subtreeIdsOf(99));
+    }
+
+    @Test
+    void depthAndBreadcrumb_followTheParentChain() {
+        assertEquals(0, tree.depthOf(1));
+        assertEquals(2, tree.depthOf(4));
+        assertEquals(-1, tree.depthOf(99));
+        assertEquals(List.of(1, 2, 4), tree.breadcrumbOf(4));
+        assertEquals(List.of(5), tree.breadcrumbOf(5));
+        assertEquals("Laptop", tree.titleOf(2).orElseThrow());
+        assertEquals(7, tree.getVersion());
+        assertEquals(5, tree.size());
+    }
+
+    @Test
+    void of_cutsParentLoopsInsteadOfSpinning() {
+        final CategoryTree looped = CategoryTree.of(1, List.of(
+                new CategoryEdge(1, 3, "a"),
+                new CategoryEdge(2, 1, "b"),
+                new CategoryEdge(3, 2, "c"),
+                new CategoryEdge(4, 9, "orphan")));
+
+        assertEquals(4, looped.size());
+        assertEquals(List.of(1, 2, 3), looped.subtreeIdsOf(1));
+        assertEquals(List.of(1, 2, 3), looped.breadcrumbOf(3));
+        assertEquals(0, looped.depthOf(4));
+    }
+}
@@ -0,0 +1,74 @@
+package com.selimhorri.app.config.cache;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:second_level_cache_test;DB_CLOSE_ON_EXIT=FALSE",
+        "app.outbox.relay-interval=3600000"
+})
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void categoriesOfLoadedProducts_comeFromTheCategoryRegionOnceCached() {
+        productRepository.findAll();
+        final long selectsBefore = statistics.getPrepareStatementCount();
+        final long hitsBefore = statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.CATEGORY_REGION).getHitCount();
+
+        productRepository.findAll();
+
+        assertTrue(statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.CATEGORY_REGION).getHitCount() > hitsBefore);
+        assertEquals(1, statistics.getPrepareStatementCount() - selectsBefore, "only the product select");
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", SecondLevelCacheConfig.CATEGORY_REGION)
+                .tag("result", "hit")
+                .functionCounter());
+    }
+
+    @Test
+    void findAllCategories_isServedFromTheQueryCacheUntilACategoryIsWritten() {
+        final int count = categoryRepository.findAll().size();
+        categoryRepository.findAll();
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        categoryRepository.save(Category.builder().categoryTitle("cached").build());
+
+        assertEquals(count + 1, categoryRepository.findAll().size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+}
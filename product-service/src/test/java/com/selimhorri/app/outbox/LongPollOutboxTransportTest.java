@@ -0,0 +1,82 @@
+package com.selimhorri.app.outbox;
+
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventType;
+import com.selimhorri.app.dto.response.outbox.OutboxFeedResponse;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class LongPollOutboxTransportTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private LongPollOutboxTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        transport = new LongPollOutboxTransport(outboxEventRepository, 100, 30000);
+    }
+
+    @Test
+    void poll_withoutAfterAnswersCurrentPositionRightAway() {
+        given(outboxEventRepository.findLastPublishedId()).willReturn(Optional.of(41L));
+
+        final OutboxFeedResponse response = (OutboxFeedResponse) transport.poll(null, null, null).getResult();
+
+        assertEquals(41L, response.getLastEventId());
+        assertTrue(response.getEvents().isEmpty());
+    }
+
+    @Test
+    void poll_answersRightAwayWhenNewerEventsArePublished() {
+        given(outboxEventRepository.findPublishedAfter(ArgumentMatchers.eq(41L), ArgumentMatchers.any()))
+                .willReturn(List.of(event(42L), event(43L)));
+
+        final OutboxFeedResponse response = (OutboxFeedResponse) transport.poll(41L, null, null).getResult();
+
+        assertEquals(43L, response.getLastEventId());
+        assertEquals(2, response.getEvents().size());
+    }
+
+    @Test
+    void poll_waitsUntilPublishWakesItUp() {
+        given(outboxEventRepository.findPublishedAfter(ArgumentMatchers.eq(41L), ArgumentMatchers.any()))
+                .willReturn(List.of())
+                .willReturn(List.of(event(42L)));
+        given(outboxEventRepository.findLastPublishedId()).willReturn(Optional.of(42L));
+
+        final DeferredResult<OutboxFeedResponse> result = transport.poll(41L, null, null);
+        assertFalse(result.hasResult());
+        assertEquals(1, transport.getWaiterCount());
+
+        transport.publish(List.of());
+
+        assertEquals(42L, ((OutboxFeedResponse) result.getResult()).getLastEventId());
+    }
+
+    private static OutboxEvent event(final long eventId) {
+        return OutboxEvent.builder()
+                .eventId(eventId)
+                .aggregateType("products")
+                .aggregateId(1)
+                .eventType(OutboxEventType.UPDATED)
+                .createdAt(Instant.now())
+                .publishedAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.selimhorri.app.outbox;
+
+import com.selimhorri.app.domain.OutboxEventType;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.OutboxEventDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:outbox_relay_test;DB_CLOSE_ON_EXIT=FALSE",
+        "app.outbox.transport=in-memory",
+        "app.outbox.settle-delay=0s",
+        "app.outbox.relay-interval=3600000"
+})
+class OutboxRelayTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxTransport inMemoryOutboxTransport;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private final List<OutboxEventDto> received = new CopyOnWriteArrayList<>();
+
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay.relay();
+        inMemoryOutboxTransport.subscribe(events -> {
+            if (failing.get()) {
+                throw new IllegalStateException("consumer down");
+            }
+            received.addAll(events);
+        });
+    }
+
+    @Test
+    void relay_publishesEachWriteOnceInOrder() {
+        final ProductDto saved = productService.save(product());
+        productService.update(saved);
+        productService.deleteById(saved.getProductId());
+
+        outboxRelay.relay();
+        outboxRelay.relay();
+
+        assertEquals(List.of(OutboxEventType.CREATED, OutboxEventType.UPDATED, OutboxEventType.DELETED), received.stream()
+                .filter(e -> "products".equals(e.getAggregateType()) && saved.getProductId().equals(e.getAggregateId()))
+                .map(OutboxEventDto::getEventType)
+                .collect(Collectors.toList()));
+        assertTrue(outboxEventRepository.findAll().stream().allMatch(e -> e.getPublishedAt() != null));
+    }
+
+    @Test
+    void relay_keepsEventsUnpublishedWhileTheTransportFails() {
+        final ProductDto saved = productService.save(product());
+        failing.set(true);
+
+        outboxRelay.relay();
+
+        assertTrue(received.isEmpty());
+        assertTrue(outboxEventRepository.findAll().stream().anyMatch(e -> e.getPublishedAt() == null));
+
+        failing.set(false);
+        outboxRelay.relay();
+
+        assertEquals(List.of(saved.getProductId()), received.stream()
+                .map(OutboxEventDto::getAggregateId)
+                .collect(Collectors.toList()));
+    }
+
+    private static ProductDto product() {
+        return ProductDto.builder()
+                .productTitle("outbox")
+                .priceUnit(10.0)
+                .quantity(1)
+                .categoryDto(CategoryDto.builder().categoryId(1).build())
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.selimhorri.app.pricing;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.helper.ProductMappingHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Order-sized batches (50 ids) priced per second out of 1M SKUs: the primitive {@link PriceTable} vs. entities held
+ * by id and mapped to a DTO the way ProductService#findById serves them. The entity path here leaves out the per-product
+ * REST call and row read it costs in production, so its numbers are an upper bound. Setup prints the heap held by each
+ * side for the 1M SKUs.
+ * Not picked up by surefire; run {@link #main} from the IDE or
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main PriceTableBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class PriceTableBenchmark {
+
+    private static final int SKUS = 1_000_000;
+    private static final int BATCH = 50;
+
+    private PriceTable priceTable;
+    private Map<Integer, Product> products;
+    private int[] productIds;
+    private double[] prices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        final Category category = Category.builder().categoryId(1).categoryTitle("Computer").build();
+
+        long before = usedHeap();
+        priceTable = new PriceTable(SKUS);
+        for (int id = 1; id <= SKUS; id++) {
+            priceTable.put(id, id * 0.01, id % 100);
+        }
+        final long tableBytes = usedHeap() - before;
+
+        before = usedHeap();
+        products = new HashMap<>(SKUS * 2);
+        for (int id = 1; id <= SKUS; id++) {
+            products.put(id, Product.builder()
+                    .productId(id)
+                    .productTitle("Product " + id)
+                    .imageUrl("http://placeholder:" + id)
+                    .sku("SKU-" + id)
+                    .priceUnit(id * 0.01)
+                    .quantity(id % 100)
+                    .category(category)
+                    .build());
+        }
+        final long entityBytes = usedHeap() - before;
+
+        System.out.printf("%n%,d SKUs: PriceTable %,d bytes (%,d counted by footprintBytes), entities by id %,d bytes%n",
+                SKUS, tableBytes, priceTable.footprintBytes(), entityBytes);
+
+        final Random random = new Random(42);
+        productIds = random.ints(BATCH, 1, SKUS + 1).toArray();
+        prices = new double[BATCH];
+        quantities = new int[BATCH];
+    }
+
+    @Benchmark
+    public void priceTableBatch(final Blackhole blackhole) {
+        blackhole.consume(priceTable.lookup(productIds, prices, quantities));
+        blackhole.consume(prices);
+        blackhole.consume(quantities);
+    }
+
+    @Benchmark
+    public void entityBatch(final Blackhole blackhole) {
+        for (final int productId : productIds) {
+            final ProductDto productDto = ProductMappingHelper.map(products.get(productId));
+            blackhole.consume(productDto.getPriceUnit());
+            blackhole.consume(productDto.getQuantity());
+        }
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PriceTableBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,75 @@
+package com.selimhorri.app.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTableTest {
+
+    private final PriceTable table = new PriceTable(4);
+
+    @Test
+    void lookup_fillsPricesAndQuantitiesByPositionAndMarksMissingIds() {
+        table.put(1, 10.5, 3);
+        table.put(2, 20.0, 0);
+        table.put(2, 21.0, 7);
+
+        final double[] prices = new double[4];
+        final int[] quantities = new int[4];
+        final int found = table.lookup(new int[] {2, 99, 1, 0}, prices, quantities);
+
+        assertEquals(2, found);
+        assertEquals(2, table.size());
+        assertArrayEquals(new double[] {21.0, Double.NaN, 10.5, Double.NaN}, prices);
+        assertArrayEquals(new int[] {7, -1, 3, -1}, quantities);
+    }
+
+    @Test
+    void put_growsPastTheExpectedSizeAndKeepsEveryEntry() {
+        for (int id = 1; id <= 1_000; id++) {
+            table.put(id, id, id);
+        }
+
+        final int[] ids = new int[1_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        final double[] prices = new double[ids.length];
+        final int[] quantities = new int[ids.length];
+
+        assertEquals(1_000, table.lookup(ids, prices, quantities));
+        assertEquals(1_000.0, prices[999]);
+        assertEquals(2_048 * 16L, table.footprintBytes());
+    }
+
+    @Test
+    void remove_keepsLaterEntriesOfTheProbeRunReachable() {
+        // half full, so probe runs are long enough that removals have entries to shift back
+        for (int id = 1; id <= 2_000; id++) {
+            table.put(id * 7, id, id);
+        }
+        for (int id = 1; id <= 2_000; id += 2) {
+            assertTrue(table.remove(id * 7));
+        }
+        assertFalse(table.remove(7));
+
+        final int[] ids = new int[2_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = (i + 1) * 7;
+        }
+        final double[] prices = new double[ids.length];
+        final int[] quantities = new int[ids.length];
+
+        assertEquals(1_000, table.lookup(ids, prices, quantities));
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(i % 2 == 0 ? -1 : i + 1, quantities[i], "product " + ids[i]);
+        }
+        assertEquals(1_000, table.size());
+    }
+
+    @Test
+    void put_rejectsIdsThatCannotBeStored() {
+        assertThrows(IllegalArgumentException.class, () -> table.put(0, 1.0, 1));
+        assertThrows(IllegalArgumentException.class, () -> table.put(-3, 1.0, 1));
+    }
+}
@@ -3,6 +3,7 @@ package com.selimhorri.app.resource;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.selimhorri.app.dto.CategoryDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -13,6 +14,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -47,6 +50,24 @@ class ProductResourceAdditionalWebMvcTests {
                 .build();
     }
 
+    @Test
+    void getProductsByIds_returnsOk() throws Exception {
+        BDDMockito.given(productService.findAllByIds(List.of(1, 2))).willReturn(List.of(sampleProduct()));
+        mockMvc.perform(get("/api/products").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productId").value(1));
+    }
+
+    @Test
+    void getProductsPage_returnsNextCursor() throws Exception {
+        BDDMockito.given(productService.findAll(1, 1))
+                .willReturn(new DtoCollectionResponse<>(List.of(sampleProduct()), "2"));
+        mockMvc.perform(get("/api/products").param("after", "1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].productId").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("2"));
+    }
+
     @Test
     void getProductById_returnsOk() throws Exception {
         BDDMockito.given(productService.findById(1)).willReturn(sampleProduct());
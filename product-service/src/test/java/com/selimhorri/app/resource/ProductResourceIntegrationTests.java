@@ -1,17 +1,31 @@
 package com.selimhorri.app.resource;
 
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
+import com.selimhorri.app.dto.response.price.ProductPricesResponse;
+import com.selimhorri.app.dto.response.search.ProductSearchResponse;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 import com.selimhorri.app.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(properties = {
@@ -33,4 +47,89 @@ class ProductResourceIntegrationTests {
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void getProduct_answersNotModifiedForMatchingETagWithoutLoadingTheProduct() throws Exception {
+        BDDMockito.given(productService.findLastModifiedById(1)).willReturn(Optional.of(Instant.parse("2021-11-20T10:15:30Z")));
+        BDDMockito.given(productService.findById(1)).willReturn(ProductDto.builder().productId(1).build());
+
+        final String eTag = mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        BDDMockito.then(productService).should(Mockito.times(1)).findById(1);
+    }
+
+    @Test
+    void getProduct_answersOkAfterASecondUpdateInTheSameSecond() throws Exception {
+        BDDMockito.given(productService.findLastModifiedById(1)).willReturn(
+                Optional.of(Instant.parse("2021-11-20T10:15:30.000100Z")),
+                Optional.of(Instant.parse("2021-11-20T10:15:30.000200Z")));
+        BDDMockito.given(productService.findById(1)).willReturn(ProductDto.builder().productId(1).build());
+
+        final String eTag = mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        BDDMockito.then(productService).should(Mockito.times(2)).findById(1);
+    }
+
+    @Test
+    void getAllProducts_answersOkAfterASecondUpdateInTheSameSecond() throws Exception {
+        BDDMockito.given(productService.findCollectionVersion()).willReturn(
+                new CollectionVersion(Instant.parse("2021-11-20T10:15:30.000100Z"), 3L),
+                new CollectionVersion(Instant.parse("2021-11-20T10:15:30.000200Z"), 3L));
+        BDDMockito.given(productService.findAll()).willReturn(Collections.emptyList());
+
+        final String eTag = mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getChanges_bindsSinceAsInstant() throws Exception {
+        final Instant since = Instant.parse("2021-11-20T10:15:30Z");
+        BDDMockito.given(productService.findChanges(since, null, 50))
+                .willReturn(new ChangeFeedResponse<>(List.of(), "2021-11-20T10:15:30Z,0", false));
+
+        mockMvc.perform(get("/api/products/changes").param("since", "2021-11-20T10:15:30Z").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resumeToken").value("2021-11-20T10:15:30Z,0"));
+    }
+
+    @Test
+    void searchProducts_isNotMistakenForAProductId() throws Exception {
+        BDDMockito.given(productService.search("asus", 5)).willReturn(ProductSearchResponse.builder()
+                .products(List.of(ProductDto.builder().productId(1).build()))
+                .totalMatches(1)
+                .build());
+
+        mockMvc.perform(get("/api/products/search").param("q", "asus").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].productId").value(1))
+                .andExpect(jsonPath("$.partial").value(false));
+    }
+
+    @Test
+    void findPrices_takesAnIdListAndAnswersColumnWise() throws Exception {
+        BDDMockito.given(productService.findPrices(List.of(1, 2, 99))).willReturn(ProductPricesResponse.builder()
+                .productIds(new int[] {1, 2})
+                .priceUnits(new double[] {10.5, 20.0})
+                .quantities(new int[] {3, 0})
+                .missing(new int[] {99})
+                .build());
+
+        mockMvc.perform(post("/api/products/prices").contentType(MediaType.APPLICATION_JSON).content("[1, 2, 99]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productIds[1]").value(2))
+                .andExpect(jsonPath("$.priceUnits[0]").value(10.5))
+                .andExpect(jsonPath("$.missing[0]").value(99));
+    }
 }
@@ -0,0 +1,149 @@
+package com.selimhorri.app.search;
+
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.domain.Tombstone;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.TombstoneRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductSearchIndexTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    private ProductSearchIndex productSearchIndex;
+
+    private final Category computer = Category.builder().categoryId(1).categoryTitle("Computer").build();
+
+    private final Category game = Category.builder().categoryId(3).categoryTitle("Game").build();
+
+    @BeforeEach
+    void setUp() {
+        given(categoryRepository.findCollectionVersion()).willReturn(new CollectionVersion(Instant.EPOCH, 2L));
+        given(productRepository.findAll()).willReturn(List.of(
+                product(1, "Asus ZenBook", "ASUS-ZB-14", computer),
+                product(2, "HP Pavilion", "hp-pav", computer),
+                product(3, "Asus ROG Gaming Laptop", "asus-rog", computer),
+                product(4, "GTA V", "gta5", game)));
+        productSearchIndex = new ProductSearchIndex(productRepository, categoryRepository, tombstoneRepository, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void search_ranksTitleMatchesAboveCategoryMatchesAndHonoursLimit() {
+        final SearchResult result = productSearchIndex.search("asus", 1, TIMEOUT);
+
+        assertEquals(2, result.getTotalMatches());
+        assertEquals(1, result.getProductIds().size());
+        assertFalse(result.isPartial());
+        assertEquals(List.of(1), result.getProductIds());
+        assertEquals(List.of(3, 4), productSearchIndex.search("gam", 10, TIMEOUT).getProductIds());
+    }
+
+    @Test
+    void search_requiresEveryTermAndMatchesPrefixesAndTypos() {
+        assertEquals(List.of(3), productSearchIndex.search("asus gam", 10, TIMEOUT).getProductIds());
+        assertEquals(List.of(2), productSearchIndex.search("pavillion", 10, TIMEOUT).getProductIds());
+        assertEquals(List.of(4), productSearchIndex.search("gmae", 10, TIMEOUT).getProductIds());
+        assertEquals(List.of(1, 2, 3), productSearchIndex.search("Cömputer", 10, TIMEOUT).getProductIds());
+        assertTrue(productSearchIndex.search("asus gta", 10, TIMEOUT).getProductIds().isEmpty());
+        assertTrue(productSearchIndex.search("  ", 10, TIMEOUT).getProductIds().isEmpty());
+    }
+
+    @Test
+    void indexAndRemove_updateTheIndexIncrementally() {
+        productSearchIndex.search("warmup", 1, TIMEOUT);
+        given(productRepository.findById(2)).willReturn(Optional.of(product(2, "HP Omen", "hp-omen", computer)));
+
+        productSearchIndex.index(2);
+        productSearchIndex.remove(4);
+
+        assertTrue(productSearchIndex.search("pavilion", 10, TIMEOUT).getProductIds().isEmpty());
+        assertEquals(List.of(2), productSearchIndex.search("omen", 10, TIMEOUT).getProductIds());
+        assertTrue(productSearchIndex.search("gta", 10, TIMEOUT).getProductIds().isEmpty());
+    }
+
+    @Test
+    void search_stopsExpandingAtTheDeadline() {
+        given(productRepository.findAll()).willReturn(IntStream.range(0, 2000)
+                .mapToObj(i -> product(i, "item" + i, "sku" + i, computer))
+                .collect(Collectors.toList()));
+
+        final SearchResult result = productSearchIndex.search("item", 5, Duration.ZERO);
+
+        assertTrue(result.isPartial());
+        assertTrue(result.getTotalMatches() < 2000);
+        assertTrue(result.getProductIds().size() <= 5);
+        assertEquals(2000, productSearchIndex.search("item", 5, TIMEOUT).getTotalMatches());
+    }
+
+    @Test
+    void refreshIfChanged_reindexesOnlyChangedAndDeletedProducts() {
+        productSearchIndex.search("warmup", 1, TIMEOUT);
+        given(productRepository.findChangedSince(any(Instant.class), eq(0), any(Instant.class), eq(Pageable.unpaged())))
+                .willReturn(List.of(product(2, "HP Omen", "hp-omen", computer)));
+        given(tombstoneRepository.findDeletedSince(eq("products"), any(Instant.class), eq(0), any(Instant.class), eq(Pageable.unpaged())))
+                .willReturn(List.of(Tombstone.of("products", 4)));
+
+        productSearchIndex.refreshIfChanged();
+
+        then(productRepository).should(times(1)).findAll();
+        assertTrue(productSearchIndex.search("pavilion", 10, TIMEOUT).getProductIds().isEmpty());
+        assertEquals(List.of(2), productSearchIndex.search("omen", 10, TIMEOUT).getProductIds());
+        assertTrue(productSearchIndex.search("gta", 10, TIMEOUT).getProductIds().isEmpty());
+    }
+
+    @Test
+    void refreshIfChanged_rebuildsWhenCategoriesChange() {
+        productSearchIndex.search("warmup", 1, TIMEOUT);
+        given(categoryRepository.findCollectionVersion()).willReturn(new CollectionVersion(Instant.now(), 2L));
+
+        productSearchIndex.refreshIfChanged();
+
+        then(productRepository).should(times(2)).findAll();
+        then(productRepository).should(never()).findChangedSince(any(), any(), any(), any());
+    }
+
+    private static Product product(final int id, final String title, final String sku, final Category category) {
+        return Product.builder()
+                .productId(id)
+                .productTitle(title)
+                .sku(sku)
+                .category(category)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.selimhorri.app.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchTermsTest {
+
+    @Test
+    void tokenize_lowercasesStripsAccentsAndSplitsOnPunctuation() {
+        assertEquals(List.of("asus", "zb", "14", "cafe"), List.copyOf(SearchTerms.tokenize("ASUS-ZB-14 Café asus")));
+        assertTrue(SearchTerms.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void deletesOf_leavesOutEachCharacterOnce() {
+        assertEquals(Set.of("bc", "ac", "ab"), SearchTerms.deletesOf("abc"));
+    }
+
+    @Test
+    void withinOneEdit_acceptsOneSubstitutionInsertionDeletionOrTransposition() {
+        assertTrue(SearchTerms.withinOneEdit("laptop", "laptop"));
+        assertTrue(SearchTerms.withinOneEdit("laptop", "lapdop"));
+        assertTrue(SearchTerms.withinOneEdit("laptop", "lapttop"));
+        assertTrue(SearchTerms.withinOneEdit("laptop", "lptop"));
+        assertTrue(SearchTerms.withinOneEdit("laptop", "latpop"));
+        assertTrue(SearchTerms.withinOneEdit("laptop", "laptoq"));
+        assertFalse(SearchTerms.withinOneEdit("laptop", "lpatpo"));
+        assertFalse(SearchTerms.withinOneEdit("laptop", "laptopss"));
+        assertFalse(SearchTerms.withinOneEdit("abc", "bca"));
+    }
+}
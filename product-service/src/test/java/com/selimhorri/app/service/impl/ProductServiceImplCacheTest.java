@@ -0,0 +1,92 @@
+package com.selimhorri.app.service.impl;
+
+import com.selimhorri.app.config.cache.CacheConfig;
+import com.selimhorri.app.domain.Category;
+import com.selimhorri.app.domain.Product;
+import com.selimhorri.app.repository.CategoryRepository;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.CategoryService;
+import com.selimhorri.app.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false"
+})
+class ProductServiceImplCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    @MockBean
+    private CategoryRepository categoryRepository;
+
+    private final Product product = Product.builder()
+            .productId(1)
+            .productTitle("asus")
+            .category(Category.builder().categoryId(1).categoryTitle("Computer").build())
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).clear();
+        cacheManager.getCache(CacheConfig.CATEGORIES_CACHE).clear();
+        given(productRepository.findById(1)).willReturn(Optional.of(product));
+        given(productRepository.findAll()).willReturn(List.of(product));
+        given(productRepository.save(any(Product.class))).willReturn(product);
+    }
+
+    @Test
+    void findById_isServedFromCacheOnSecondCall() {
+        assertEquals("asus", productService.findById(1).getProductTitle());
+        assertEquals("asus", productService.findById(1).getProductTitle());
+
+        verify(productRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void update_evictsCachedProducts() {
+        productService.findAll();
+        productService.findById(1);
+
+        productService.update(productService.findById(1));
+        productService.findAll();
+        productService.findById(1);
+
+        verify(productRepository, times(2)).findAll();
+        verify(productRepository, times(2)).findById(1);
+    }
+
+    @Test
+    void categoryDelete_evictsProductsEmbeddingTheCategory() {
+        productService.findById(1);
+
+        categoryService.deleteById(1);
+        productService.findById(1);
+
+        verify(productRepository, times(2)).findById(1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.selimhorri.app.service.impl;
+
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.CategoryNodeDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.exception.wrapper.CategoryNotFoundException;
+import com.selimhorri.app.service.CategoryService;
+import com.selimhorri.app.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:category_tree_test;DB_CLOSE_ON_EXIT=FALSE",
+        "app.outbox.relay-interval=3600000"
+})
+class ProductServiceImplCategoryTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    void findAllByCategoryId_includesProductsOfSubCategoriesCreatedAfterTheFirstSnapshot() {
+        final long versionBefore = categoryService.findNodeById(1).getTreeVersion();
+        final CategoryDto laptops = category("Laptop", 1);
+        final CategoryDto gaming = category("Gaming", laptops.getCategoryId());
+        final ProductDto product = productService.save(ProductDto.builder()
+                .productTitle("rog")
+                .priceUnit(10.0)
+                .quantity(1)
+                .categoryDto(CategoryDto.builder().categoryId(gaming.getCategoryId()).build())
+                .build());
+
+        final List<Integer> recursive = productIds(productService.findAllByCategoryId(1, true));
+        final List<Integer> direct = productIds(productService.findAllByCategoryId(1, false));
+
+        assertTrue(recursive.containsAll(direct));
+        assertTrue(recursive.contains(product.getProductId()));
+        assertFalse(direct.contains(product.getProductId()));
+        assertEquals(List.of(product.getProductId()), productIds(productService.findAllByCategoryId(laptops.getCategoryId(), true)));
+
+        final CategoryNodeDto node = categoryService.findNodeById(gaming.getCategoryId());
+        assertTrue(node.getTreeVersion() > versionBefore);
+        assertEquals(2, node.getDepth());
+        assertEquals(List.of(1, laptops.getCategoryId(), gaming.getCategoryId()), node.getBreadcrumb().stream()
+                .map(CategoryDto::getCategoryId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void findAllByCategoryId_rejectsUnknownCategory() {
+        assertThrows(CategoryNotFoundException.class, () -> productService.findAllByCategoryId(999, true));
+    }
+
+    private CategoryDto category(final String title, final Integer parentCategoryId) {
+        return categoryService.save(CategoryDto.builder()
+                .categoryTitle(title)
+                .parentCategoryDto(CategoryDto.builder().categoryId(parentCategoryId).build())
+                .build());
+    }
+
+    private static List<Integer> productIds(final List<ProductDto> products) {
+        return products.stream().map(ProductDto::getProductId).collect(Collectors.toList());
+    }
+}
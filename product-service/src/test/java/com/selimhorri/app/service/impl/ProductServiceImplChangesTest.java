@@ -0,0 +1,76 @@
+package com.selimhorri.app.service.impl;
+
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.change.ChangeDto;
+import com.selimhorri.app.dto.response.change.ChangeDto.ChangeType;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "app.changes.settle-delay=0s"
+})
+@Transactional
+class ProductServiceImplChangesTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void findChanges_pagesThroughEveryProductOnceWithResumeTokens() {
+        final List<ChangeDto<ProductDto>> changes = new ArrayList<>();
+        ChangeFeedResponse<ProductDto> page = productService.findChanges(null, null, 2);
+        changes.addAll(page.getChanges());
+        while (page.isHasMore()) {
+            page = productService.findChanges(null, page.getResumeToken(), 2);
+            changes.addAll(page.getChanges());
+        }
+
+        assertEquals(productRepository.count(), changes.size());
+        assertEquals(productRepository.count(), changes.stream().map(ChangeDto::getId).distinct().count());
+        assertTrue(changes.stream().allMatch(c -> c.getType() == ChangeType.UPSERT && c.getEntity() != null));
+        assertTrue(productService.findChanges(null, page.getResumeToken(), 2).getChanges().isEmpty());
+    }
+
+    @Test
+    void findChanges_reportsDeletesAsTombstonesAfterTheResumeToken() {
+        final String resumeToken = drain();
+        final Integer productId = productRepository.findAll().get(0).getProductId();
+
+        productService.deleteById(productId);
+        final ChangeFeedResponse<ProductDto> page = productService.findChanges(null, resumeToken, 10);
+
+        assertEquals(List.of(productId), page.getChanges().stream().map(ChangeDto::getId).collect(Collectors.toList()));
+        assertEquals(ChangeType.DELETE, page.getChanges().get(0).getType());
+        assertNull(page.getChanges().get(0).getEntity());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void findChanges_rejectsMalformedResumeToken() {
+        assertThrows(NumberFormatException.class, () -> productService.findChanges(null, "yesterday", 10));
+    }
+
+    private String drain() {
+        ChangeFeedResponse<ProductDto> page = productService.findChanges(null, null, 100);
+        while (page.isHasMore()) {
+            page = productService.findChanges(null, page.getResumeToken(), 100);
+        }
+        return page.getResumeToken();
+    }
+}
@@ -0,0 +1,63 @@
+package com.selimhorri.app.service.impl;
+
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.price.ProductPricesResponse;
+import com.selimhorri.app.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:price_catalog_test;DB_CLOSE_ON_EXIT=FALSE",
+        "app.outbox.relay-interval=3600000",
+        "app.prices.refresh-interval=3600000"
+})
+class ProductServiceImplPricesTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void findPrices_followsWritesOnceTheyCommit() {
+        final ProductDto first = save("first", 10.0, 3);
+        final ProductDto second = save("second", 20.0, 0);
+        final ProductDto unpriced = save("unpriced", null, 5);
+        final List<Integer> ids = Arrays.asList(second.getProductId(), 999, first.getProductId(), unpriced.getProductId(), null);
+
+        final ProductPricesResponse loaded = productService.findPrices(ids);
+
+        assertArrayEquals(new int[] {second.getProductId(), first.getProductId()}, loaded.getProductIds());
+        assertArrayEquals(new double[] {20.0, 10.0}, loaded.getPriceUnits());
+        assertArrayEquals(new int[] {0, 3}, loaded.getQuantities());
+        assertArrayEquals(new int[] {999, unpriced.getProductId()}, loaded.getMissing());
+
+        first.setPriceUnit(12.5);
+        productService.update(first);
+        productService.deleteById(second.getProductId());
+        final ProductDto third = save("third", 30.0, 1);
+
+        final ProductPricesResponse updated = productService.findPrices(List.of(first.getProductId(), second.getProductId(), third.getProductId()));
+
+        assertArrayEquals(new int[] {first.getProductId(), third.getProductId()}, updated.getProductIds());
+        assertArrayEquals(new double[] {12.5, 30.0}, updated.getPriceUnits());
+        assertArrayEquals(new int[] {second.getProductId()}, updated.getMissing());
+    }
+
+    private ProductDto save(final String title, final Double priceUnit, final Integer quantity) {
+        return productService.save(ProductDto.builder()
+                .productTitle(title)
+                .sku("prices-" + title)
+                .priceUnit(priceUnit)
+                .quantity(quantity)
+                .categoryDto(CategoryDto.builder().categoryId(1).build())
+                .build());
+    }
+}
@@ -0,0 +1,240 @@
+package com.selimhorri.app.service.impl;
+
+import com.selimhorri.app.domain.OutboxEventType;
+import com.selimhorri.app.dto.CategoryDto;
+import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.ReservationDto;
+import com.selimhorri.app.exception.wrapper.InsufficientStockException;
+import com.selimhorri.app.exception.wrapper.ReservationNotFoundException;
+import com.selimhorri.app.inventory.ReservationLedger;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.repository.ProductRepository;
+import com.selimhorri.app.repository.ReservationRepository;
+import com.selimhorri.app.service.ProductService;
+import com.selimhorri.app.service.ReservationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers one product from many threads and checks that every unit is accounted for:
+ * stock left + units reserved - units released == initial stock, with no reservation granted past zero.
+ */
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:reservation_test;DB_CLOSE_ON_EXIT=FALSE",
+        "app.outbox.relay-interval=3600000"
+})
+@Slf4j
+class ReservationServiceImplConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 250;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void reserve_neverOversellsUnderContention() throws Exception {
+        final int stock = 3000;
+        final Integer productId = product(stock);
+
+        final Result result = hammer(reservationService, productId, false);
+
+        assertEquals(stock, result.reserved.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - stock, result.rejected.get());
+        assertEquals(0, quantityOf(productId));
+    }
+
+    @Test
+    void reserveAndRelease_loseNoUpdates() throws Exception {
+        final int stock = 500;
+        final Integer productId = product(stock);
+
+        final Result result = hammer(reservationService, productId, true);
+
+        assertEquals(stock - result.reserved.get() + result.released.get(), quantityOf(productId));
+    }
+
+    @Test
+    void reserveThroughLedger_neverOversellsAndReturnsAllotmentsOnShutdown() throws Exception {
+        final int stock = 3000;
+        final Integer productId = product(stock);
+        final ReservationLedger ledger = ledger();
+        final ReservationService ledgerService = ledgerService(ledger);
+
+        final Result result = hammer(ledgerService, productId, true);
+        ledger.returnAll();
+
+        assertEquals(0, ledger.getAvailable(productId));
+        assertEquals(stock - result.reserved.get() + result.released.get(), quantityOf(productId));
+    }
+
+    @Test
+    void reserveAll_takesNothingWhenOneProductIsShort() {
+        final Integer plenty = product(10);
+        final Integer scarce = product(1);
+
+        assertThrows(InsufficientStockException.class, () -> reservationService.reserveAll(List.of(
+                reservation(plenty, 5),
+                reservation(scarce, 1),
+                reservation(scarce, 1))));
+
+        assertEquals(10, quantityOf(plenty));
+        assertEquals(1, quantityOf(scarce));
+
+        reservationService.reserveAll(List.of(reservation(scarce, 1), reservation(plenty, 5)));
+
+        assertEquals(5, quantityOf(plenty));
+        assertEquals(0, quantityOf(scarce));
+    }
+
+    @Test
+    void release_givesUnitsBackOnceAndRejectsUnknownIds() {
+        final Integer productId = product(10);
+        final long eventsBefore = updatedEventsOf(productId);
+
+        final ReservationDto reserved = reservationService.reserve(reservation(productId, 4));
+        assertNotNull(reserved.getReservationId());
+        assertEquals(6, quantityOf(productId));
+
+        reservationService.release(reserved.getReservationId());
+        final ReservationDto retried = reservationService.release(reserved.getReservationId());
+
+        assertEquals(reserved, retried);
+        assertEquals(10, quantityOf(productId));
+        assertEquals(eventsBefore + 2, updatedEventsOf(productId));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.release("no-such-reservation"));
+        assertEquals(10, quantityOf(productId));
+    }
+
+    @Test
+    void releaseThroughLedger_givesUnitsBackOnceAndRecordsTopUps() {
+        final Integer productId = product(100);
+        final long eventsBefore = updatedEventsOf(productId);
+        final ReservationLedger ledger = ledger();
+        final ReservationService ledgerService = ledgerService(ledger);
+
+        final ReservationDto reserved = ledgerService.reserve(reservation(productId, 5));
+        ledgerService.release(reserved.getReservationId());
+        ledgerService.release(reserved.getReservationId());
+        ledger.returnAll();
+
+        assertEquals(100, quantityOf(productId));
+        assertEquals(eventsBefore + 2, updatedEventsOf(productId));
+    }
+
+    private Result hammer(final ReservationService service, final Integer productId, final boolean releaseEveryThird) throws Exception {
+        final Result result = new Result();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    try {
+                        final ReservationDto reserved = service.reserve(reservation(productId, 1));
+                        result.reserved.incrementAndGet();
+                        if (releaseEveryThird && i % 3 == 0) {
+                            service.release(reserved.getReservationId());
+                            result.released.incrementAndGet();
+                        }
+                    }
+                    catch (InsufficientStockException e) {
+                        result.rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        final long started = System.nanoTime();
+        start.countDown();
+        for (final Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        final double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("{} reservation attempts in {}s, {} per second", THREADS * ATTEMPTS_PER_THREAD,
+                String.format("%.2f", seconds), Math.round(THREADS * ATTEMPTS_PER_THREAD / seconds));
+        return result;
+    }
+
+    private Integer product(final int quantity) {
+        return productService.save(ProductDto.builder()
+                .productTitle("reservation")
+                .priceUnit(10.0)
+                .quantity(quantity)
+                .categoryDto(CategoryDto.builder().categoryId(1).build())
+                .build()).getProductId();
+    }
+
+    private ReservationLedger ledger() {
+        return new ReservationLedger(productRepository, outboxEventRepository, transactionManager, 64, 20, Duration.ofSeconds(10));
+    }
+
+    private ReservationService ledgerService(final ReservationLedger ledger) {
+        return new ReservationServiceImpl(productRepository, reservationRepository, outboxEventRepository, Optional.of(ledger),
+                transactionTemplate, new SimpleMeterRegistry());
+    }
+
+    private static ReservationDto reservation(final Integer productId, final int quantity) {
+        return ReservationDto.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+
+    private long updatedEventsOf(final Integer productId) {
+        return outboxEventRepository.findAll().stream()
+                .filter(e -> "products".equals(e.getAggregateType()) && productId.equals(e.getAggregateId())
+                        && e.getEventType() == OutboxEventType.UPDATED)
+                .count();
+    }
+
+    private int quantityOf(final Integer productId) {
+        return productRepository.findById(productId).orElseThrow().getQuantity();
+    }
+
+    private static final class Result {
+        private final AtomicInteger reserved = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final AtomicInteger released = new AtomicInteger();
+    }
+}
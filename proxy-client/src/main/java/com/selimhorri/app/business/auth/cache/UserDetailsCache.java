@@ -0,0 +1,81 @@
+package com.selimhorri.app.business.auth.cache;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.config.RefreshableProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded, TTL-based cache of {@link UserDetails} keyed by username.
+ * Avoids a user-service round trip on every authenticated request.
+ *
+ * Size, hit, miss and eviction counts are exported as "cache.*" metrics with tag cache=userDetails.
+ * The cache is bypassed when app.features.enable-cache is turned off.
+ */
+@Component
+@Slf4j
+public class UserDetailsCache {
+	
+	public static final String CACHE_NAME = "userDetails";
+	
+	private final Cache<String, UserDetails> cache;
+	private final RefreshableProperties refreshableProperties;
+	
+	public UserDetailsCache(
+			@Value("${app.security.user-details-cache.max-size:10000}") final long maxSize,
+			@Value("${app.security.user-details-cache.expiration:60}") final long expirationSeconds,
+			final RefreshableProperties refreshableProperties,
+			final MeterRegistry meterRegistry) {
+		this.refreshableProperties = refreshableProperties;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(Duration.ofSeconds(expirationSeconds))
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+	}
+	
+	public UserDetails get(final String username, final Function<String, UserDetails> loader) {
+		if (!this.refreshableProperties.isEnableCache()) {
+			return loader.apply(username);
+		}
+		return this.cache.get(username, loader);
+	}
+	
+	public void evict(final String username) {
+		log.info("** UserDetailsCache, evict entry for username: {} *\n", username);
+		this.cache.invalidate(username);
+	}
+	
+	public void evictAll() {
+		log.info("** UserDetailsCache, evict all entries *\n");
+		this.cache.invalidateAll();
+	}
+	
+	public long size() {
+		return this.cache.estimatedSize();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
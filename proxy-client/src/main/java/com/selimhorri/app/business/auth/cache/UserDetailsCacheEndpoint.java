@@ -0,0 +1,51 @@
+package com.selimhorri.app.business.auth.cache;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Admin hook on /actuator/userdetailscache to invalidate cached credentials,
+ * e.g. after a credential was changed or locked directly in user-service.
+ */
+@Component
+@Endpoint(id = "userdetailscache")
+@RequiredArgsConstructor
+public class UserDetailsCacheEndpoint {
+	
+	private final UserDetailsCache userDetailsCache;
+	
+	@ReadOperation
+	public Map<String, Object> size() {
+		return Map.of("cache", UserDetailsCache.CACHE_NAME, "size", this.userDetailsCache.size());
+	}
+	
+	@DeleteOperation
+	public void evict(@Selector final String username) {
+		this.userDetailsCache.evict(username);
+	}
+	
+	@DeleteOperation
+	public void evictAll() {
+		this.userDetailsCache.evictAll();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
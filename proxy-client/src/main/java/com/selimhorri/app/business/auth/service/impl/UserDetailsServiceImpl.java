@@ -6,6 +6,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import com.selimhorri.app.business.auth.cache.UserDetailsCache;
 import com.selimhorri.app.business.user.model.CredentialDto;
 import com.selimhorri.app.business.user.model.UserDetailsImpl;
 import com.selimhorri.app.constant.AppConstant;
@@ -20,10 +21,16 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 	
 	private static final String API_URL = AppConstant.DiscoveredDomainsApi.USER_SERVICE_HOST + "/api/credentials";
 	private final RestTemplate restTemplate;
+	private final UserDetailsCache userDetailsCache;
 	
 	@Override
 	public UserDetails loadUserByUsername(final String username) throws UsernameNotFoundException {
 		log.info("**UserDetails, load user by username*\n");
+		return this.userDetailsCache.get(username, this::fetchUserDetails);
+	}
+	
+	private UserDetails fetchUserDetails(final String username) {
+		log.info("**UserDetails, fetch user by username from user-service*\n");
 		return new UserDetailsImpl(this.restTemplate.getForObject(API_URL + "/username/" + username, CredentialDto.class));
 	}
 	
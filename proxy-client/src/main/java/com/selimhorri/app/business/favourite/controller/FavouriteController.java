@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.favourite.model.FavouriteDto;
@@ -25,8 +26,10 @@ public class FavouriteController {
 	private final FavouriteClientService favouriteClientService;
 	
 	@GetMapping
-	public ResponseEntity<FavouriteFavouriteServiceCollectionDtoResponse> findAll() {
-		return ResponseEntity.ok(this.favouriteClientService.findAll().getBody());
+	public ResponseEntity<FavouriteFavouriteServiceCollectionDtoResponse> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit) {
+		return ResponseEntity.ok(this.favouriteClientService.findAll(after, limit).getBody());
 	}
 	
 	@GetMapping("/{userId}/{productId}/{likeDate}")
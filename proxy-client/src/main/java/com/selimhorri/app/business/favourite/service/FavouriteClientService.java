@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.selimhorri.app.business.favourite.model.FavouriteDto;
 import com.selimhorri.app.business.favourite.model.FavouriteId;
@@ -22,6 +23,14 @@ public interface FavouriteClientService {
 	@GetMapping
 	ResponseEntity<FavouriteFavouriteServiceCollectionDtoResponse> findAll();
 	
+	@GetMapping
+	ResponseEntity<FavouriteFavouriteServiceCollectionDtoResponse> findAllByUserId(@RequestParam("userId") final Integer userId);
+	
+	@GetMapping
+	ResponseEntity<FavouriteFavouriteServiceCollectionDtoResponse> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit);
+	
 	@GetMapping("/{userId}/{productId}/{likeDate}")
 	public ResponseEntity<FavouriteDto> findById(
 			@PathVariable("userId") final String userId, 
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.order.model.OrderDto;
@@ -28,8 +29,10 @@ public class OrderController {
 	private final OrderClientService orderClientService;
 	
 	@GetMapping
-	public ResponseEntity<OrderOrderServiceDtoCollectionResponse> findAll() {
-		return ResponseEntity.ok(this.orderClientService.findAll().getBody());
+	public ResponseEntity<OrderOrderServiceDtoCollectionResponse> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit) {
+		return ResponseEntity.ok(this.orderClientService.findAll(after, limit).getBody());
 	}
 	
 	@GetMapping("/{orderId}")
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.selimhorri.app.business.order.model.CartDto;
 import com.selimhorri.app.business.order.model.response.CartOrderServiceDtoCollectionResponse;
@@ -22,6 +23,9 @@ public interface CartClientService {
 	@GetMapping
 	public ResponseEntity<CartOrderServiceDtoCollectionResponse> findAll();
 	
+	@GetMapping
+	public ResponseEntity<CartOrderServiceDtoCollectionResponse> findAllByUserId(@RequestParam("userId") final Integer userId);
+	
 	@GetMapping("/{cartId}")
 	public ResponseEntity<CartDto> findById(
 			@PathVariable("cartId") 
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.selimhorri.app.business.order.model.OrderDto;
 import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
@@ -22,6 +23,14 @@ public interface OrderClientService {
 	@GetMapping
 	public ResponseEntity<OrderOrderServiceDtoCollectionResponse> findAll();
 	
+	@GetMapping
+	public ResponseEntity<OrderOrderServiceDtoCollectionResponse> findAllByUserId(@RequestParam("userId") final Integer userId);
+	
+	@GetMapping
+	public ResponseEntity<OrderOrderServiceDtoCollectionResponse> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit);
+	
 	@GetMapping("/{orderId}")
 	public ResponseEntity<OrderDto> findById(
 			@PathVariable("orderId") 
@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.orderItem.model.OrderItemDto;
@@ -25,8 +26,10 @@ public class OrderItemController {
 	private final OrderItemClientService orderItemClientService;
 	
 	@GetMapping
-	public ResponseEntity<OrderItemOrderItemServiceDtoCollectionResponse> findAll() {
-		return ResponseEntity.ok(this.orderItemClientService.findAll().getBody());
+	public ResponseEntity<OrderItemOrderItemServiceDtoCollectionResponse> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit) {
+		return ResponseEntity.ok(this.orderItemClientService.findAll(after, limit).getBody());
 	}
 	
 	@GetMapping("/{orderId}/{productId}")
@@ -0,0 +1,38 @@
+package com.selimhorri.app.business.overview.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.business.overview.model.UserOverviewDto;
+import com.selimhorri.app.business.overview.service.UserOverviewService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserOverviewController {
+	
+	private final UserOverviewService userOverviewService;
+	
+	@GetMapping("/{userId}/overview")
+	public ResponseEntity<UserOverviewDto> findByUserId(@PathVariable("userId") final String userId) {
+		return ResponseEntity.ok(this.userOverviewService.findByUserId(userId));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
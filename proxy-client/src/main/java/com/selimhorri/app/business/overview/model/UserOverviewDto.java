@@ -0,0 +1,75 @@
+package com.selimhorri.app.business.overview.model;
+
+import java.util.Collection;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.selimhorri.app.business.favourite.model.FavouriteDto;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.user.model.AddressDto;
+import com.selimhorri.app.business.user.model.UserDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Everything the account page renders for one user, assembled in one call.
+ * A section that failed or timed out is left out and listed in unavailableSections.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class UserOverviewDto {
+	
+	public static final String USER = "user";
+	public static final String ADDRESSES = "addresses";
+	public static final String CARTS = "carts";
+	public static final String ORDERS = "orders";
+	public static final String FAVOURITES = "favourites";
+	public static final String PAYMENTS = "payments";
+	
+	@JsonProperty(USER)
+	@JsonInclude(Include.NON_NULL)
+	private UserDto userDto;
+	
+	@JsonProperty(ADDRESSES)
+	@JsonInclude(Include.NON_NULL)
+	private Collection<AddressDto> addressDtos;
+	
+	@JsonProperty(CARTS)
+	@JsonInclude(Include.NON_NULL)
+	private Collection<CartDto> cartDtos;
+	
+	@JsonProperty(ORDERS)
+	@JsonInclude(Include.NON_NULL)
+	private Collection<OrderDto> orderDtos;
+	
+	@JsonProperty(FAVOURITES)
+	@JsonInclude(Include.NON_NULL)
+	private Collection<FavouriteDto> favouriteDtos;
+	
+	@JsonProperty(PAYMENTS)
+	@JsonInclude(Include.NON_NULL)
+	private Collection<PaymentDto> paymentDtos;
+	
+	@JsonInclude(Include.NON_EMPTY)
+	private Set<String> unavailableSections;
+	
+}
+
+
+
+
+
+
+
+
+
+
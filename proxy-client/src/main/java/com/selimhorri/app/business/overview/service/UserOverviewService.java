@@ -0,0 +1,19 @@
+package com.selimhorri.app.business.overview.service;
+
+import com.selimhorri.app.business.overview.model.UserOverviewDto;
+
+public interface UserOverviewService {
+	
+	UserOverviewDto findByUserId(final String userId);
+	
+}
+
+
+
+
+
+
+
+
+
+
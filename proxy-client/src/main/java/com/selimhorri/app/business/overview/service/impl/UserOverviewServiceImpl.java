@@ -0,0 +1,214 @@
+package com.selimhorri.app.business.overview.service.impl;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.cloud.sleuth.instrument.async.TraceableExecutorService;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.selimhorri.app.business.favourite.model.FavouriteDto;
+import com.selimhorri.app.business.favourite.service.FavouriteClientService;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.service.CartClientService;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.overview.model.UserOverviewDto;
+import com.selimhorri.app.business.overview.service.UserOverviewService;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.business.user.model.AddressDto;
+import com.selimhorri.app.business.user.model.UserDto;
+import com.selimhorri.app.business.user.service.AddressClientService;
+import com.selimhorri.app.business.user.service.UserClientService;
+import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fetches all sections of the account page concurrently, so the latency is that of the slowest section
+ * rather than the sum of all of them. Every section gets the same deadline (app.overview.section-timeout)
+ * counted from the start of the request; a section that fails or misses it is reported as unavailable.
+ * 
+ * Every section is queried by user downstream, except payments which are queried by the ids of the user's orders
+ * and are therefore unavailable whenever the orders are.
+ */
+@Service
+@Slf4j
+public class UserOverviewServiceImpl implements UserOverviewService {
+	
+	private final UserClientService userClientService;
+	private final AddressClientService addressClientService;
+	private final CartClientService cartClientService;
+	private final OrderClientService orderClientService;
+	private final FavouriteClientService favouriteClientService;
+	private final PaymentClientService paymentClientService;
+	private final ExecutorService executor;
+	private final Duration sectionTimeout;
+	
+	@Autowired
+	public UserOverviewServiceImpl(
+			final UserClientService userClientService,
+			final AddressClientService addressClientService,
+			final CartClientService cartClientService,
+			final OrderClientService orderClientService,
+			final FavouriteClientService favouriteClientService,
+			final PaymentClientService paymentClientService,
+			@Value("${app.overview.threads:32}") final int threads,
+			@Value("${app.overview.queue-capacity:1000}") final int queueCapacity,
+			@Value("${app.overview.section-timeout:2s}") final Duration sectionTimeout,
+			final BeanFactory beanFactory,
+			final ObjectProvider<Tracer> tracer) {
+		this(userClientService, addressClientService, cartClientService, orderClientService, favouriteClientService, 
+				paymentClientService, traceable(newExecutor(threads, queueCapacity), beanFactory, tracer), sectionTimeout);
+	}
+	
+	public UserOverviewServiceImpl(
+			final UserClientService userClientService,
+			final AddressClientService addressClientService,
+			final CartClientService cartClientService,
+			final OrderClientService orderClientService,
+			final FavouriteClientService favouriteClientService,
+			final PaymentClientService paymentClientService,
+			final ExecutorService executor,
+			final Duration sectionTimeout) {
+		this.userClientService = userClientService;
+		this.addressClientService = addressClientService;
+		this.cartClientService = cartClientService;
+		this.orderClientService = orderClientService;
+		this.favouriteClientService = favouriteClientService;
+		this.paymentClientService = paymentClientService;
+		this.executor = executor;
+		this.sectionTimeout = sectionTimeout;
+	}
+	
+	@Override
+	public UserOverviewDto findByUserId(final String userId) {
+		log.info("*** UserOverviewDto, service; fetch overview of user *");
+		
+		final Integer id = parseUserId(userId);
+		final long deadline = System.nanoTime() + this.sectionTimeout.toNanos();
+		final Set<String> unavailableSections = new TreeSet<>();
+		
+		final CompletableFuture<UserDto> user = this.section(() -> this.userClientService.findById(userId).getBody());
+		final CompletableFuture<Collection<AddressDto>> addresses = this.section(() -> this.addressClientService.findAllByUserId(id).getBody().getCollection());
+		final CompletableFuture<Collection<CartDto>> carts = this.section(() -> this.cartClientService.findAllByUserId(id).getBody().getCollection());
+		final CompletableFuture<Collection<OrderDto>> orders = this.section(() -> this.orderClientService.findAllByUserId(id).getBody().getCollection());
+		final CompletableFuture<Collection<FavouriteDto>> favourites = this.section(() -> this.favouriteClientService.findAllByUserId(id).getBody().getCollection());
+		final CompletableFuture<Collection<PaymentDto>> payments = orders.thenCompose(o -> this.section(() -> this.findPayments(o)));
+		
+		return UserOverviewDto.builder()
+				.userDto(await(UserOverviewDto.USER, user, deadline, unavailableSections))
+				.addressDtos(await(UserOverviewDto.ADDRESSES, addresses, deadline, unavailableSections))
+				.cartDtos(await(UserOverviewDto.CARTS, carts, deadline, unavailableSections))
+				.orderDtos(await(UserOverviewDto.ORDERS, orders, deadline, unavailableSections))
+				.favouriteDtos(await(UserOverviewDto.FAVOURITES, favourites, deadline, unavailableSections))
+				.paymentDtos(await(UserOverviewDto.PAYMENTS, payments, deadline, unavailableSections))
+				.unavailableSections(unavailableSections)
+				.build();
+	}
+	
+	@PreDestroy
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+	
+	private <T> CompletableFuture<T> section(final Supplier<T> fetch) {
+		try {
+			return CompletableFuture.supplyAsync(fetch, this.executor);
+		}
+		catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+	
+	private static <T> T await(final String section, final CompletableFuture<T> future, 
+			final long deadline, final Set<String> unavailableSections) {
+		try {
+			return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		}
+		catch (TimeoutException e) {
+			log.warn("** UserOverviewServiceImpl, section {} timed out *\n", section);
+		}
+		catch (ExecutionException e) {
+			log.warn("** UserOverviewServiceImpl, section {} failed: {} *\n", section, e.getCause().getMessage());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		future.cancel(true);
+		unavailableSections.add(section);
+		return null;
+	}
+	
+	/**
+	 * Payments only carry the id of their order, so they are looked up once the orders of the user are known.
+	 */
+	private Collection<PaymentDto> findPayments(final Collection<OrderDto> orderDtos) {
+		final Set<Integer> orderIds = orderDtos.stream()
+				.map(OrderDto::getOrderId)
+				.collect(Collectors.toUnmodifiableSet());
+		return (orderIds.isEmpty()) ? List.of() 
+				: this.paymentClientService.findAllByOrderIds(orderIds).getBody().getCollection();
+	}
+	
+	private static Integer parseUserId(final String userId) {
+		try {
+			final int id = Integer.parseInt(userId.strip());
+			if (id > 0) {
+				return id;
+			}
+		}
+		catch (NumberFormatException e) {
+			// reported below
+		}
+		throw new UserObjectNotFoundException(String.format("User with id: %s not found", userId));
+	}
+	
+	private static ExecutorService newExecutor(final int threads, final int queueCapacity) {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, 
+				new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("overview-"));
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
+	private static ExecutorService traceable(final ExecutorService executor, 
+			final BeanFactory beanFactory, final ObjectProvider<Tracer> tracer) {
+		return (tracer.getIfAvailable() != null) 
+				? new TraceableExecutorService(beanFactory, executor, "overview") 
+				: executor;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.payment.model.PaymentDto;
@@ -24,8 +25,10 @@ public class PaymentController {
 	private final PaymentClientService paymentClientService;
 	
 	@GetMapping
-	public ResponseEntity<PaymentPaymentServiceDtoCollectionResponse> findAll() {
-		return ResponseEntity.ok(this.paymentClientService.findAll().getBody());
+	public ResponseEntity<PaymentPaymentServiceDtoCollectionResponse> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit) {
+		return ResponseEntity.ok(this.paymentClientService.findAll(after, limit).getBody());
 	}
 	
 	@GetMapping("/{paymentId}")
@@ -1,5 +1,7 @@
 package com.selimhorri.app.business.payment.service;
 
+import java.util.Collection;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.selimhorri.app.business.payment.model.PaymentDto;
 import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
@@ -22,6 +25,14 @@ public interface PaymentClientService {
 	@GetMapping
 	public ResponseEntity<PaymentPaymentServiceDtoCollectionResponse> findAll();
 	
+	@GetMapping
+	public ResponseEntity<PaymentPaymentServiceDtoCollectionResponse> findAllByOrderIds(@RequestParam("orderIds") final Collection<Integer> orderIds);
+	
+	@GetMapping
+	public ResponseEntity<PaymentPaymentServiceDtoCollectionResponse> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit);
+	
 	@GetMapping("/{paymentId}")
 	public ResponseEntity<PaymentDto> findById(
 			@PathVariable("paymentId") 
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.selimhorri.app.business.product.model.ProductDto;
 import com.selimhorri.app.business.product.model.response.ProductProductServiceCollectionDtoResponse;
@@ -22,6 +23,11 @@ public interface ProductClientService {
 	@GetMapping
 	ResponseEntity<ProductProductServiceCollectionDtoResponse> findAll();
 	
+	@GetMapping
+	ResponseEntity<ProductProductServiceCollectionDtoResponse> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit);
+	
 	@GetMapping("/{productId}")
 	ResponseEntity<ProductDto> findById(
 			@PathVariable("productId") 
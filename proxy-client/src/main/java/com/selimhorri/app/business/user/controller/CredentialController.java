@@ -1,5 +1,8 @@
 package com.selimhorri.app.business.user.controller;
 
+import java.util.Objects;
+import java.util.stream.Stream;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,9 +13,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.selimhorri.app.business.auth.cache.UserDetailsCache;
 import com.selimhorri.app.business.user.model.CredentialDto;
 import com.selimhorri.app.business.user.model.response.CredentialUserServiceCollectionDtoResponse;
 import com.selimhorri.app.business.user.service.CredentialClientService;
+import com.selimhorri.app.jwt.revocation.TokenDenyList;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,6 +27,8 @@ import lombok.RequiredArgsConstructor;
 public class CredentialController {
 	
 	private final CredentialClientService credentialClientService;
+	private final UserDetailsCache userDetailsCache;
+	private final TokenDenyList tokenDenyList;
 	
 	@GetMapping
 	public ResponseEntity<CredentialUserServiceCollectionDtoResponse> findAll() {
@@ -45,17 +52,50 @@ public class CredentialController {
 	
 	@PutMapping
 	public ResponseEntity<CredentialDto> update(@RequestBody final CredentialDto credentialDto) {
-		return ResponseEntity.ok(this.credentialClientService.update(credentialDto).getBody());
+		final var storedCredential = this.findStored(credentialDto.getCredentialId());
+		final var updatedCredential = this.credentialClientService.update(credentialDto).getBody();
+		this.forget(storedCredential, credentialDto);
+		return ResponseEntity.ok(updatedCredential);
 	}
 	
 	@PutMapping("/{credentialId}")
 	public ResponseEntity<CredentialDto> update(@PathVariable("credentialId") final String credentialId, @RequestBody final CredentialDto credentialDto) {
-		return ResponseEntity.ok(this.credentialClientService.update(credentialDto).getBody());
+		final var storedCredential = this.findStored(credentialId);
+		final var updatedCredential = this.credentialClientService.update(credentialDto).getBody();
+		this.forget(storedCredential, credentialDto);
+		return ResponseEntity.ok(updatedCredential);
 	}
 	
 	@DeleteMapping("/{credentialId}")
 	public ResponseEntity<Boolean> deleteById(@PathVariable("credentialId") final String credentialId) {
-		return ResponseEntity.ok(this.credentialClientService.deleteById(credentialId).getBody());
+		final var credential = this.credentialClientService.findById(credentialId).getBody();
+		final var deleted = this.credentialClientService.deleteById(credentialId).getBody();
+		this.forget(credential);
+		return ResponseEntity.ok(deleted);
+	}
+	
+	/**
+	 * The credential as stored before a change, its username may be the one being changed.
+	 */
+	private CredentialDto findStored(final Object credentialId) {
+		return (credentialId != null) 
+				? this.credentialClientService.findById(String.valueOf(credentialId)).getBody() 
+				: null;
+	}
+	
+	/**
+	 * Evicts the cached user details and revokes the tokens of every username the credentials had or have now.
+	 */
+	private void forget(final CredentialDto... credentials) {
+		Stream.of(credentials)
+				.filter(Objects::nonNull)
+				.map(CredentialDto::getUsername)
+				.filter(Objects::nonNull)
+				.distinct()
+				.forEach(username -> {
+					this.userDetailsCache.evict(username);
+					this.tokenDenyList.revoke(username);
+				});
 	}
 	
 	
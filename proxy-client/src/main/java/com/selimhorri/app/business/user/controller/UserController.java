@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.selimhorri.app.business.user.model.UserDto;
@@ -24,8 +25,10 @@ public class UserController {
 	private final UserClientService userClientService;
 	
 	@GetMapping
-	public ResponseEntity<UserUserServiceCollectionDtoResponse> findAll() {
-		return ResponseEntity.ok(this.userClientService.findAll().getBody());
+	public ResponseEntity<UserUserServiceCollectionDtoResponse> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit) {
+		return ResponseEntity.ok(this.userClientService.findAll(after, limit).getBody());
 	}
 	
 	@GetMapping("/{userId}")
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.selimhorri.app.business.user.model.AddressDto;
 import com.selimhorri.app.business.user.model.response.AddressUserServiceCollectionDtoResponse;
@@ -22,6 +23,9 @@ public interface AddressClientService {
 	@GetMapping
 	ResponseEntity<AddressUserServiceCollectionDtoResponse> findAll();
 	
+	@GetMapping
+	ResponseEntity<AddressUserServiceCollectionDtoResponse> findAllByUserId(@RequestParam("userId") final Integer userId);
+	
 	@GetMapping("/{addressId}")
 	ResponseEntity<AddressDto> findById(
 			@PathVariable("addressId") 
@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 import com.selimhorri.app.business.user.model.CredentialDto;
 import com.selimhorri.app.business.user.model.response.CredentialUserServiceCollectionDtoResponse;
+import com.selimhorri.app.business.user.model.response.UsernameUserServiceCollectionDtoResponse;
 
 @FeignClient(name = "USER-SERVICE", contextId = "credentialClientService", path = "/user-service/api/credentials", decode404 = true)
 public interface CredentialClientService {
@@ -22,6 +23,9 @@ public interface CredentialClientService {
 	@GetMapping
 	ResponseEntity<CredentialUserServiceCollectionDtoResponse> findAll();
 	
+	@GetMapping("/inactive-usernames")
+	ResponseEntity<UsernameUserServiceCollectionDtoResponse> findInactiveUsernames();
+	
 	@GetMapping("/{credentialId}")
 	ResponseEntity<CredentialDto> findById(
 			@PathVariable("credentialId") 
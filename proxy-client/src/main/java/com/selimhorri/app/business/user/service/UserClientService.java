@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import com.selimhorri.app.business.user.model.UserDto;
 import com.selimhorri.app.business.user.model.response.UserUserServiceCollectionDtoResponse;
@@ -22,6 +23,11 @@ public interface UserClientService {
 	@GetMapping
 	ResponseEntity<UserUserServiceCollectionDtoResponse> findAll();
 	
+	@GetMapping
+	ResponseEntity<UserUserServiceCollectionDtoResponse> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit);
+	
 	@GetMapping("/{userId}")
 	ResponseEntity<UserDto> findById(
 			@PathVariable("userId") 
@@ -1,12 +1,14 @@
 package com.selimhorri.app.config.filter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,6 +17,8 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.selimhorri.app.jwt.model.ParsedToken;
+import com.selimhorri.app.jwt.revocation.TokenDenyList;
 import com.selimhorri.app.jwt.service.JwtService;
 
 import lombok.RequiredArgsConstructor;
@@ -27,6 +31,13 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 	
 	private final UserDetailsService userDetailsService;
 	private final JwtService jwtService;
+	private final TokenDenyList tokenDenyList;
+	
+	/**
+	 * Authorize from the claims of self-contained tokens instead of loading the user from user-service.
+	 */
+	@Value("${app.security.jwt.self-contained:false}")
+	private boolean selfContained;
 	
 	@Override
 	protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain) 
@@ -37,18 +48,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 		final var authorizationHeader = request.getHeader("Authorization");
 		
 		String username = null;
-		String jwt = null;
+		ParsedToken parsedToken = null;
 		
 		if ( authorizationHeader != null && authorizationHeader.startsWith("Bearer ") ) {
-			jwt = authorizationHeader.substring(7);
-			username = jwtService.extractUsername(jwt);
+			parsedToken = this.jwtService.parseToken(authorizationHeader.substring(7));
+			username = parsedToken.getSubject();
 		}
 		
-		if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+		if (username != null && SecurityContextHolder.getContext().getAuthentication() == null 
+				&& !this.tokenDenyList.isDenied(parsedToken)) {
 			
-			final UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+			final UserDetails userDetails = this.resolveUserDetails(parsedToken);
 			
-			if (this.jwtService.validateToken(jwt, userDetails)) {
+			if (this.isActive(userDetails) && this.jwtService.validateToken(parsedToken, userDetails)) {
 				final UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = 
 						new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 				usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -61,6 +73,20 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 		log.info("**Jwt request filtered!*\n");
 	}
 	
+	private UserDetails resolveUserDetails(final ParsedToken parsedToken) {
+		final Optional<UserDetails> tokenUserDetails = this.selfContained 
+				? this.jwtService.extractUserDetails(parsedToken) 
+				: Optional.empty();
+		return tokenUserDetails.orElseGet(() -> this.userDetailsService.loadUserByUsername(parsedToken.getSubject()));
+	}
+	
+	private boolean isActive(final UserDetails userDetails) {
+		return userDetails.isEnabled() 
+				&& userDetails.isAccountNonExpired() 
+				&& userDetails.isAccountNonLocked() 
+				&& userDetails.isCredentialsNonExpired();
+	}
+	
 	
 	
 }
@@ -0,0 +1,39 @@
+package com.selimhorri.app.jwt.model;
+
+import java.util.Date;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A JWT whose signature has already been verified.
+ * Parse a token once per request and read subject, expiry and claims from here
+ * instead of handing the raw token string around.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class ParsedToken {
+	
+	private final String subject;
+	private final Date issuedAt;
+	private final Date expiration;
+	private final Claims claims;
+	
+	public boolean isExpired() {
+		return this.expiration != null && this.expiration.before(new Date());
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,112 @@
+package com.selimhorri.app.jwt.revocation;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.selimhorri.app.business.user.model.response.UsernameUserServiceCollectionDtoResponse;
+import com.selimhorri.app.business.user.service.CredentialClientService;
+import com.selimhorri.app.jwt.model.ParsedToken;
+import com.selimhorri.app.jwt.util.impl.JwtUtilImpl;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local deny list checked for every bearer token, so tokens can be revoked without a user-service call per request.
+ *
+ * A revoked username rejects all tokens issued up to the revocation instant, a fresh login gets a new token.
+ * Revocations are kept for the token validity period only, older tokens are expired anyway.
+ * When self-contained tokens are enabled, the usernames of disabled, locked or expired accounts are periodically pulled
+ * from user-service (app.security.jwt.deny-list.refresh-interval) and rejected until they are reactivated.
+ */
+@Component
+@Slf4j
+public class TokenDenyList {
+	
+	private final CredentialClientService credentialClientService;
+	private final boolean selfContained;
+	private final Cache<String, Long> revokedAt;
+	private volatile Set<String> inactiveUsernames = Set.of();
+	
+	public TokenDenyList(
+			final CredentialClientService credentialClientService,
+			@Value("${app.security.jwt.self-contained:false}") final boolean selfContained) {
+		this.credentialClientService = credentialClientService;
+		this.selfContained = selfContained;
+		this.revokedAt = Caffeine.newBuilder()
+				.expireAfterWrite(Duration.ofMillis(JwtUtilImpl.TOKEN_VALIDITY_MILLIS))
+				.build();
+	}
+	
+	public void revoke(final String username) {
+		log.info("** TokenDenyList, revoke tokens issued so far for username: {} *\n", username);
+		this.revokedAt.put(username, System.currentTimeMillis());
+	}
+	
+	public boolean isDenied(final ParsedToken parsedToken) {
+		final String username = parsedToken.getSubject();
+		if (this.inactiveUsernames.contains(username)) {
+			return true;
+		}
+		final Long revokedAtMillis = this.revokedAt.getIfPresent(username);
+		// iat has second precision, a token issued in the same second as the revocation is rejected as well
+		return revokedAtMillis != null 
+				&& (parsedToken.getIssuedAt() == null || parsedToken.getIssuedAt().getTime() <= revokedAtMillis);
+	}
+	
+	public Set<String> getInactiveUsernames() {
+		return this.inactiveUsernames;
+	}
+	
+	/**
+	 * Revocation instant in epoch millis by username, for the revocations still within the token validity period.
+	 */
+	public Map<String, Long> getRevocations() {
+		return Map.copyOf(this.revokedAt.asMap());
+	}
+	
+	public long getRevokedCount() {
+		return this.revokedAt.estimatedSize();
+	}
+	
+	@Scheduled(
+			initialDelayString = "${app.security.jwt.deny-list.refresh-interval:60000}", 
+			fixedDelayString = "${app.security.jwt.deny-list.refresh-interval:60000}")
+	public void refresh() {
+		if (!this.selfContained) {
+			return;
+		}
+		try {
+			this.inactiveUsernames = Optional
+					.ofNullable(this.credentialClientService.findInactiveUsernames().getBody())
+					.map(UsernameUserServiceCollectionDtoResponse::getCollection)
+					.map(Set::copyOf)
+					.orElseThrow(() -> new IllegalStateException("empty inactive username response"));
+			log.info("** TokenDenyList, refreshed, {} inactive account(s) denied *\n", this.inactiveUsernames.size());
+		}
+		catch (RuntimeException e) {
+			// keep the previous list, better stale than empty
+			log.warn("** TokenDenyList, refresh failed, keeping previous deny list: {} *\n", e.getMessage());
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,78 @@
+package com.selimhorri.app.jwt.revocation;
+
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.selimhorri.app.jwt.model.ParsedToken;
+import com.selimhorri.app.jwt.service.JwtService;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Feed of the deny list polled by api-gateway, so that revoked tokens are rejected on the direct service routes too.
+ *
+ * The caller proves it holds app.security.jwt.secret by sending a short-lived token signed with it
+ * in the {@value #FEED_TOKEN_HEADER} header, carrying the claim scope={@value #FEED_SCOPE}.
+ * Tokens issued to users never carry a scope claim, so a user token cannot read the feed.
+ */
+@RestController
+@RequestMapping("/api/token-deny-list")
+@Slf4j
+@RequiredArgsConstructor
+public class TokenDenyListController {
+	
+	public static final String FEED_TOKEN_HEADER = "X-Deny-List-Token";
+	public static final String FEED_SCOPE = "token-deny-list";
+	
+	private static final String SCOPE_CLAIM = "scope";
+	
+	private final JwtService jwtService;
+	private final TokenDenyList tokenDenyList;
+	
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> findDenyList(
+			@RequestHeader(value = FEED_TOKEN_HEADER, required = false) final String feedToken) {
+		log.info("** TokenDenyListController, fetch deny list *\n");
+		if (!this.isFeedToken(feedToken)) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+		return ResponseEntity.ok(Map.of(
+				"revokedAt", this.tokenDenyList.getRevocations(),
+				"inactiveUsernames", this.tokenDenyList.getInactiveUsernames()));
+	}
+	
+	private boolean isFeedToken(final String feedToken) {
+		if (feedToken == null) {
+			return false;
+		}
+		try {
+			final ParsedToken parsedToken = this.jwtService.parseToken(feedToken);
+			return !parsedToken.isExpired() && FEED_SCOPE.equals(parsedToken.getClaims().get(SCOPE_CLAIM));
+		}
+		catch (JwtException | IllegalArgumentException e) {
+			log.warn("** TokenDenyListController, rejected feed token: {} *\n", e.getMessage());
+			return false;
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
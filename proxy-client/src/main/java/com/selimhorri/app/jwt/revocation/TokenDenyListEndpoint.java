@@ -0,0 +1,53 @@
+package com.selimhorri.app.jwt.revocation;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Admin hook on /actuator/tokendenylist to revoke all current tokens of a user
+ * and to force a refresh of the inactive accounts pulled from user-service.
+ */
+@Component
+@Endpoint(id = "tokendenylist")
+@RequiredArgsConstructor
+public class TokenDenyListEndpoint {
+	
+	private final TokenDenyList tokenDenyList;
+	
+	@ReadOperation
+	public Map<String, Object> summary() {
+		return Map.of(
+				"inactiveUsernames", this.tokenDenyList.getInactiveUsernames(), 
+				"revokedCount", this.tokenDenyList.getRevokedCount());
+	}
+	
+	@WriteOperation
+	public void revoke(@Selector final String username) {
+		this.tokenDenyList.revoke(username);
+	}
+	
+	@WriteOperation
+	public void refresh() {
+		this.tokenDenyList.refresh();
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
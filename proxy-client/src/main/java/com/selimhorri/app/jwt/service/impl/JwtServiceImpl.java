@@ -1,11 +1,13 @@
 package com.selimhorri.app.jwt.service.impl;
 
 import java.util.Date;
+import java.util.Optional;
 import java.util.function.Function;
 
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.jwt.model.ParsedToken;
 import com.selimhorri.app.jwt.service.JwtService;
 import com.selimhorri.app.jwt.util.JwtUtil;
 
@@ -20,6 +22,12 @@ public class JwtServiceImpl implements JwtService {
 	
 	private final JwtUtil jwtUtil;
 	
+	@Override
+	public ParsedToken parseToken(final String token) {
+		log.info("**ParsedToken, jwt service parse and verify given token!*");
+		return this.jwtUtil.parseToken(token);
+	}
+	
 	@Override
 	public String extractUsername(final String token) {
 		log.info("**String, jwt service extract username from given token!*");
@@ -50,6 +58,18 @@ public class JwtServiceImpl implements JwtService {
 		return this.jwtUtil.validateToken(token, userDetails);
 	}
 	
+	@Override
+	public Boolean validateToken(final ParsedToken parsedToken, final UserDetails userDetails) {
+		log.info("**Boolean, jwt service validate already parsed token and userDetails!*");
+		return this.jwtUtil.validateToken(parsedToken, userDetails);
+	}
+	
+	@Override
+	public Optional<UserDetails> extractUserDetails(final ParsedToken parsedToken) {
+		log.info("**Optional<UserDetails>, jwt service extract userDetails from given token claims!*");
+		return this.jwtUtil.extractUserDetails(parsedToken);
+	}
+	
 	
 	
 }
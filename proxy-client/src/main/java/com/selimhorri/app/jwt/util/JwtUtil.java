@@ -1,18 +1,24 @@
 package com.selimhorri.app.jwt.util;
 
 import java.util.Date;
+import java.util.Optional;
 import java.util.function.Function;
 
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.selimhorri.app.jwt.model.ParsedToken;
+
 import io.jsonwebtoken.Claims;
 
 public interface JwtUtil {
 	
+	ParsedToken parseToken(final String token);
 	String extractUsername(final String token);
 	Date extractExpiration(final String token);
 	<T> T extractClaims(final String token, final Function<Claims, T> claimsResolver);
 	String generateToken(final UserDetails userDetails);
 	Boolean validateToken(final String token, final UserDetails userDetails);
+	Boolean validateToken(final ParsedToken parsedToken, final UserDetails userDetails);
+	Optional<UserDetails> extractUserDetails(final ParsedToken parsedToken);
 	
 }
@@ -1,51 +1,119 @@
 package com.selimhorri.app.jwt.util.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.selimhorri.app.jwt.model.ParsedToken;
 import com.selimhorri.app.jwt.util.JwtUtil;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 
+/**
+ * Tokens are verified once and the result is kept in a small LRU keyed by the SHA-256 digest of the token,
+ * so hot tokens skip signature verification and claims parsing on subsequent requests.
+ * An entry never outlives the expiration of its token.
+ *
+ * Tokens are signed with app.security.jwt.secret, the same key api-gateway verifies them with.
+ *
+ * With app.security.jwt.self-contained enabled, generated tokens also carry the authorities and account status
+ * of the user so that requests can be authorized from the token alone, see {@link #extractUserDetails(ParsedToken)}.
+ */
 @Component
 public class JwtUtilImpl implements JwtUtil {
 	
-	private static final String SECRET_KEY = "secret";
+	public static final long TOKEN_VALIDITY_MILLIS = 1000 * 60 * 60 * 10;
 	
-	@Override
-	public String extractUsername(final String token) {
-		return this.extractClaims(token, Claims::getSubject);
+	private static final String AUTHORITIES_CLAIM = "authorities";
+	private static final String ENABLED_CLAIM = "enabled";
+	private static final String ACCOUNT_NON_EXPIRED_CLAIM = "accountNonExpired";
+	private static final String ACCOUNT_NON_LOCKED_CLAIM = "accountNonLocked";
+	private static final String CREDENTIALS_NON_EXPIRED_CLAIM = "credentialsNonExpired";
+	
+	private final String secret;
+	private final Cache<String, ParsedToken> verifiedTokens;
+	private final boolean selfContained;
+	
+	public JwtUtilImpl(
+			@Value("${app.security.jwt.secret:secret}") final String secret,
+			@Value("${app.security.jwt.verified-token-cache.max-size:10000}") final long maxSize,
+			@Value("${app.security.jwt.self-contained:false}") final boolean selfContained) {
+		this.secret = secret;
+		this.selfContained = selfContained;
+		this.verifiedTokens = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfter(new TokenExpiry())
+				.build();
 	}
 	
 	@Override
-	public Date extractExpiration(final String token) {
-		return this.extractClaims(token, Claims::getExpiration);
+	public ParsedToken parseToken(final String token) {
+		return this.verifiedTokens.get(digest(token), key -> this.verifyToken(token));
+	}
+	
+	private ParsedToken verifyToken(final String token) {
+		final Claims claims = Jwts.parser().setSigningKey(this.secret).parseClaimsJws(token).getBody();
+		return new ParsedToken(claims.getSubject(), claims.getIssuedAt(), claims.getExpiration(), claims);
+	}
+	
+	private static String digest(final String token) {
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+			return Base64.getEncoder().encodeToString(hash);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 	
 	@Override
-	public <T> T extractClaims(final String token, Function<Claims, T> claimsResolver) {
-		final Claims claims = this.extractAllClaims(token);
-		return claimsResolver.apply(claims);
+	public String extractUsername(final String token) {
+		return this.parseToken(token).getSubject();
 	}
 	
-	private Claims extractAllClaims(final String token) {
-		return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+	@Override
+	public Date extractExpiration(final String token) {
+		return this.parseToken(token).getExpiration();
 	}
 	
-	private Boolean isTokenExpired(final String token) {
-		return this.extractExpiration(token).before(new Date());
+	@Override
+	public <T> T extractClaims(final String token, Function<Claims, T> claimsResolver) {
+		return claimsResolver.apply(this.parseToken(token).getClaims());
 	}
 	
 	@Override
 	public String generateToken(final UserDetails userDetails) {
 		final Map<String, Object> claims = new HashMap<>();
+		if (this.selfContained) {
+			claims.put(AUTHORITIES_CLAIM, userDetails.getAuthorities().stream()
+					.map(GrantedAuthority::getAuthority)
+					.collect(Collectors.toUnmodifiableList()));
+			claims.put(ENABLED_CLAIM, userDetails.isEnabled());
+			claims.put(ACCOUNT_NON_EXPIRED_CLAIM, userDetails.isAccountNonExpired());
+			claims.put(ACCOUNT_NON_LOCKED_CLAIM, userDetails.isAccountNonLocked());
+			claims.put(CREDENTIALS_NON_EXPIRED_CLAIM, userDetails.isCredentialsNonExpired());
+		}
 		return this.createToken(claims, userDetails.getUsername());
 	}
 	
@@ -54,19 +122,65 @@ public class JwtUtilImpl implements JwtUtil {
 					.setClaims(claims)
 					.setSubject(subject)
 					.setIssuedAt(new Date(System.currentTimeMillis()))
-					.setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-					.signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+					.setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY_MILLIS))
+					.signWith(SignatureAlgorithm.HS256, this.secret)
 		.compact();
 	}
 	
 	@Override
 	public Boolean validateToken(final String token, final UserDetails userDetails) {
-		final String username = this.extractUsername(token);
+		return this.validateToken(this.parseToken(token), userDetails);
+	}
+	
+	@Override
+	public Boolean validateToken(final ParsedToken parsedToken, final UserDetails userDetails) {
 		return (
-			username.equals(userDetails.getUsername()) && !isTokenExpired(token)
+			parsedToken.getSubject().equals(userDetails.getUsername()) && !parsedToken.isExpired()
 		);
 	}
 	
+	@Override
+	public Optional<UserDetails> extractUserDetails(final ParsedToken parsedToken) {
+		final Claims claims = parsedToken.getClaims();
+		if (!(claims.get(AUTHORITIES_CLAIM) instanceof Collection)) {
+			return Optional.empty();
+		}
+		final List<String> authorities = ((Collection<?>) claims.get(AUTHORITIES_CLAIM)).stream()
+				.map(String::valueOf)
+				.collect(Collectors.toUnmodifiableList());
+		return Optional.of(User.withUsername(parsedToken.getSubject())
+				.password("")
+				.authorities(authorities.toArray(String[]::new))
+				.disabled(!Boolean.TRUE.equals(claims.get(ENABLED_CLAIM, Boolean.class)))
+				.accountExpired(!Boolean.TRUE.equals(claims.get(ACCOUNT_NON_EXPIRED_CLAIM, Boolean.class)))
+				.accountLocked(!Boolean.TRUE.equals(claims.get(ACCOUNT_NON_LOCKED_CLAIM, Boolean.class)))
+				.credentialsExpired(!Boolean.TRUE.equals(claims.get(CREDENTIALS_NON_EXPIRED_CLAIM, Boolean.class)))
+				.build());
+	}
+	
+	private static final class TokenExpiry implements Expiry<String, ParsedToken> {
+		
+		@Override
+		public long expireAfterCreate(final String key, final ParsedToken parsedToken, final long currentTime) {
+			if (parsedToken.getExpiration() == null) {
+				return Long.MAX_VALUE;
+			}
+			final long remainingMillis = parsedToken.getExpiration().getTime() - System.currentTimeMillis();
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+		}
+		
+		@Override
+		public long expireAfterUpdate(final String key, final ParsedToken parsedToken, final long currentTime, final long currentDuration) {
+			return currentDuration;
+		}
+		
+		@Override
+		public long expireAfterRead(final String key, final ParsedToken parsedToken, final long currentTime, final long currentDuration) {
+			return currentDuration;
+		}
+		
+	}
+	
 	
 	
 }
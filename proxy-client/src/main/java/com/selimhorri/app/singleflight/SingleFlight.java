@@ -0,0 +1,97 @@
+package com.selimhorri.app.singleflight;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Collapses concurrent identical calls into one: the first caller for a key runs the call,
+ * callers arriving while it is in flight wait for and share its result (or exception).
+ * Nothing is cached, the next call after completion runs again.
+ * 
+ * Every call is counted in "proxy.singleflight.calls" with outcome=executed|coalesced,
+ * the collapse ratio is coalesced / (executed + coalesced).
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlight {
+	
+	public static final String METRIC_NAME = "proxy.singleflight.calls";
+	
+	private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final MeterRegistry meterRegistry;
+	
+	@SuppressWarnings("unchecked")
+	public <T> T execute(final String client, final String operation, final Object key, final Supplier<T> call) {
+		
+		final CompletableFuture<Object> flight = new CompletableFuture<>();
+		final CompletableFuture<Object> existing = this.inFlight.putIfAbsent(key, flight);
+		
+		if (existing != null) {
+			this.counter(client, operation, "coalesced").increment();
+			return (T) join(existing);
+		}
+		
+		this.counter(client, operation, "executed").increment();
+		try {
+			final T result = call.get();
+			this.inFlight.remove(key, flight);
+			flight.complete(result);
+			return result;
+		}
+		catch (RuntimeException | Error e) {
+			this.inFlight.remove(key, flight);
+			flight.completeExceptionally(e);
+			throw e;
+		}
+	}
+	
+	public int inFlight() {
+		return this.inFlight.size();
+	}
+	
+	private Counter counter(final String client, final String operation, final String outcome) {
+		return Counter.builder(METRIC_NAME)
+				.description("Upstream read calls, executed or coalesced into an identical in-flight call")
+				.tag("client", client)
+				.tag("operation", operation)
+				.tag("outcome", outcome)
+				.register(this.meterRegistry);
+	}
+	
+	private static Object join(final CompletableFuture<Object> flight) {
+		try {
+			return flight.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,81 @@
+package com.selimhorri.app.singleflight;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Puts a {@link SingleFlight} in front of every Feign client (ProductClientService, CategoryClientService, ...):
+ * concurrent calls to the same {@link GetMapping} method with equal arguments share one upstream request.
+ * Writes always go through untouched. Disabled with app.single-flight.enabled=false.
+ */
+@Component
+@Slf4j
+public class SingleFlightFeignClientPostProcessor implements BeanPostProcessor {
+	
+	private final boolean enabled;
+	private final ObjectProvider<SingleFlight> singleFlight;
+	
+	public SingleFlightFeignClientPostProcessor(
+			@Value("${app.single-flight.enabled:true}") final boolean enabled,
+			final ObjectProvider<SingleFlight> singleFlight) {
+		this.enabled = enabled;
+		this.singleFlight = singleFlight;
+	}
+	
+	@Override
+	public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+		
+		if (!this.enabled) {
+			return bean;
+		}
+		
+		final Class<?>[] feignClients = ClassUtils.getAllInterfacesAsSet(bean)
+				.stream()
+					.filter(i -> i.isAnnotationPresent(FeignClient.class))
+					.toArray(Class<?>[]::new);
+		if (feignClients.length == 0) {
+			return bean;
+		}
+		
+		log.info("** SingleFlightFeignClientPostProcessor, coalescing reads of: {} *\n", beanName);
+		final String client = feignClients[0].getSimpleName();
+		return Proxy.newProxyInstance(feignClients[0].getClassLoader(), feignClients, (proxy, method, args) -> {
+			if (!AnnotatedElementUtils.hasAnnotation(method, GetMapping.class)) {
+				return ReflectionUtils.invokeMethod(method, bean, args);
+			}
+			return this.singleFlight.getObject().execute(client, method.getName(), key(method, args), 
+					() -> ReflectionUtils.invokeMethod(method, bean, args));
+		});
+	}
+	
+	private static List<Object> key(final Method method, final Object[] args) {
+		return Arrays.asList(method, (args == null) ? List.of() : Arrays.asList(args));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
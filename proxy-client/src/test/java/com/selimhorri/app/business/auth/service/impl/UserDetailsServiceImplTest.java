@@ -0,0 +1,73 @@
+package com.selimhorri.app.business.auth.service.impl;
+
+import com.selimhorri.app.business.auth.cache.UserDetailsCache;
+import com.selimhorri.app.business.user.model.CredentialDto;
+import com.selimhorri.app.business.user.model.RoleBasedAuthority;
+import com.selimhorri.app.config.RefreshableProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class UserDetailsServiceImplTest {
+
+    private RestTemplate restTemplate;
+    private RefreshableProperties refreshableProperties;
+    private UserDetailsCache userDetailsCache;
+    private UserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = mock(RestTemplate.class);
+        refreshableProperties = mock(RefreshableProperties.class);
+        given(refreshableProperties.isEnableCache()).willReturn(true);
+        userDetailsCache = new UserDetailsCache(100, 60, refreshableProperties, new SimpleMeterRegistry());
+        userDetailsService = new UserDetailsServiceImpl(restTemplate, userDetailsCache);
+        given(restTemplate.getForObject(endsWith("/username/selim"), eq(CredentialDto.class)))
+                .willReturn(CredentialDto.builder()
+                        .username("selim")
+                        .password("secret")
+                        .roleBasedAuthority(RoleBasedAuthority.ROLE_USER)
+                        .isEnabled(true)
+                        .build());
+    }
+
+    @Test
+    void loadUserByUsername_secondCallIsServedFromCache() {
+        final UserDetails first = userDetailsService.loadUserByUsername("selim");
+        final UserDetails second = userDetailsService.loadUserByUsername("selim");
+
+        assertSame(first, second);
+        assertEquals(1, userDetailsCache.size());
+        verify(restTemplate, times(1)).getForObject(endsWith("/username/selim"), eq(CredentialDto.class));
+    }
+
+    @Test
+    void loadUserByUsername_reloadsAfterEviction() {
+        userDetailsService.loadUserByUsername("selim");
+        userDetailsCache.evict("selim");
+        userDetailsService.loadUserByUsername("selim");
+
+        verify(restTemplate, times(2)).getForObject(endsWith("/username/selim"), eq(CredentialDto.class));
+    }
+
+    @Test
+    void loadUserByUsername_bypassesCacheWhenDisabled() {
+        given(refreshableProperties.isEnableCache()).willReturn(false);
+
+        userDetailsService.loadUserByUsername("selim");
+        userDetailsService.loadUserByUsername("selim");
+
+        assertEquals(0, userDetailsCache.size());
+        verify(restTemplate, times(2)).getForObject(endsWith("/username/selim"), eq(CredentialDto.class));
+    }
+}
@@ -0,0 +1,166 @@
+package com.selimhorri.app.business.overview.service.impl;
+
+import com.selimhorri.app.business.favourite.model.FavouriteDto;
+import com.selimhorri.app.business.favourite.model.response.FavouriteFavouriteServiceCollectionDtoResponse;
+import com.selimhorri.app.business.favourite.service.FavouriteClientService;
+import com.selimhorri.app.business.order.model.CartDto;
+import com.selimhorri.app.business.order.model.OrderDto;
+import com.selimhorri.app.business.order.model.response.CartOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.order.model.response.OrderOrderServiceDtoCollectionResponse;
+import com.selimhorri.app.business.order.service.CartClientService;
+import com.selimhorri.app.business.order.service.OrderClientService;
+import com.selimhorri.app.business.overview.model.UserOverviewDto;
+import com.selimhorri.app.business.payment.model.PaymentDto;
+import com.selimhorri.app.business.payment.model.response.PaymentPaymentServiceDtoCollectionResponse;
+import com.selimhorri.app.business.payment.service.PaymentClientService;
+import com.selimhorri.app.business.user.model.AddressDto;
+import com.selimhorri.app.business.user.model.UserDto;
+import com.selimhorri.app.business.user.model.response.AddressUserServiceCollectionDtoResponse;
+import com.selimhorri.app.business.user.service.AddressClientService;
+import com.selimhorri.app.business.user.service.UserClientService;
+import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class UserOverviewServiceImplTest {
+
+    private final UserClientService userClientService = mock(UserClientService.class);
+    private final AddressClientService addressClientService = mock(AddressClientService.class);
+    private final CartClientService cartClientService = mock(CartClientService.class);
+    private final OrderClientService orderClientService = mock(OrderClientService.class);
+    private final FavouriteClientService favouriteClientService = mock(FavouriteClientService.class);
+    private final PaymentClientService paymentClientService = mock(PaymentClientService.class);
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    private UserOverviewServiceImpl userOverviewService;
+
+    @BeforeEach
+    void setUp() {
+        userOverviewService = new UserOverviewServiceImpl(userClientService, addressClientService, cartClientService,
+                orderClientService, favouriteClientService, paymentClientService,
+                Executors.newFixedThreadPool(6), Duration.ofMillis(500));
+
+        given(userClientService.findById("1")).willReturn(ResponseEntity.ok(UserDto.builder().userId(1).firstName("selim").build()));
+        given(addressClientService.findAllByUserId(1)).willReturn(ResponseEntity.ok(AddressUserServiceCollectionDtoResponse.builder()
+                .collection(List.of(address(10, 1)))
+                .build()));
+        given(cartClientService.findAllByUserId(1)).willReturn(ResponseEntity.ok(CartOrderServiceDtoCollectionResponse.builder()
+                .collection(List.of(CartDto.builder().cartId(100).userId(1).build()))
+                .build()));
+        given(orderClientService.findAllByUserId(1)).willReturn(ResponseEntity.ok(OrderOrderServiceDtoCollectionResponse.builder()
+                .collection(List.of(order(1000, 100)))
+                .build()));
+        given(favouriteClientService.findAllByUserId(1)).willReturn(ResponseEntity.ok(FavouriteFavouriteServiceCollectionDtoResponse.builder()
+                .collection(List.of(FavouriteDto.builder().userId(1).productId(5).build()))
+                .build()));
+        given(paymentClientService.findAllByOrderIds(Set.of(1000))).willReturn(ResponseEntity.ok(PaymentPaymentServiceDtoCollectionResponse.builder()
+                .collection(List.of(payment(7, 1000)))
+                .build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        blocked.countDown();
+        userOverviewService.shutdown();
+    }
+
+    @Test
+    void findByUserId_joinsAllSectionsForTheUser() {
+        final UserOverviewDto overview = userOverviewService.findByUserId("1");
+
+        assertEquals("selim", overview.getUserDto().getFirstName());
+        assertEquals(List.of(10), overview.getAddressDtos().stream().map(AddressDto::getAddressId).collect(Collectors.toList()));
+        assertEquals(List.of(100), overview.getCartDtos().stream().map(CartDto::getCartId).collect(Collectors.toList()));
+        assertEquals(List.of(1000), overview.getOrderDtos().stream().map(OrderDto::getOrderId).collect(Collectors.toList()));
+        assertEquals(List.of(5), overview.getFavouriteDtos().stream().map(FavouriteDto::getProductId).collect(Collectors.toList()));
+        assertEquals(List.of(7), overview.getPaymentDtos().stream().map(PaymentDto::getPaymentId).collect(Collectors.toList()));
+        assertTrue(overview.getUnavailableSections().isEmpty());
+        verify(addressClientService, never()).findAll();
+        verify(cartClientService, never()).findAll();
+        verify(orderClientService, never()).findAll();
+        verify(favouriteClientService, never()).findAll();
+        verify(paymentClientService, never()).findAll();
+    }
+
+    @Test
+    void findByUserId_returnsPartialOverviewWhenASectionIsTooSlow() {
+        given(favouriteClientService.findAllByUserId(1)).willAnswer(invocation -> {
+            blocked.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        final long start = System.nanoTime();
+        final UserOverviewDto overview = userOverviewService.findByUserId("1");
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        assertNull(overview.getFavouriteDtos());
+        assertEquals(Set.of(UserOverviewDto.FAVOURITES), overview.getUnavailableSections());
+        assertEquals(1, overview.getPaymentDtos().size());
+    }
+
+    @Test
+    void findByUserId_marksPaymentsUnavailableWhenOrdersFail() {
+        given(orderClientService.findAllByUserId(1)).willThrow(new IllegalStateException("order-service down"));
+
+        final UserOverviewDto overview = userOverviewService.findByUserId("1");
+
+        assertEquals(Set.of(UserOverviewDto.ORDERS, UserOverviewDto.PAYMENTS), overview.getUnavailableSections());
+        assertEquals("selim", overview.getUserDto().getFirstName());
+        assertEquals(1, overview.getCartDtos().size());
+        assertEquals(1, overview.getFavouriteDtos().size());
+        verify(paymentClientService, never()).findAllByOrderIds(anyCollection());
+    }
+
+    @Test
+    void findByUserId_skipsPaymentsWhenTheUserHasNoOrders() {
+        given(orderClientService.findAllByUserId(1)).willReturn(ResponseEntity.ok(OrderOrderServiceDtoCollectionResponse.builder()
+                .collection(List.of())
+                .build()));
+
+        final UserOverviewDto overview = userOverviewService.findByUserId("1");
+
+        assertTrue(overview.getPaymentDtos().isEmpty());
+        assertTrue(overview.getUnavailableSections().isEmpty());
+        verify(paymentClientService, never()).findAllByOrderIds(anyCollection());
+    }
+
+    @Test
+    void findByUserId_rejectsMalformedUserId() {
+        assertThrows(UserObjectNotFoundException.class, () -> userOverviewService.findByUserId("abc"));
+        assertThrows(UserObjectNotFoundException.class, () -> userOverviewService.findByUserId("-1"));
+        verify(userClientService, never()).findById(anyString());
+    }
+
+    private static AddressDto address(final int addressId, final int userId) {
+        return AddressDto.builder().addressId(addressId).userDto(UserDto.builder().userId(userId).build()).build();
+    }
+
+    private static OrderDto order(final int orderId, final int cartId) {
+        return OrderDto.builder().orderId(orderId).cartDto(CartDto.builder().cartId(cartId).build()).build();
+    }
+
+    private static PaymentDto payment(final int paymentId, final int orderId) {
+        return PaymentDto.builder()
+                .paymentId(paymentId)
+                .orderDto(com.selimhorri.app.business.payment.model.OrderDto.builder().orderId(orderId).build())
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.selimhorri.app.business.user.controller;
+
+import com.selimhorri.app.business.auth.cache.UserDetailsCache;
+import com.selimhorri.app.business.user.model.CredentialDto;
+import com.selimhorri.app.business.user.service.CredentialClientService;
+import com.selimhorri.app.jwt.revocation.TokenDenyList;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+class CredentialControllerTest {
+
+    private final CredentialClientService credentialClientService = mock(CredentialClientService.class);
+    private final UserDetailsCache userDetailsCache = mock(UserDetailsCache.class);
+    private final TokenDenyList tokenDenyList = mock(TokenDenyList.class);
+    private final CredentialController credentialController =
+            new CredentialController(credentialClientService, userDetailsCache, tokenDenyList);
+
+    @Test
+    void update_forgetsBothTheOldAndTheNewUsername() {
+        final CredentialDto renamed = CredentialDto.builder().credentialId(1).username("selim.horri").build();
+        given(credentialClientService.findById("1"))
+                .willReturn(ResponseEntity.ok(CredentialDto.builder().credentialId(1).username("selim").build()));
+        given(credentialClientService.update(renamed)).willReturn(ResponseEntity.ok(renamed));
+
+        credentialController.update("1", renamed);
+
+        then(userDetailsCache).should().evict("selim");
+        then(userDetailsCache).should().evict("selim.horri");
+        then(tokenDenyList).should().revoke("selim");
+        then(tokenDenyList).should().revoke("selim.horri");
+    }
+
+    @Test
+    void update_forgetsAnUnchangedUsernameOnce() {
+        final CredentialDto credential = CredentialDto.builder().credentialId(1).username("selim").build();
+        given(credentialClientService.findById("1")).willReturn(ResponseEntity.ok(credential));
+        given(credentialClientService.update(credential)).willReturn(ResponseEntity.ok(credential));
+
+        credentialController.update(credential);
+
+        then(userDetailsCache).should(times(1)).evict("selim");
+        then(tokenDenyList).should(times(1)).revoke("selim");
+    }
+}
@@ -0,0 +1,54 @@
+package com.selimhorri.app.jwt.revocation;
+
+import com.selimhorri.app.business.user.service.CredentialClientService;
+import com.selimhorri.app.jwt.service.impl.JwtServiceImpl;
+import com.selimhorri.app.jwt.util.impl.JwtUtilImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TokenDenyListControllerTest {
+
+    private final JwtUtilImpl jwtUtil = new JwtUtilImpl("secret", 100, false);
+    private final TokenDenyList tokenDenyList = new TokenDenyList(mock(CredentialClientService.class), false);
+    private final TokenDenyListController controller = new TokenDenyListController(new JwtServiceImpl(jwtUtil), tokenDenyList);
+
+    @Test
+    void findDenyList_returnsRevocationsToHolderOfTheSharedSecret() {
+        tokenDenyList.revoke("selim");
+
+        final ResponseEntity<Map<String, Object>> response = controller.findDenyList(feedToken("secret", TokenDenyListController.FEED_SCOPE));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(((Map<?, ?>) response.getBody().get("revokedAt")).containsKey("selim"));
+    }
+
+    @Test
+    void findDenyList_rejectsMissingForeignOrUserTokens() {
+        assertEquals(HttpStatus.UNAUTHORIZED, controller.findDenyList(null).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                controller.findDenyList(feedToken("other-secret", TokenDenyListController.FEED_SCOPE)).getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED,
+                controller.findDenyList(jwtUtil.generateToken(new User("selim", "password", List.of()))).getStatusCode());
+    }
+
+    private static String feedToken(final String secret, final String scope) {
+        return Jwts.builder()
+                .claim("scope", scope)
+                .setSubject("API-GATEWAY")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(SignatureAlgorithm.HS256, secret)
+                .compact();
+    }
+}
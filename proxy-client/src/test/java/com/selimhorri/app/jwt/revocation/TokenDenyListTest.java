@@ -0,0 +1,56 @@
+package com.selimhorri.app.jwt.revocation;
+
+import com.selimhorri.app.business.user.model.response.UsernameUserServiceCollectionDtoResponse;
+import com.selimhorri.app.business.user.service.CredentialClientService;
+import com.selimhorri.app.jwt.model.ParsedToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+class TokenDenyListTest {
+
+    private final CredentialClientService credentialClientService = mock(CredentialClientService.class);
+
+    @Test
+    void revoke_deniesTokensIssuedBeforeRevocationOnly() {
+        final TokenDenyList tokenDenyList = new TokenDenyList(credentialClientService, true);
+        final ParsedToken oldToken = token("selim", System.currentTimeMillis() - 60_000);
+
+        tokenDenyList.revoke("selim");
+
+        assertTrue(tokenDenyList.isDenied(oldToken));
+        assertFalse(tokenDenyList.isDenied(token("selim", System.currentTimeMillis() + 2_000)));
+        assertFalse(tokenDenyList.isDenied(token("other", System.currentTimeMillis() - 60_000)));
+    }
+
+    @Test
+    void refresh_deniesInactiveAccountsAndKeepsListOnFailure() {
+        final TokenDenyList tokenDenyList = new TokenDenyList(credentialClientService, true);
+        given(credentialClientService.findInactiveUsernames()).willReturn(ResponseEntity.ok(
+                new UsernameUserServiceCollectionDtoResponse(List.of("locked", "disabled"))));
+
+        tokenDenyList.refresh();
+
+        assertTrue(tokenDenyList.isDenied(token("locked", System.currentTimeMillis())));
+        assertTrue(tokenDenyList.isDenied(token("disabled", System.currentTimeMillis())));
+        assertFalse(tokenDenyList.isDenied(token("active", System.currentTimeMillis())));
+
+        given(credentialClientService.findInactiveUsernames()).willThrow(new IllegalStateException("user-service down"));
+        tokenDenyList.refresh();
+
+        assertTrue(tokenDenyList.isDenied(token("locked", System.currentTimeMillis())));
+        then(credentialClientService).should(never()).findAll();
+    }
+
+    private static ParsedToken token(final String subject, final long issuedAtMillis) {
+        return new ParsedToken(subject, new Date(issuedAtMillis), new Date(issuedAtMillis + 60_000), null);
+    }
+}
@@ -0,0 +1,79 @@
+package com.selimhorri.app.jwt.util.impl;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tokens validated per second: the former three-parse path vs. parse-once vs. parse-once with the verified-token LRU.
+ * Not picked up by surefire; run {@link #main} from the IDE or
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main JwtUtilBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET_KEY = "secret";
+
+    private UserDetails userDetails;
+    private String token;
+    private JwtUtilImpl uncachedJwtUtil;
+    private JwtUtilImpl cachedJwtUtil;
+
+    @Setup
+    public void setUp() {
+        userDetails = new User("selimhorri", "password", List.of());
+        uncachedJwtUtil = new JwtUtilImpl("secret", 0, false);
+        cachedJwtUtil = new JwtUtilImpl("secret", 10_000, false);
+        token = cachedJwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean threeParsesPerRequest() {
+        // what JwtRequestFilter used to do: extractUsername, then validateToken -> extractUsername + isTokenExpired
+        final String username = parse(token).getSubject();
+        return username.equals(parse(token).getSubject())
+                && username.equals(userDetails.getUsername())
+                && !parse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean parseOnce() {
+        return uncachedJwtUtil.validateToken(uncachedJwtUtil.parseToken(token), userDetails);
+    }
+
+    @Benchmark
+    public boolean parseOnceWithVerifiedTokenCache() {
+        return cachedJwtUtil.validateToken(cachedJwtUtil.parseToken(token), userDetails);
+    }
+
+    private static Claims parse(final String token) {
+        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
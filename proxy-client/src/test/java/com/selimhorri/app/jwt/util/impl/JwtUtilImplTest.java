@@ -0,0 +1,81 @@
+package com.selimhorri.app.jwt.util.impl;
+
+import com.selimhorri.app.jwt.model.ParsedToken;
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilImplTest {
+
+    private final JwtUtilImpl jwtUtil = new JwtUtilImpl("secret", 100, false);
+    private final UserDetails selim = new User("selimhorri", "password", List.of());
+
+    @Test
+    void parseToken_exposesSubjectAndExpiration() {
+        final ParsedToken parsedToken = jwtUtil.parseToken(jwtUtil.generateToken(selim));
+
+        assertEquals("selimhorri", parsedToken.getSubject());
+        assertNotNull(parsedToken.getExpiration());
+        assertFalse(parsedToken.isExpired());
+        assertTrue(jwtUtil.validateToken(parsedToken, selim));
+    }
+
+    @Test
+    void parseToken_returnsCachedResultForRecentlyVerifiedToken() {
+        final String token = jwtUtil.generateToken(selim);
+
+        assertSame(jwtUtil.parseToken(token), jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void parseToken_rejectsTamperedSignature() {
+        final String token = jwtUtil.generateToken(selim);
+        final String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(SignatureException.class, () -> jwtUtil.parseToken(tampered));
+    }
+
+    @Test
+    void parseToken_rejectsTokenSignedWithAnotherSecret() {
+        final String token = new JwtUtilImpl("other-secret", 100, false).generateToken(selim);
+
+        assertThrows(SignatureException.class, () -> jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void validateToken_failsForOtherUser() {
+        final ParsedToken parsedToken = jwtUtil.parseToken(jwtUtil.generateToken(selim));
+
+        assertFalse(jwtUtil.validateToken(parsedToken, new User("someoneelse", "password", List.of())));
+    }
+
+    @Test
+    void extractUserDetails_isEmptyForTokenWithoutAuthorizationClaims() {
+        assertTrue(jwtUtil.extractUserDetails(jwtUtil.parseToken(jwtUtil.generateToken(selim))).isEmpty());
+    }
+
+    @Test
+    void extractUserDetails_rebuildsAuthoritiesAndStatusFromSelfContainedToken() {
+        final JwtUtilImpl selfContainedJwtUtil = new JwtUtilImpl("secret", 100, true);
+        final UserDetails lockedAdmin = User.withUsername("admin")
+                .password("password")
+                .authorities("ROLE_ADMIN")
+                .accountLocked(true)
+                .build();
+
+        final UserDetails userDetails = selfContainedJwtUtil
+                .extractUserDetails(selfContainedJwtUtil.parseToken(selfContainedJwtUtil.generateToken(lockedAdmin)))
+                .orElseThrow();
+
+        assertEquals("admin", userDetails.getUsername());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_ADMIN"), List.copyOf(userDetails.getAuthorities()));
+        assertTrue(userDetails.isEnabled());
+        assertFalse(userDetails.isAccountNonLocked());
+    }
+}
@@ -0,0 +1,118 @@
+package com.selimhorri.app.singleflight;
+
+import com.selimhorri.app.business.product.model.ProductDto;
+import com.selimhorri.app.business.product.service.ProductClientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(meterRegistry);
+    private final ProductClientService upstream = mock(ProductClientService.class);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalReads_shareOneUpstreamCall() throws Exception {
+        given(upstream.findById("1")).willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return ResponseEntity.ok(ProductDto.builder().productId(1).productTitle("asus").build());
+        });
+        final ProductClientService productClientService = wrap(upstream);
+
+        final List<Future<ResponseEntity<ProductDto>>> responses = IntStream.range(0, CALLERS)
+                .mapToObj(i -> callers.submit(() -> productClientService.findById("1")))
+                .collect(Collectors.toList());
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (final Future<ResponseEntity<ProductDto>> response : responses) {
+            assertEquals("asus", response.get(5, TimeUnit.SECONDS).getBody().getProductTitle());
+        }
+        verify(upstream, times(1)).findById("1");
+        assertEquals(1.0, count("executed"));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void failedRead_isSharedByWaitersAndNotRemembered() throws Exception {
+        given(upstream.findById("2")).willAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("product-service down");
+        }).willReturn(ResponseEntity.ok(ProductDto.builder().productId(2).build()));
+        final ProductClientService productClientService = wrap(upstream);
+
+        final List<Future<ResponseEntity<ProductDto>>> responses = IntStream.range(0, 2)
+                .mapToObj(i -> callers.submit(() -> productClientService.findById("2")))
+                .collect(Collectors.toList());
+        awaitCoalesced(1);
+        release.countDown();
+
+        for (final Future<ResponseEntity<ProductDto>> response : responses) {
+            final Exception e = assertThrows(Exception.class, () -> response.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(2, productClientService.findById("2").getBody().getProductId());
+    }
+
+    @Test
+    void writes_areNeverCoalesced() {
+        given(upstream.save(any())).willReturn(ResponseEntity.ok(ProductDto.builder().build()));
+        final ProductClientService productClientService = wrap(upstream);
+        final ProductDto productDto = ProductDto.builder().productTitle("new").build();
+
+        productClientService.save(productDto);
+        productClientService.save(productDto);
+
+        verify(upstream, times(2)).save(productDto);
+        assertTrue(meterRegistry.find(SingleFlight.METRIC_NAME).counters().isEmpty());
+    }
+
+    private ProductClientService wrap(final ProductClientService target) {
+        final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("singleFlight", singleFlight);
+        return (ProductClientService) new SingleFlightFeignClientPostProcessor(true, beanFactory.getBeanProvider(SingleFlight.class))
+                .postProcessAfterInitialization(target, "productClientService");
+    }
+
+    private double count(final String outcome) {
+        return meterRegistry.get(SingleFlight.METRIC_NAME).tag("outcome", outcome).counter().count();
+    }
+
+    private void awaitCoalesced(final int expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find(SingleFlight.METRIC_NAME).tag("outcome", "coalesced").counters().stream()
+                .mapToDouble(c -> c.count()).sum() < expected) {
+            assertTrue(System.nanoTime() < deadline, "callers were not coalesced in time");
+            Thread.sleep(10);
+        }
+    }
+}
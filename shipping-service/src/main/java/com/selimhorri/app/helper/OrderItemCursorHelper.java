@@ -0,0 +1,32 @@
+package com.selimhorri.app.helper;
+
+import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.dto.OrderItemDto;
+
+/**
+ * Keyset cursor of an order item: "orderId,productId", in the key order order items are paged by.
+ */
+public interface OrderItemCursorHelper {
+	
+	public static String toCursor(final OrderItemDto orderItemDto) {
+		return orderItemDto.getOrderId() + "," + orderItemDto.getProductId();
+	}
+	
+	public static OrderItemId fromCursor(final String cursor) {
+		final String[] keys = cursor.split(",", 2);
+		return new OrderItemId(Integer.parseInt(keys[1].strip()), Integer.parseInt(keys[0].strip()));
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
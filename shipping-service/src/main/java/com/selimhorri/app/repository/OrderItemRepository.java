@@ -1,12 +1,40 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.domain.id.OrderItemId;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, OrderItemId> {
 	
+	@Query("SELECT o FROM OrderItem o")
+	List<OrderItem> findPage(final Pageable pageable);
+	
+	@Query("SELECT o FROM OrderItem o "
+			+ "WHERE o.orderId > :orderId "
+			+ "OR (o.orderId = :orderId AND o.productId > :productId)")
+	List<OrderItem> findPageAfter(
+			@Param("orderId") final Integer orderId, 
+			@Param("productId") final Integer productId, 
+			final Pageable pageable);
+	
+	@Query("SELECT coalesce(o.updatedAt, o.createdAt) FROM OrderItem o "
+			+ "WHERE o.orderId = :orderId AND o.productId = :productId")
+	Optional<Instant> findLastModifiedById(
+			@Param("orderId") final Integer orderId, 
+			@Param("productId") final Integer productId);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CollectionVersion("
+			+ "max(coalesce(o.updatedAt, o.createdAt)), count(o)) FROM OrderItem o")
+	CollectionVersion findCollectionVersion();
 	
 	
 }
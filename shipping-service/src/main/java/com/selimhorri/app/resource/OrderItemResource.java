@@ -11,11 +11,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderItemDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.ConditionalGetHelper;
+import com.selimhorri.app.helper.OrderItemCursorHelper;
 import com.selimhorri.app.service.OrderItemService;
 
 import lombok.RequiredArgsConstructor;
@@ -30,18 +34,29 @@ public class OrderItemResource {
 	private final OrderItemService orderItemService;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<OrderItemDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<OrderItemDto>> findAll(
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit, 
+			final WebRequest webRequest) {
 		log.info("*** OrderItemDto List, controller; fetch all orderItems *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.orderItemService.findAll()));
+		return ConditionalGetHelper.collection(webRequest, this.orderItemService.findCollectionVersion(), () -> {
+			if (after == null && limit == null) {
+				return new DtoCollectionResponse<>(this.orderItemService.findAll());
+			}
+			return this.orderItemService.findAll(
+					(after == null) ? null : OrderItemCursorHelper.fromCursor(after), limit);
+		});
 	}
 	
 	@GetMapping("/{orderId}/{productId}")
 	public ResponseEntity<OrderItemDto> findById(
 			@PathVariable("orderId") final String orderId, 
-			@PathVariable("productId") final String productId) {
+			@PathVariable("productId") final String productId, 
+			final WebRequest webRequest) {
 		log.info("*** OrderItemDto, resource; fetch orderItem by id *");
-		return ResponseEntity.ok(this.orderItemService.findById(
-				new OrderItemId(Integer.parseInt(orderId), Integer.parseInt(productId))));
+		final OrderItemId orderItemId = new OrderItemId(Integer.parseInt(orderId), Integer.parseInt(productId));
+		return ConditionalGetHelper.entity(webRequest, orderId + "-" + productId, 
+				this.orderItemService.findLastModifiedById(orderItemId), () -> this.orderItemService.findById(orderItemId));
 	}
 	
 	@GetMapping("/find")
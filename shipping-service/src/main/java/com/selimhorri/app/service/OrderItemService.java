@@ -1,14 +1,21 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderItemDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface OrderItemService {
 	
 	List<OrderItemDto> findAll();
+	DtoCollectionResponse<OrderItemDto> findAll(final OrderItemId after, final Integer limit);
 	OrderItemDto findById(final OrderItemId orderItemId);
+	Optional<Instant> findLastModifiedById(final OrderItemId orderItemId);
+	CollectionVersion findCollectionVersion();
 	OrderItemDto save(final OrderItemDto orderItemDto);
 	OrderItemDto update(final OrderItemDto orderItemDto);
 	void deleteById(final OrderItemId orderItemId);
@@ -1,21 +1,34 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.selimhorri.app.constant.AppConstant;
+import com.selimhorri.app.domain.OrderItem;
 import com.selimhorri.app.domain.id.OrderItemId;
 import com.selimhorri.app.dto.OrderDto;
 import com.selimhorri.app.dto.OrderItemDto;
 import com.selimhorri.app.dto.ProductDto;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.enrichment.DtoEnricher;
+import com.selimhorri.app.enrichment.ResilientRestClient;
 import com.selimhorri.app.exception.wrapper.OrderItemNotFoundException;
+import com.selimhorri.app.helper.OrderItemCursorHelper;
 import com.selimhorri.app.helper.OrderItemMappingHelper;
 import com.selimhorri.app.repository.OrderItemRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 import com.selimhorri.app.service.OrderItemService;
 
 import lombok.RequiredArgsConstructor;
@@ -28,38 +41,53 @@ import lombok.extern.slf4j.Slf4j;
 public class OrderItemServiceImpl implements OrderItemService {
 	
 	private final OrderItemRepository orderItemRepository;
-	private final RestTemplate restTemplate;
+	private final ResilientRestClient resilientRestClient;
+	private final DtoEnricher dtoEnricher;
+	private final TransactionTemplate transactionTemplate;
+	
+	@Value("${app.pagination.max-limit:100}")
+	private int maxPageSize;
 	
 	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
 	public List<OrderItemDto> findAll() {
 		log.info("*** OrderItemDto List, service; fetch all orderItems *");
-		return this.orderItemRepository.findAll()
+		return this.enrich(this.transactionTemplate.execute(status -> this.orderItemRepository.findAll()
 				.stream()
 					.map(OrderItemMappingHelper::map)
-					.map(o -> {
-						o.setProductDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.PRODUCT_SERVICE_API_URL + "/" + o.getProductDto().getProductId(), ProductDto.class));
-						o.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-								.ORDER_SERVICE_API_URL + "/" + o.getOrderDto().getOrderId(), OrderDto.class));
-						return o;
-					})
 					.distinct()
-					.collect(Collectors.toUnmodifiableList());
+					.collect(Collectors.toUnmodifiableList())));
+	}
+	
+	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
+	public DtoCollectionResponse<OrderItemDto> findAll(final OrderItemId after, final Integer limit) {
+		log.info("*** OrderItemDto List, service; fetch page of orderItems *");
+		final int pageSize = Math.max(1, Math.min(Optional.ofNullable(limit).orElse(this.maxPageSize), this.maxPageSize));
+		final Pageable pageable = PageRequest.of(0, pageSize + 1, Sort.by("orderId", "productId"));
+		final DtoCollectionResponse<OrderItemDto> page = this.transactionTemplate.execute(status -> {
+			final List<OrderItem> orderItems = (after == null) 
+					? this.orderItemRepository.findPage(pageable) 
+					: this.orderItemRepository.findPageAfter(after.getOrderId(), after.getProductId(), pageable);
+			return DtoCollectionResponse.ofPage(orderItems
+					.stream()
+						.map(OrderItemMappingHelper::map)
+						.collect(Collectors.toUnmodifiableList()), 
+					pageSize, OrderItemCursorHelper::toCursor);
+		});
+		this.enrich(page.getCollection());
+		return page;
 	}
 	
 	@Override
+	@Transactional(Transactional.TxType.NOT_SUPPORTED)
 	public OrderItemDto findById(final OrderItemId orderItemId) {
 		log.info("*** OrderItemDto, service; fetch orderItem by id *");
-		return this.orderItemRepository.findById(null)
+		final OrderItemDto orderItemDto = this.transactionTemplate.execute(status -> this.orderItemRepository.findById(null)
 				.map(OrderItemMappingHelper::map)
-				.map(o -> {
-					o.setProductDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-							.PRODUCT_SERVICE_API_URL + "/" + o.getProductDto().getProductId(), ProductDto.class));
-					o.setOrderDto(this.restTemplate.getForObject(AppConstant.DiscoveredDomainsApi
-							.ORDER_SERVICE_API_URL + "/" + o.getOrderDto().getOrderId(), OrderDto.class));
-					return o;
-				})
-				.orElseThrow(() -> new OrderItemNotFoundException(String.format("OrderItem with id: %s not found", orderItemId)));
+				.orElseThrow(() -> new OrderItemNotFoundException(String.format("OrderItem with id: %s not found", orderItemId))));
+		this.enrich(List.of(orderItemDto));
+		return orderItemDto;
 	}
 	
 	@Override
@@ -82,6 +110,30 @@ public class OrderItemServiceImpl implements OrderItemService {
 		this.orderItemRepository.deleteById(orderItemId);
 	}
 	
+	/**
+	 * Resolves product and order of each orderItem concurrently, outside of any DB transaction,
+	 * falling back to the last known value when the remote service is unavailable.
+	 */
+	private <C extends Collection<OrderItemDto>> C enrich(final C orderItemDtos) {
+		return this.dtoEnricher.enrich(orderItemDtos, 
+				o -> this.resilientRestClient.lookup(AppConstant.DiscoveredDomainsApi
+						.PRODUCT_SERVICE_API_URL + "/" + o.getProductDto().getProductId(), ProductDto.class, o::setProductDto), 
+				o -> this.resilientRestClient.lookup(AppConstant.DiscoveredDomainsApi
+						.ORDER_SERVICE_API_URL + "/" + o.getOrderDto().getOrderId(), OrderDto.class, o::setOrderDto));
+	}
+	
+	@Override
+	public Optional<Instant> findLastModifiedById(final OrderItemId orderItemId) {
+		log.info("*** Instant, service; fetch last modification of order item by id *");
+		return this.orderItemRepository.findLastModifiedById(orderItemId.getOrderId(), orderItemId.getProductId());
+	}
+	
+	@Override
+	public CollectionVersion findCollectionVersion() {
+		log.info("*** CollectionVersion, service; fetch version of all order items *");
+		return this.orderItemRepository.findCollectionVersion();
+	}
+	
 	
 	
 }
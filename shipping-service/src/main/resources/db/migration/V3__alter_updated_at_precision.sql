@@ -0,0 +1,3 @@
+
+ALTER TABLE order_items ALTER COLUMN updated_at TIMESTAMP(6);
+
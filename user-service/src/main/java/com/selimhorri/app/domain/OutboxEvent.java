@@ -0,0 +1,73 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change notification written in the same transaction as the change itself, published later by the outbox relay.
+ */
+@Entity
+@Table(name = "outbox_events")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public final class OutboxEvent implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "event_id", unique = true, nullable = false, updatable = false)
+	private Long eventId;
+	
+	@Column(name = "aggregate_type", nullable = false, updatable = false)
+	private String aggregateType;
+	
+	@Column(name = "aggregate_id", nullable = false, updatable = false)
+	private Integer aggregateId;
+	
+	@Enumerated(EnumType.STRING)
+	@Column(name = "event_type", nullable = false, updatable = false)
+	private OutboxEventType eventType;
+	
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private Instant createdAt;
+	
+	@Column(name = "published_at")
+	private Instant publishedAt;
+	
+	public static OutboxEvent of(final String aggregateType, final Integer aggregateId, final OutboxEventType eventType) {
+		return OutboxEvent.builder()
+				.aggregateType(aggregateType)
+				.aggregateId(aggregateId)
+				.eventType(eventType)
+				.createdAt(Instant.now())
+				.build();
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,19 @@
+package com.selimhorri.app.domain;
+
+public enum OutboxEventType {
+	
+	CREATED,
+	UPDATED,
+	DELETED;
+	
+}
+
+
+
+
+
+
+
+
+
+
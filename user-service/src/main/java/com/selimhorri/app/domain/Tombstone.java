@@ -0,0 +1,63 @@
+package com.selimhorri.app.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Marker left behind by a delete, so change feeds can report rows that no longer exist.
+ */
+@Entity
+@Table(name = "tombstones")
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public final class Tombstone implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "tombstone_id", unique = true, nullable = false, updatable = false)
+	private Integer tombstoneId;
+	
+	@Column(name = "entity_type", nullable = false, updatable = false)
+	private String entityType;
+	
+	@Column(name = "entity_id", nullable = false, updatable = false)
+	private Integer entityId;
+	
+	@Column(name = "deleted_at", nullable = false, updatable = false)
+	private Instant deletedAt;
+	
+	public static Tombstone of(final String entityType, final Integer entityId) {
+		return Tombstone.builder()
+				.entityType(entityType)
+				.entityId(entityId)
+				.deletedAt(Instant.now())
+				.build();
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,50 @@
+package com.selimhorri.app.dto.response.change;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonFormat.Shape;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class ChangeDto<T> implements Serializable {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private ChangeType type;
+	private Integer id;
+	
+	@JsonFormat(shape = Shape.STRING)
+	private Instant changedAt;
+	
+	/**
+	 * Current state of the row, absent on deletes.
+	 */
+	@JsonInclude(Include.NON_NULL)
+	private T entity;
+	
+	public enum ChangeType {
+		UPSERT, DELETE
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
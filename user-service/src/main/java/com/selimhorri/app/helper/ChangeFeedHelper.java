@@ -0,0 +1,80 @@
+package com.selimhorri.app.helper;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.selimhorri.app.domain.Tombstone;
+import com.selimhorri.app.dto.response.change.ChangeDto;
+import com.selimhorri.app.dto.response.change.ChangeDto.ChangeType;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
+
+import lombok.Value;
+
+/**
+ * Change feeds list upserts and tombstones ordered by (changedAt, id).
+ * A resume token "changedAt,id" continues strictly after that change, a bare "since" includes changes made at that instant.
+ */
+public interface ChangeFeedHelper {
+	
+	public static Cursor cursorOf(final Instant since, final String after) {
+		if (after == null) {
+			return new Cursor(Optional.ofNullable(since).orElse(Instant.EPOCH), 0);
+		}
+		final String[] keys = after.split(",", 2);
+		try {
+			return new Cursor(Instant.parse(keys[0].strip()), Integer.parseInt(keys[1].strip()));
+		}
+		catch (DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+			throw new NumberFormatException(String.format("Malformed resume token: %s", after));
+		}
+	}
+	
+	public static String toToken(final Instant changedAt, final Integer id) {
+		return changedAt + "," + id;
+	}
+	
+	public static <T> ChangeDto<T> upserted(final Integer id, final Instant changedAt, final T entity) {
+		return new ChangeDto<>(ChangeType.UPSERT, id, changedAt, entity);
+	}
+	
+	public static <T> ChangeDto<T> deleted(final Tombstone tombstone) {
+		return new ChangeDto<>(ChangeType.DELETE, tombstone.getEntityId(), tombstone.getDeletedAt(), null);
+	}
+	
+	/**
+	 * Merges both streams, each fetched with limit + 1 rows after the same cursor, into one page.
+	 */
+	public static <T> ChangeFeedResponse<T> merge(final List<ChangeDto<T>> upserts, final List<ChangeDto<T>> deletes, 
+			final int limit, final Cursor cursor) {
+		final List<ChangeDto<T>> changes = Stream.concat(upserts.stream(), deletes.stream())
+				.sorted(Comparator.comparing((ChangeDto<T> change) -> change.getChangedAt())
+						.thenComparing(ChangeDto::getId))
+				.limit(limit)
+				.collect(Collectors.toUnmodifiableList());
+		final String resumeToken = (changes.isEmpty()) ? toToken(cursor.getSince(), cursor.getAfterId()) 
+				: toToken(changes.get(changes.size() - 1).getChangedAt(), changes.get(changes.size() - 1).getId());
+		return new ChangeFeedResponse<>(changes, resumeToken, upserts.size() + deletes.size() > limit);
+	}
+	
+	@Value
+	class Cursor {
+		Instant since;
+		Integer afterId;
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
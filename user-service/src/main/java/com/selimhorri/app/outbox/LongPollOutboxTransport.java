@@ -0,0 +1,131 @@
+package com.selimhorri.app.outbox;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.selimhorri.app.dto.OutboxEventDto;
+import com.selimhorri.app.dto.response.outbox.OutboxFeedResponse;
+import com.selimhorri.app.helper.OutboxEventMappingHelper;
+import com.selimhorri.app.repository.OutboxEventRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * HTTP long-poll transport behind GET /api/outbox/events: a consumer passes the last event id it has seen
+ * and is answered as soon as newer events are published, or with an empty page once the wait runs out.
+ *
+ * Published events are read back from the outbox table, so every instance serves the same feed.
+ * Waiters are woken when the relay of this instance commits, and on app.outbox.long-poll.check-interval
+ * for events relayed by other instances.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.outbox", name = "transport", havingValue = "long-poll", matchIfMissing = true)
+public class LongPollOutboxTransport implements OutboxTransport {
+	
+	private final OutboxEventRepository outboxEventRepository;
+	private final int maxLimit;
+	private final Duration maxWait;
+	private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+	
+	public LongPollOutboxTransport(
+			final OutboxEventRepository outboxEventRepository,
+			@Value("${app.outbox.long-poll.max-limit:500}") final int maxLimit,
+			@Value("${app.outbox.long-poll.max-wait:30000}") final long maxWaitMillis) {
+		this.outboxEventRepository = outboxEventRepository;
+		this.maxLimit = maxLimit;
+		this.maxWait = Duration.ofMillis(maxWaitMillis);
+	}
+	
+	@Override
+	public void publish(final List<OutboxEventDto> events) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			this.wakeUp();
+			return;
+		}
+		// the events only become readable once the relay transaction commits
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				wakeUp();
+			}
+		});
+	}
+	
+	/**
+	 * Without "after" the consumer is answered right away with the current position, to start from.
+	 */
+	public DeferredResult<OutboxFeedResponse> poll(final Long after, final Integer limit, final Long waitMillis) {
+		final DeferredResult<OutboxFeedResponse> result = new DeferredResult<>();
+		if (after == null) {
+			result.setResult(new OutboxFeedResponse(List.of(), this.outboxEventRepository.findLastPublishedId().orElse(0L)));
+			return result;
+		}
+		final Duration wait = Duration.ofMillis(Math.max(0, Math.min(Optional.ofNullable(waitMillis).orElse(this.maxWait.toMillis()), this.maxWait.toMillis())));
+		final Waiter waiter = new Waiter(after, Math.max(1, Math.min(Optional.ofNullable(limit).orElse(this.maxLimit), this.maxLimit)), 
+				new DeferredResult<>(wait.toMillis(), new OutboxFeedResponse(List.of(), after)));
+		waiter.result.onCompletion(() -> this.waiters.remove(waiter));
+		// registered before the first read, a publish in between wakes it up again
+		this.waiters.add(waiter);
+		this.answer(waiter);
+		return waiter.result;
+	}
+	
+	@Scheduled(
+			initialDelayString = "${app.outbox.long-poll.check-interval:1000}", 
+			fixedDelayString = "${app.outbox.long-poll.check-interval:1000}")
+	public void wakeUp() {
+		if (this.waiters.isEmpty()) {
+			return;
+		}
+		final long lastPublishedId = this.outboxEventRepository.findLastPublishedId().orElse(0L);
+		this.waiters.stream()
+				.filter(waiter -> waiter.afterId < lastPublishedId)
+				.forEach(this::answer);
+	}
+	
+	public int getWaiterCount() {
+		return this.waiters.size();
+	}
+	
+	private void answer(final Waiter waiter) {
+		final List<OutboxEventDto> events = this.outboxEventRepository
+				.findPublishedAfter(waiter.afterId, PageRequest.of(0, waiter.limit))
+				.stream()
+					.map(OutboxEventMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList());
+		if (!events.isEmpty()) {
+			waiter.result.setResult(new OutboxFeedResponse(events, events.get(events.size() - 1).getEventId()));
+		}
+	}
+	
+	@RequiredArgsConstructor
+	private static final class Waiter {
+		private final long afterId;
+		private final int limit;
+		private final DeferredResult<OutboxFeedResponse> result;
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -0,0 +1,25 @@
+package com.selimhorri.app.outbox;
+
+import java.util.List;
+
+import com.selimhorri.app.dto.OutboxEventDto;
+
+/**
+ * Hands relayed outbox events to consumers, selected with app.outbox.transport.
+ * Called inside the relay transaction that marks the events published, throwing rolls the batch back for a retry.
+ */
+public interface OutboxTransport {
+	
+	void publish(final List<OutboxEventDto> events);
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,11 +1,28 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Address;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface AddressRepository extends JpaRepository<Address, Integer> {
 	
+	@Query("SELECT a FROM Address a WHERE a.user.userId = :userId")
+	List<Address> findAllByUserId(@Param("userId") final Integer userId);
+	
+	@Query("SELECT coalesce(a.updatedAt, a.createdAt) FROM Address a WHERE a.addressId = :addressId")
+	Optional<Instant> findLastModifiedById(@Param("addressId") final Integer addressId);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CollectionVersion("
+			+ "max(coalesce(a.updatedAt, a.createdAt)), count(a)) FROM Address a")
+	CollectionVersion findCollectionVersion();
+	
 	
 	
 }
@@ -1,13 +1,37 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.Credential;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface CredentialRepository extends JpaRepository<Credential, Integer> {
 	
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
 	Optional<Credential> findByUsername(final String username);
 	
+	@Query("SELECT coalesce(c.updatedAt, c.createdAt) FROM Credential c WHERE c.credentialId = :credentialId")
+	Optional<Instant> findLastModifiedById(@Param("credentialId") final Integer credentialId);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CollectionVersion("
+			+ "max(coalesce(c.updatedAt, c.createdAt)), count(c)) FROM Credential c")
+	CollectionVersion findCollectionVersion();
+	
+	/**
+	 * Usernames of the disabled, expired or locked accounts, an unset flag counts as inactive.
+	 */
+	@Query("SELECT c.username FROM Credential c WHERE c.username IS NOT NULL AND ("
+			+ "coalesce(c.isEnabled, false) = false OR coalesce(c.isAccountNonExpired, false) = false "
+			+ "OR coalesce(c.isAccountNonLocked, false) = false OR coalesce(c.isCredentialsNonExpired, false) = false)")
+	List<String> findInactiveUsernames();
+	
 }
@@ -0,0 +1,45 @@
+package com.selimhorri.app.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.selimhorri.app.domain.OutboxEvent;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+	
+	@Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.createdAt < :until ORDER BY e.eventId")
+	List<OutboxEvent> findUnpublished(@Param("until") final Instant until, final Pageable pageable);
+	
+	@Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NOT NULL AND e.eventId > :afterId ORDER BY e.eventId")
+	List<OutboxEvent> findPublishedAfter(@Param("afterId") final Long afterId, final Pageable pageable);
+	
+	@Query("SELECT max(e.eventId) FROM OutboxEvent e WHERE e.publishedAt IS NOT NULL")
+	Optional<Long> findLastPublishedId();
+	
+	@Modifying
+	@Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.eventId IN :eventIds AND e.publishedAt IS NULL")
+	int markPublished(@Param("eventIds") final Collection<Long> eventIds, @Param("publishedAt") final Instant publishedAt);
+	
+	@Modifying
+	@Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+	int deletePublishedBefore(@Param("before") final Instant before);
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,13 +1,53 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.User;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
+/**
+ * User.credential is the inverse side of a one-to-one, so Hibernate cannot proxy it
+ * and would issue one extra SELECT per user; every read used by the service fetches it in the same join.
+ */
 public interface UserRepository extends JpaRepository<User, Integer> {
 	
+	@Override
+	@EntityGraph(attributePaths = "credential")
+	List<User> findAll();
+	
+	@Override
+	@EntityGraph(attributePaths = "credential")
+	List<User> findAllById(final Iterable<Integer> userIds);
+	
+	@Override
+	@EntityGraph(attributePaths = "credential")
+	Optional<User> findById(final Integer userId);
+	
+	@EntityGraph(attributePaths = "credential")
+	List<User> findByUserIdGreaterThan(final Integer userId, final Pageable pageable);
+	
+	@EntityGraph(attributePaths = "credential")
 	Optional<User> findByCredentialUsername(final String username);
 	
+	@Query("SELECT coalesce(u.updatedAt, u.createdAt) FROM User u WHERE u.userId = :userId")
+	Optional<Instant> findLastModifiedById(@Param("userId") final Integer userId);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CollectionVersion("
+			+ "max(coalesce(u.updatedAt, u.createdAt)), count(u)) FROM User u")
+	CollectionVersion findCollectionVersion();
+	
+	@Query("SELECT u FROM User u LEFT JOIN FETCH u.credential WHERE u.updatedAt < :until "
+			+ "AND (u.updatedAt > :since OR (u.updatedAt = :since AND u.userId > :afterId)) "
+			+ "ORDER BY u.updatedAt, u.userId")
+	List<User> findChangedSince(@Param("since") final Instant since, @Param("afterId") final Integer afterId, 
+			@Param("until") final Instant until, final Pageable pageable);
+	
 }
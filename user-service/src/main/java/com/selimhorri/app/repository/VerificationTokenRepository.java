@@ -1,11 +1,24 @@
 package com.selimhorri.app.repository;
 
+import java.time.Instant;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.selimhorri.app.domain.VerificationToken;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface VerificationTokenRepository extends JpaRepository<VerificationToken, Integer> {
 	
+	@Query("SELECT coalesce(v.updatedAt, v.createdAt) FROM VerificationToken v WHERE v.verificationTokenId = :verificationTokenId")
+	Optional<Instant> findLastModifiedById(@Param("verificationTokenId") final Integer verificationTokenId);
+	
+	@Query("SELECT new com.selimhorri.app.repository.projection.CollectionVersion("
+			+ "max(coalesce(v.updatedAt, v.createdAt)), count(v)) FROM VerificationToken v")
+	CollectionVersion findCollectionVersion();
+	
 	
 	
 }
@@ -0,0 +1,33 @@
+package com.selimhorri.app.repository.projection;
+
+import java.time.Instant;
+
+import lombok.Getter;
+
+/**
+ * Latest modification and row count of a table, changes whenever a row is inserted, updated or deleted.
+ */
+@Getter
+public final class CollectionVersion {
+	
+	private final Instant lastModified;
+	private final long count;
+	
+	public CollectionVersion(final Instant lastModified, final Long count) {
+		this.lastModified = lastModified;
+		this.count = count != null ? count : 0;
+	}
+	
+	
+	
+}
+
+
+
+
+
+
+
+
+
+
@@ -1,5 +1,7 @@
 package com.selimhorri.app.resource;
 
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -12,10 +14,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.selimhorri.app.dto.AddressDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.ConditionalGetHelper;
 import com.selimhorri.app.service.AddressService;
 
 import lombok.RequiredArgsConstructor;
@@ -30,18 +35,30 @@ public class AddressResource {
 	private final AddressService addressService;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<AddressDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<AddressDto>> findAll(final WebRequest webRequest) {
 		log.info("*** AddressDto List, controller; fetch all addresss *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.addressService.findAll()));
+		return ConditionalGetHelper.collection(webRequest, this.addressService.findCollectionVersion(), 
+				() -> new DtoCollectionResponse<>(this.addressService.findAll()));
+	}
+	
+	@GetMapping(params = "userId")
+	public ResponseEntity<DtoCollectionResponse<AddressDto>> findAllByUserId(
+			@RequestParam("userId") 
+			@NotNull(message = "Input must not NULL") final Integer userId) {
+		log.info("*** AddressDto List, controller; fetch addresses by user id *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.addressService.findAllByUserId(userId)));
 	}
 	
 	@GetMapping("/{addressId}")
 	public ResponseEntity<AddressDto> findById(
 			@PathVariable("addressId") 
 			@NotBlank(message = "Input must not blank") 
-			@Valid final String addressId) {
+			@Valid final String addressId, 
+			final WebRequest webRequest) {
 		log.info("*** AddressDto, resource; fetch address by id *");
-		return ResponseEntity.ok(this.addressService.findById(Integer.parseInt(addressId.strip())));
+		final Integer id = Integer.parseInt(addressId.strip());
+		return ConditionalGetHelper.entity(webRequest, id, this.addressService.findLastModifiedById(id), 
+				() -> this.addressService.findById(id));
 	}
 	
 	@PostMapping
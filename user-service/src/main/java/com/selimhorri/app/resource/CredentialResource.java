@@ -13,9 +13,11 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.selimhorri.app.dto.CredentialDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.ConditionalGetHelper;
 import com.selimhorri.app.service.CredentialService;
 
 import lombok.RequiredArgsConstructor;
@@ -30,18 +32,31 @@ public class CredentialResource {
 	private final CredentialService credentialService;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<CredentialDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<CredentialDto>> findAll(final WebRequest webRequest) {
 		log.info("*** CredentialDto List, controller; fetch all credentials *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.credentialService.findAll()));
+		return ConditionalGetHelper.collection(webRequest, this.credentialService.findCollectionVersion(), 
+				() -> new DtoCollectionResponse<>(this.credentialService.findAll()));
+	}
+	
+	/**
+	 * Only the usernames of disabled, expired or locked accounts, for the token deny list of proxy-client.
+	 */
+	@GetMapping("/inactive-usernames")
+	public ResponseEntity<DtoCollectionResponse<String>> findInactiveUsernames() {
+		log.info("*** String List, controller; fetch usernames of inactive credentials *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.credentialService.findInactiveUsernames()));
 	}
 	
 	@GetMapping("/{credentialId}")
 	public ResponseEntity<CredentialDto> findById(
 			@PathVariable("credentialId") 
 			@NotBlank(message = "Input must not blank") 
-			@Valid final String credentialId) {
+			@Valid final String credentialId, 
+			final WebRequest webRequest) {
 		log.info("*** CredentialDto, resource; fetch credential by id *");
-		return ResponseEntity.ok(this.credentialService.findById(Integer.parseInt(credentialId.strip())));
+		final Integer id = Integer.parseInt(credentialId.strip());
+		return ConditionalGetHelper.entity(webRequest, id, this.credentialService.findLastModifiedById(id), 
+				() -> this.credentialService.findById(id));
 	}
 	
 	@PostMapping
@@ -0,0 +1,44 @@
+package com.selimhorri.app.resource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.selimhorri.app.dto.response.outbox.OutboxFeedResponse;
+import com.selimhorri.app.outbox.LongPollOutboxTransport;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/outbox")
+@ConditionalOnProperty(prefix = "app.outbox", name = "transport", havingValue = "long-poll", matchIfMissing = true)
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxResource {
+	
+	private final LongPollOutboxTransport longPollOutboxTransport;
+	
+	@GetMapping("/events")
+	public DeferredResult<OutboxFeedResponse> poll(
+			@RequestParam(value = "after", required = false) final Long after, 
+			@RequestParam(value = "limit", required = false) final Integer limit, 
+			@RequestParam(value = "wait", required = false) final Long waitMillis) {
+		log.info("*** OutboxEventDto List, resource; long-poll outbox events *");
+		return this.longPollOutboxTransport.poll(after, limit, waitMillis);
+	}
+	
+}
+
+
+
+
+
+
+
+
+
+
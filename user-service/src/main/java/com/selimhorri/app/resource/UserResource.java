@@ -1,7 +1,11 @@
 package com.selimhorri.app.resource;
 
+import java.time.Instant;
+import java.util.List;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 
 import org.springframework.http.ResponseEntity;
@@ -12,10 +16,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.ConditionalGetHelper;
 import com.selimhorri.app.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -30,18 +38,46 @@ public class UserResource {
 	private final UserService userService;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<UserDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<UserDto>> findAll(
+			@RequestParam(value = "after", required = false) final Integer after, 
+			@RequestParam(value = "limit", required = false) final Integer limit, 
+			final WebRequest webRequest) {
 		log.info("*** UserDto List, controller; fetch all users *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.userService.findAll()));
+		return ConditionalGetHelper.collection(webRequest, this.userService.findCollectionVersion(), () -> {
+			if (after == null && limit == null) {
+				return new DtoCollectionResponse<>(this.userService.findAll());
+			}
+			return this.userService.findAll(after, limit);
+		});
+	}
+	
+	@GetMapping(params = "ids")
+	public ResponseEntity<DtoCollectionResponse<UserDto>> findAllByIds(
+			@RequestParam("ids") 
+			@NotEmpty(message = "Input must not be empty") final List<Integer> userIds) {
+		log.info("*** UserDto List, controller; fetch users by ids *");
+		return ResponseEntity.ok(new DtoCollectionResponse<>(this.userService.findAllByIds(userIds)));
+	}
+	
+	@GetMapping("/changes")
+	public ResponseEntity<ChangeFeedResponse<UserDto>> findChanges(
+			@RequestParam(value = "since", required = false) final Instant since, 
+			@RequestParam(value = "after", required = false) final String after, 
+			@RequestParam(value = "limit", required = false) final Integer limit) {
+		log.info("*** UserDto Changes, resource; fetch users changed since *");
+		return ResponseEntity.ok(this.userService.findChanges(since, after, limit));
 	}
 	
 	@GetMapping("/{userId}")
 	public ResponseEntity<UserDto> findById(
 			@PathVariable("userId") 
 			@NotBlank(message = "Input must not blank") 
-			@Valid final String userId) {
+			@Valid final String userId, 
+			final WebRequest webRequest) {
 		log.info("*** UserDto, resource; fetch user by id *");
-		return ResponseEntity.ok(this.userService.findById(Integer.parseInt(userId.strip())));
+		final Integer id = Integer.parseInt(userId.strip());
+		return ConditionalGetHelper.entity(webRequest, id, this.userService.findLastModifiedById(id), 
+				() -> this.userService.findById(id));
 	}
 	
 	@PostMapping
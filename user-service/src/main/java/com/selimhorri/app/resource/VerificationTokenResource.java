@@ -13,9 +13,11 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.selimhorri.app.dto.VerificationTokenDto;
 import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.helper.ConditionalGetHelper;
 import com.selimhorri.app.service.VerificationTokenService;
 
 import lombok.RequiredArgsConstructor;
@@ -30,18 +32,22 @@ public class VerificationTokenResource {
 	private final VerificationTokenService verificationTokenService;
 	
 	@GetMapping
-	public ResponseEntity<DtoCollectionResponse<VerificationTokenDto>> findAll() {
+	public ResponseEntity<DtoCollectionResponse<VerificationTokenDto>> findAll(final WebRequest webRequest) {
 		log.info("*** VerificationTokenDto List, controller; fetch all verificationTokens *");
-		return ResponseEntity.ok(new DtoCollectionResponse<>(this.verificationTokenService.findAll()));
+		return ConditionalGetHelper.collection(webRequest, this.verificationTokenService.findCollectionVersion(), 
+				() -> new DtoCollectionResponse<>(this.verificationTokenService.findAll()));
 	}
 	
 	@GetMapping("/{verificationTokenId}")
 	public ResponseEntity<VerificationTokenDto> findById(
 			@PathVariable("verificationTokenId") 
 			@NotBlank(message = "Input must not blank") 
-			@Valid final String verificationTokenId) {
+			@Valid final String verificationTokenId, 
+			final WebRequest webRequest) {
 		log.info("*** VerificationTokenDto, resource; fetch verificationToken by id *");
-		return ResponseEntity.ok(this.verificationTokenService.findById(Integer.parseInt(verificationTokenId.strip())));
+		final Integer id = Integer.parseInt(verificationTokenId.strip());
+		return ConditionalGetHelper.entity(webRequest, id, this.verificationTokenService.findLastModifiedById(id), 
+				() -> this.verificationTokenService.findById(id));
 	}
 	
 	@PostMapping
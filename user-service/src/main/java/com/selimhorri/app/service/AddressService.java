@@ -1,13 +1,19 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import com.selimhorri.app.dto.AddressDto;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface AddressService {
 	
 	List<AddressDto> findAll();
+	List<AddressDto> findAllByUserId(final Integer userId);
 	AddressDto findById(final Integer addressId);
+	Optional<Instant> findLastModifiedById(final Integer addressId);
+	CollectionVersion findCollectionVersion();
 	AddressDto save(final AddressDto addressDto);
 	AddressDto update(final AddressDto addressDto);
 	AddressDto update(final Integer addressId, final AddressDto addressDto);
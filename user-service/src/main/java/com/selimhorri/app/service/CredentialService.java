@@ -1,18 +1,24 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import com.selimhorri.app.dto.CredentialDto;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface CredentialService {
 	
 	List<CredentialDto> findAll();
 	CredentialDto findById(final Integer credentialId);
+	Optional<Instant> findLastModifiedById(final Integer credentialId);
+	CollectionVersion findCollectionVersion();
 	CredentialDto save(final CredentialDto credentialDto);
 	CredentialDto update(final CredentialDto credentialDto);
 	CredentialDto update(final Integer credentialId, final CredentialDto credentialDto);
 	void deleteById(final Integer credentialId);
 	CredentialDto findByUsername(final String username);
+	List<String> findInactiveUsernames();
 	
 }
 
@@ -1,13 +1,24 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface UserService {
 	
 	List<UserDto> findAll();
+	DtoCollectionResponse<UserDto> findAll(final Integer after, final Integer limit);
+	List<UserDto> findAllByIds(final Collection<Integer> userIds);
 	UserDto findById(final Integer userId);
+	Optional<Instant> findLastModifiedById(final Integer userId);
+	CollectionVersion findCollectionVersion();
+	ChangeFeedResponse<UserDto> findChanges(final Instant since, final String after, final Integer limit);
 	UserDto save(final UserDto userDto);
 	UserDto update(final UserDto userDto);
 	UserDto update(final Integer userId, final UserDto userDto);
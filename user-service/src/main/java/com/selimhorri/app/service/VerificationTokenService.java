@@ -1,13 +1,18 @@
 package com.selimhorri.app.service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import com.selimhorri.app.dto.VerificationTokenDto;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 
 public interface VerificationTokenService {
 	
 	List<VerificationTokenDto> findAll();
 	VerificationTokenDto findById(final Integer verificationTokenId);
+	Optional<Instant> findLastModifiedById(final Integer verificationTokenId);
+	CollectionVersion findCollectionVersion();
 	VerificationTokenDto save(final VerificationTokenDto verificationTokenDto);
 	VerificationTokenDto update(final VerificationTokenDto verificationTokenDto);
 	VerificationTokenDto update(final Integer verificationTokenId, final VerificationTokenDto verificationTokenDto);
@@ -1,6 +1,8 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
@@ -11,6 +13,7 @@ import com.selimhorri.app.dto.AddressDto;
 import com.selimhorri.app.exception.wrapper.AddressNotFoundException;
 import com.selimhorri.app.helper.AddressMappingHelper;
 import com.selimhorri.app.repository.AddressRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 import com.selimhorri.app.service.AddressService;
 
 import lombok.RequiredArgsConstructor;
@@ -34,6 +37,15 @@ public class AddressServiceImpl implements AddressService {
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
+	@Override
+	public List<AddressDto> findAllByUserId(final Integer userId) {
+		log.info("*** AddressDto List, service; fetch addresses by user id *");
+		return this.addressRepository.findAllByUserId(userId)
+				.stream()
+					.map(AddressMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList());
+	}
+	
 	@Override
 	public AddressDto findById(final Integer addressId) {
 		log.info("*** AddressDto, service; fetch address by id *");
@@ -67,6 +79,18 @@ public class AddressServiceImpl implements AddressService {
 		this.addressRepository.deleteById(addressId);
 	}
 	
+	@Override
+	public Optional<Instant> findLastModifiedById(final Integer addressId) {
+		log.info("*** Instant, service; fetch last modification of address by id *");
+		return this.addressRepository.findLastModifiedById(addressId);
+	}
+	
+	@Override
+	public CollectionVersion findCollectionVersion() {
+		log.info("*** CollectionVersion, service; fetch version of all addresses *");
+		return this.addressRepository.findCollectionVersion();
+	}
+	
 	
 	
 }
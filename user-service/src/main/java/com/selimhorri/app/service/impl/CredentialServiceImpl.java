@@ -1,6 +1,8 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
@@ -12,6 +14,7 @@ import com.selimhorri.app.exception.wrapper.CredentialNotFoundException;
 import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
 import com.selimhorri.app.helper.CredentialMappingHelper;
 import com.selimhorri.app.repository.CredentialRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 import com.selimhorri.app.service.CredentialService;
 
 import lombok.RequiredArgsConstructor;
@@ -74,6 +77,24 @@ public class CredentialServiceImpl implements CredentialService {
 				.orElseThrow(() -> new UserObjectNotFoundException(String.format("#### Credential with username: %s not found! ####", username))));
 	}
 	
+	@Override
+	public List<String> findInactiveUsernames() {
+		log.info("*** String List, service; fetch usernames of inactive credentials *");
+		return List.copyOf(this.credentialRepository.findInactiveUsernames());
+	}
+	
+	@Override
+	public Optional<Instant> findLastModifiedById(final Integer credentialId) {
+		log.info("*** Instant, service; fetch last modification of credential by id *");
+		return this.credentialRepository.findLastModifiedById(credentialId);
+	}
+	
+	@Override
+	public CollectionVersion findCollectionVersion() {
+		log.info("*** CollectionVersion, service; fetch version of all credentials *");
+		return this.credentialRepository.findCollectionVersion();
+	}
+	
 	
 	
 }
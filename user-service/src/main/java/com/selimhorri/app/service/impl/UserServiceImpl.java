@@ -1,17 +1,35 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.selimhorri.app.config.RefreshableProperties;
+import com.selimhorri.app.domain.OutboxEvent;
+import com.selimhorri.app.domain.OutboxEventType;
+import com.selimhorri.app.domain.Tombstone;
 import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.dto.response.change.ChangeFeedResponse;
+import com.selimhorri.app.dto.response.collection.DtoCollectionResponse;
 import com.selimhorri.app.exception.wrapper.UserObjectNotFoundException;
+import com.selimhorri.app.helper.ChangeFeedHelper;
 import com.selimhorri.app.helper.UserMappingHelper;
 import com.selimhorri.app.metrics.BusinessMetricsService;
+import com.selimhorri.app.repository.OutboxEventRepository;
+import com.selimhorri.app.repository.TombstoneRepository;
 import com.selimhorri.app.repository.UserRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 import com.selimhorri.app.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -23,9 +41,20 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 	
+	private static final String ENTITY_TYPE = "users";
+	
 	private final UserRepository userRepository;
+	private final TombstoneRepository tombstoneRepository;
+	private final OutboxEventRepository outboxEventRepository;
+	private final RefreshableProperties refreshableProperties;
 	private final BusinessMetricsService businessMetricsService;
 	
+	@Value("${app.changes.max-limit:500}")
+	private int maxChangesPerQuery;
+	
+	@Value("${app.changes.settle-delay:2s}")
+	private Duration changesSettleDelay;
+	
 	@Override
 	public List<UserDto> findAll() {
 		log.info("*** UserDto List, service; fetch all users *");
@@ -36,6 +65,29 @@ public class UserServiceImpl implements UserService {
 					.collect(Collectors.toUnmodifiableList());
 	}
 	
+	@Override
+	public DtoCollectionResponse<UserDto> findAll(final Integer after, final Integer limit) {
+		log.info("*** UserDto List, service; fetch page of users *");
+		final int pageSize = Math.max(1, Math.min(Optional.ofNullable(limit).orElse(this.refreshableProperties.getMaxUsersPerQuery()), this.refreshableProperties.getMaxUsersPerQuery()));
+		return DtoCollectionResponse.ofPage(this.userRepository
+				.findByUserIdGreaterThan(Optional.ofNullable(after).orElse(0), 
+						PageRequest.of(0, pageSize + 1, Sort.by("userId")))
+				.stream()
+					.map(UserMappingHelper::map)
+					.collect(Collectors.toUnmodifiableList()), 
+				pageSize, u -> String.valueOf(u.getUserId()));
+	}
+	
+	@Override
+	public List<UserDto> findAllByIds(final Collection<Integer> userIds) {
+		log.info("*** UserDto List, service; fetch users by ids *");
+		return this.userRepository.findAllById(Set.copyOf(userIds))
+				.stream()
+					.map(UserMappingHelper::map)
+					.distinct()
+					.collect(Collectors.toUnmodifiableList());
+	}
+	
 	@Override
 	public UserDto findById(final Integer userId) {
 		log.info("*** UserDto, service; fetch user by id *");
@@ -48,6 +100,7 @@ public class UserServiceImpl implements UserService {
 	public UserDto save(final UserDto userDto) {
 		log.info("*** UserDto, service; save user *");
 		UserDto savedUser = UserMappingHelper.map(this.userRepository.save(UserMappingHelper.map(userDto)));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, savedUser.getUserId(), OutboxEventType.CREATED));
 		// Registrar métrica de negocio: usuario registrado
 		businessMetricsService.recordUserRegistered();
 		// Actualizar gauge de usuarios activos
@@ -59,6 +112,7 @@ public class UserServiceImpl implements UserService {
 	public UserDto update(final UserDto userDto) {
 		log.info("*** UserDto, service; update user *");
 		UserDto updatedUser = UserMappingHelper.map(this.userRepository.save(UserMappingHelper.map(userDto)));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, updatedUser.getUserId(), OutboxEventType.UPDATED));
 		// Registrar métrica de negocio: usuario actualizado
 		businessMetricsService.recordUserUpdated();
 		return updatedUser;
@@ -69,6 +123,7 @@ public class UserServiceImpl implements UserService {
 		log.info("*** UserDto, service; update user with userId *");
 		UserDto updatedUser = UserMappingHelper.map(this.userRepository.save(
 				UserMappingHelper.map(this.findById(userId))));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, userId, OutboxEventType.UPDATED));
 		// Registrar métrica de negocio: usuario actualizado
 		businessMetricsService.recordUserUpdated();
 		return updatedUser;
@@ -78,6 +133,8 @@ public class UserServiceImpl implements UserService {
 	public void deleteById(final Integer userId) {
 		log.info("*** Void, service; delete user by id *");
 		this.userRepository.deleteById(userId);
+		this.tombstoneRepository.save(Tombstone.of(ENTITY_TYPE, userId));
+		this.outboxEventRepository.save(OutboxEvent.of(ENTITY_TYPE, userId, OutboxEventType.DELETED));
 		// Registrar métrica de negocio: usuario eliminado
 		businessMetricsService.recordUserDeleted();
 		// Actualizar gauge de usuarios activos
@@ -91,6 +148,37 @@ public class UserServiceImpl implements UserService {
 				.orElseThrow(() -> new UserObjectNotFoundException(String.format("User with username: %s not found", username))));
 	}
 	
+	@Override
+	public Optional<Instant> findLastModifiedById(final Integer userId) {
+		log.info("*** Instant, service; fetch last modification of user by id *");
+		return this.userRepository.findLastModifiedById(userId);
+	}
+	
+	@Override
+	public CollectionVersion findCollectionVersion() {
+		log.info("*** CollectionVersion, service; fetch version of all users *");
+		return this.userRepository.findCollectionVersion();
+	}
+	
+	@Override
+	public ChangeFeedResponse<UserDto> findChanges(final Instant since, final String after, final Integer limit) {
+		log.info("*** UserDto Changes, service; fetch users changed since *");
+		final int pageSize = Math.max(1, Math.min(Optional.ofNullable(limit).orElse(this.maxChangesPerQuery), this.maxChangesPerQuery));
+		final ChangeFeedHelper.Cursor cursor = ChangeFeedHelper.cursorOf(since, after);
+		// rows younger than the settle delay may still be joined by commits carrying an earlier updated_at
+		final Instant until = Instant.now().minus(this.changesSettleDelay);
+		return ChangeFeedHelper.merge(
+				this.userRepository.findChangedSince(cursor.getSince(), cursor.getAfterId(), until, PageRequest.of(0, pageSize + 1))
+					.stream()
+						.map(user -> ChangeFeedHelper.upserted(user.getUserId(), user.getUpdatedAt(), UserMappingHelper.map(user)))
+						.collect(Collectors.toUnmodifiableList()), 
+				this.tombstoneRepository.findDeletedSince(ENTITY_TYPE, cursor.getSince(), cursor.getAfterId(), until, PageRequest.of(0, pageSize + 1))
+					.stream()
+						.map(ChangeFeedHelper::<UserDto>deleted)
+						.collect(Collectors.toUnmodifiableList()), 
+				pageSize, cursor);
+	}
+	
 	
 	
 }
@@ -1,6 +1,8 @@
 package com.selimhorri.app.service.impl;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.transaction.Transactional;
@@ -11,6 +13,7 @@ import com.selimhorri.app.dto.VerificationTokenDto;
 import com.selimhorri.app.exception.wrapper.VerificationTokenNotFoundException;
 import com.selimhorri.app.helper.VerificationTokenMappingHelper;
 import com.selimhorri.app.repository.VerificationTokenRepository;
+import com.selimhorri.app.repository.projection.CollectionVersion;
 import com.selimhorri.app.service.VerificationTokenService;
 
 import lombok.RequiredArgsConstructor;
@@ -70,6 +73,18 @@ public class VerificationTokenServiceImpl implements VerificationTokenService {
 		this.verificationTokenRepository.deleteById(verificationTokenId);
 	}
 	
+	@Override
+	public Optional<Instant> findLastModifiedById(final Integer verificationTokenId) {
+		log.info("*** Instant, service; fetch last modification of verification token by id *");
+		return this.verificationTokenRepository.findLastModifiedById(verificationTokenId);
+	}
+	
+	@Override
+	public CollectionVersion findCollectionVersion() {
+		log.info("*** CollectionVersion, service; fetch version of all verification tokens *");
+		return this.verificationTokenRepository.findCollectionVersion();
+	}
+	
 	
 	
 }
@@ -0,0 +1,4 @@
+
+UPDATE users SET updated_at = created_at WHERE updated_at IS NULL;
+
+CREATE INDEX idx_users_updated_at ON users (updated_at, user_id);
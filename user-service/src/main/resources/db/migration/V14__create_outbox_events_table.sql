@@ -0,0 +1,11 @@
+
+CREATE TABLE outbox_events (
+	event_id BIGINT NOT NULL PRIMARY KEY AUTO_INCREMENT,
+	aggregate_type VARCHAR(64) NOT NULL,
+	aggregate_id INT(11) NOT NULL,
+	event_type VARCHAR(16) NOT NULL,
+	created_at TIMESTAMP NOT NULL,
+	published_at TIMESTAMP NULL
+);
+
+CREATE INDEX idx_outbox_events_published_at ON outbox_events (published_at, event_id);
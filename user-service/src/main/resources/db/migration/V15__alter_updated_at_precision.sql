@@ -0,0 +1,6 @@
+
+ALTER TABLE users ALTER COLUMN updated_at TIMESTAMP(6);
+ALTER TABLE address ALTER COLUMN updated_at TIMESTAMP(6);
+ALTER TABLE credentials ALTER COLUMN updated_at TIMESTAMP(6);
+ALTER TABLE verification_tokens ALTER COLUMN updated_at TIMESTAMP(6);
+
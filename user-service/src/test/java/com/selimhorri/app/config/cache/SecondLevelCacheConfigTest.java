@@ -0,0 +1,86 @@
+package com.selimhorri.app.config.cache;
+
+import com.selimhorri.app.domain.Credential;
+import com.selimhorri.app.domain.RoleBasedAuthority;
+import com.selimhorri.app.domain.User;
+import com.selimhorri.app.repository.CredentialRepository;
+import com.selimhorri.app.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:second_level_cache_test;DB_CLOSE_ON_EXIT=FALSE",
+        "app.outbox.relay-interval=3600000"
+})
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CredentialRepository credentialRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByUsername_isServedWithoutRunningTheQueryOnceCached() {
+        saveUser("cached");
+        credentialRepository.findByUsername("cached").orElseThrow();
+
+        final Credential credential = credentialRepository.findByUsername("cached").orElseThrow();
+
+        assertEquals("cached", credential.getUsername());
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertTrue(statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.CREDENTIAL_REGION).getHitCount() > 0);
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", SecondLevelCacheConfig.CREDENTIAL_REGION)
+                .tag("result", "hit")
+                .functionCounter());
+    }
+
+    @Test
+    void findByUsername_seesAWriteOfThisInstanceRightAway() {
+        saveUser("promoted");
+        final Credential credential = credentialRepository.findByUsername("promoted").orElseThrow();
+        credential.setRoleBasedAuthority(RoleBasedAuthority.ROLE_ADMIN);
+        credentialRepository.save(credential);
+
+        assertEquals(RoleBasedAuthority.ROLE_ADMIN, credentialRepository.findByUsername("promoted").orElseThrow().getRoleBasedAuthority());
+    }
+
+    private void saveUser(final String username) {
+        final User user = User.builder().firstName(username).build();
+        user.setCredential(Credential.builder()
+                .username(username)
+                .password("secret")
+                .roleBasedAuthority(RoleBasedAuthority.ROLE_USER)
+                .isEnabled(true)
+                .user(user)
+                .build());
+        userRepository.save(user);
+    }
+}
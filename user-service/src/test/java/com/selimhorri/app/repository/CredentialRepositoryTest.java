@@ -0,0 +1,56 @@
+package com.selimhorri.app.repository;
+
+import com.selimhorri.app.domain.Credential;
+import com.selimhorri.app.domain.RoleBasedAuthority;
+import com.selimhorri.app.domain.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.persistence.EntityManager;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false"
+})
+class CredentialRepositoryTest {
+
+    @Autowired
+    private CredentialRepository credentialRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void findInactiveUsernames_returnsDisabledExpiredAndLockedAccountsOnly() {
+        persist("active-user", true, true, true);
+        persist("disabled-user", false, true, true);
+        persist("locked-user", true, false, true);
+        persist("expired-user", true, true, false);
+        persist("unset-user", null, true, true);
+        entityManager.flush();
+
+        final Set<String> inactive = Set.copyOf(credentialRepository.findInactiveUsernames());
+
+        assertTrue(inactive.containsAll(Set.of("disabled-user", "locked-user", "expired-user", "unset-user")));
+        assertFalse(inactive.contains("active-user"));
+    }
+
+    private void persist(final String username, final Boolean enabled, final Boolean nonLocked, final Boolean nonExpired) {
+        final User user = User.builder().firstName(username).lastName(username).build();
+        user.setCredential(Credential.builder()
+                .username(username)
+                .password("secret")
+                .roleBasedAuthority(RoleBasedAuthority.ROLE_USER)
+                .isEnabled(enabled)
+                .isAccountNonExpired(nonExpired)
+                .isAccountNonLocked(nonLocked)
+                .isCredentialsNonExpired(true)
+                .user(user)
+                .build());
+        entityManager.persist(user);
+    }
+}
@@ -0,0 +1,146 @@
+package com.selimhorri.app.repository;
+
+import com.selimhorri.app.domain.Credential;
+import com.selimhorri.app.domain.RoleBasedAuthority;
+import com.selimhorri.app.domain.User;
+import com.selimhorri.app.dto.UserDto;
+import com.selimhorri.app.helper.UserMappingHelper;
+import com.selimhorri.app.repository.projection.CollectionVersion;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards against the per-user credential SELECT (N+1) coming back on user listings.
+ */
+@DataJpaTest(properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private List<Integer> userIds;
+
+    @BeforeEach
+    void setUp() {
+        userIds = IntStream.rangeClosed(1, 5)
+                .mapToObj(UserRepositoryTest::persistUser)
+                .map(this::persist)
+                .collect(Collectors.toList());
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAll_loadsUsersWithCredentialsInOneStatement() {
+        final List<UserDto> users = map(userRepository.findAll());
+
+        assertEquals(userIds.size(), users.size());
+        assertTrue(users.stream().allMatch(u -> u.getCredentialDto().getUsername() != null));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByUserIdGreaterThan_loadsPageWithCredentialsInOneStatement() {
+        final List<UserDto> users = map(userRepository.findByUserIdGreaterThan(userIds.get(0), PageRequest.of(0, 2, Sort.by("userId"))));
+
+        assertEquals(userIds.subList(1, 3), users.stream().map(UserDto::getUserId).collect(Collectors.toList()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllById_loadsUsersWithCredentialsInOneStatement() {
+        final List<UserDto> users = map(userRepository.findAllById(userIds.subList(0, 3)));
+
+        assertEquals(3, users.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findLastModifiedById_returnsTimestampSetOnPersist() {
+        final Instant lastModified = userRepository.findLastModifiedById(userIds.get(0)).orElseThrow();
+
+        assertEquals(userRepository.findById(userIds.get(0)).orElseThrow().getUpdatedAt(), lastModified);
+        assertTrue(userRepository.findLastModifiedById(-1).isEmpty());
+    }
+
+    @Test
+    void findLastModifiedById_tellsTwoUpdatesInTheSameSecondApart() {
+        final Instant first = update(userIds.get(0), "renamed");
+        final Instant second = update(userIds.get(0), "renamed again");
+
+        assertNotEquals(first, second);
+        assertEquals(second, userRepository.findLastModifiedById(userIds.get(0)).orElseThrow());
+    }
+
+    @Test
+    void findCollectionVersion_countsRowsAndTracksLatestChange() {
+        final CollectionVersion version = userRepository.findCollectionVersion();
+
+        assertEquals(userRepository.count(), version.getCount());
+        for (final Integer userId : userIds) {
+            assertFalse(version.getLastModified().isBefore(userRepository.findLastModifiedById(userId).orElseThrow()));
+        }
+    }
+
+    private static User persistUser(final int i) {
+        final User user = User.builder().firstName("first" + i).lastName("last" + i).build();
+        user.setCredential(Credential.builder()
+                .username("user" + i)
+                .password("secret")
+                .roleBasedAuthority(RoleBasedAuthority.ROLE_USER)
+                .isEnabled(true)
+                .user(user)
+                .build());
+        return user;
+    }
+
+    private Integer persist(final User user) {
+        entityManager.persist(user);
+        return user.getUserId();
+    }
+
+    private Instant update(final Integer userId, final String firstName) {
+        final User user = userRepository.findById(userId).orElseThrow();
+        user.setFirstName(firstName);
+        entityManager.flush();
+        entityManager.clear();
+        // updated_at must come back exactly as written, sub-second digits included
+        assertEquals(user.getUpdatedAt(), userRepository.findLastModifiedById(userId).orElseThrow());
+        return user.getUpdatedAt();
+    }
+
+    private static List<UserDto> map(final List<User> users) {
+        return users.stream()
+                .map(UserMappingHelper::map)
+                .collect(Collectors.toList());
+    }
+}
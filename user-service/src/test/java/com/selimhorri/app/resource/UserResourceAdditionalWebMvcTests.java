@@ -13,6 +13,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -53,6 +55,14 @@ class UserResourceAdditionalWebMvcTests {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getUsersByIds_returnsOk() throws Exception {
+        BDDMockito.given(userService.findAllByIds(List.of(1, 2))).willReturn(List.of(sampleUser()));
+        mockMvc.perform(get("/api/users").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.collection[0].userId").value(1));
+    }
+
     @Test
     void getUserById_withBlank_returnsBadRequest() throws Exception {
         mockMvc.perform(get("/api/users/{id}", " "))